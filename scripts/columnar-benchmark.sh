@@ -0,0 +1,77 @@
+#!/usr/bin/env bash
+# Compares the database and the columnar engine for GET /api/github/repositories on a synthetic
+# dataset in the docker-compose database. Reports the "db" Server-Timing stage, which covers the
+# query (and, for the engine, the in-memory scan) but not JSON serialization.
+# Synthetic rows use github_repo_id >= 9e15, bypass ingest and are deleted on exit.
+# Usage: scripts/columnar-benchmark.sh [rows] [runs]   e.g. 1000000 or 10000000 (needs a large heap)
+set -euo pipefail
+cd "$(dirname "$0")/.."
+
+ROWS=${1:-1000000}
+RUNS=${2:-20}
+PORT=${PORT:-8080}
+HEAP=${HEAP:-8g}
+JAR=build/libs/githubsearch-0.0.1-SNAPSHOT.jar
+LOG=build/columnar-benchmark.log
+[ -f .env ] && set -a && . ./.env && set +a
+PSQL=(docker exec -i githubsearch-postgres psql -U "$POSTGRES_USER" -d "$POSTGRES_DB" -qAtX)
+BASE_ID=9000000000000000
+PID=
+
+cleanup() {
+  [ -n "$PID" ] && kill "$PID" 2>/dev/null || true
+  "${PSQL[@]}" -c "DELETE FROM github_repository WHERE github_repo_id >= $BASE_ID" >/dev/null
+}
+trap cleanup EXIT
+
+[ -f "$JAR" ] || { echo "Build the jar first: ./gradlew bootJar"; exit 1; }
+
+echo "Seeding $ROWS synthetic repositories..."
+"${PSQL[@]}" <<SQL
+INSERT INTO github_repository (github_repo_id, repo_name, owner_name, description,
+                               programming_language, stars_count, forks_count,
+                               git_repo_last_updated_date)
+SELECT $BASE_ID + g,
+       'repo-' || substr(md5(g::text), 1, 10),
+       'owner-' || (g % 50000),
+       'Synthetic repository ' || g,
+       (ARRAY['Java','JavaScript','Go','Rust','Python','Ruby','C','Kotlin'])[1 + g % 8],
+       (random() * 100000)::int,
+       (random() * 10000)::int,
+       now() - (random() * interval '3650 days')
+FROM generate_series(1, $ROWS) g;
+ANALYZE github_repository;
+SQL
+
+# Prints the p50 and p95 of the "db" stage for one query string.
+measure() {
+  local params=$1 times
+  times=$(for _ in $(seq "$RUNS"); do
+    curl -s -o /dev/null -D - "http://localhost:$PORT/api/github/repositories?fields=id&$params" |
+      sed -n 's/^Server-Timing:.*db;dur=\([0-9.]*\).*/\1/p'
+  done | sort -n)
+  printf '  %-36s p50 %9s ms   p95 %9s ms\n' "$params" \
+    "$(echo "$times" | awk -v n="$RUNS" 'NR == int((n + 1) / 2)')" \
+    "$(echo "$times" | awk -v n="$RUNS" 'NR == int(n * 0.95 + 0.5)')"
+}
+
+for enabled in false true; do
+  # The "test" profile turns off the per-IP rate limiter (10 requests per minute)
+  java -Xmx"$HEAP" -jar "$JAR" --server.port="$PORT" --repository.columnar.enabled="$enabled" \
+    --spring.profiles.active=test --logging.level.com.ajinz.githubsearch=INFO >"$LOG" 2>&1 &
+  PID=$!
+  if [ "$enabled" = true ]; then
+    until grep -q "into the columnar engine" "$LOG"; do sleep 1; done
+    grep -o "Loaded .* ms" "$LOG"
+  else
+    until curl -sf -o /dev/null "http://localhost:$PORT/api/github/health"; do sleep 1; done
+  fi
+  echo "columnar.enabled=$enabled ($ROWS rows, $RUNS runs)"
+  measure "sort=stars"
+  measure "language=Rust&sort=forks"
+  measure "language=Go&minStars=99000&sort=updated"
+  measure "minStars=50000&sort=name"
+  kill "$PID"
+  wait "$PID" 2>/dev/null || true
+  PID=
+done
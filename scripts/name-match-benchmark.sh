@@ -0,0 +1,58 @@
+#!/usr/bin/env bash
+# Measures the trigram name-match query on a synthetic dataset in the docker-compose database.
+# Synthetic rows use github_repo_id >= 9e15, bypass ingest (so aggregate reconciliation may report
+# drift while the benchmark runs) and are deleted on exit.
+# Usage: scripts/name-match-benchmark.sh [rows] [runs]   (reads POSTGRES_USER/POSTGRES_DB from .env)
+set -euo pipefail
+cd "$(dirname "$0")/.."
+
+ROWS=${1:-1000000}
+RUNS=${2:-20}
+[ -f .env ] && set -a && . ./.env && set +a
+PSQL=(docker exec -i githubsearch-postgres psql -U "$POSTGRES_USER" -d "$POSTGRES_DB" -qAtX)
+BASE_ID=9000000000000000
+
+cleanup() {
+  "${PSQL[@]}" -c "DELETE FROM github_repository WHERE github_repo_id >= $BASE_ID" >/dev/null
+}
+trap cleanup EXIT
+
+echo "Seeding $ROWS synthetic repositories..."
+"${PSQL[@]}" <<SQL
+INSERT INTO github_repository (github_repo_id, repo_name, owner_name, description,
+                               programming_language, stars_count, forks_count)
+SELECT $BASE_ID + g,
+       (ARRAY['spring','react','kube','rust','vue','torch','django','rails'])[1 + g % 8]
+           || '-' || substr(md5(g::text), 1, 6) || '-' || (g % 997),
+       'owner-' || substr(md5((g % 50000)::text), 1, 8),
+       'Synthetic repository ' || g,
+       (ARRAY['Java','JavaScript','Go','Rust','Python','Ruby'])[1 + g % 6],
+       (random() * 100000)::int,
+       (random() * 1000)::int
+FROM generate_series(1, $ROWS) g;
+ANALYZE github_repository;
+SQL
+
+# Same statement as LocalSearchService#matchNames
+query() {
+  local q=$1 prefix="$1%"
+  cat <<SQL
+EXPLAIN (ANALYZE, FORMAT TEXT)
+SELECT github_repo_id, repo_name, owner_name, programming_language, stars_count,
+  CASE WHEN LOWER(repo_name) LIKE '$prefix' OR LOWER(owner_name) LIKE '$prefix' THEN 1.0
+  ELSE GREATEST(similarity(LOWER(repo_name), '$q'), similarity(LOWER(owner_name), '$q')) END AS score
+FROM github_repository
+WHERE LOWER(repo_name) LIKE '$prefix' OR LOWER(owner_name) LIKE '$prefix'
+   OR LOWER(repo_name) % '$q' OR LOWER(owner_name) % '$q'
+ORDER BY score DESC, stars_count DESC, id DESC LIMIT 10;
+SQL
+}
+
+for q in spring-3f2 sprnig-boot owner-c4ca reakt-a87; do
+  times=$(for _ in $(seq "$RUNS"); do
+    query "$q" | "${PSQL[@]}" | sed -n 's/^Execution Time: \([0-9.]*\) ms$/\1/p'
+  done | sort -n)
+  p50=$(echo "$times" | awk -v n="$RUNS" 'NR == int((n + 1) / 2)')
+  p95=$(echo "$times" | awk -v n="$RUNS" 'NR == int(n * 0.95 + 0.5)')
+  printf '%-14s p50 %8s ms   p95 %8s ms   (%d runs, %d rows)\n' "$q" "$p50" "$p95" "$RUNS" "$ROWS"
+done
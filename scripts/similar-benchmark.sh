@@ -0,0 +1,80 @@
+#!/usr/bin/env bash
+# Measures GET /api/github/repositories/{id}/similar on a synthetic dataset in the docker-compose
+# database: latency p50/p95 (curl total time) and recall of planted near-duplicates.
+# Every repository has ten random words as its description; the first CLUSTERS of them get a
+# sibling with two words dropped and two added (Jaccard similarity about 0.7). Recall is the
+# fraction of sampled lookups whose planted sibling is among the results.
+# Synthetic rows use github_repo_id >= 9e15, bypass ingest and are deleted on exit. Their MinHash
+# signatures are backfilled by the similarity index build at startup. SimilarityIndexBenchmark
+# (./gradlew similarBenchmark) measures the index alone on the same dataset, without the database.
+# Usage: scripts/similar-benchmark.sh [rows] [queries]   e.g. 1000000 or 5000000 (needs a large heap)
+set -euo pipefail
+cd "$(dirname "$0")/.."
+
+ROWS=${1:-1000000}
+QUERIES=${2:-200}
+CLUSTERS=${CLUSTERS:-10000}
+PORT=${PORT:-8080}
+HEAP=${HEAP:-8g}
+JAR=build/libs/githubsearch-0.0.1-SNAPSHOT.jar
+LOG=build/similar-benchmark.log
+[ -f .env ] && set -a && . ./.env && set +a
+PSQL=(docker exec -i githubsearch-postgres psql -U "$POSTGRES_USER" -d "$POSTGRES_DB" -qAtX)
+BASE_ID=9000000000000000
+SIBLING_ID=$((BASE_ID + ROWS))
+PID=
+
+cleanup() {
+  [ -n "$PID" ] && kill "$PID" 2>/dev/null || true
+  "${PSQL[@]}" -c "DELETE FROM github_repository WHERE github_repo_id >= $BASE_ID" >/dev/null
+}
+trap cleanup EXIT
+
+[ -f "$JAR" ] || { echo "Build the jar first: ./gradlew bootJar"; exit 1; }
+
+echo "Seeding $ROWS synthetic repositories and $CLUSTERS near-duplicates..."
+"${PSQL[@]}" <<SQL
+INSERT INTO github_repository (github_repo_id, repo_name, owner_name, description,
+                               programming_language, stars_count, forks_count)
+SELECT $BASE_ID + g,
+       'repo-' || substr(md5(g::text), 1, 10),
+       'owner-' || (g % 50000),
+       (SELECT string_agg('w' || (random() * 50000)::int, ' ')
+          FROM generate_series(1, 10) WHERE g > 0),
+       (ARRAY['Java','JavaScript','Go','Rust','Python','Ruby','C','Kotlin'])[1 + g % 8],
+       (random() * 100000)::int,
+       (random() * 10000)::int
+FROM generate_series(1, $ROWS) g;
+INSERT INTO github_repository (github_repo_id, repo_name, owner_name, description,
+                               programming_language, stars_count, forks_count)
+SELECT github_repo_id - $BASE_ID + $SIBLING_ID, repo_name, 'fork-' || owner_name,
+       regexp_replace(description, '^\S+ \S+ ', '') || ' forked variant',
+       programming_language, stars_count, forks_count
+FROM github_repository
+WHERE github_repo_id BETWEEN $BASE_ID + 1 AND $BASE_ID + $CLUSTERS;
+ANALYZE github_repository;
+SQL
+
+# The "test" profile turns off the per-IP rate limiter (10 requests per minute)
+java -Xmx"$HEAP" -jar "$JAR" --server.port="$PORT" \
+  --similar.max-entries=$((ROWS + CLUSTERS)) --spring.profiles.active=test \
+  --logging.level.com.ajinz.githubsearch=INFO >"$LOG" 2>&1 &
+PID=$!
+until grep -q "Rebuilt similarity index" "$LOG"; do sleep 1; done
+grep -o "Rebuilt similarity index .* ms" "$LOG"
+
+# One line per lookup: 1 if the planted sibling was returned, then the latency in seconds
+results=$(for i in $(shuf -i 1-"$CLUSTERS" -n "$QUERIES"); do
+  body=$(curl -s -w '\n%{time_total}' \
+    "http://localhost:$PORT/api/github/repositories/$((BASE_ID + i))/similar?limit=10")
+  hit=0
+  echo "$body" | head -n -1 | grep -q "\"id\":$((SIBLING_ID + i))[,}]" && hit=1
+  echo "$hit $(echo "$body" | tail -n 1)"
+done)
+times=$(echo "$results" | awk '{ print $2 * 1000 }' | sort -n)
+
+echo "similar ($ROWS rows, $QUERIES lookups)"
+printf '  latency p50 %9s ms   p95 %9s ms\n' \
+  "$(echo "$times" | awk -v n="$QUERIES" 'NR == int((n + 1) / 2)')" \
+  "$(echo "$times" | awk -v n="$QUERIES" 'NR == int(n * 0.95 + 0.5)')"
+echo "  recall $(echo "$results" | awk '{ s += $1 } END { print s }')/$QUERIES"
@@ -0,0 +1,63 @@
+#!/usr/bin/env bash
+# Reports time-to-first-successful-request for each startup mode that has been built:
+#   jvm      ./gradlew bootJar
+#   aot      ./gradlew bootJar                (AOT code is part of the jar)
+#   aot+cds  ./gradlew cdsArchive             (needs the database)
+#   native   ./gradlew nativeCompile          (needs GraalVM)
+# The database must be running. Usage: scripts/startup-benchmark.sh [runs]
+set -euo pipefail
+cd "$(dirname "$0")/.."
+
+RUNS=${1:-5}
+PORT=${PORT:-8080}
+URL="http://localhost:${PORT}/api/github/health"
+JAR=build/libs/githubsearch-0.0.1-SNAPSHOT.jar
+CDS_DIR=build/cds
+NATIVE=build/native/nativeCompile/githubsearch
+
+now_ms() { echo $(($(date +%s%N) / 1000000)); }
+
+# Starts the command, polls until the first 200 and prints the elapsed milliseconds.
+first_request_ms() {
+  local start pid
+  start=$(now_ms)
+  "$@" --server.port="$PORT" >/dev/null 2>&1 &
+  pid=$!
+  until curl -sf -o /dev/null "$URL"; do
+    if ! kill -0 "$pid" 2>/dev/null; then
+      echo "-1"
+      return
+    fi
+    sleep 0.01
+  done
+  echo $(($(now_ms) - start))
+  kill "$pid"
+  wait "$pid" 2>/dev/null || true
+}
+
+measure() {
+  local mode=$1 total=0 best=999999 ms
+  shift
+  for _ in $(seq "$RUNS"); do
+    ms=$(first_request_ms "$@")
+    if [ "$ms" -lt 0 ]; then
+      printf '%-8s failed to start\n' "$mode"
+      return
+    fi
+    total=$((total + ms))
+    [ "$ms" -lt "$best" ] && best=$ms
+  done
+  printf '%-8s avg %6d ms   best %6d ms   (%d runs)\n' "$mode" $((total / RUNS)) "$best" "$RUNS"
+}
+
+[ -f "$JAR" ] || { echo "Build the jar first: ./gradlew bootJar"; exit 1; }
+
+measure jvm java -jar "$JAR"
+measure aot java -Dspring.aot.enabled=true -jar "$JAR"
+if [ -f "$CDS_DIR/application.jsa" ]; then
+  measure aot+cds java -XX:SharedArchiveFile="$CDS_DIR/application.jsa" -Dspring.aot.enabled=true \
+    -jar "$CDS_DIR/githubsearch-0.0.1-SNAPSHOT.jar"
+fi
+if [ -x "$NATIVE" ]; then
+  measure native "$NATIVE"
+fi
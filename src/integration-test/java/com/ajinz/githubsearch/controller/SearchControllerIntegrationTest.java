@@ -59,6 +59,24 @@ class SearchControllerIntegrationTest {
         .andExpect(content().string("OK"));
   }
 
+  @Test
+  void shouldReportLivenessAndSaturationReadiness() throws Exception {
+    mockMvc
+        .perform(get("/api/github/health/live"))
+        .andExpect(status().isOk())
+        .andExpect(content().string("OK"));
+    mockMvc
+        .perform(get("/api/github/health/ready"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.status").value("READY"))
+        .andExpect(jsonPath("$.checks[?(@.name == 'bulkhead-search')].saturated").value(false))
+        .andExpect(jsonPath("$.details['github-rate-limit-wait-ms']").exists());
+    mockMvc
+        .perform(get("/actuator/health/readiness"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.status").value("UP"));
+  }
+
   @Test
   void shouldSearchRepositoriesWithPostRequest() throws Exception {
     GithubSearchRequest searchRequest =
@@ -111,7 +129,7 @@ class SearchControllerIntegrationTest {
     assertEquals(0, gitHubRepositoryRepository.count(), "Database should be empty initially");
 
     // Act 1: Simulate first search - save initial repositories
-    gitHubRepositoryService.saveAllGitHubRepositories(firstSearchResults);
+    gitHubRepositoryService.persistGitHubRepositories(firstSearchResults).block();
 
     // Assert 1: Verify repositories are persisted to database
     assertEquals(
@@ -127,7 +145,7 @@ class SearchControllerIntegrationTest {
         "Repository with ID 11111 should not exist yet");
 
     // Act 2: Simulate second search with overlapping results
-    gitHubRepositoryService.saveAllGitHubRepositories(secondSearchResults);
+    gitHubRepositoryService.persistGitHubRepositories(secondSearchResults).block();
 
     // Assert 2: Verify only new repository is added (no duplicates)
     assertEquals(
@@ -160,12 +178,12 @@ class SearchControllerIntegrationTest {
   void shouldHandleEmptySearchResultsWithoutAffectingDatabase() {
     // Arrange: Add some existing repositories
     GitHubRepository existingRepo = new GitHubRepository(99999L, "existing-repo", "existing-owner");
-    gitHubRepositoryService.saveAllGitHubRepositories(List.of(existingRepo));
+    gitHubRepositoryService.persistGitHubRepositories(List.of(existingRepo)).block();
 
     assertEquals(1, gitHubRepositoryRepository.count(), "Should have 1 repository initially");
 
     // Act: Save empty results
-    gitHubRepositoryService.saveAllGitHubRepositories(List.of());
+    gitHubRepositoryService.persistGitHubRepositories(List.of()).block();
 
     // Assert: Database count should remain unchanged
     assertEquals(
@@ -199,11 +217,11 @@ class SearchControllerIntegrationTest {
             );
 
     // Act: Save existing repositories first
-    gitHubRepositoryService.saveAllGitHubRepositories(existingRepos);
+    gitHubRepositoryService.persistGitHubRepositories(existingRepos).block();
     assertEquals(3, gitHubRepositoryRepository.count(), "Should have 3 repositories initially");
 
     // Save new batch with duplicates
-    gitHubRepositoryService.saveAllGitHubRepositories(newBatch);
+    gitHubRepositoryService.persistGitHubRepositories(newBatch).block();
 
     // Assert: Only new repositories should be added
     assertEquals(
@@ -227,7 +245,7 @@ class SearchControllerIntegrationTest {
     GitHubRepository repo3 = new GitHubRepository(11111L, "react", "facebook");
 
     List<GitHubRepository> testRepositories = Arrays.asList(repo1, repo2, repo3);
-    gitHubRepositoryService.saveAllGitHubRepositories(testRepositories);
+    gitHubRepositoryService.persistGitHubRepositories(testRepositories).block();
 
     // Act & Assert: Call the API endpoint and verify the response
     mockMvc
@@ -268,7 +286,7 @@ class SearchControllerIntegrationTest {
 
     List<GitHubRepository> allRepositories =
         Arrays.asList(javaRepo1, javaRepo2, pythonRepo, jsRepo);
-    gitHubRepositoryService.saveAllGitHubRepositories(allRepositories);
+    gitHubRepositoryService.persistGitHubRepositories(allRepositories).block();
 
     // Act & Assert: Filter by Java language
     mockMvc
@@ -296,7 +314,7 @@ class SearchControllerIntegrationTest {
 
     List<GitHubRepository> allRepositories =
         Arrays.asList(lowStarRepo, mediumStarRepo, highStarRepo1, highStarRepo2);
-    gitHubRepositoryService.saveAllGitHubRepositories(allRepositories);
+    gitHubRepositoryService.persistGitHubRepositories(allRepositories).block();
 
     // Act & Assert: Filter by minimum 50000 stars
     mockMvc
@@ -326,7 +344,7 @@ class SearchControllerIntegrationTest {
 
     List<GitHubRepository> allRepositories =
         Arrays.asList(javaLowStars, javaHighStars, pythonLowStars, pythonHighStars, jsHighStars);
-    gitHubRepositoryService.saveAllGitHubRepositories(allRepositories);
+    gitHubRepositoryService.persistGitHubRepositories(allRepositories).block();
 
     // Act & Assert: Filter by Python language and minimum 50000 stars
     mockMvc
@@ -353,7 +371,7 @@ class SearchControllerIntegrationTest {
         createTestRepositoryWithDetails(3L, "repo-lowest", "JavaScript", 5000, 2000);
 
     List<GitHubRepository> allRepositories = Arrays.asList(repo1, repo2, repo3);
-    gitHubRepositoryService.saveAllGitHubRepositories(allRepositories);
+    gitHubRepositoryService.persistGitHubRepositories(allRepositories).block();
 
     // Act & Assert: Default sort should be by stars descending
     mockMvc
@@ -379,7 +397,7 @@ class SearchControllerIntegrationTest {
         createTestRepositoryWithDetails(3L, "repo-medium-forks", "JavaScript", 35000, 15000);
 
     List<GitHubRepository> allRepositories = Arrays.asList(repo1, repo2, repo3);
-    gitHubRepositoryService.saveAllGitHubRepositories(allRepositories);
+    gitHubRepositoryService.persistGitHubRepositories(allRepositories).block();
 
     // Act & Assert: Sort by forks descending
     mockMvc
@@ -405,7 +423,7 @@ class SearchControllerIntegrationTest {
         createTestRepositoryWithDetails(3L, "middle-project", "JavaScript", 35000, 12000);
 
     List<GitHubRepository> allRepositories = Arrays.asList(repoZ, repoA, repoM);
-    gitHubRepositoryService.saveAllGitHubRepositories(allRepositories);
+    gitHubRepositoryService.persistGitHubRepositories(allRepositories).block();
 
     // Act & Assert: Sort by name ascending
     mockMvc
@@ -429,7 +447,7 @@ class SearchControllerIntegrationTest {
         createTestRepositoryWithDetails(2L, "python-project", "Python", 2000, 500);
 
     List<GitHubRepository> allRepositories = Arrays.asList(javaRepo, pythonRepo);
-    gitHubRepositoryService.saveAllGitHubRepositories(allRepositories);
+    gitHubRepositoryService.persistGitHubRepositories(allRepositories).block();
 
     // Act & Assert: Filter by non-existent language
     mockMvc
@@ -452,7 +470,7 @@ class SearchControllerIntegrationTest {
         createTestRepositoryWithDetails(3L, "project-three", "JavaScript", 35000, 12000);
 
     List<GitHubRepository> allRepositories = Arrays.asList(repo1, repo2, repo3);
-    gitHubRepositoryService.saveAllGitHubRepositories(allRepositories);
+    gitHubRepositoryService.persistGitHubRepositories(allRepositories).block();
 
     // Act & Assert: No filters should return all repositories
     mockMvc
@@ -479,7 +497,7 @@ class SearchControllerIntegrationTest {
       createTestRepositoryWithDetails(9L, "small-js-tool", "JavaScript", 800, 150)
     };
 
-    gitHubRepositoryService.saveAllGitHubRepositories(Arrays.asList(repositories));
+    gitHubRepositoryService.persistGitHubRepositories(Arrays.asList(repositories)).block();
 
     // Test 1: Filter Java repositories with at least 20000 stars, sorted by stars
     mockMvc
@@ -517,6 +535,79 @@ class SearchControllerIntegrationTest {
         .andExpect(jsonPath("$[1].language").value("JavaScript"));
   }
 
+  @Test
+  @Transactional
+  @Rollback
+  void shouldReturnOnlyRequestedFields() throws Exception {
+    // Arrange
+    GitHubRepository repo1 = createTestRepositoryWithDetails(1L, "low-stars", "Java", 10, 1);
+    GitHubRepository repo2 = createTestRepositoryWithDetails(2L, "high-stars", "Java", 500, 5);
+    gitHubRepositoryService.persistGitHubRepositories(Arrays.asList(repo1, repo2)).block();
+
+    // Act & Assert: projection keeps filtering and ordering of the full listing
+    mockMvc
+        .perform(
+            get("/api/github/repositories")
+                .param("language", "Java")
+                .param("fields", "name,owner,stargazers_count,full_url"))
+        .andExpect(status().isOk())
+        .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+        .andExpect(jsonPath("$.length()").value(2))
+        .andExpect(jsonPath("$[0].name").value("high-stars"))
+        .andExpect(jsonPath("$[0].owner").value("testowner"))
+        .andExpect(jsonPath("$[0].stargazers_count").value(500))
+        .andExpect(jsonPath("$[0].full_url").value("https://github.com/testowner/high-stars"))
+        .andExpect(jsonPath("$[0].description").doesNotExist())
+        .andExpect(jsonPath("$[1].name").value("low-stars"));
+  }
+
+  @Test
+  @Transactional
+  @Rollback
+  void shouldReturnSingleRequestedField() throws Exception {
+    gitHubRepositoryService
+        .persistGitHubRepositories(
+            List.of(createTestRepositoryWithDetails(1L, "only-name", "Go", 1, 1)))
+        .block();
+
+    mockMvc
+        .perform(get("/api/github/repositories").param("fields", "name"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$[0].name").value("only-name"))
+        .andExpect(jsonPath("$[0].id").doesNotExist());
+  }
+
+  @Test
+  @Transactional
+  @Rollback
+  void shouldServeIdenticalJsonFromFragmentCache() throws Exception {
+    gitHubRepositoryService
+        .persistGitHubRepositories(
+            List.of(
+                createTestRepositoryWithDetails(1L, "cached-one", "Java", 20, 2),
+                createTestRepositoryWithDetails(2L, "cached-two", "Java", 10, 1)))
+        .block();
+
+    String first =
+        mockMvc
+            .perform(get("/api/github/repositories"))
+            .andExpect(status().isOk())
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+    String second =
+        mockMvc
+            .perform(get("/api/github/repositories"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[0].name").value("cached-one"))
+            .andExpect(jsonPath("$[0].full_url").value("https://github.com/testowner/cached-one"))
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+
+    assertEquals(first, second);
+  }
+
   @Test
   void shouldHandleInvalidMinStarsParameter() throws Exception {
     // Act & Assert: Invalid minStars parameter should return internal server error
@@ -535,7 +626,7 @@ class SearchControllerIntegrationTest {
         createTestRepositoryWithDetails(2L, "negative-test", "Python", 1000, 200);
 
     List<GitHubRepository> repositories = Arrays.asList(repo1, repo2);
-    gitHubRepositoryService.saveAllGitHubRepositories(repositories);
+    gitHubRepositoryService.persistGitHubRepositories(repositories).block();
 
     // Test 1: Filter with 0 minStars (should include zero-star repo)
     mockMvc
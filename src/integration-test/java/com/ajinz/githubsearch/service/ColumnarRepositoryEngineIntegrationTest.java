@@ -0,0 +1,113 @@
+package com.ajinz.githubsearch.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import com.ajinz.githubsearch.dto.github.GitHubRepository;
+import com.ajinz.githubsearch.repository.GitHubRepositoryRepository;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.web.servlet.MockMvc;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("integrationTest")
+@TestPropertySource(
+    properties = {
+      "spring.datasource.url=jdbc:h2:mem:testdb;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE",
+      "spring.datasource.driver-class-name=org.h2.Driver",
+      "spring.flyway.enabled=true",
+      "spring.jpa.hibernate.ddl-auto=validate",
+      "repository.columnar.enabled=true"
+    })
+@Sql(executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD, scripts = "classpath:cleanup.sql")
+class ColumnarRepositoryEngineIntegrationTest {
+
+  @Autowired private MockMvc mockMvc;
+
+  @Autowired private GitHubRepositoryService gitHubRepositoryService;
+
+  @Autowired private GitHubRepositoryRepository gitHubRepositoryRepository;
+
+  @Autowired private ColumnarRepositoryEngine columnarRepositoryEngine;
+
+  @Test
+  void shouldAnswerLikeTheDatabaseAfterReloadAndRefresh() {
+    // Arrange: half of the rows are loaded, the other half arrive through ingest
+    LocalDateTime now = LocalDateTime.now().withNano(0);
+    gitHubRepositoryService
+        .persistGitHubRepositories(
+            List.of(
+                repository(1L, "spring-boot", "Java", 70000, 40000, now.minusDays(3)),
+                repository(2L, "django", "Python", 80000, 30000, now.minusDays(1)),
+                repository(3L, "hibernate", "Java", 6000, 50000, now.minusDays(2))))
+        .block();
+    columnarRepositoryEngine.reload();
+    gitHubRepositoryService
+        .persistGitHubRepositories(
+            List.of(
+                repository(4L, "flask", "Python", 65000, 16000, now.minusDays(4)),
+                repository(5L, "quarkus", "Java", 14000, 2800, now.minusDays(5))))
+        .block();
+
+    // Act
+    columnarRepositoryEngine.refresh();
+
+    // Assert
+    assertTrue(columnarRepositoryEngine.isReady());
+    for (String sort : List.of("stars", "forks", "updated", "name")) {
+      for (String language : new String[] {null, "Java", "Python", "Rust"}) {
+        for (Integer minStars : new Integer[] {null, 10000}) {
+          assertEquals(
+              ids(gitHubRepositoryRepository.findRepositoriesWithFilters(language, minStars, sort)),
+              ids(columnarRepositoryEngine.query(language, minStars, sort, Integer.MAX_VALUE)),
+              () -> sort + "/" + language + "/" + minStars);
+        }
+      }
+    }
+    assertEquals(
+        ids(gitHubRepositoryRepository.findRepositoriesByScore(null, null)),
+        ids(columnarRepositoryEngine.query(null, null, "score", Integer.MAX_VALUE)));
+  }
+
+  @Test
+  void shouldServeRepositoriesEndpointFromEngine() throws Exception {
+    // Arrange
+    gitHubRepositoryService
+        .persistGitHubRepositories(
+            List.of(
+                repository(1L, "spring-boot", "Java", 70000, 40000, LocalDateTime.now()),
+                repository(2L, "django", "Python", 80000, 30000, LocalDateTime.now())))
+        .block();
+    columnarRepositoryEngine.reload();
+
+    // Act & Assert
+    mockMvc
+        .perform(get("/api/github/repositories").param("language", "Java"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.length()").value(1))
+        .andExpect(jsonPath("$[0].name").value("spring-boot"));
+    mockMvc
+        .perform(get("/api/github/repositories").param("fields", "name"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$[0].name").value("django"))
+        .andExpect(jsonPath("$[1].name").value("spring-boot"));
+  }
+
+  private static List<Long> ids(List<GitHubRepository> repositories) {
+    return repositories.stream().map(GitHubRepository::getGithubRepoId).toList();
+  }
+
+  private static GitHubRepository repository(
+      Long id, String name, String language, int stars, int forks, LocalDateTime updated) {
+    return new GitHubRepository(id, name, "owner", "description", language, stars, forks, updated);
+  }
+}
@@ -0,0 +1,161 @@
+package com.ajinz.githubsearch.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import com.ajinz.githubsearch.dto.github.GitHubRepository;
+import com.ajinz.githubsearch.dto.github.LocalSearchPage;
+import com.ajinz.githubsearch.dto.github.LocalSearchResult;
+import com.ajinz.githubsearch.dto.github.NameMatch;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.web.servlet.MockMvc;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("integrationTest")
+@TestPropertySource(
+    properties = {
+      "spring.datasource.url=jdbc:h2:mem:testdb;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE",
+      "spring.datasource.driver-class-name=org.h2.Driver",
+      "spring.flyway.enabled=true",
+      "spring.jpa.hibernate.ddl-auto=validate"
+    })
+@Sql(executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD, scripts = "classpath:cleanup.sql")
+class LocalSearchServiceIntegrationTest {
+
+  @Autowired private MockMvc mockMvc;
+
+  @Autowired private GitHubRepositoryService gitHubRepositoryService;
+
+  @Autowired private LocalSearchService localSearchService;
+
+  @Test
+  void shouldRankNameMatchesAboveDescriptionMatches() {
+    // Arrange
+    gitHubRepositoryService
+        .persistGitHubRepositories(
+            List.of(
+                repository(1L, "awesome-lists", "octo", "Curated lists about spring", "Java", 50),
+                repository(2L, "spring-boot", "spring-projects", "Java framework", "Java", 70000),
+                repository(3L, "unrelated", "someone", "Nothing to see", "Go", 10)))
+        .block();
+
+    // Act
+    LocalSearchPage page = localSearchService.search("Spring", null, null, 10, null);
+
+    // Assert
+    assertEquals(List.of("spring-boot", "awesome-lists"), names(page.items()));
+    assertNull(page.nextCursor());
+  }
+
+  @Test
+  void shouldApplyLanguageAndMinStarsFilters() {
+    // Arrange
+    gitHubRepositoryService
+        .persistGitHubRepositories(
+            List.of(
+                repository(1L, "spring-boot", "spring-projects", "Framework", "Java", 70000),
+                repository(2L, "spring-go", "someone", "Framework port", "Go", 500),
+                repository(3L, "spring-tiny", "someone", "Framework", "Java", 5)))
+        .block();
+
+    // Act & Assert
+    assertEquals(
+        List.of("spring-boot"),
+        names(localSearchService.search("spring", "Java", 100, 10, null).items()));
+  }
+
+  @Test
+  void shouldWalkAllPagesWithKeysetCursor() {
+    // Arrange: equal ranks, so paging relies on the id tie-breaker
+    List<GitHubRepository> repositories = new ArrayList<>();
+    for (long id = 1; id <= 7; id++) {
+      repositories.add(repository(id, "search-" + id, "owner", "text", "Java", 1));
+    }
+    gitHubRepositoryService.persistGitHubRepositories(repositories).block();
+
+    // Act
+    List<String> seen = new ArrayList<>();
+    String cursor = null;
+    int pages = 0;
+    do {
+      LocalSearchPage page = localSearchService.search("search", null, null, 3, cursor);
+      seen.addAll(names(page.items()));
+      cursor = page.nextCursor();
+      pages++;
+    } while (cursor != null);
+
+    // Assert
+    assertEquals(3, pages);
+    assertEquals(7, seen.size());
+    assertEquals(7, seen.stream().distinct().count());
+  }
+
+  @Test
+  void shouldServeSearchEndpointAndRejectBadCursor() throws Exception {
+    gitHubRepositoryService
+        .persistGitHubRepositories(
+            List.of(repository(1L, "spring-boot", "spring-projects", "Framework", "Java", 70000)))
+        .block();
+
+    mockMvc
+        .perform(get("/api/github/repositories/search").param("q", "boot"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.items[0].name").value("spring-boot"))
+        .andExpect(jsonPath("$.items[0].stargazers_count").value(70000))
+        .andExpect(jsonPath("$.next_cursor").isEmpty());
+
+    mockMvc
+        .perform(
+            get("/api/github/repositories/search").param("q", "boot").param("cursor", "%%%"))
+        .andExpect(status().isBadRequest());
+  }
+
+  @Test
+  void shouldMatchNamesWithTyposAndRankPrefixesByStars() throws Exception {
+    // Arrange
+    gitHubRepositoryService
+        .persistGitHubRepositories(
+            List.of(
+                repository(1L, "spring-boot", "spring-projects", "Framework", "Java", 70000),
+                repository(2L, "springfox", "springfox", "Swagger", "Java", 6000),
+                repository(3L, "kubernetes", "kubernetes", "Orchestration", "Go", 100000)))
+        .block();
+
+    // Act & Assert: a typo still finds the repository
+    assertEquals(
+        List.of("spring-boot"),
+        localSearchService.matchNames("sprnig-boot", 10).stream()
+            .map(NameMatch::name)
+            .toList());
+
+    // Prefix hits rank equally and are then ordered by stars
+    mockMvc
+        .perform(get("/api/github/repositories/match").param("q", "spr"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.length()").value(2))
+        .andExpect(jsonPath("$[0].name").value("spring-boot"))
+        .andExpect(jsonPath("$[0].similarity").value(1.0))
+        .andExpect(jsonPath("$[1].name").value("springfox"));
+  }
+
+  private static List<String> names(List<LocalSearchResult> items) {
+    return items.stream().map(LocalSearchResult::name).toList();
+  }
+
+  private static GitHubRepository repository(
+      Long id, String name, String owner, String description, String language, int stars) {
+    return new GitHubRepository(
+        id, name, owner, description, language, stars, 1, LocalDateTime.now());
+  }
+}
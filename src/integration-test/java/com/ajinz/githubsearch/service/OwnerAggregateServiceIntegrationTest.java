@@ -0,0 +1,130 @@
+package com.ajinz.githubsearch.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import com.ajinz.githubsearch.dto.github.GitHubRepository;
+import com.ajinz.githubsearch.dto.github.OwnerSummary;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.web.servlet.MockMvc;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("integrationTest")
+@TestPropertySource(
+    properties = {
+      "spring.datasource.url=jdbc:h2:mem:testdb;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE",
+      "spring.datasource.driver-class-name=org.h2.Driver",
+      "spring.flyway.enabled=true",
+      "spring.jpa.hibernate.ddl-auto=validate"
+    })
+@Sql(executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD, scripts = "classpath:cleanup.sql")
+class OwnerAggregateServiceIntegrationTest {
+
+  @Autowired private MockMvc mockMvc;
+
+  @Autowired private JdbcTemplate jdbcTemplate;
+
+  @Autowired private GitHubRepositoryService gitHubRepositoryService;
+
+  @Autowired private OwnerAggregateService ownerAggregateService;
+
+  @Test
+  void shouldMaintainOwnerAggregatesIncrementallyOnIngest() throws Exception {
+    // Arrange & Act: two ingests, the second one repeating a repository
+    gitHubRepositoryService
+        .persistGitHubRepositories(
+            List.of(
+                repository(1L, "google", "Go", 500),
+                repository(2L, "google", "Java", 300),
+                repository(3L, "octocat", "Ruby", 800)))
+        .block();
+    gitHubRepositoryService
+        .persistGitHubRepositories(
+            List.of(repository(2L, "google", "Java", 300), repository(4L, "google", "Go", 100)))
+        .block();
+
+    // Assert
+    List<OwnerSummary> byRepos = ownerAggregateService.getOwners("repos", 0, 10);
+    assertEquals(new OwnerSummary("google", 3, 900, 3, List.of("Go", "Java")), byRepos.get(0));
+    assertEquals(new OwnerSummary("octocat", 1, 800, 1, List.of("Ruby")), byRepos.get(1));
+    assertEquals(0, ownerAggregateService.reconcile());
+
+    mockMvc
+        .perform(get("/api/github/owners").param("size", "1").param("page", "1"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.length()").value(1))
+        .andExpect(jsonPath("$[0].name").value("octocat"))
+        .andExpect(jsonPath("$[0].total_stars").value(800));
+    mockMvc
+        .perform(get("/api/github/owners/google/repositories").param("size", "2"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.length()").value(2))
+        .andExpect(jsonPath("$[0].stargazers_count").value(500))
+        .andExpect(jsonPath("$[1].stargazers_count").value(300));
+    mockMvc.perform(get("/api/github/owners/nobody/repositories")).andExpect(status().isNotFound());
+    mockMvc
+        .perform(get("/api/github/owners").param("sort", "name"))
+        .andExpect(status().isBadRequest());
+  }
+
+  @Test
+  void reconcile_ShouldDetectAndCorrectDrift() {
+    // Arrange: totals and languages changed behind the service's back
+    gitHubRepositoryService
+        .persistGitHubRepositories(
+            List.of(repository(1L, "rust-lang", "Rust", 100), repository(2L, "golang", "Go", 200)))
+        .block();
+    jdbcTemplate.update("UPDATE github_owner SET repo_count = 7 WHERE owner_name = 'rust-lang'");
+    jdbcTemplate.update(
+        "INSERT INTO github_repository (github_repo_id, repo_name, owner_name, "
+            + "programming_language, stars_count) VALUES (3, 'tools', 'golang', 'Go', 50)");
+
+    // Act & Assert: rows are recounted one run after they appear, once their deltas have landed
+    assertEquals(0, ownerAggregateService.reconcile());
+    assertEquals(2, ownerAggregateService.reconcile());
+    assertEquals(0, ownerAggregateService.reconcile());
+
+    List<OwnerSummary> owners = ownerAggregateService.getOwners("stars", 0, 10);
+    assertEquals(new OwnerSummary("golang", 2, 250, 1, List.of("Go")), owners.get(0));
+    assertEquals(new OwnerSummary("rust-lang", 1, 100, 1, List.of("Rust")), owners.get(1));
+  }
+
+  @Test
+  void reconcile_ShouldOnlyRecountOwnersOfRepositoriesStoredSinceThePreviousRuns() {
+    // Arrange: both owners settled, then one drifts without new repositories
+    gitHubRepositoryService
+        .persistGitHubRepositories(
+            List.of(repository(1L, "rust-lang", "Rust", 100), repository(2L, "golang", "Go", 200)))
+        .block();
+    ownerAggregateService.reconcile();
+    ownerAggregateService.reconcile();
+    jdbcTemplate.update("UPDATE github_owner SET repo_count = 7 WHERE owner_name = 'rust-lang'");
+
+    // Act & Assert: only golang stored something new, so rust-lang is not looked at
+    gitHubRepositoryService
+        .persistGitHubRepositories(List.of(repository(3L, "golang", "Go", 50)))
+        .block();
+    ownerAggregateService.reconcile();
+    assertEquals(0, ownerAggregateService.reconcile());
+    assertEquals(
+        7,
+        jdbcTemplate.queryForObject(
+            "SELECT repo_count FROM github_owner WHERE owner_name = 'rust-lang'", Long.class));
+  }
+
+  private static GitHubRepository repository(Long id, String owner, String language, int stars) {
+    return new GitHubRepository(
+        id, "repo-" + id, owner, "description", language, stars, 1, LocalDateTime.now());
+  }
+}
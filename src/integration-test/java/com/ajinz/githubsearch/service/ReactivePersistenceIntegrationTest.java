@@ -0,0 +1,96 @@
+package com.ajinz.githubsearch.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.ajinz.githubsearch.dto.github.GitHubRepository;
+import com.ajinz.githubsearch.repository.GitHubRepositoryRepository;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.jdbc.Sql;
+import reactor.test.StepVerifier;
+
+@SpringBootTest
+@ActiveProfiles("integrationTest")
+@TestPropertySource(
+    properties = {
+      "spring.datasource.url=jdbc:h2:mem:testdb;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE",
+      "spring.datasource.driver-class-name=org.h2.Driver",
+      "spring.flyway.enabled=true",
+      "spring.jpa.hibernate.ddl-auto=validate"
+    })
+@Sql(executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD, scripts = "classpath:cleanup.sql")
+class ReactivePersistenceIntegrationTest {
+
+  @Autowired private GitHubRepositoryService gitHubRepositoryService;
+
+  @Autowired private GitHubRepositoryRepository gitHubRepositoryRepository;
+
+  @Autowired private JdbcTemplate jdbcTemplate;
+
+  @Test
+  void persistGitHubRepositories_ShouldInsertOnlyRepositoriesNotStoredYet() {
+    // Arrange: one row stored through JPA, one new row repeated within the batch
+    gitHubRepositoryService
+        .persistGitHubRepositories(
+            List.of(repository(1L, "spring-boot", "Java", 70000)))
+        .block();
+    GitHubRepository newRepo = repository(2L, "django", "Python", 80000);
+
+    // Act
+    StepVerifier.create(
+            gitHubRepositoryService
+                .persistGitHubRepositories(
+                    List.of(repository(1L, "spring-boot", "Java", 71000), newRepo, newRepo)))
+            .verifyComplete();
+
+        // Assert
+        assertEquals(2, gitHubRepositoryRepository.count());
+        assertEquals(
+            70000, gitHubRepositoryRepository.findByGithubRepoId(1L).orElseThrow().getStarsCount());
+        GitHubRepository stored = gitHubRepositoryRepository.findByGithubRepoId(2L).orElseThrow();
+        assertEquals(stored.getDatabaseId(), newRepo.getDatabaseId());
+        assertEquals(0L, stored.getRowVersion());
+        assertEquals(
+            1,
+            jdbcTemplate.queryForObject(
+                "SELECT repo_count FROM github_language_stats WHERE programming_language = 'Python'",
+                Integer.class));
+      }
+
+      @Test
+      void streamFilteredRepositories_ShouldEmitRowsInOrderAsTheyAreRequested() {
+        // Arrange
+        gitHubRepositoryService.persistGitHubRepositories(
+            List.of(
+                repository(1L, "spring-boot", "Java", 70000),
+                repository(2L, "guava", "Java", 50000),
+                repository(3L, "django", "Python", 80000),
+                repository(4L, "junit5", "Java", 6000)))
+                .block();
+
+    // Act & Assert: one row per request, filtered and sorted like GET /repositories
+    StepVerifier.create(
+            gitHubRepositoryService.streamFilteredRepositories("Java", 10000, "stars"), 1)
+        .assertNext(repository -> assertEquals("spring-boot", repository.getRepoName()))
+        .thenRequest(1)
+        .assertNext(
+            repository -> {
+              assertEquals("guava", repository.getRepoName());
+              assertNotNull(repository.getDatabaseId());
+              assertNotNull(repository.getCreatedAt());
+            })
+        .thenRequest(1)
+        .verifyComplete();
+  }
+
+  private static GitHubRepository repository(Long id, String name, String language, int stars) {
+    return new GitHubRepository(
+        id, name, "owner", "description", language, stars, 100, LocalDateTime.now());
+  }
+}
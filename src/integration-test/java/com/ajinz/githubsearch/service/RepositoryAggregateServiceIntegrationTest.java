@@ -0,0 +1,133 @@
+package com.ajinz.githubsearch.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import com.ajinz.githubsearch.dto.github.GitHubRepository;
+import com.ajinz.githubsearch.dto.github.RepositoryAggregates;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.web.servlet.MockMvc;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("integrationTest")
+@TestPropertySource(
+    properties = {
+      "spring.datasource.url=jdbc:h2:mem:testdb;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE",
+      "spring.datasource.driver-class-name=org.h2.Driver",
+      "spring.flyway.enabled=true",
+      "spring.jpa.hibernate.ddl-auto=validate"
+    })
+@Sql(executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD, scripts = "classpath:cleanup.sql")
+class RepositoryAggregateServiceIntegrationTest {
+
+  @Autowired private MockMvc mockMvc;
+
+  @Autowired private JdbcTemplate jdbcTemplate;
+
+  @Autowired private GitHubRepositoryService gitHubRepositoryService;
+
+  @Autowired private RepositoryAggregateService repositoryAggregateService;
+
+  @Test
+  void shouldMaintainAggregatesIncrementallyOnIngest() throws Exception {
+    // Arrange & Act: two ingests, the second one repeating a repository
+    gitHubRepositoryService
+        .persistGitHubRepositories(
+            List.of(repository(1L, "Java", 100, 10), repository(2L, "Java", 300, 30)))
+        .block();
+    gitHubRepositoryService
+        .persistGitHubRepositories(
+            List.of(repository(2L, "Java", 300, 30), repository(3L, null, 5, 0)))
+        .block();
+
+    // Assert
+    RepositoryAggregates aggregates = repositoryAggregateService.getAggregates();
+    assertEquals(3, aggregates.totalCount());
+    assertEquals(2, aggregates.languages().size());
+
+    RepositoryAggregates.LanguageAggregate java = aggregates.languages().get(0);
+    assertEquals("Java", java.language());
+    assertEquals(2, java.count());
+    assertEquals(400, java.totalStars());
+    assertEquals(40, java.totalForks());
+    assertNull(aggregates.languages().get(1).language());
+    assertEquals(0, repositoryAggregateService.reconcile());
+
+    mockMvc
+        .perform(get("/api/github/repositories/aggregates"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.total_count").value(3))
+        .andExpect(jsonPath("$.languages[0].language").value("Java"))
+        .andExpect(jsonPath("$.languages[0].stars.histogram.length()").value(2));
+  }
+
+  @Test
+  void reconcile_ShouldDetectAndCorrectDrift() {
+    // Arrange: counts changed behind the service's back, and a row stored without its delta
+    gitHubRepositoryService
+        .persistGitHubRepositories(
+            List.of(repository(1L, "Go", 100, 10), repository(2L, "Rust", 200, 20)))
+        .block();
+    jdbcTemplate.update(
+        "UPDATE github_language_stats SET repo_count = 7 WHERE programming_language = 'Go'");
+    jdbcTemplate.update("DELETE FROM github_language_histogram WHERE programming_language = 'Rust'");
+    jdbcTemplate.update(
+        "INSERT INTO github_repository (github_repo_id, repo_name, owner_name, stars_count, "
+            + "forks_count) VALUES (3, 'plain', 'owner', 0, 0)");
+
+    // Act & Assert: rows are recounted one run after they appear, once their deltas have landed.
+    // Go's stats row, Rust's stars and forks buckets, and the stats row and two buckets of ''
+    assertEquals(0, repositoryAggregateService.reconcile());
+    assertEquals(6, repositoryAggregateService.reconcile());
+    assertEquals(0, repositoryAggregateService.reconcile());
+
+    RepositoryAggregates aggregates = repositoryAggregateService.getAggregates();
+    assertEquals(3, aggregates.totalCount());
+    assertEquals(3, aggregates.languages().size());
+    for (RepositoryAggregates.LanguageAggregate language : aggregates.languages()) {
+      assertEquals(1, language.count());
+      assertEquals(1, language.stars().histogram().size());
+    }
+  }
+
+  @Test
+  void reconcile_ShouldOnlyRecountLanguagesOfRepositoriesStoredSinceThePreviousRuns() {
+    // Arrange: both languages settled, then one drifts without new repositories
+    gitHubRepositoryService
+        .persistGitHubRepositories(
+            List.of(repository(1L, "Go", 100, 10), repository(2L, "Rust", 200, 20)))
+        .block();
+    repositoryAggregateService.reconcile();
+    repositoryAggregateService.reconcile();
+    jdbcTemplate.update(
+        "UPDATE github_language_stats SET repo_count = 7 WHERE programming_language = 'Rust'");
+
+    // Act & Assert: only Go stored something new, so Rust is not looked at
+    gitHubRepositoryService
+        .persistGitHubRepositories(List.of(repository(3L, "Go", 50, 5)))
+        .block();
+    repositoryAggregateService.reconcile();
+    assertEquals(0, repositoryAggregateService.reconcile());
+    assertEquals(
+        7,
+        jdbcTemplate.queryForObject(
+            "SELECT repo_count FROM github_language_stats WHERE programming_language = 'Rust'",
+            Long.class));
+  }
+
+  private static GitHubRepository repository(Long id, String language, int stars, int forks) {
+    return new GitHubRepository(
+        id, "repo-" + id, "owner", "description", language, stars, forks, LocalDateTime.now());
+  }
+}
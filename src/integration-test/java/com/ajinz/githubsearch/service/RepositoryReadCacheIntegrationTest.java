@@ -0,0 +1,154 @@
+package com.ajinz.githubsearch.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import com.ajinz.githubsearch.dto.github.GitHubRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.web.servlet.MockMvc;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("integrationTest")
+@TestPropertySource(
+    properties = {
+      "spring.datasource.url=jdbc:h2:mem:testdb;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE",
+      "spring.datasource.driver-class-name=org.h2.Driver",
+      "spring.flyway.enabled=true",
+      "spring.jpa.hibernate.ddl-auto=validate",
+      "repository.read-cache.enabled=true",
+      "repository.columnar.enabled=true",
+      "repository.columnar.refresh-interval-ms=3600000"
+    })
+@Sql(executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD, scripts = "classpath:cleanup.sql")
+class RepositoryReadCacheIntegrationTest {
+
+  @Autowired private MockMvc mockMvc;
+
+  @Autowired private GitHubRepositoryService gitHubRepositoryService;
+
+  @Autowired private RepositoryReadCache repositoryReadCache;
+
+  @Autowired private ColumnarRepositoryEngine columnarRepositoryEngine;
+
+  @Autowired private MeterRegistry meterRegistry;
+
+  @BeforeEach
+  void resetCache() {
+    // cleanup.sql deleted rows without going through the service
+    columnarRepositoryEngine.reload();
+    repositoryReadCache.invalidateAll();
+  }
+
+  @Test
+  void shouldServeRepeatedQueriesFromCache() throws Exception {
+    // Arrange
+    gitHubRepositoryService.persistGitHubRepositories(List.of(repository(1L, "Java", 100))).block();
+    double hitsBefore = requests("hit");
+    double missesBefore = requests("miss");
+
+    // Act
+    for (int i = 0; i < 10; i++) {
+      mockMvc
+          .perform(get("/api/github/repositories").param("language", "Java"))
+          .andExpect(status().isOk())
+          .andExpect(jsonPath("$.length()").value(1));
+    }
+
+    // Assert: 9 of 10 identical requests are hits
+    assertEquals(9, requests("hit") - hitsBefore);
+    assertEquals(1, requests("miss") - missesBefore);
+  }
+
+  @Test
+  void shouldServeIngestedRowsRightAwayWithColumnarEngineAndCache() throws Exception {
+    // Arrange: a cached result computed from the columnar snapshot
+    gitHubRepositoryService.persistGitHubRepositories(List.of(repository(1L, "Go", 100))).block();
+    assertTrue(columnarRepositoryEngine.isReady());
+    assertEquals(1, gitHubRepositoryService.getFilteredRepositories("Go", null, "stars").size());
+
+    // Act
+    gitHubRepositoryService.persistGitHubRepositories(List.of(repository(2L, "Go", 200))).block();
+
+    // Assert: no refresh has run, yet the next read includes the new row
+    assertEquals(2, gitHubRepositoryService.getFilteredRepositories("Go", null, "stars").size());
+    mockMvc
+        .perform(get("/api/github/repositories").param("language", "Go"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.length()").value(2))
+        .andExpect(jsonPath("$[0].name").value("repo-2"));
+  }
+
+  @Test
+  void shouldNeverServeResultsOlderThanACompletedBulkIngest() throws Exception {
+    // Arrange: readers keep the cache busy while batches are ingested
+    AtomicBoolean running = new AtomicBoolean(true);
+    ExecutorService readers = Executors.newFixedThreadPool(4);
+    List<Future<?>> futures = new ArrayList<>();
+    for (int i = 0; i < 4; i++) {
+      futures.add(
+          readers.submit(
+              () -> {
+                while (running.get()) {
+                  gitHubRepositoryService.getFilteredRepositories("Java", null, "stars");
+                }
+              }));
+    }
+
+    try {
+      // Act & Assert: once a batch is stored, every read includes it
+      for (int batch = 0; batch < 20; batch++) {
+        List<GitHubRepository> repositories = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+          repositories.add(repository(batch * 25L + i + 1, "Java", i));
+        }
+        gitHubRepositoryService.persistGitHubRepositories(repositories).block();
+
+        assertEquals(
+            (batch + 1) * 25,
+            gitHubRepositoryService.getFilteredRepositories("Java", null, "stars").size());
+      }
+    } finally {
+      running.set(false);
+      readers.shutdown();
+      assertTrue(readers.awaitTermination(10, TimeUnit.SECONDS));
+    }
+    for (Future<?> future : futures) {
+      future.get();
+    }
+
+    mockMvc
+        .perform(get("/api/github/repositories").param("language", "Java"))
+        .andExpect(jsonPath("$.length()").value(500));
+  }
+
+  private double requests(String result) {
+    return meterRegistry
+        .get("github.read_cache.requests")
+        .tags("cache", "query", "result", result)
+        .counter()
+        .count();
+  }
+
+  private static GitHubRepository repository(Long id, String language, int stars) {
+    return new GitHubRepository(
+        id, "repo-" + id, "owner", "description", language, stars, 1, LocalDateTime.now());
+  }
+}
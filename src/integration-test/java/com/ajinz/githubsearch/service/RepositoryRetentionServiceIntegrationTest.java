@@ -0,0 +1,132 @@
+package com.ajinz.githubsearch.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.ajinz.githubsearch.dto.github.GitHubRepository;
+import com.ajinz.githubsearch.dto.github.Suggestion;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.jdbc.Sql;
+
+@SpringBootTest
+@ActiveProfiles("integrationTest")
+@TestPropertySource(
+    properties = {
+      "spring.datasource.url=jdbc:h2:mem:testdb;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE",
+      "spring.datasource.driver-class-name=org.h2.Driver",
+      "spring.flyway.enabled=true",
+      "spring.jpa.hibernate.ddl-auto=validate",
+      "retention.enabled=true",
+      "retention.mode=archive",
+      "retention.max-unseen-days=30",
+      "retention.min-stars=10",
+      "retention.batch-size=2",
+      "retention.batch-pause=0s"
+    })
+@Sql(executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD, scripts = "classpath:cleanup.sql")
+class RepositoryRetentionServiceIntegrationTest {
+
+  private static final String REMAINING =
+      "SELECT github_repo_id FROM github_repository ORDER BY github_repo_id";
+
+  @Autowired private JdbcTemplate jdbcTemplate;
+
+  @Autowired private GitHubRepositoryService gitHubRepositoryService;
+
+  @Autowired private StarHistoryService starHistoryService;
+
+  @Autowired private RepositoryAggregateService repositoryAggregateService;
+
+  @Autowired private OwnerAggregateService ownerAggregateService;
+
+  @Autowired private RepositoryRetentionService repositoryRetentionService;
+
+  @Autowired private SuggestService suggestService;
+
+  @Test
+  void run_ShouldArchiveExpiredRepositoriesAndKeepAggregatesExact() {
+    // Arrange: all but the low-starred repository 4 last seen 100 days ago, then 3 seen again
+    gitHubRepositoryService
+        .persistGitHubRepositories(
+            List.of(
+                repository(1L, "google", "Go", 500),
+                repository(2L, "google", "Java", 300),
+                repository(3L, "octocat", "Ruby", 800),
+                repository(4L, "octocat", "Go", 5),
+                repository(5L, "rust-lang", "Rust", 200)))
+        .block();
+    starHistoryService.flush();
+    LocalDateTime longAgo = LocalDateTime.now().minusDays(100);
+    jdbcTemplate.update("DELETE FROM github_repository_star_rollup");
+    jdbcTemplate.update(
+        "UPDATE github_repository SET updated_at = ?, last_seen_at = ? WHERE github_repo_id <> 4",
+        longAgo,
+        longAgo);
+    starHistoryService.record(List.of(repository(3L, "octocat", "Ruby", 810)));
+    starHistoryService.flush();
+
+    // Act
+    int removed = repositoryRetentionService.run();
+
+    // Assert
+    assertEquals(4, removed);
+    assertEquals(List.of(3L), jdbcTemplate.queryForList(REMAINING, Long.class));
+    assertEquals(
+        List.of(1L, 2L, 4L, 5L),
+        jdbcTemplate.queryForList(
+            "SELECT github_repo_id FROM github_repository_archive ORDER BY github_repo_id",
+            Long.class));
+    assertEquals(0, repositoryAggregateService.reconcile());
+    assertEquals(0, ownerAggregateService.reconcile());
+    assertEquals(1, repositoryAggregateService.getAggregates().totalCount());
+    // Dropped from the suggest index by the batches themselves, without a rebuild
+    assertEquals(
+        List.of(3L),
+        suggestService.suggest("repo-", 10).stream().map(Suggestion::githubRepoId).toList());
+    assertEquals(
+        4L,
+        jdbcTemplate.queryForObject(
+            "SELECT removed_count FROM github_retention_progress "
+                + "WHERE pass_started_at IS NULL",
+            Long.class));
+  }
+
+  @Test
+  void run_ShouldResumeAnInterruptedPassFromItsCursor() {
+    // Arrange: every repository is below the star threshold, and a pass stopped after the second
+    gitHubRepositoryService
+        .persistGitHubRepositories(
+            List.of(
+                repository(1L, "google", "Go", 1),
+                repository(2L, "google", "Go", 2),
+                repository(3L, "google", "Go", 3),
+                repository(4L, "google", "Go", 4)))
+        .block();
+    Long cursor =
+        jdbcTemplate.queryForObject(
+            "SELECT id FROM github_repository WHERE github_repo_id = 2", Long.class);
+    jdbcTemplate.update(
+        "UPDATE github_retention_progress SET last_id = ?, max_id = ?, pass_started_at = ?",
+        cursor,
+        cursor + 2,
+        LocalDateTime.now());
+
+    // Act & Assert: the interrupted pass finishes, the next run starts over
+    assertEquals(2, repositoryRetentionService.run());
+    assertEquals(List.of(1L, 2L), jdbcTemplate.queryForList(REMAINING, Long.class));
+    assertEquals(2, repositoryRetentionService.run());
+    assertEquals(List.of(), jdbcTemplate.queryForList(REMAINING, Long.class));
+    assertEquals(0, ownerAggregateService.reconcile());
+  }
+
+  private static GitHubRepository repository(Long id, String owner, String language, int stars) {
+    return new GitHubRepository(
+        id, "repo-" + id, owner, "description", language, stars, 1, LocalDateTime.now());
+  }
+}
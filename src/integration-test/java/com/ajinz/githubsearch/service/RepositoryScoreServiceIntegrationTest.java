@@ -0,0 +1,96 @@
+package com.ajinz.githubsearch.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import com.ajinz.githubsearch.dto.github.GitHubRepository;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.web.servlet.MockMvc;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("integrationTest")
+@TestPropertySource(
+    properties = {
+      "spring.datasource.url=jdbc:h2:mem:testdb;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE",
+      "spring.datasource.driver-class-name=org.h2.Driver",
+      "spring.flyway.enabled=true",
+      "spring.jpa.hibernate.ddl-auto=validate",
+      "repository.score.refresh-batch-size=2"
+    })
+@Sql(executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD, scripts = "classpath:cleanup.sql")
+class RepositoryScoreServiceIntegrationTest {
+
+  private static final LocalDateTime NOW = LocalDateTime.now();
+
+  @Autowired private MockMvc mockMvc;
+
+  @Autowired private JdbcTemplate jdbcTemplate;
+
+  @Autowired private GitHubRepositoryService gitHubRepositoryService;
+
+  @Autowired private RepositoryScoreService repositoryScoreService;
+
+  @Test
+  void ingest_ShouldStoreScoresThatOrderTheScoreListing() throws Exception {
+    // Arrange: an active repository, a bigger abandoned one and a small one
+    gitHubRepositoryService
+        .persistGitHubRepositories(
+            List.of(
+                repository(1L, "abandoned", 1200, NOW.minusYears(3)),
+                repository(2L, "active", 1000, NOW.minusDays(1)),
+                repository(3L, "small", 10, NOW)))
+        .block();
+
+    // Act & Assert
+    mockMvc
+        .perform(get("/api/github/repositories").param("sort", "score"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$[0].name").value("active"))
+        .andExpect(jsonPath("$[1].name").value("abandoned"))
+        .andExpect(jsonPath("$[2].name").value("small"));
+    mockMvc
+        .perform(get("/api/github/repositories").param("sort", "score").param("fields", "name"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$[0].name").value("active"));
+  }
+
+  @Test
+  void refresh_ShouldRewriteOutdatedScoresAcrossBatches() {
+    // Arrange: scores as an old refresh would have left them
+    gitHubRepositoryService
+        .persistGitHubRepositories(
+            List.of(
+                repository(1L, "one", 100, NOW),
+                repository(2L, "two", 200, NOW),
+                repository(3L, "three", 300, NOW)))
+        .block();
+    jdbcTemplate.update("UPDATE github_repository SET score = 0");
+
+    // Act
+    int updated = repositoryScoreService.refresh();
+
+    // Assert
+    assertEquals(3, updated);
+    assertEquals(
+        0,
+        jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM github_repository WHERE score = 0", Integer.class));
+    assertEquals(0, repositoryScoreService.refresh());
+  }
+
+  private static GitHubRepository repository(
+      Long id, String name, int stars, LocalDateTime lastUpdated) {
+    return new GitHubRepository(id, name, "owner", "description", "Java", stars, 10, lastUpdated);
+  }
+}
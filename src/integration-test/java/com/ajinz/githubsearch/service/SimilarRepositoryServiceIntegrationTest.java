@@ -0,0 +1,101 @@
+package com.ajinz.githubsearch.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import com.ajinz.githubsearch.dto.github.GitHubRepository;
+import com.ajinz.githubsearch.dto.github.SimilarRepository;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.web.servlet.MockMvc;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("integrationTest")
+@TestPropertySource(
+    properties = {
+      "spring.datasource.url=jdbc:h2:mem:testdb;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE",
+      "spring.datasource.driver-class-name=org.h2.Driver",
+      "spring.flyway.enabled=true",
+      "spring.jpa.hibernate.ddl-auto=validate"
+    })
+@Sql(executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD, scripts = "classpath:cleanup.sql")
+class SimilarRepositoryServiceIntegrationTest {
+
+  @Autowired private MockMvc mockMvc;
+
+  @Autowired private JdbcTemplate jdbcTemplate;
+
+  @Autowired private GitHubRepositoryService gitHubRepositoryService;
+
+  @Autowired private SimilarRepositoryService similarRepositoryService;
+
+  @BeforeEach
+  void resetIndex() {
+    similarRepositoryService.rebuild();
+  }
+
+  @Test
+  void shouldFindSimilarRepositoriesAsSoonAsTheyAreStored() throws Exception {
+    // Arrange
+    gitHubRepositoryService
+        .persistGitHubRepositories(
+            List.of(
+                repository(1L, "fast-json", "Fast JSON parser and serializer for the JVM"),
+                repository(2L, "json-fast", "Fast JSON parser and serializer for the JVM, forked"),
+                repository(3L, "kube-ctl", "Command line tool for Kubernetes clusters")))
+        .block();
+
+    // Act & Assert
+    mockMvc
+        .perform(get("/api/github/repositories/1/similar"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.length()").value(1))
+        .andExpect(jsonPath("$[0].id").value(2))
+        .andExpect(jsonPath("$[0].name").value("json-fast"));
+    mockMvc
+        .perform(get("/api/github/repositories/99/similar"))
+        .andExpect(status().isNotFound());
+    mockMvc
+        .perform(get("/api/github/repositories/1/similar").param("limit", "51"))
+        .andExpect(status().isBadRequest());
+  }
+
+  @Test
+  void rebuild_ShouldBackfillMissingSignatures() {
+    // Arrange: rows written behind the service's back have no signature
+    jdbcTemplate.update(
+        "INSERT INTO github_repository (github_repo_id, repo_name, owner_name, description, "
+            + "stars_count) VALUES (7, 'kubernetes', 'kubernetes', 'container orchestration', 10),"
+            + " (8, 'kubernetes', 'fork', 'container orchestration fork', 1)");
+
+    // Act
+    similarRepositoryService.rebuild();
+
+    // Assert
+    assertEquals(
+        0,
+        jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM github_repository WHERE minhash IS NULL", Integer.class));
+    assertEquals(
+        List.of(8L),
+        similarRepositoryService.findSimilar(7L, 10).orElseThrow().stream()
+            .map(SimilarRepository::githubRepoId)
+            .toList());
+  }
+
+  private static GitHubRepository repository(Long id, String name, String description) {
+    return new GitHubRepository(
+        id, name, "owner", description, "Java", 100, 1, LocalDateTime.now());
+  }
+}
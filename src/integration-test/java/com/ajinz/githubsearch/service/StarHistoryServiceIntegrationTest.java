@@ -0,0 +1,107 @@
+package com.ajinz.githubsearch.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import com.ajinz.githubsearch.dto.github.GitHubRepository;
+import com.ajinz.githubsearch.dto.github.TrendingRepository;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.web.servlet.MockMvc;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("integrationTest")
+@TestPropertySource(
+    properties = {
+      "spring.datasource.url=jdbc:h2:mem:testdb;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE",
+      "spring.datasource.driver-class-name=org.h2.Driver",
+      "spring.flyway.enabled=true",
+      "spring.jpa.hibernate.ddl-auto=validate"
+    })
+@Sql(executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD, scripts = "classpath:cleanup.sql")
+class StarHistoryServiceIntegrationTest {
+
+  @Autowired private MockMvc mockMvc;
+
+  @Autowired private JdbcTemplate jdbcTemplate;
+
+  @Autowired private GitHubRepositoryService gitHubRepositoryService;
+
+  @Autowired private StarHistoryService starHistoryService;
+
+  @Test
+  void shouldRecordSnapshotsAndMaintainDailyRollups() {
+    // Arrange & Act: the same repository seen three times today
+    GitHubRepository repository = repository(1L, "spring-boot", 100);
+    gitHubRepositoryService.persistGitHubRepositories(List.of(repository)).block();
+    starHistoryService.record(List.of(repository(1L, "spring-boot", 110)));
+    starHistoryService.record(List.of(repository(1L, "spring-boot", 120)));
+    starHistoryService.flush();
+
+    // Assert: every sighting is a snapshot, but there is one rollup row per day
+    assertEquals(
+        3,
+        jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM github_repository_snapshot", Integer.class));
+    assertEquals(
+        List.of(100, 120, 3),
+        jdbcTemplate.queryForObject(
+            "SELECT first_stars, last_stars, samples FROM github_repository_star_rollup",
+            (rs, rowNum) -> List.of(rs.getInt(1), rs.getInt(2), rs.getInt(3))));
+  }
+
+  @Test
+  void shouldRankRepositoriesByStarVelocity() throws Exception {
+    // Arrange: two repositories, seen three days ago and today
+    LocalDateTime threeDaysAgo = LocalDateTime.now().minusDays(3);
+    starHistoryService.record(
+        List.of(repository(1L, "slow", 1000), repository(2L, "fast", 50)), threeDaysAgo);
+    gitHubRepositoryService
+        .persistGitHubRepositories(
+            List.of(repository(1L, "slow", 1010), repository(2L, "fast", 350)))
+        .block();
+    starHistoryService.flush();
+
+    // Act
+    List<TrendingRepository> trending = starHistoryService.getTrendingRepositories(7, 10);
+
+    // Assert
+    assertEquals(2, trending.size());
+    assertEquals("fast", trending.get(0).name());
+    assertEquals(300, trending.get(0).starsGained());
+    assertEquals(300 / 7.0, trending.get(0).starsPerDay(), 0.001);
+    assertEquals("slow", trending.get(1).name());
+    assertEquals(10, trending.get(1).starsGained());
+
+    // A window that starts after the old sighting sees no growth
+    assertEquals(0, starHistoryService.getTrendingRepositories(1, 10).get(0).starsGained());
+
+    mockMvc
+        .perform(get("/api/github/repositories/trending").param("windowDays", "7"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$[0].name").value("fast"))
+        .andExpect(jsonPath("$[0].stars_gained").value(300));
+  }
+
+  @Test
+  void shouldRejectWindowBeyondRetention() throws Exception {
+    mockMvc
+        .perform(get("/api/github/repositories/trending").param("windowDays", "365"))
+        .andExpect(status().isBadRequest());
+  }
+
+  private static GitHubRepository repository(Long id, String name, int stars) {
+    return new GitHubRepository(
+        id, name, "owner", "description", "Java", stars, 1, LocalDateTime.now());
+  }
+}
@@ -0,0 +1,77 @@
+package com.ajinz.githubsearch.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import com.ajinz.githubsearch.dto.github.WarmupReport;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.web.servlet.MockMvc;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("integrationTest")
+@TestPropertySource(
+    properties = {
+      "spring.datasource.url=jdbc:h2:mem:testdb;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE",
+      "spring.datasource.driver-class-name=org.h2.Driver",
+      "spring.flyway.enabled=true",
+      "spring.jpa.hibernate.ddl-auto=validate"
+    })
+@Sql(executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD, scripts = "classpath:cleanup.sql")
+class StartupWarmupIntegrationTest {
+
+  @Autowired private MockMvc mockMvc;
+
+  @Autowired private StartupWarmup startupWarmup;
+
+  @Autowired private ListingQueryLog listingQueryLog;
+
+  @Test
+  void shouldWarmUpBeforeReportingReady() throws Exception {
+    mockMvc.perform(get("/api/github/health")).andExpect(status().isOk());
+    mockMvc
+        .perform(get("/api/github/warmup"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.steps.length()").value(4))
+        .andExpect(jsonPath("$.steps[0].name").value("database"))
+        .andExpect(jsonPath("$.steps[0].status").value("completed"))
+        .andExpect(jsonPath("$.steps[2].status").value("skipped"));
+  }
+
+  @Test
+  void shouldReplayPopularListingQueries() throws Exception {
+    // Arrange: listings requested through the API and written to the query log
+    mockMvc.perform(get("/api/github/repositories").param("language", "Go"));
+    mockMvc.perform(get("/api/github/repositories").param("language", "Go"));
+    mockMvc.perform(get("/api/github/repositories").param("minStars", "10").param("sort", "forks"));
+    listingQueryLog.flush();
+
+    // Act
+    startupWarmup.warmUp();
+
+    // Assert
+    assertEquals(
+        List.of(
+            new ListingQueryLog.Query("Go", null, "stars"),
+            new ListingQueryLog.Query(null, 10, "forks")),
+        listingQueryLog.popular(10, Duration.ofDays(1)));
+    Map<String, WarmupReport.Step> steps =
+        startupWarmup.getReport().orElseThrow().steps().stream()
+            .collect(Collectors.toMap(WarmupReport.Step::name, Function.identity()));
+    assertEquals(WarmupReport.Status.COMPLETED, steps.get("caches").status());
+    assertEquals(2, steps.get("caches").operations());
+    assertTrue(steps.get("serializer").operations() > 0);
+  }
+}
@@ -0,0 +1,92 @@
+package com.ajinz.githubsearch.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import com.ajinz.githubsearch.dto.github.GitHubRepository;
+import com.ajinz.githubsearch.dto.github.Suggestion;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.web.servlet.MockMvc;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("integrationTest")
+@TestPropertySource(
+    properties = {
+      "spring.datasource.url=jdbc:h2:mem:testdb;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE",
+      "spring.datasource.driver-class-name=org.h2.Driver",
+      "spring.flyway.enabled=true",
+      "spring.jpa.hibernate.ddl-auto=validate"
+    })
+@Sql(executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD, scripts = "classpath:cleanup.sql")
+class SuggestServiceIntegrationTest {
+
+  @Autowired private MockMvc mockMvc;
+
+  @Autowired private JdbcTemplate jdbcTemplate;
+
+  @Autowired private GitHubRepositoryService gitHubRepositoryService;
+
+  @Autowired private SuggestService suggestService;
+
+  @BeforeEach
+  void resetIndex() {
+    // The table was just cleaned up; drop whatever earlier tests indexed
+    suggestService.rebuild();
+  }
+
+  @Test
+  void shouldSuggestRepositoriesAsSoonAsTheyAreStored() throws Exception {
+    // Arrange
+    gitHubRepositoryService
+        .persistGitHubRepositories(
+            List.of(
+                repository(1L, "spring-boot", "spring-projects", 70000),
+                repository(2L, "springfox", "springfox", 6000)))
+        .block();
+
+    // Act & Assert
+    mockMvc
+        .perform(get("/api/github/repositories/suggest").param("q", "spr"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.length()").value(2))
+        .andExpect(jsonPath("$[0].name").value("spring-boot"))
+        .andExpect(jsonPath("$[1].name").value("springfox"));
+    mockMvc
+        .perform(get("/api/github/repositories/suggest").param("q", "spr").param("limit", "50"))
+        .andExpect(status().isBadRequest());
+  }
+
+  @Test
+  void shouldRebuildFromStoredRepositories() {
+    // Arrange: rows written behind the service's back are only seen after a rebuild
+    jdbcTemplate.update(
+        "INSERT INTO github_repository (github_repo_id, repo_name, owner_name, stars_count) "
+            + "VALUES (7, 'kubernetes', 'kubernetes', 100000)");
+    assertTrue(suggestService.suggest("kube", 5).isEmpty());
+
+    // Act
+    suggestService.rebuild();
+
+    // Assert
+    assertEquals(
+        List.of("kubernetes"),
+        suggestService.suggest("kube", 5).stream().map(Suggestion::name).toList());
+  }
+
+  private static GitHubRepository repository(Long id, String name, String owner, int stars) {
+    return new GitHubRepository(
+        id, name, owner, "description", "Java", stars, 1, LocalDateTime.now());
+  }
+}
@@ -1,3 +1,13 @@
 -- Cleanup script to reset database state before each test
 DELETE FROM github_repository;
-
+DELETE FROM github_repository_snapshot;
+DELETE FROM github_repository_star_rollup;
+DELETE FROM github_language_histogram;
+DELETE FROM github_language_stats;
+DELETE FROM github_owner_language;
+DELETE FROM github_owner;
+DELETE FROM github_listing_query;
+DELETE FROM github_repository_archive;
+UPDATE github_retention_progress SET last_id = 0, max_id = 0, removed_count = 0, pass_started_at = NULL;
+UPDATE github_owner_reconcile_progress SET last_id = 0, max_id = 0;
+UPDATE github_aggregate_reconcile_progress SET last_id = 0, max_id = 0;
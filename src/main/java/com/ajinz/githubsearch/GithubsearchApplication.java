@@ -1,8 +1,34 @@
 package com.ajinz.githubsearch;
 
+import com.ajinz.githubsearch.dto.github.ApiErrorResponse;
+import com.ajinz.githubsearch.dto.github.BatchSearchResult;
+import com.ajinz.githubsearch.dto.github.GitHubRepository;
+import com.ajinz.githubsearch.dto.github.GitHubSearchResponse;
+import com.ajinz.githubsearch.dto.github.OwnerSummary;
+import com.ajinz.githubsearch.dto.github.ProjectedSearchResponse;
+import com.ajinz.githubsearch.dto.github.ReadinessReport;
+import com.ajinz.githubsearch.dto.github.RepositoryProjection;
+import com.ajinz.githubsearch.dto.github.SimilarRepository;
+import com.ajinz.githubsearch.dto.github.TrendingRepository;
+import com.ajinz.githubsearch.dto.github.WarmupReport;
+import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 
+// Types (de)serialized outside of controller signatures need explicit hints for native images
+@RegisterReflectionForBinding({
+  GitHubSearchResponse.class,
+  GitHubRepository.class,
+  ProjectedSearchResponse.class,
+  RepositoryProjection.class,
+  ApiErrorResponse.class,
+  BatchSearchResult.class,
+  ReadinessReport.class,
+  WarmupReport.class,
+  OwnerSummary.class,
+  SimilarRepository.class,
+  TrendingRepository.class
+})
 @SpringBootApplication
 public class GithubsearchApplication {
 
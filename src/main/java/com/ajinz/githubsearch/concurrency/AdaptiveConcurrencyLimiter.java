@@ -0,0 +1,140 @@
+package com.ajinz.githubsearch.concurrency;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Limits in-flight requests to a limit learned from their latency, in the style of the gradient
+ * algorithm of Netflix concurrency-limits.
+ *
+ * <p>A long-term moving average of the latency is the no-load baseline, a short-term one the
+ * current latency. While the current latency stays within {@code tolerance} times the baseline
+ * the limit grows by about its square root per update. Above that, it shrinks in proportion to how
+ * far the latency has drifted, by at most half. Requests that timed out or were shed downstream
+ * cut the limit by 10%. The limit is only raised while at least half of it is in use, so an idle
+ * service does not learn a limit it never tested.
+ */
+public final class AdaptiveConcurrencyLimiter {
+
+  private static final int LONG_WINDOW = 100;
+  private static final int SHORT_WINDOW = 10;
+  private static final double SMOOTHING = 0.2;
+  private static final double BACKOFF_RATIO = 0.9;
+
+  private final String name;
+  private final int minLimit;
+  private final int maxLimit;
+  private final double tolerance;
+  private final AtomicInteger inFlight = new AtomicInteger();
+  private final Counter rejected;
+  private volatile double limit;
+  private double longRttNanos;
+  private double shortRttNanos;
+
+  public AdaptiveConcurrencyLimiter(
+      String name,
+      int initialLimit,
+      int minLimit,
+      int maxLimit,
+      double tolerance,
+      MeterRegistry meterRegistry) {
+    if (minLimit < 1 || minLimit > initialLimit || initialLimit > maxLimit || tolerance < 1.0) {
+      throw new IllegalArgumentException(
+          "Concurrency limit " + name + " needs 1 <= min <= initial <= max and tolerance >= 1");
+    }
+    this.name = name;
+    this.minLimit = minLimit;
+    this.maxLimit = maxLimit;
+    this.tolerance = tolerance;
+    this.limit = initialLimit;
+    this.rejected =
+        Counter.builder("github.concurrency.rejected")
+            .description("Requests shed because the concurrency limit was reached")
+            .tag("endpoint", name)
+            .register(meterRegistry);
+    Gauge.builder("github.concurrency.limit", this, AdaptiveConcurrencyLimiter::getLimit)
+        .description("Learned limit of concurrent requests")
+        .tag("endpoint", name)
+        .register(meterRegistry);
+    Gauge.builder("github.concurrency.in_flight", inFlight, AtomicInteger::get)
+        .description("Requests currently holding a permit")
+        .tag("endpoint", name)
+        .register(meterRegistry);
+  }
+
+  /** Takes a permit, or returns false if the limit is reached. A permit must be released. */
+  public boolean tryAcquire() {
+    while (true) {
+      int current = inFlight.get();
+      if (current >= getLimit()) {
+        rejected.increment();
+        return false;
+      }
+      if (inFlight.compareAndSet(current, current + 1)) {
+        return true;
+      }
+    }
+  }
+
+  /** Returns a permit and feeds the request's latency into the limit. */
+  public void release(long rttNanos, boolean dropped) {
+    int inFlightBefore = inFlight.getAndDecrement();
+    update(rttNanos, dropped, inFlightBefore);
+  }
+
+  /** Returns a permit of a request whose latency says nothing about load, e.g. a client error. */
+  public void releaseWithoutSample() {
+    inFlight.decrementAndGet();
+  }
+
+  public int getLimit() {
+    return (int) limit;
+  }
+
+  public int getInFlight() {
+    return inFlight.get();
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  /** Seconds a shed client should wait: the baseline latency, at least one second. */
+  public long retryAfterSeconds() {
+    double baseline;
+    synchronized (this) {
+      baseline = longRttNanos;
+    }
+    return Math.max(1, (long) Math.ceil(baseline / TimeUnit.SECONDS.toNanos(1)));
+  }
+
+  private synchronized void update(long rttNanos, boolean dropped, int inFlightBefore) {
+    double current = limit;
+    if (dropped) {
+      limit = Math.max(minLimit, current * BACKOFF_RATIO);
+      return;
+    }
+    if (longRttNanos == 0) {
+      longRttNanos = rttNanos;
+      shortRttNanos = rttNanos;
+    } else {
+      longRttNanos += (rttNanos - longRttNanos) / LONG_WINDOW;
+      shortRttNanos += (rttNanos - shortRttNanos) / SHORT_WINDOW;
+    }
+    // Latency dropped far below the baseline: the baseline is stale, let it catch up faster
+    if (longRttNanos > 2 * shortRttNanos) {
+      longRttNanos *= 0.95;
+    }
+    if (inFlightBefore < current / 2) {
+      return;
+    }
+
+    double gradient = Math.max(0.5, Math.min(1.0, tolerance * longRttNanos / shortRttNanos));
+    double target = current * gradient + Math.sqrt(current);
+    double smoothed = current * (1 - SMOOTHING) + target * SMOOTHING;
+    limit = Math.max(minLimit, Math.min(maxLimit, smoothed));
+  }
+}
@@ -0,0 +1,176 @@
+package com.ajinz.githubsearch.concurrency;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import reactor.core.publisher.Mono;
+
+/**
+ * A fixed pool of threads with a bounded queue, dedicated to one kind of work, so that work of
+ * another kind slowing down cannot take its threads. When every thread is busy and the queue is
+ * full, new work is rejected with {@link BulkheadFullException} instead of waiting.
+ *
+ * <p>Non-blocking work is {@link #admit admitted} instead: it holds a slot of the lane rather than
+ * a thread, and at most threads plus queue capacity slots are in use at a time.
+ *
+ * <p>Exports, tagged with {@code lane}: {@code github.bulkhead.active}, {@code
+ * github.bulkhead.queued}, {@code github.bulkhead.saturation} (busy threads, queued tasks and
+ * admitted work over threads plus queue capacity), the {@code github.bulkhead.rejected} counter
+ * and the {@code github.bulkhead.wait} timer of time spent queued.
+ */
+public final class Bulkhead {
+
+  private final String name;
+  private final int threads;
+  private final int queueCapacity;
+  private final ThreadPoolExecutor executor;
+  private final Counter rejected;
+  private final Timer wait;
+  private final AtomicInteger admitted = new AtomicInteger();
+
+  public Bulkhead(String name, int threads, int queueCapacity, MeterRegistry meterRegistry) {
+    if (threads < 1 || queueCapacity < 0) {
+      throw new IllegalArgumentException(
+          "Bulkhead " + name + " needs at least one thread and a non-negative queue capacity");
+    }
+    this.name = name;
+    this.threads = threads;
+    this.queueCapacity = queueCapacity;
+    BlockingQueue<Runnable> queue =
+        queueCapacity == 0 ? new SynchronousQueue<>() : new ArrayBlockingQueue<>(queueCapacity);
+    this.executor =
+        new ThreadPoolExecutor(
+            threads,
+            threads,
+            0L,
+            TimeUnit.MILLISECONDS,
+            queue,
+            new CustomizableThreadFactory("bulkhead-" + name + "-"),
+            (task, pool) -> reject());
+    this.rejected =
+        Counter.builder("github.bulkhead.rejected")
+            .description("Tasks rejected because every thread was busy and the queue was full")
+            .tag("lane", name)
+            .register(meterRegistry);
+    this.wait =
+        Timer.builder("github.bulkhead.wait")
+            .description("Time tasks spent queued before a thread picked them up")
+            .tag("lane", name)
+            .register(meterRegistry);
+    Gauge.builder("github.bulkhead.active", this, Bulkhead::active)
+        .description("Threads of the lane currently running a task, plus admitted work")
+        .tag("lane", name)
+        .register(meterRegistry);
+    Gauge.builder("github.bulkhead.queued", executor, pool -> pool.getQueue().size())
+        .description("Tasks waiting for a thread of the lane")
+        .tag("lane", name)
+        .register(meterRegistry);
+    Gauge.builder("github.bulkhead.saturation", this, Bulkhead::saturation)
+        .description("Busy threads, queued tasks and admitted work over threads plus queue size")
+        .tag("lane", name)
+        .register(meterRegistry);
+  }
+
+  /** Runs the task on this lane. Throws {@link BulkheadFullException} if the lane is full. */
+  public <T> CompletableFuture<T> submit(Callable<T> task) {
+    CompletableFuture<T> future = new CompletableFuture<>();
+    long queuedAt = System.nanoTime();
+    executor.execute(
+        () -> {
+          wait.record(System.nanoTime() - queuedAt, TimeUnit.NANOSECONDS);
+          try {
+            future.complete(task.call());
+          } catch (Throwable ex) {
+            future.completeExceptionally(ex);
+          }
+        });
+    return future;
+  }
+
+  public CompletableFuture<Void> execute(Runnable task) {
+    return submit(
+        () -> {
+          task.run();
+          return null;
+        });
+  }
+
+  /**
+   * Runs non-blocking work under this lane's bound without holding one of its threads. The slot is
+   * taken right away, throwing {@link BulkheadFullException} if the lane is full, and given back
+   * when the returned Mono terminates or is cancelled, so the caller must subscribe to it.
+   */
+  public <T> Mono<T> admit(Mono<T> work) {
+    if (admitted.incrementAndGet() + executor.getActiveCount() + executor.getQueue().size()
+        > threads + queueCapacity) {
+      admitted.decrementAndGet();
+      reject();
+    }
+    AtomicBoolean released = new AtomicBoolean();
+    return work.doFinally(
+        signal -> {
+          if (released.compareAndSet(false, true)) {
+            admitted.decrementAndGet();
+          }
+        });
+  }
+
+  /**
+   * Runs the task on this lane and waits for it, for synchronous callers that must not run the
+   * work themselves. Exceptions thrown by the task are rethrown as is.
+   */
+  public <T> T call(Callable<T> task) {
+    try {
+      return submit(task).get();
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while waiting for bulkhead " + name, ex);
+    } catch (ExecutionException ex) {
+      if (ex.getCause() instanceof RuntimeException runtimeException) {
+        throw runtimeException;
+      }
+      if (ex.getCause() instanceof Error error) {
+        throw error;
+      }
+      throw new IllegalStateException(ex.getCause());
+    }
+  }
+
+  public String name() {
+    return name;
+  }
+
+  public double saturation() {
+    int busy = active() + executor.getQueue().size();
+    return Math.min(1.0, (double) busy / (threads + queueCapacity));
+  }
+
+  int active() {
+    return executor.getActiveCount() + admitted.get();
+  }
+
+  public long rejectedCount() {
+    return (long) rejected.count();
+  }
+
+  void shutdown() {
+    executor.shutdownNow();
+  }
+
+  private void reject() {
+    rejected.increment();
+    throw new BulkheadFullException(name);
+  }
+}
@@ -0,0 +1,18 @@
+package com.ajinz.githubsearch.concurrency;
+
+import java.util.concurrent.RejectedExecutionException;
+
+/** Thrown when a {@link Bulkhead} has no free thread and no room left in its queue. */
+public class BulkheadFullException extends RejectedExecutionException {
+
+  private final String lane;
+
+  public BulkheadFullException(String lane) {
+    super("Bulkhead " + lane + " is full");
+    this.lane = lane;
+  }
+
+  public String getLane() {
+    return lane;
+  }
+}
@@ -0,0 +1,61 @@
+package com.ajinz.githubsearch.concurrency;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.List;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * The three lanes requests are split into, so that a slow dependency only exhausts its own lane.
+ *
+ * <ul>
+ *   <li>{@link #search()} admits GitHub searches, single and batched. A full lane answers 503 with
+ *       {@code Retry-After}, or fails that query of a batch.
+ *   <li>{@link #ingest()} runs the blocking part of persisting search results (the language
+ *       aggregate deltas). A full lane leaves the delta to the hourly reconcile.
+ *   <li>{@link #reads()} runs database reads of {@code GET /repositories}. A full lane answers 503
+ *       with {@code Retry-After}.
+ * </ul>
+ */
+@Component
+public class Bulkheads implements DisposableBean {
+
+  private final Bulkhead search;
+  private final Bulkhead ingest;
+  private final Bulkhead reads;
+
+  public Bulkheads(
+      MeterRegistry meterRegistry,
+      @Value("${bulkhead.search.threads:16}") int searchThreads,
+      @Value("${bulkhead.search.queue-capacity:64}") int searchQueueCapacity,
+      @Value("${bulkhead.ingest.threads:2}") int ingestThreads,
+      @Value("${bulkhead.ingest.queue-capacity:256}") int ingestQueueCapacity,
+      @Value("${bulkhead.reads.threads:8}") int readThreads,
+      @Value("${bulkhead.reads.queue-capacity:64}") int readQueueCapacity) {
+    this.search = new Bulkhead("search", searchThreads, searchQueueCapacity, meterRegistry);
+    this.ingest = new Bulkhead("ingest", ingestThreads, ingestQueueCapacity, meterRegistry);
+    this.reads = new Bulkhead("reads", readThreads, readQueueCapacity, meterRegistry);
+  }
+
+  public Bulkhead search() {
+    return search;
+  }
+
+  public Bulkhead ingest() {
+    return ingest;
+  }
+
+  public Bulkhead reads() {
+    return reads;
+  }
+
+  public List<Bulkhead> all() {
+    return List.of(search, ingest, reads);
+  }
+
+  @Override
+  public void destroy() {
+    all().forEach(Bulkhead::shutdown);
+  }
+}
@@ -0,0 +1,185 @@
+package com.ajinz.githubsearch.concurrency;
+
+import com.ajinz.githubsearch.dto.github.ApiErrorResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Admission control for the search and listing endpoints: searches (single and batched) and reads
+ * each have their own {@link AdaptiveConcurrencyLimiter}, and requests over the learned limit are
+ * answered 503 with {@code Retry-After} before any work is done.
+ *
+ * <p>A permit is held until the response completes, including the asynchronous part of searches.
+ * Only successful responses feed latency into the limit; server errors and async timeouts count as
+ * drops, and client errors are ignored because they return without touching any dependency. A
+ * batch takes a search permit but never feeds latency, since its duration grows with its size.
+ */
+@Order(Ordered.HIGHEST_PRECEDENCE + 20)
+@Component
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+  static final String SEARCH_PATH = "/api/github/search/repositories";
+  static final String BATCH_SEARCH_PATH = SEARCH_PATH + "/batch";
+  static final String REPOSITORIES_PATH = "/api/github/repositories";
+
+  private final boolean enabled;
+  private final AdaptiveConcurrencyLimiter search;
+  private final AdaptiveConcurrencyLimiter reads;
+  private final ObjectMapper objectMapper;
+
+  public ConcurrencyLimitFilter(
+      MeterRegistry meterRegistry,
+      ObjectMapper objectMapper,
+      @Value("${concurrency-limit.enabled:true}") boolean enabled,
+      @Value("${concurrency-limit.tolerance:1.5}") double tolerance,
+      @Value("${concurrency-limit.search.initial:16}") int searchInitial,
+      @Value("${concurrency-limit.search.min:4}") int searchMin,
+      @Value("${concurrency-limit.search.max:80}") int searchMax,
+      @Value("${concurrency-limit.reads.initial:32}") int readsInitial,
+      @Value("${concurrency-limit.reads.min:4}") int readsMin,
+      @Value("${concurrency-limit.reads.max:72}") int readsMax) {
+    this.enabled = enabled;
+    this.objectMapper = objectMapper;
+    this.search =
+        new AdaptiveConcurrencyLimiter(
+            "search", searchInitial, searchMin, searchMax, tolerance, meterRegistry);
+    this.reads =
+        new AdaptiveConcurrencyLimiter(
+            "repositories", readsInitial, readsMin, readsMax, tolerance, meterRegistry);
+  }
+
+  @Override
+  protected boolean shouldNotFilter(HttpServletRequest request) {
+    return !enabled || limiterFor(request) == null;
+  }
+
+  @Override
+  protected void doFilterInternal(
+      HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+      throws ServletException, IOException {
+    AdaptiveConcurrencyLimiter limiter = limiterFor(request);
+    if (!limiter.tryAcquire()) {
+      reject(request, response, limiter);
+      return;
+    }
+
+    Permit permit = new Permit(limiter, response, !isBatchSearch(request));
+    try {
+      chain.doFilter(request, response);
+    } catch (IOException | ServletException | RuntimeException ex) {
+      permit.release(true);
+      throw ex;
+    }
+    if (request.isAsyncStarted()) {
+      request.getAsyncContext().addListener(permit);
+    } else {
+      permit.release(false);
+    }
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  public List<AdaptiveConcurrencyLimiter> limiters() {
+    return List.of(search, reads);
+  }
+
+  AdaptiveConcurrencyLimiter limiterFor(HttpServletRequest request) {
+    String path = request.getRequestURI().substring(request.getContextPath().length());
+    if ((SEARCH_PATH.equals(path) || BATCH_SEARCH_PATH.equals(path))
+        && "POST".equals(request.getMethod())) {
+      return search;
+    }
+    if (REPOSITORIES_PATH.equals(path) && "GET".equals(request.getMethod())) {
+      return reads;
+    }
+    return null;
+  }
+
+  private static boolean isBatchSearch(HttpServletRequest request) {
+    return BATCH_SEARCH_PATH.equals(
+        request.getRequestURI().substring(request.getContextPath().length()));
+  }
+
+  private void reject(
+      HttpServletRequest request, HttpServletResponse response, AdaptiveConcurrencyLimiter limiter)
+      throws IOException {
+    response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+    response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(limiter.retryAfterSeconds()));
+    response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+    objectMapper.writeValue(
+        response.getOutputStream(),
+        new ApiErrorResponse(
+            "The service is overloaded, please retry shortly",
+            "SERVICE_OVERLOADED",
+            HttpStatus.SERVICE_UNAVAILABLE.value(),
+            LocalDateTime.now(),
+            request.getRequestURI()));
+  }
+
+  private static final class Permit implements AsyncListener {
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final HttpServletResponse response;
+    private final boolean sampled;
+    private final long startNanos = System.nanoTime();
+    private final AtomicBoolean released = new AtomicBoolean();
+
+    private Permit(
+        AdaptiveConcurrencyLimiter limiter, HttpServletResponse response, boolean sampled) {
+      this.limiter = limiter;
+      this.response = response;
+      this.sampled = sampled;
+    }
+
+    void release(boolean dropped) {
+      if (!released.compareAndSet(false, true)) {
+        return;
+      }
+      int status = response.getStatus();
+      if (dropped || status >= 500) {
+        limiter.release(System.nanoTime() - startNanos, true);
+      } else if (status < 400 && sampled) {
+        limiter.release(System.nanoTime() - startNanos, false);
+      } else {
+        limiter.releaseWithoutSample();
+      }
+    }
+
+    @Override
+    public void onComplete(AsyncEvent event) {
+      release(false);
+    }
+
+    @Override
+    public void onTimeout(AsyncEvent event) {
+      release(true);
+    }
+
+    @Override
+    public void onError(AsyncEvent event) {
+      release(true);
+    }
+
+    @Override
+    public void onStartAsync(AsyncEvent event) {}
+  }
+}
@@ -0,0 +1,33 @@
+package com.ajinz.githubsearch.config;
+
+import java.sql.Connection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Tells PostgreSQL-only features (partitions, full-text and trigram search) apart from the portable
+ * fallbacks used on other databases such as the H2 test database.
+ */
+@Component
+public class DatabaseVendor {
+
+  private final JdbcTemplate jdbcTemplate;
+  private volatile Boolean postgres;
+
+  public DatabaseVendor(JdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  public boolean isPostgres() {
+    Boolean result = postgres;
+    if (result == null) {
+      result =
+          Boolean.TRUE.equals(
+              jdbcTemplate.execute(
+                  (Connection connection) ->
+                      "PostgreSQL".equals(connection.getMetaData().getDatabaseProductName())));
+      postgres = result;
+    }
+    return result;
+  }
+}
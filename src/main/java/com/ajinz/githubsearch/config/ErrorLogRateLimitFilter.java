@@ -0,0 +1,79 @@
+package com.ajinz.githubsearch.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Marker;
+
+/**
+ * Lets each distinct WARN/ERROR message through at most {@code maxPerWindow} times per window.
+ * Messages are keyed on logger and format, so the same failure repeating under load is logged a
+ * few times per window instead of once per request.
+ *
+ * <p>When the key table is full, keys whose window has passed are evicted; if every key is still
+ * live, new messages pass unlimited until the next window rather than resetting the live counts.
+ */
+public class ErrorLogRateLimitFilter extends TurboFilter {
+
+  private final ConcurrentHashMap<String, AtomicLong> counters = new ConcurrentHashMap<>();
+  private int maxPerWindow = 10;
+  private long windowMillis = 60_000;
+  private int cacheSize = 1024;
+  private volatile long lastSweptWindow = -1;
+
+  @Override
+  public FilterReply decide(
+      Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+    if (format == null || level == null || !level.isGreaterOrEqual(Level.WARN)) {
+      return FilterReply.NEUTRAL;
+    }
+    long window = System.currentTimeMillis() / windowMillis;
+    String key = logger.getName() + ':' + format;
+    AtomicLong counter = counters.get(key);
+    if (counter == null) {
+      if (counters.size() >= cacheSize && !evictStale(window)) {
+        return FilterReply.NEUTRAL;
+      }
+      counter = counters.computeIfAbsent(key, k -> new AtomicLong());
+    }
+    return isAllowed(counter, window) ? FilterReply.NEUTRAL : FilterReply.DENY;
+  }
+
+  private boolean evictStale(long window) {
+    long current = window & 0xFFFFFFFFL;
+    if (lastSweptWindow != window) {
+      lastSweptWindow = window;
+      counters.values().removeIf(counter -> counter.get() >>> 32 != current);
+    }
+    return counters.size() < cacheSize;
+  }
+
+  // The high 32 bits hold the window number, the low 32 bits the count inside that window.
+  private boolean isAllowed(AtomicLong counter, long window) {
+    while (true) {
+      long current = counter.get();
+      long count = current >>> 32 == (window & 0xFFFFFFFFL) ? current & 0xFFFFFFFFL : 0;
+      if (count >= maxPerWindow) {
+        return false;
+      }
+      if (counter.compareAndSet(current, (window << 32) | (count + 1))) {
+        return true;
+      }
+    }
+  }
+
+  public void setMaxPerWindow(int maxPerWindow) {
+    this.maxPerWindow = maxPerWindow;
+  }
+
+  public void setWindowMillis(long windowMillis) {
+    this.windowMillis = windowMillis;
+  }
+
+  public void setCacheSize(int cacheSize) {
+    this.cacheSize = cacheSize;
+  }
+}
@@ -1,15 +1,21 @@
 package com.ajinz.githubsearch.config;
 
+import com.ajinz.githubsearch.concurrency.BulkheadFullException;
 import com.ajinz.githubsearch.dto.github.ApiErrorResponse;
+import com.ajinz.githubsearch.dto.github.InvalidRequestException;
+import com.ajinz.githubsearch.service.RateBudgetExhaustedException;
 import jakarta.servlet.http.HttpServletRequest;
 import java.time.LocalDateTime;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 
 @RestControllerAdvice
 public class GlobalExceptionHandler {
@@ -19,12 +25,14 @@ public class GlobalExceptionHandler {
   @ExceptionHandler(MethodArgumentNotValidException.class)
   public ResponseEntity<ApiErrorResponse> handleValidationErrors(
       MethodArgumentNotValidException ex, HttpServletRequest request) {
-    logger.error("Validation error occurred", ex);
-
     String message = "Validation failed";
     if (ex.getBindingResult().hasFieldErrors()) {
       message = ex.getBindingResult().getFieldErrors().getFirst().getDefaultMessage();
     }
+    // Expected client error: no stack trace, and skip the call entirely unless DEBUG is on
+    if (logger.isDebugEnabled()) {
+      logger.debug("Validation error on {}: {}", request.getRequestURI(), message);
+    }
 
     ApiErrorResponse errorResponse =
         new ApiErrorResponse(
@@ -37,6 +45,104 @@ public class GlobalExceptionHandler {
     return ResponseEntity.badRequest().body(errorResponse);
   }
 
+  @ExceptionHandler(InvalidRequestException.class)
+  public ResponseEntity<ApiErrorResponse> handleInvalidRequest(
+      InvalidRequestException ex, HttpServletRequest request) {
+    if (logger.isDebugEnabled()) {
+      logger.debug("Invalid request on {}: {}", request.getRequestURI(), ex.getMessage());
+    }
+
+    ApiErrorResponse errorResponse =
+        new ApiErrorResponse(
+            ex.getMessage(),
+            "INVALID_REQUEST",
+            HttpStatus.BAD_REQUEST.value(),
+            LocalDateTime.now(),
+            request.getRequestURI());
+
+    return ResponseEntity.badRequest().body(errorResponse);
+  }
+
+  @ExceptionHandler(MethodArgumentTypeMismatchException.class)
+  public ResponseEntity<ApiErrorResponse> handleTypeMismatch(
+      MethodArgumentTypeMismatchException ex, HttpServletRequest request) {
+    String message = "Invalid value for parameter '" + ex.getName() + "'";
+    if (logger.isDebugEnabled()) {
+      logger.debug("Type mismatch on {}: {}", request.getRequestURI(), message);
+    }
+
+    ApiErrorResponse errorResponse =
+        new ApiErrorResponse(
+            message,
+            "INVALID_REQUEST",
+            HttpStatus.BAD_REQUEST.value(),
+            LocalDateTime.now(),
+            request.getRequestURI());
+
+    return ResponseEntity.badRequest().body(errorResponse);
+  }
+
+  @ExceptionHandler(HttpMessageNotReadableException.class)
+  public ResponseEntity<ApiErrorResponse> handleUnreadableBody(
+      HttpMessageNotReadableException ex, HttpServletRequest request) {
+    // The parser message can echo the body back, so it stays out of the response
+    if (logger.isDebugEnabled()) {
+      logger.debug("Unreadable body on {}: {}", request.getRequestURI(), ex.getMessage());
+    }
+
+    ApiErrorResponse errorResponse =
+        new ApiErrorResponse(
+            "Malformed request body",
+            "INVALID_REQUEST",
+            HttpStatus.BAD_REQUEST.value(),
+            LocalDateTime.now(),
+            request.getRequestURI());
+
+    return ResponseEntity.badRequest().body(errorResponse);
+  }
+
+  @ExceptionHandler(BulkheadFullException.class)
+  public ResponseEntity<ApiErrorResponse> handleBulkheadFull(
+      BulkheadFullException ex, HttpServletRequest request) {
+    // Shedding is expected under overload and counted by the bulkhead: keep it out of the log
+    if (logger.isDebugEnabled()) {
+      logger.debug("Rejected {}: {} lane is full", request.getRequestURI(), ex.getLane());
+    }
+
+    ApiErrorResponse errorResponse =
+        new ApiErrorResponse(
+            "The service is overloaded, please retry shortly",
+            "SERVICE_OVERLOADED",
+            HttpStatus.SERVICE_UNAVAILABLE.value(),
+            LocalDateTime.now(),
+            request.getRequestURI());
+
+    return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+        .header(HttpHeaders.RETRY_AFTER, "1")
+        .body(errorResponse);
+  }
+
+  @ExceptionHandler(RateBudgetExhaustedException.class)
+  public ResponseEntity<ApiErrorResponse> handleRateBudgetExhausted(
+      RateBudgetExhaustedException ex, HttpServletRequest request) {
+    // The caller is told when to come back; GitHub itself was not called
+    if (logger.isDebugEnabled()) {
+      logger.debug("Rejected {}: {}", request.getRequestURI(), ex.getMessage());
+    }
+
+    ApiErrorResponse errorResponse =
+        new ApiErrorResponse(
+            "The GitHub search rate limit is used up, please retry later",
+            "GITHUB_RATE_LIMITED",
+            HttpStatus.TOO_MANY_REQUESTS.value(),
+            LocalDateTime.now(),
+            request.getRequestURI());
+
+    return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+        .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfter().toSeconds()))
+        .body(errorResponse);
+  }
+
   @ExceptionHandler(RuntimeException.class)
   public ResponseEntity<ApiErrorResponse> handleRuntimeException(
       RuntimeException ex, HttpServletRequest request) {
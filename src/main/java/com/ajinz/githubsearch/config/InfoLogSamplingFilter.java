@@ -0,0 +1,49 @@
+package com.ajinz.githubsearch.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import java.util.concurrent.ThreadLocalRandom;
+import org.slf4j.MDC;
+import org.slf4j.Marker;
+
+/**
+ * Keeps only a sampled fraction of INFO and lower events from the application loggers. Runs as a
+ * turbo filter, so dropped events are never formatted or queued. WARN and ERROR always pass.
+ *
+ * <p>Inside a request the decision is the one {@link LogSamplingRequestFilter} stored in the MDC,
+ * so a request's INFO lines are kept or dropped together; other threads sample per event.
+ */
+public class InfoLogSamplingFilter extends TurboFilter {
+
+  public static final String MDC_KEY = "log.sampled";
+
+  private String loggerPrefix = "com.ajinz.githubsearch";
+  private double rate = 1.0;
+
+  @Override
+  public FilterReply decide(
+      Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+    if (format == null
+        || level == null
+        || level.isGreaterOrEqual(Level.WARN)
+        || !logger.getName().startsWith(loggerPrefix)) {
+      return FilterReply.NEUTRAL;
+    }
+    String sampled = MDC.get(MDC_KEY);
+    boolean keep =
+        sampled != null
+            ? Boolean.parseBoolean(sampled)
+            : ThreadLocalRandom.current().nextDouble() < rate;
+    return keep ? FilterReply.NEUTRAL : FilterReply.DENY;
+  }
+
+  public void setLoggerPrefix(String loggerPrefix) {
+    this.loggerPrefix = loggerPrefix;
+  }
+
+  public void setRate(double rate) {
+    this.rate = rate;
+  }
+}
@@ -0,0 +1,54 @@
+package com.ajinz.githubsearch.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Makes the INFO sampling decision once per request and exposes it to {@link
+ * InfoLogSamplingFilter} through the MDC, so a sampled request is logged in full and an unsampled
+ * one not at all. The decision is kept on the request and reused by async dispatches.
+ */
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@Component
+public class LogSamplingRequestFilter extends OncePerRequestFilter {
+
+  private static final String ATTRIBUTE = LogSamplingRequestFilter.class.getName() + ".sampled";
+
+  private final double rate;
+
+  public LogSamplingRequestFilter(@Value("${logging.sampling.info-rate:1.0}") double rate) {
+    this.rate = rate;
+  }
+
+  @Override
+  protected boolean shouldNotFilterAsyncDispatch() {
+    return false;
+  }
+
+  @Override
+  protected void doFilterInternal(
+      HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+      throws ServletException, IOException {
+    Boolean sampled = (Boolean) request.getAttribute(ATTRIBUTE);
+    if (sampled == null) {
+      sampled = ThreadLocalRandom.current().nextDouble() < rate;
+      request.setAttribute(ATTRIBUTE, sampled);
+    }
+    MDC.put(InfoLogSamplingFilter.MDC_KEY, sampled.toString());
+    try {
+      chain.doFilter(request, response);
+    } finally {
+      MDC.remove(InfoLogSamplingFilter.MDC_KEY);
+    }
+  }
+}
@@ -1,5 +1,6 @@
 package com.ajinz.githubsearch.config;
 
+import com.ajinz.githubsearch.timing.ServerTiming;
 import jakarta.servlet.*;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
@@ -26,12 +27,17 @@ public class RateLimitingFilter implements Filter {
       return;
     }
 
+    ServerTiming timing = ServerTiming.from(req);
+    long start = System.nanoTime();
     String ip = req.getRemoteAddr();
     long now = System.currentTimeMillis();
     long minute = now / 60000;
     String key = ip + ":" + minute;
 
-    if (requests.merge(key, 1L, Long::sum) > MAX_REQUESTS) {
+    boolean limited = requests.merge(key, 1L, Long::sum) > MAX_REQUESTS;
+    timing.record("ratelimit", System.nanoTime() - start);
+
+    if (limited) {
       res.setStatus(429);
       res.getWriter().write("{\"error\":\"Too many requests\"}");
       return;
@@ -0,0 +1,62 @@
+package com.ajinz.githubsearch.config;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+/**
+ * Non-blocking (R2DBC) connections to the same database the JDBC {@code DataSource} points at.
+ *
+ * <p>The pool is deliberately not exposed as a {@code ConnectionFactory} bean: Spring Boot backs
+ * off its {@code DataSource}, and with it JPA and Flyway, as soon as one exists. For the same
+ * reason the R2DBC auto-configuration is excluded in {@code application.properties}, and the
+ * reactive transaction manager stays private so {@code @Transactional} keeps resolving to JPA.
+ */
+@Component
+public class ReactiveDatabase implements DisposableBean {
+
+  private final ConnectionPool connectionPool;
+  private final DatabaseClient databaseClient;
+  private final TransactionalOperator transactionalOperator;
+
+  public ReactiveDatabase(
+      @Value("${repository.r2dbc.url}") String url,
+      @Value("${repository.r2dbc.username:}") String username,
+      @Value("${repository.r2dbc.password:}") String password,
+      @Value("${repository.r2dbc.max-pool-size:10}") int maxPoolSize) {
+    ConnectionFactoryOptions.Builder options = ConnectionFactoryOptions.parse(url).mutate();
+    if (!username.isEmpty()) {
+      options.option(ConnectionFactoryOptions.USER, username);
+      options.option(ConnectionFactoryOptions.PASSWORD, password);
+    }
+    this.connectionPool =
+        new ConnectionPool(
+            ConnectionPoolConfiguration.builder(ConnectionFactories.get(options.build()))
+                .initialSize(1)
+                .maxSize(maxPoolSize)
+                .build());
+    this.databaseClient = DatabaseClient.create(connectionPool);
+    this.transactionalOperator =
+        TransactionalOperator.create(new R2dbcTransactionManager(connectionPool));
+  }
+
+  public DatabaseClient client() {
+    return databaseClient;
+  }
+
+  public TransactionalOperator transactionalOperator() {
+    return transactionalOperator;
+  }
+
+  @Override
+  public void destroy() {
+    connectionPool.dispose();
+  }
+}
@@ -0,0 +1,118 @@
+package com.ajinz.githubsearch.config;
+
+import com.ajinz.githubsearch.dto.github.GitHubRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.ObjectCodec;
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.BeanSerializerModifier;
+import com.fasterxml.jackson.databind.ser.ResolvableSerializer;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Collection;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Caches the serialized JSON of stored {@link GitHubRepository} rows, keyed by database id and
+ * checked against the row version. Registered as a Jackson module, so every JSON response that
+ * contains stored repositories writes cached fragments raw into the output instead of walking the
+ * bean properties again.
+ *
+ * <p>Rows that are not persisted yet (search results straight from GitHub) and binary formats such
+ * as CBOR bypass the cache. The cache is a Caffeine cache of at most {@code maxEntries} fragments,
+ * so concurrent responses read and store fragments without a shared lock, and eviction keeps the
+ * rows that are served often, such as those on popular pages.
+ */
+@Component
+public class RepositoryJsonCache extends SimpleModule {
+
+  private final Cache<Long, Fragment> fragments;
+
+  public RepositoryJsonCache(@Value("${repository.json-cache.max-entries:100000}") int maxEntries) {
+    super(RepositoryJsonCache.class.getSimpleName());
+    this.fragments = Caffeine.newBuilder().maximumSize(maxEntries).build();
+    setSerializerModifier(
+        new BeanSerializerModifier() {
+          @Override
+          @SuppressWarnings("unchecked")
+          public JsonSerializer<?> modifySerializer(
+              SerializationConfig config,
+              BeanDescription beanDescription,
+              JsonSerializer<?> serializer) {
+            if (beanDescription.getBeanClass() == GitHubRepository.class) {
+              return new CachingSerializer((JsonSerializer<GitHubRepository>) serializer);
+            }
+            return serializer;
+          }
+        });
+  }
+
+  public void invalidate(Collection<GitHubRepository> repositories) {
+    for (GitHubRepository repository : repositories) {
+      if (repository.getDatabaseId() != null) {
+        fragments.invalidate(repository.getDatabaseId());
+      }
+    }
+  }
+
+  public long size() {
+    fragments.cleanUp();
+    return fragments.estimatedSize();
+  }
+
+  private record Fragment(long version, String json) {}
+
+  private class CachingSerializer extends StdSerializer<GitHubRepository>
+      implements ResolvableSerializer {
+
+    private final JsonSerializer<GitHubRepository> delegate;
+
+    CachingSerializer(JsonSerializer<GitHubRepository> delegate) {
+      super(GitHubRepository.class);
+      this.delegate = delegate;
+    }
+
+    @Override
+    public void resolve(SerializerProvider provider) throws JsonMappingException {
+      if (delegate instanceof ResolvableSerializer resolvable) {
+        resolvable.resolve(provider);
+      }
+    }
+
+    @Override
+    public void serialize(GitHubRepository repository, JsonGenerator gen, SerializerProvider provider)
+        throws IOException {
+      Long id = repository.getDatabaseId();
+      Long version = repository.getRowVersion();
+      ObjectCodec codec = gen.getCodec();
+      if (id == null || version == null || codec == null || gen.canWriteBinaryNatively()) {
+        delegate.serialize(repository, gen, provider);
+        return;
+      }
+
+      Fragment fragment = fragments.getIfPresent(id);
+      if (fragment == null || fragment.version() != version) {
+        fragment = new Fragment(version, render(repository, codec, provider));
+        fragments.put(id, fragment);
+      }
+      gen.writeRawValue(fragment.json());
+    }
+
+    private String render(GitHubRepository repository, ObjectCodec codec, SerializerProvider provider)
+        throws IOException {
+      StringWriter writer = new StringWriter(512);
+      try (JsonGenerator fragmentGenerator = codec.getFactory().createGenerator(writer)) {
+        delegate.serialize(repository, fragmentGenerator, provider);
+      }
+      return writer.toString();
+    }
+  }
+}
@@ -1,5 +1,6 @@
 package com.ajinz.githubsearch.config;
 
+import com.ajinz.githubsearch.timing.ServerTiming;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.reactive.function.client.WebClient;
@@ -9,6 +10,6 @@ public class WebClientConfig {
 
     @Bean
     public WebClient.Builder webClientBuilder() {
-        return WebClient.builder();
+        return WebClient.builder().filter(ServerTiming.exchangeFilter("github-headers"));
     }
 }
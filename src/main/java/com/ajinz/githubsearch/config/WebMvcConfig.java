@@ -0,0 +1,32 @@
+package com.ajinz.githubsearch.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import java.util.List;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class WebMvcConfig implements WebMvcConfigurer {
+
+  private final ObjectProvider<Jackson2ObjectMapperBuilder> objectMapperBuilder;
+
+  public WebMvcConfig(ObjectProvider<Jackson2ObjectMapperBuilder> objectMapperBuilder) {
+    this.objectMapperBuilder = objectMapperBuilder;
+  }
+
+  /**
+   * Adds CBOR ({@code Accept: application/cbor}) after the JSON converter, so JSON stays the default
+   * and CBOR is only chosen when asked for. Uses the same Jackson settings as the JSON mapper.
+   */
+  @Override
+  public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+    Jackson2ObjectMapperBuilder builder =
+        objectMapperBuilder.getIfAvailable(Jackson2ObjectMapperBuilder::json);
+    converters.add(
+        new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build()));
+  }
+}
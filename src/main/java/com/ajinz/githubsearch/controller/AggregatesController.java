@@ -0,0 +1,29 @@
+package com.ajinz.githubsearch.controller;
+
+import com.ajinz.githubsearch.dto.github.RepositoryAggregates;
+import com.ajinz.githubsearch.service.RepositoryAggregateService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RequestMapping("/api/github")
+@RestController
+public class AggregatesController {
+
+  private static final Logger logger = LoggerFactory.getLogger(AggregatesController.class);
+
+  private final RepositoryAggregateService repositoryAggregateService;
+
+  public AggregatesController(RepositoryAggregateService repositoryAggregateService) {
+    this.repositoryAggregateService = repositoryAggregateService;
+  }
+
+  @GetMapping("/repositories/aggregates")
+  public ResponseEntity<RepositoryAggregates> getAggregates() {
+    logger.info("Received GET request for repository aggregates");
+    return ResponseEntity.ok(repositoryAggregateService.getAggregates());
+  }
+}
@@ -0,0 +1,71 @@
+package com.ajinz.githubsearch.controller;
+
+import com.ajinz.githubsearch.dto.github.BatchSearchRequest;
+import com.ajinz.githubsearch.dto.github.BatchSearchResult;
+import com.ajinz.githubsearch.service.BatchSearchService;
+import jakarta.validation.Valid;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import reactor.core.Disposable;
+
+@RequestMapping("/api/github")
+@RestController
+public class BatchSearchController {
+
+  private static final Logger logger = LoggerFactory.getLogger(BatchSearchController.class);
+
+  private final BatchSearchService batchSearchService;
+
+  public BatchSearchController(BatchSearchService batchSearchService) {
+    this.batchSearchService = batchSearchService;
+  }
+
+  /**
+   * Runs several searches in one call and writes one newline-delimited JSON result per distinct
+   * query, in completion order. The response ends once all found repositories are stored.
+   *
+   * <p>A batch waits for GitHub tokens at the pace of the rate budget, so instead of {@code
+   * spring.mvc.async.request-timeout} it times out after {@link BatchSearchService#timeout}.
+   */
+  @PostMapping(
+      value = "/search/repositories/batch",
+      produces = MediaType.APPLICATION_NDJSON_VALUE)
+  public ResponseBodyEmitter searchRepositories(@Valid @RequestBody BatchSearchRequest request) {
+    logger.info("Received POST request to run a batch of {} searches", request.queries().size());
+
+    ResponseBodyEmitter emitter =
+        new ResponseBodyEmitter(batchSearchService.timeout(request.queries().size()).toMillis()) {
+          @Override
+          protected void extendResponse(ServerHttpResponse outputMessage) {
+            outputMessage.getHeaders().setContentType(MediaType.APPLICATION_NDJSON);
+          }
+        };
+    Disposable batch =
+        batchSearchService
+            .search(request.queries())
+            .doOnError(ex -> logger.error("Error storing batch search results", ex))
+            .subscribe(
+                result -> send(emitter, result), emitter::completeWithError, emitter::complete);
+    emitter.onTimeout(batch::dispose);
+    emitter.onError(ex -> batch.dispose());
+    return emitter;
+  }
+
+  private static void send(ResponseBodyEmitter emitter, BatchSearchResult result) {
+    try {
+      emitter.send(result, MediaType.APPLICATION_JSON);
+      emitter.send("\n", MediaType.TEXT_PLAIN);
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+  }
+}
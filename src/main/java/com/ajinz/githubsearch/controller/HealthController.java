@@ -0,0 +1,78 @@
+package com.ajinz.githubsearch.controller;
+
+import com.ajinz.githubsearch.dto.github.ReadinessReport;
+import com.ajinz.githubsearch.dto.github.WarmupReport;
+import com.ajinz.githubsearch.health.SaturationHealthIndicator;
+import com.ajinz.githubsearch.service.StartupWarmup;
+import java.util.List;
+import org.springframework.boot.availability.ApplicationAvailability;
+import org.springframework.boot.availability.LivenessState;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RequestMapping("/api/github")
+@RestController
+public class HealthController {
+
+  private final ApplicationAvailability applicationAvailability;
+  private final StartupWarmup startupWarmup;
+  private final SaturationHealthIndicator saturationHealthIndicator;
+
+  public HealthController(
+      ApplicationAvailability applicationAvailability,
+      StartupWarmup startupWarmup,
+      SaturationHealthIndicator saturationHealthIndicator) {
+    this.applicationAvailability = applicationAvailability;
+    this.startupWarmup = startupWarmup;
+    this.saturationHealthIndicator = saturationHealthIndicator;
+  }
+
+  /** 200 once the instance accepts traffic, that is after startup and warm-up; 503 before. */
+  @GetMapping("/health")
+  public ResponseEntity<String> health() {
+    if (applicationAvailability.getReadinessState() != ReadinessState.ACCEPTING_TRAFFIC) {
+      return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body("WARMING_UP");
+    }
+    return ResponseEntity.ok("OK");
+  }
+
+  /** 200 while the process works, whatever its load; 503 only if it is broken for good. */
+  @GetMapping("/health/live")
+  public ResponseEntity<String> liveness() {
+    if (applicationAvailability.getLivenessState() != LivenessState.CORRECT) {
+      return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body("BROKEN");
+    }
+    return ResponseEntity.ok("OK");
+  }
+
+  /** 200 when warmed up and not saturated, 503 otherwise; the body lists the cached signals. */
+  @GetMapping("/health/ready")
+  public ResponseEntity<ReadinessReport> readiness() {
+    List<ReadinessReport.Check> checks = saturationHealthIndicator.checks();
+    ReadinessReport.Status status;
+    if (applicationAvailability.getReadinessState() != ReadinessState.ACCEPTING_TRAFFIC) {
+      status = ReadinessReport.Status.WARMING_UP;
+    } else if (checks.stream().anyMatch(ReadinessReport.Check::saturated)) {
+      status = ReadinessReport.Status.SATURATED;
+    } else {
+      status = ReadinessReport.Status.READY;
+    }
+    ReadinessReport report =
+        new ReadinessReport(status, checks, saturationHealthIndicator.details());
+    return status == ReadinessReport.Status.READY
+        ? ResponseEntity.ok(report)
+        : ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(report);
+  }
+
+  @GetMapping("/warmup")
+  public ResponseEntity<WarmupReport> getWarmupReport() {
+    return startupWarmup
+        .getReport()
+        .map(ResponseEntity::ok)
+        .orElseGet(() -> ResponseEntity.notFound().build());
+  }
+}
@@ -0,0 +1,51 @@
+package com.ajinz.githubsearch.controller;
+
+import com.ajinz.githubsearch.dto.github.LocalSearchPage;
+import com.ajinz.githubsearch.dto.github.NameMatch;
+import com.ajinz.githubsearch.service.LocalSearchService;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RequestMapping("/api/github")
+@RestController
+public class LocalSearchController {
+
+  private static final Logger logger = LoggerFactory.getLogger(LocalSearchController.class);
+
+  private final LocalSearchService localSearchService;
+
+  public LocalSearchController(LocalSearchService localSearchService) {
+    this.localSearchService = localSearchService;
+  }
+
+  @GetMapping("/repositories/search")
+  public ResponseEntity<LocalSearchPage> searchStoredRepositories(
+      @RequestParam String q,
+      @RequestParam(required = false) String language,
+      @RequestParam(required = false) Integer minStars,
+      @RequestParam(required = false, defaultValue = "20") int limit,
+      @RequestParam(required = false) String cursor) {
+    logger.info(
+        "Received GET request for local search - q: {}, language: {}, minStars: {}, limit: {}",
+        q,
+        language,
+        minStars,
+        limit);
+
+    return ResponseEntity.ok(localSearchService.search(q, language, minStars, limit, cursor));
+  }
+
+  @GetMapping("/repositories/match")
+  public ResponseEntity<List<NameMatch>> matchRepositoryNames(
+      @RequestParam String q, @RequestParam(required = false, defaultValue = "10") int limit) {
+    logger.info("Received GET request for name match - q: {}, limit: {}", q, limit);
+
+    return ResponseEntity.ok(localSearchService.matchNames(q, limit));
+  }
+}
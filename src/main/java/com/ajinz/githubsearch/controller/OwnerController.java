@@ -0,0 +1,55 @@
+package com.ajinz.githubsearch.controller;
+
+import com.ajinz.githubsearch.dto.github.GitHubRepository;
+import com.ajinz.githubsearch.dto.github.OwnerSummary;
+import com.ajinz.githubsearch.service.OwnerAggregateService;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RequestMapping("/api/github")
+@RestController
+public class OwnerController {
+
+  private static final Logger logger = LoggerFactory.getLogger(OwnerController.class);
+
+  private final OwnerAggregateService ownerAggregateService;
+
+  public OwnerController(OwnerAggregateService ownerAggregateService) {
+    this.ownerAggregateService = ownerAggregateService;
+  }
+
+  @GetMapping("/owners")
+  public ResponseEntity<List<OwnerSummary>> getOwners(
+      @RequestParam(required = false, defaultValue = "stars") String sort,
+      @RequestParam(required = false, defaultValue = "0") int page,
+      @RequestParam(required = false, defaultValue = "20") int size) {
+    logger.info(
+        "Received GET request for owners - sort: {}, page: {}, size: {}", sort, page, size);
+
+    return ResponseEntity.ok(ownerAggregateService.getOwners(sort, page, size));
+  }
+
+  @GetMapping("/owners/{owner}/repositories")
+  public ResponseEntity<List<GitHubRepository>> getOwnerRepositories(
+      @PathVariable String owner,
+      @RequestParam(required = false, defaultValue = "0") int page,
+      @RequestParam(required = false, defaultValue = "20") int size) {
+    logger.info(
+        "Received GET request for repositories of owner {} - page: {}, size: {}",
+        owner,
+        page,
+        size);
+
+    return ownerAggregateService
+        .getOwnerRepositories(owner, page, size)
+        .map(ResponseEntity::ok)
+        .orElseGet(() -> ResponseEntity.notFound().build());
+  }
+}
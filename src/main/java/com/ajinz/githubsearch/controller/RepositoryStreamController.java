@@ -0,0 +1,45 @@
+package com.ajinz.githubsearch.controller;
+
+import com.ajinz.githubsearch.dto.github.GitHubRepository;
+import com.ajinz.githubsearch.service.GitHubRepositoryService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+
+@RequestMapping("/api/github")
+@RestController
+public class RepositoryStreamController {
+
+  private static final Logger logger = LoggerFactory.getLogger(RepositoryStreamController.class);
+
+  private final GitHubRepositoryService gitHubRepositoryService;
+
+  public RepositoryStreamController(GitHubRepositoryService gitHubRepositoryService) {
+    this.gitHubRepositoryService = gitHubRepositoryService;
+  }
+
+  /**
+   * Same filters as {@code GET /repositories}, written as newline-delimited JSON while rows are
+   * read. The next row is only requested once the previous one was written to the client.
+   */
+  @GetMapping(value = "/repositories/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+  public Flux<GitHubRepository> streamRepositories(
+      @RequestParam(required = false) String language,
+      @RequestParam(required = false) Integer minStars,
+      @RequestParam(required = false, defaultValue = "stars") String sort) {
+    logger.info(
+        "Received GET request to stream repositories - language: {}, minStars: {}, sort: {}",
+        language,
+        minStars,
+        sort);
+
+    return gitHubRepositoryService
+        .streamFilteredRepositories(language, minStars, sort)
+        .doOnError(ex -> logger.error("Error streaming repositories", ex));
+  }
+}
@@ -1,13 +1,21 @@
 package com.ajinz.githubsearch.controller;
 
+import com.ajinz.githubsearch.concurrency.BulkheadFullException;
+import com.ajinz.githubsearch.concurrency.Bulkheads;
 import com.ajinz.githubsearch.dto.github.GitHubRepository;
-import com.ajinz.githubsearch.dto.github.GitHubSearchResponse;
 import com.ajinz.githubsearch.dto.github.GithubSearchRequest;
+import com.ajinz.githubsearch.dto.github.ProjectedSearchResponse;
+import com.ajinz.githubsearch.dto.github.RepositoryFieldSet;
+import com.ajinz.githubsearch.dto.github.RepositoryProjection;
 import com.ajinz.githubsearch.service.GitHubRepositoryService;
 import com.ajinz.githubsearch.service.GitHubSearchService;
+import com.ajinz.githubsearch.service.ListingQueryLog;
+import com.ajinz.githubsearch.service.RateBudgetExhaustedException;
+import com.ajinz.githubsearch.timing.ServerTiming;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import java.util.List;
-import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.ResponseEntity;
@@ -21,53 +29,98 @@ public class SearchController {
 
   private final GitHubRepositoryService gitHubRepositoryService;
   private final GitHubSearchService gitHubSearchService;
+  private final Bulkheads bulkheads;
+  private final ListingQueryLog listingQueryLog;
 
   public SearchController(
-      GitHubRepositoryService gitHubRepositoryService, GitHubSearchService gitHubSearchService) {
+      GitHubRepositoryService gitHubRepositoryService,
+      GitHubSearchService gitHubSearchService,
+      Bulkheads bulkheads,
+      ListingQueryLog listingQueryLog) {
     this.gitHubRepositoryService = gitHubRepositoryService;
     this.gitHubSearchService = gitHubSearchService;
-  }
-
-  @GetMapping("/health")
-  public ResponseEntity<String> health() {
-    return ResponseEntity.ok("OK");
+    this.bulkheads = bulkheads;
+    this.listingQueryLog = listingQueryLog;
   }
 
   @PostMapping("/search/repositories")
-  public Callable<ResponseEntity<GitHubSearchResponse>> searchRepositories(
-      @Valid @RequestBody GithubSearchRequest request) {
+  public CompletableFuture<ResponseEntity<?>> searchRepositories(
+      @Valid @RequestBody GithubSearchRequest request,
+      @RequestParam(required = false) String fields,
+      HttpServletRequest httpRequest) {
     logger.info("Received POST request to search repositories with query: {}", request.query());
+    RepositoryFieldSet fieldSet = fields != null ? RepositoryFieldSet.parse(fields) : null;
+    ServerTiming timing = ServerTiming.from(httpRequest);
 
-    return () -> {
-      try {
-        GitHubSearchResponse response = gitHubSearchService.searchRepositories(request).block();
-        logger.info("Successfully completed async search for query: {}", request.query());
-        return ResponseEntity.ok(response);
-      } catch (Exception e) {
-        logger.error("Error during async repository search", e);
-        throw e;
-      }
-    };
+    // The search is non-blocking: it holds a slot of the search lane, not one of its threads
+    return bulkheads
+        .search()
+        .admit(gitHubSearchService.searchRepositories(request).contextWrite(timing::writeTo))
+        .<ResponseEntity<?>>map(
+            response -> {
+              logger.info("Successfully completed async search for query: {}", request.query());
+              if (fieldSet != null) {
+                return ResponseEntity.ok(ProjectedSearchResponse.of(response, fieldSet));
+              }
+              return ResponseEntity.ok(response);
+            })
+        .doOnError(
+            e -> !(e instanceof RateBudgetExhaustedException),
+            e -> logger.error("Error during async repository search", e))
+        .toFuture();
   }
 
   @GetMapping("/repositories")
-  public ResponseEntity<List<GitHubRepository>> getFilteredRepositories(
+  public ResponseEntity<?> getFilteredRepositories(
       @RequestParam(required = false) String language,
       @RequestParam(required = false) Integer minStars,
-      @RequestParam(required = false, defaultValue = "stars") String sort) {
+      @RequestParam(required = false, defaultValue = "stars") String sort,
+      @RequestParam(required = false) String fields,
+      HttpServletRequest httpRequest) {
 
     logger.info(
         "Received GET request for repositories with filters - language: {}, minStars: {}, sort: {}",
         language,
         minStars,
         sort);
+    RepositoryFieldSet fieldSet = fields != null ? RepositoryFieldSet.parse(fields) : null;
 
     try {
+      if (fieldSet != null) {
+        RepositoryProjection projection =
+            ServerTiming.from(httpRequest)
+                .time(
+                    "db",
+                    () ->
+                        bulkheads
+                            .reads()
+                            .call(
+                                () ->
+                                    gitHubRepositoryService.getFilteredRepositories(
+                                        language, minStars, sort, fieldSet)));
+
+        logger.info("Returning {} filtered repositories", projection.size());
+        listingQueryLog.record(language, minStars, sort);
+        return ResponseEntity.ok(projection);
+      }
+
       List<GitHubRepository> repositories =
-          gitHubRepositoryService.getFilteredRepositories(language, minStars, sort);
+          ServerTiming.from(httpRequest)
+              .time(
+                  "db",
+                  () ->
+                      bulkheads
+                          .reads()
+                          .call(
+                              () ->
+                                  gitHubRepositoryService.getFilteredRepositories(
+                                      language, minStars, sort)));
 
       logger.info("Returning {} filtered repositories", repositories.size());
+      listingQueryLog.record(language, minStars, sort);
       return ResponseEntity.ok(repositories);
+    } catch (BulkheadFullException e) {
+      throw e;
     } catch (Exception e) {
       logger.error("Error fetching filtered repositories", e);
       return ResponseEntity.internalServerError().build();
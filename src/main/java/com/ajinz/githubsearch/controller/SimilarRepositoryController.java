@@ -0,0 +1,39 @@
+package com.ajinz.githubsearch.controller;
+
+import com.ajinz.githubsearch.dto.github.SimilarRepository;
+import com.ajinz.githubsearch.service.SimilarRepositoryService;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RequestMapping("/api/github")
+@RestController
+public class SimilarRepositoryController {
+
+  private static final Logger logger = LoggerFactory.getLogger(SimilarRepositoryController.class);
+
+  private final SimilarRepositoryService similarRepositoryService;
+
+  public SimilarRepositoryController(SimilarRepositoryService similarRepositoryService) {
+    this.similarRepositoryService = similarRepositoryService;
+  }
+
+  @GetMapping("/repositories/{githubRepoId}/similar")
+  public ResponseEntity<List<SimilarRepository>> getSimilarRepositories(
+      @PathVariable long githubRepoId,
+      @RequestParam(required = false, defaultValue = "10") int limit) {
+    logger.info(
+        "Received GET request for repositories similar to {} - limit: {}", githubRepoId, limit);
+
+    return similarRepositoryService
+        .findSimilar(githubRepoId, limit)
+        .map(ResponseEntity::ok)
+        .orElseGet(() -> ResponseEntity.notFound().build());
+  }
+}
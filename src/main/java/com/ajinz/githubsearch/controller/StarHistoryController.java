@@ -0,0 +1,37 @@
+package com.ajinz.githubsearch.controller;
+
+import com.ajinz.githubsearch.dto.github.TrendingRepository;
+import com.ajinz.githubsearch.service.StarHistoryService;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RequestMapping("/api/github")
+@RestController
+public class StarHistoryController {
+
+  private static final Logger logger = LoggerFactory.getLogger(StarHistoryController.class);
+
+  private final StarHistoryService starHistoryService;
+
+  public StarHistoryController(StarHistoryService starHistoryService) {
+    this.starHistoryService = starHistoryService;
+  }
+
+  @GetMapping("/repositories/trending")
+  public ResponseEntity<List<TrendingRepository>> getTrendingRepositories(
+      @RequestParam(required = false, defaultValue = "7") int windowDays,
+      @RequestParam(required = false, defaultValue = "20") int limit) {
+    logger.info(
+        "Received GET request for trending repositories - windowDays: {}, limit: {}",
+        windowDays,
+        limit);
+
+    return ResponseEntity.ok(starHistoryService.getTrendingRepositories(windowDays, limit));
+  }
+}
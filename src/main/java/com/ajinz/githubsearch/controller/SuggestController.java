@@ -0,0 +1,34 @@
+package com.ajinz.githubsearch.controller;
+
+import com.ajinz.githubsearch.dto.github.Suggestion;
+import com.ajinz.githubsearch.service.SuggestService;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RequestMapping("/api/github")
+@RestController
+public class SuggestController {
+
+  private static final Logger logger = LoggerFactory.getLogger(SuggestController.class);
+
+  private final SuggestService suggestService;
+
+  public SuggestController(SuggestService suggestService) {
+    this.suggestService = suggestService;
+  }
+
+  @GetMapping("/repositories/suggest")
+  public ResponseEntity<List<Suggestion>> suggestRepositories(
+      @RequestParam String q, @RequestParam(required = false, defaultValue = "10") int limit) {
+    // Called on every keystroke, so keep it out of the INFO log
+    logger.debug("Received GET request for suggestions - q: {}, limit: {}", q, limit);
+
+    return ResponseEntity.ok(suggestService.suggest(q, limit));
+  }
+}
@@ -0,0 +1,18 @@
+package com.ajinz.githubsearch.dto.github;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+
+public record BatchSearchRequest(
+    @NotEmpty(message = "Queries cannot be empty")
+        @Size(
+            max = BatchSearchRequest.MAX_QUERIES,
+            message =
+                "A batch cannot contain more than " + BatchSearchRequest.MAX_QUERIES + " queries")
+        List<@Valid GithubSearchRequest> queries) {
+
+  // At the default 10 requests per minute a full batch waits up to five minutes for its tokens
+  public static final int MAX_QUERIES = 50;
+}
@@ -0,0 +1,15 @@
+package com.ajinz.githubsearch.dto.github;
+
+/** Outcome of one query of a batch: either the GitHub response or the error it failed with. */
+public record BatchSearchResult(
+    GithubSearchRequest request, GitHubSearchResponse response, String error) {
+
+  public static BatchSearchResult success(
+      GithubSearchRequest request, GitHubSearchResponse response) {
+    return new BatchSearchResult(request, response, null);
+  }
+
+  public static BatchSearchResult failure(GithubSearchRequest request, Throwable error) {
+    return new BatchSearchResult(request, null, error.getMessage());
+  }
+}
@@ -1,5 +1,6 @@
 package com.ajinz.githubsearch.dto.github;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import java.time.LocalDateTime;
@@ -49,6 +50,20 @@ public class GitHubRepository {
   @Column(name = "updated_at")
   private LocalDateTime updatedAt = LocalDateTime.now();
 
+  // Our ranking score, not GitHub's search score of the same name
+  @JsonIgnore
+  @Column(name = "score")
+  private Double score = 0.0;
+
+  // MinHash signature for similar-repository lookups
+  @JsonIgnore
+  @Column(name = "minhash")
+  private byte[] minhash;
+
+  @Version
+  @Column(name = "row_version")
+  private Long rowVersion;
+
   @JsonProperty("full_url")
   @Transient
   private LocalDateTime full_url;
@@ -99,6 +114,28 @@ public class GitHubRepository {
     this.updatedAt = LocalDateTime.now();
   }
 
+  /** Adopts the database-assigned state of a row written or read without JPA (the R2DBC path). */
+  public GitHubRepository withStoredState(
+      Long id, Long rowVersion, LocalDateTime createdAt, LocalDateTime updatedAt) {
+    this.id = id;
+    this.rowVersion = rowVersion;
+    this.createdAt = createdAt;
+    this.updatedAt = updatedAt;
+    return this;
+  }
+
+  /** Sets the ranking score computed by {@code RepositoryScore}. */
+  public GitHubRepository withScore(Double score) {
+    this.score = score;
+    return this;
+  }
+
+  /** Sets the MinHash signature computed at ingest. */
+  public GitHubRepository withMinhash(byte[] minhash) {
+    this.minhash = minhash;
+    return this;
+  }
+
   @JsonProperty("owner")
   public void setOwner(java.util.Map<String, Object> owner) {
     if (owner != null) {
@@ -111,6 +148,26 @@ public class GitHubRepository {
     return "https://github.com/" + this.ownerName + "/" + this.repoName;
   }
 
+  @JsonIgnore
+  public Long getDatabaseId() {
+    return id;
+  }
+
+  @JsonIgnore
+  public Long getRowVersion() {
+    return rowVersion;
+  }
+
+  @JsonIgnore
+  public Double getScore() {
+    return score;
+  }
+
+  @JsonIgnore
+  public byte[] getMinhash() {
+    return minhash;
+  }
+
   public Long getGithubRepoId() {
     return githubRepoId;
   }
@@ -0,0 +1,146 @@
+package com.ajinz.githubsearch.dto.github;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Compiles a {@link GithubSearchRequest} into the {@code q} parameter of the GitHub search API.
+ *
+ * <p>The result is canonical: free-text terms keep their order with whitespace collapsed, while
+ * qualifiers, the typed ones as well as any written into the text, are lower-cased (GitHub treats
+ * them case-insensitively), deduplicated and sorted. Requests that differ only in qualifier order,
+ * case or spacing therefore compile to the same query and share one {@link #cacheKey}.
+ *
+ * <p>Only the repository search qualifiers GitHub documents count as qualifiers, so text such as
+ * {@code https://github.com} or {@code note:todo} stays a free-text term. Text using {@code AND},
+ * {@code OR}, {@code NOT} or parentheses is kept as written, since moving a qualifier out of its
+ * operand would change what the query matches; the typed qualifiers still follow it.
+ */
+public final class GitHubSearchQuery {
+
+  private static final Set<String> QUALIFIER_NAMES =
+      Set.of(
+          "archived",
+          "created",
+          "followers",
+          "fork",
+          "forks",
+          "good-first-issues",
+          "help-wanted-issues",
+          "in",
+          "is",
+          "language",
+          "license",
+          "mirror",
+          "org",
+          "pushed",
+          "repo",
+          "size",
+          "stars",
+          "template",
+          "topic",
+          "topics",
+          "user");
+  private static final Pattern QUALIFIER = Pattern.compile("-?([A-Za-z-]+):\\S.*");
+  private static final Set<String> OPERATORS = Set.of("AND", "OR", "NOT");
+
+  private GitHubSearchQuery() {}
+
+  public static String compile(GithubSearchRequest request) {
+    List<String> terms = new ArrayList<>();
+    TreeSet<String> qualifiers = new TreeSet<>();
+    List<String> tokens = tokenize(request.query());
+    boolean keepAsWritten = tokens.stream().anyMatch(GitHubSearchQuery::isOperator);
+    for (String token : tokens) {
+      if (!keepAsWritten && isQualifier(token)) {
+        qualifiers.add(token.toLowerCase(Locale.ROOT));
+      } else {
+        terms.add(token);
+      }
+    }
+
+    String language = request.language();
+    if (language != null && !language.isBlank()) {
+      qualifiers.add("language:" + quoteIfNeeded(language.trim().toLowerCase(Locale.ROOT)));
+    }
+    if (request.minStars() != null) {
+      qualifiers.add("stars:>=" + request.minStars());
+    }
+    if (request.pushedAfter() != null) {
+      qualifiers.add("pushed:>" + request.pushedAfter());
+    }
+    for (String topic : request.topics()) {
+      qualifiers.add("topic:" + quoteIfNeeded(topic.toLowerCase(Locale.ROOT)));
+    }
+    if (request.archived() != null) {
+      qualifiers.add("archived:" + request.archived());
+    }
+
+    terms.addAll(qualifiers);
+    return String.join(" ", terms);
+  }
+
+  /** Identifies the upstream request: the canonical query plus sort, order and page. */
+  public static String cacheKey(GithubSearchRequest request) {
+    return compile(request)
+        + "|"
+        + request.sort()
+        + "|"
+        + request.order()
+        + "|"
+        + request.page()
+        + "|"
+        + request.perPage();
+  }
+
+  private static boolean isQualifier(String token) {
+    Matcher matcher = QUALIFIER.matcher(token);
+    return matcher.matches() && QUALIFIER_NAMES.contains(matcher.group(1).toLowerCase(Locale.ROOT));
+  }
+
+  private static boolean isOperator(String token) {
+    return OPERATORS.contains(token) || token.startsWith("(") || token.endsWith(")");
+  }
+
+  /** Splits on whitespace, except inside double quotes, where a backslash escapes a quote. */
+  private static List<String> tokenize(String text) {
+    List<String> tokens = new ArrayList<>();
+    StringBuilder token = new StringBuilder();
+    boolean quoted = false;
+    for (int i = 0; i < text.length(); i++) {
+      char c = text.charAt(i);
+      if (quoted && c == '\\' && i + 1 < text.length()) {
+        token.append(c).append(text.charAt(++i));
+        continue;
+      }
+      if (c == '"') {
+        quoted = !quoted;
+      }
+      if (Character.isWhitespace(c) && !quoted) {
+        if (!token.isEmpty()) {
+          tokens.add(token.toString());
+          token.setLength(0);
+        }
+      } else {
+        token.append(c);
+      }
+    }
+    if (!token.isEmpty()) {
+      tokens.add(token.toString());
+    }
+    return tokens;
+  }
+
+  /** Quotes values with whitespace or quotes, escaping backslashes and quotes inside. */
+  private static String quoteIfNeeded(String value) {
+    if (value.chars().noneMatch(c -> Character.isWhitespace(c) || c == '"')) {
+      return value;
+    }
+    return "\"" + value.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+  }
+}
@@ -3,7 +3,15 @@ package com.ajinz.githubsearch.dto.github;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+import java.time.LocalDate;
+import java.util.List;
 
+/**
+ * A GitHub repository search. Besides the free-text {@code query}, the typed qualifiers are
+ * compiled into the upstream query by {@link GitHubSearchQuery}, so GitHub does the filtering.
+ */
 public record GithubSearchRequest(
     @NotBlank(message = "Query cannot be blank") String query,
     String language,
@@ -14,12 +22,28 @@ public record GithubSearchRequest(
         Integer page,
     @Min(value = 1, message = "Per page must be at least 1")
         @Max(value = 100, message = "Per page cannot exceed 100")
-        Integer perPage) {
+        Integer perPage,
+    @Min(value = 0, message = "Minimum stars cannot be negative") Integer minStars,
+    LocalDate pushedAfter,
+    @Size(max = 20, message = "At most 20 topics can be requested")
+        List<
+                @Pattern(
+                    regexp = "[A-Za-z0-9][A-Za-z0-9-]{0,49}",
+                    message = "Topics contain only letters, digits and hyphens")
+                String>
+            topics,
+    Boolean archived) {
   public GithubSearchRequest {
     // Set defaults
     page = page != null ? page : 1;
     perPage = perPage != null ? perPage : 10;
     sort = sort != null ? sort : Sort.STARS;
     order = order != null ? order : Order.DESC;
+    topics = topics != null ? List.copyOf(topics) : List.of();
+  }
+
+  public GithubSearchRequest(
+      String query, String language, Sort sort, Order order, Integer page, Integer perPage) {
+    this(query, language, sort, order, page, perPage, null, null, null, null);
   }
 }
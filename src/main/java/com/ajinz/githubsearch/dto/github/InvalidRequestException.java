@@ -0,0 +1,13 @@
+package com.ajinz.githubsearch.dto.github;
+
+/**
+ * Thrown when a request parameter fails validation. {@code GlobalExceptionHandler} answers it with
+ * 400 and its message, so the message must be safe to show to the client; any other {@link
+ * IllegalArgumentException} is a server error.
+ */
+public class InvalidRequestException extends IllegalArgumentException {
+
+  public InvalidRequestException(String message) {
+    super(message);
+  }
+}
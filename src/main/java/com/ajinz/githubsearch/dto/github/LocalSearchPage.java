@@ -0,0 +1,8 @@
+package com.ajinz.githubsearch.dto.github;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.util.List;
+
+/** One page of local search results; {@code next_cursor} is null on the last page. */
+public record LocalSearchPage(
+    List<LocalSearchResult> items, @JsonProperty("next_cursor") String nextCursor) {}
@@ -0,0 +1,13 @@
+package com.ajinz.githubsearch.dto.github;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+public record LocalSearchResult(
+    @JsonProperty("id") Long githubRepoId,
+    String name,
+    String owner,
+    String description,
+    String language,
+    @JsonProperty("stargazers_count") Integer starsCount,
+    @JsonProperty("forks_count") Integer forksCount,
+    Float rank) {}
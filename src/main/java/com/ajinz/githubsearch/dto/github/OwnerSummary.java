@@ -0,0 +1,11 @@
+package com.ajinz.githubsearch.dto.github;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.util.List;
+
+public record OwnerSummary(
+    String name,
+    @JsonProperty("repo_count") long repoCount,
+    @JsonProperty("total_stars") long totalStars,
+    @JsonProperty("total_forks") long totalForks,
+    @JsonProperty("top_languages") List<String> topLanguages) {}
@@ -0,0 +1,13 @@
+package com.ajinz.githubsearch.dto.github;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+public record ProjectedSearchResponse(
+    @JsonProperty("incomplete_results") Boolean incompleteResults, RepositoryProjection items) {
+
+  public static ProjectedSearchResponse of(
+      GitHubSearchResponse response, RepositoryFieldSet fields) {
+    return new ProjectedSearchResponse(
+        response.incompleteResults(), RepositoryProjection.of(fields, response.items()));
+  }
+}
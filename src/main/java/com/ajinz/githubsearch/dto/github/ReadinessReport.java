@@ -0,0 +1,24 @@
+package com.ajinz.githubsearch.dto.github;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @param checks the local saturation signals that make the instance unready
+ * @param details signals reported for information only, such as the GitHub rate limit wait and
+ *     the concurrency limiter state, which another instance would see alike
+ */
+public record ReadinessReport(Status status, List<Check> checks, Map<String, Number> details) {
+
+  public enum Status {
+    READY,
+    WARMING_UP,
+    SATURATED
+  }
+
+  /**
+   * One saturation signal; the check fails once {@code value} reaches {@code threshold}. Values
+   * are ratios, milliseconds or request counts depending on the check.
+   */
+  public record Check(String name, boolean saturated, double value, double threshold) {}
+}
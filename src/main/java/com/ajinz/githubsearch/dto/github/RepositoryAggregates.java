@@ -0,0 +1,23 @@
+package com.ajinz.githubsearch.dto.github;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.util.List;
+
+public record RepositoryAggregates(
+    @JsonProperty("total_count") long totalCount,
+    Distribution stars,
+    Distribution forks,
+    List<LanguageAggregate> languages) {
+
+  public record LanguageAggregate(
+      String language,
+      long count,
+      @JsonProperty("total_stars") long totalStars,
+      @JsonProperty("total_forks") long totalForks,
+      Distribution stars,
+      Distribution forks) {}
+
+  public record Distribution(long p50, long p90, long p99, List<HistogramBucket> histogram) {}
+
+  public record HistogramBucket(long min, long max, long count) {}
+}
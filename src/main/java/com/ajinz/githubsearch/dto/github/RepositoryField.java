@@ -0,0 +1,45 @@
+package com.ajinz.githubsearch.dto.github;
+
+import java.util.function.Function;
+
+/** Selectable {@link GitHubRepository} properties, keyed by their JSON name. */
+public enum RepositoryField {
+  ID("id", "r.githubRepoId", GitHubRepository::getGithubRepoId),
+  NAME("name", "r.repoName", GitHubRepository::getRepoName),
+  DESCRIPTION("description", "r.description", GitHubRepository::getDescription),
+  OWNER("owner", "r.ownerName", GitHubRepository::getOwnerName),
+  LANGUAGE("language", "r.programmingLanguage", GitHubRepository::getProgrammingLanguage),
+  STARS("stargazers_count", "r.starsCount", GitHubRepository::getStarsCount),
+  FORKS("forks_count", "r.forksCount", GitHubRepository::getForksCount),
+  LAST_UPDATED("updated_at", "r.gitRepoLastUpdatedDate", GitHubRepository::getGitRepoLastUpdatedDate),
+  CREATED_AT("createdAt", "r.createdAt", GitHubRepository::getCreatedAt),
+  UPDATED_AT("updatedAt", "r.updatedAt", GitHubRepository::getUpdatedAt),
+  FULL_URL(
+      "full_url",
+      "CONCAT('https://github.com/', r.ownerName, '/', r.repoName)",
+      GitHubRepository::setFullUrl);
+
+  private final String jsonName;
+  private final String selectExpression;
+  private final Function<GitHubRepository, Object> accessor;
+
+  RepositoryField(
+      String jsonName, String selectExpression, Function<GitHubRepository, Object> accessor) {
+    this.jsonName = jsonName;
+    this.selectExpression = selectExpression;
+    this.accessor = accessor;
+  }
+
+  public String getJsonName() {
+    return jsonName;
+  }
+
+  /** JPQL expression selecting this property from alias {@code r}. */
+  public String getSelectExpression() {
+    return selectExpression;
+  }
+
+  public Object valueOf(GitHubRepository repository) {
+    return accessor.apply(repository);
+  }
+}
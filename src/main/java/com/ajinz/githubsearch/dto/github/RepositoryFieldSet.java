@@ -0,0 +1,116 @@
+package com.ajinz.githubsearch.dto.github;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * A parsed {@code fields=} selection. Instances are cached per distinct selection and carry
+ * everything precomputed for the hot path: field order, pre-encoded JSON names and the JPQL select
+ * clause. Fields are always emitted in {@link RepositoryField} order, so {@code name,owner} and
+ * {@code owner,name} share one instance.
+ */
+public final class RepositoryFieldSet {
+
+  private static final RepositoryField[] ALL_FIELDS = RepositoryField.values();
+  private static final Map<String, RepositoryField> BY_JSON_NAME = new HashMap<>();
+  private static final ConcurrentHashMap<Integer, RepositoryFieldSet> CACHE =
+      new ConcurrentHashMap<>();
+
+  static {
+    for (RepositoryField field : ALL_FIELDS) {
+      BY_JSON_NAME.put(field.getJsonName(), field);
+    }
+  }
+
+  private final RepositoryField[] fields;
+  private final SerializedString[] names;
+  private final String selectClause;
+
+  private RepositoryFieldSet(int mask) {
+    this.fields =
+        Arrays.stream(ALL_FIELDS)
+            .filter(field -> (mask & (1 << field.ordinal())) != 0)
+            .toArray(RepositoryField[]::new);
+    this.names =
+        Arrays.stream(fields)
+            .map(field -> new SerializedString(field.getJsonName()))
+            .toArray(SerializedString[]::new);
+    this.selectClause =
+        Arrays.stream(fields)
+            .map(RepositoryField::getSelectExpression)
+            .collect(Collectors.joining(", "));
+  }
+
+  /**
+   * Parses a comma separated list of JSON property names.
+   *
+   * @throws InvalidRequestException if the list is empty or names an unknown property
+   */
+  public static RepositoryFieldSet parse(String fields) {
+    int mask = 0;
+    for (String name : fields.split(",")) {
+      String trimmed = name.trim();
+      if (trimmed.isEmpty()) {
+        continue;
+      }
+      RepositoryField field = BY_JSON_NAME.get(trimmed);
+      if (field == null) {
+        throw new InvalidRequestException(
+            "Unknown field '" + trimmed + "', expected any of " + BY_JSON_NAME.keySet());
+      }
+      mask |= 1 << field.ordinal();
+    }
+    if (mask == 0) {
+      throw new InvalidRequestException("At least one field must be requested");
+    }
+    return CACHE.computeIfAbsent(mask, RepositoryFieldSet::new);
+  }
+
+  public RepositoryField[] fields() {
+    return fields.clone();
+  }
+
+  public int size() {
+    return fields.length;
+  }
+
+  public String selectClause() {
+    return selectClause;
+  }
+
+  public Object[] extract(GitHubRepository repository) {
+    Object[] row = new Object[fields.length];
+    for (int i = 0; i < fields.length; i++) {
+      row[i] = fields[i].valueOf(repository);
+    }
+    return row;
+  }
+
+  public void writeRow(JsonGenerator gen, Object[] row, SerializerProvider provider)
+      throws IOException {
+    gen.writeStartObject();
+    for (int i = 0; i < names.length; i++) {
+      gen.writeFieldName(names[i]);
+      Object value = row[i];
+      if (value == null) {
+        gen.writeNull();
+      } else if (value instanceof String string) {
+        gen.writeString(string);
+      } else if (value instanceof Integer integer) {
+        gen.writeNumber(integer);
+      } else if (value instanceof Long number) {
+        gen.writeNumber(number);
+      } else {
+        provider.defaultSerializeValue(value, gen);
+      }
+    }
+    gen.writeEndObject();
+  }
+}
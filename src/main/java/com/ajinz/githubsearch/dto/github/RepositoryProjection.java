@@ -0,0 +1,40 @@
+package com.ajinz.githubsearch.dto.github;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import java.io.IOException;
+import java.util.List;
+
+/** Repositories reduced to a {@link RepositoryFieldSet}, serialized as a JSON array of objects. */
+@JsonSerialize(using = RepositoryProjection.Serializer.class)
+public record RepositoryProjection(RepositoryFieldSet fields, List<Object[]> rows) {
+
+  public static RepositoryProjection of(
+      RepositoryFieldSet fields, List<GitHubRepository> repositories) {
+    return new RepositoryProjection(fields, repositories.stream().map(fields::extract).toList());
+  }
+
+  public int size() {
+    return rows.size();
+  }
+
+  static class Serializer extends StdSerializer<RepositoryProjection> {
+
+    Serializer() {
+      super(RepositoryProjection.class);
+    }
+
+    @Override
+    public void serialize(
+        RepositoryProjection projection, JsonGenerator gen, SerializerProvider provider)
+        throws IOException {
+      gen.writeStartArray(projection, projection.rows.size());
+      for (Object[] row : projection.rows) {
+        projection.fields.writeRow(gen, row, provider);
+      }
+      gen.writeEndArray();
+    }
+  }
+}
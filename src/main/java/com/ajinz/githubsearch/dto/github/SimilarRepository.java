@@ -0,0 +1,13 @@
+package com.ajinz.githubsearch.dto.github;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/** A stored repository similar to the requested one, with the estimated Jaccard similarity. */
+public record SimilarRepository(
+    @JsonProperty("id") Long githubRepoId,
+    String name,
+    String owner,
+    String description,
+    String language,
+    @JsonProperty("stargazers_count") Integer starsCount,
+    double similarity) {}
@@ -0,0 +1,10 @@
+package com.ajinz.githubsearch.dto.github;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+public record Suggestion(
+    @JsonProperty("id") Long githubRepoId,
+    String name,
+    String owner,
+    String language,
+    @JsonProperty("stargazers_count") Integer starsCount) {}
@@ -0,0 +1,12 @@
+package com.ajinz.githubsearch.dto.github;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+public record TrendingRepository(
+    @JsonProperty("id") Long githubRepoId,
+    String name,
+    String owner,
+    String language,
+    @JsonProperty("stargazers_count") Integer starsCount,
+    @JsonProperty("stars_gained") Integer starsGained,
+    @JsonProperty("stars_per_day") Double starsPerDay) {}
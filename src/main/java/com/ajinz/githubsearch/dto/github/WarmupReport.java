@@ -0,0 +1,30 @@
+package com.ajinz.githubsearch.dto.github;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public record WarmupReport(
+    @JsonProperty("started_at") LocalDateTime startedAt,
+    @JsonProperty("duration_ms") long durationMillis,
+    List<Step> steps) {
+
+  public enum Status {
+    @JsonProperty("completed")
+    COMPLETED,
+    @JsonProperty("timed_out")
+    TIMED_OUT,
+    @JsonProperty("failed")
+    FAILED,
+    @JsonProperty("skipped")
+    SKIPPED
+  }
+
+  /** One warm-up step; {@code operations} counts the queries, requests or documents it ran. */
+  public record Step(
+      String name,
+      Status status,
+      @JsonProperty("duration_ms") long durationMillis,
+      int operations,
+      String detail) {}
+}
@@ -0,0 +1,149 @@
+package com.ajinz.githubsearch.health;
+
+import com.ajinz.githubsearch.concurrency.AdaptiveConcurrencyLimiter;
+import com.ajinz.githubsearch.concurrency.Bulkhead;
+import com.ajinz.githubsearch.concurrency.Bulkheads;
+import com.ajinz.githubsearch.concurrency.ConcurrencyLimitFilter;
+import com.ajinz.githubsearch.dto.github.ReadinessReport.Check;
+import com.ajinz.githubsearch.service.GitHubRateBudget;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Readiness from how saturated the instance is, so that a load balancer stops sending traffic
+ * before requests start queueing:
+ *
+ * <ul>
+ *   <li>the longest recent wait for a JDBC connection ({@code hikaricp.connections.acquire});
+ *   <li>the queue depth of the search and reads {@link Bulkheads} lanes.
+ * </ul>
+ *
+ * <p>How long a GitHub search would wait for rate limit and the state of the adaptive concurrency
+ * limits are reported as details only. Every instance shares the GitHub limit, and the limiters
+ * already shed what they cannot take, so turning them into unreadiness would only move the load
+ * onto the remaining instances in the same state.
+ *
+ * <p>Every signal is already maintained by the code it describes, and the result is cached for
+ * {@code health.readiness.refresh-interval}: the first probe after that recomputes it and
+ * concurrent probes keep answering from the previous result, so probing stays cheap under load.
+ */
+@Component
+public class SaturationHealthIndicator implements HealthIndicator {
+
+  private final Bulkheads bulkheads;
+  private final ConcurrencyLimitFilter concurrencyLimitFilter;
+  private final GitHubRateBudget rateBudget;
+  private final MeterRegistry meterRegistry;
+  private final double maxQueueSaturation;
+  private final double maxPoolWaitMillis;
+  private final long refreshNanos;
+  private final ReentrantLock refreshLock = new ReentrantLock();
+  private volatile Snapshot snapshot;
+
+  public SaturationHealthIndicator(
+      Bulkheads bulkheads,
+      ConcurrencyLimitFilter concurrencyLimitFilter,
+      GitHubRateBudget rateBudget,
+      MeterRegistry meterRegistry,
+      @Value("${health.readiness.max-queue-saturation:0.9}") double maxQueueSaturation,
+      @Value("${health.readiness.max-pool-wait:500ms}") Duration maxPoolWait,
+      @Value("${health.readiness.refresh-interval:1s}") Duration refreshInterval) {
+    this.bulkheads = bulkheads;
+    this.concurrencyLimitFilter = concurrencyLimitFilter;
+    this.rateBudget = rateBudget;
+    this.meterRegistry = meterRegistry;
+    this.maxQueueSaturation = maxQueueSaturation;
+    this.maxPoolWaitMillis = maxPoolWait.toMillis();
+    this.refreshNanos = refreshInterval.toNanos();
+  }
+
+  @Override
+  public Health health() {
+    Snapshot current = current();
+    Health.Builder health = current.saturated() ? Health.outOfService() : Health.up();
+    current.checks().forEach(check -> health.withDetail(check.name(), check));
+    health.withDetails(current.details());
+    return health.build();
+  }
+
+  /** The checks as of at most {@code health.readiness.refresh-interval} ago. */
+  public List<Check> checks() {
+    return current().checks();
+  }
+
+  /** The signals reported without affecting readiness, as recent as {@link #checks()}. */
+  public Map<String, Number> details() {
+    return current().details();
+  }
+
+  private Snapshot current() {
+    Snapshot cached = snapshot;
+    if (cached != null && System.nanoTime() - cached.computedAt() < refreshNanos) {
+      return cached;
+    }
+    if (cached == null) {
+      refreshLock.lock();
+    } else if (!refreshLock.tryLock()) {
+      return cached;
+    }
+    try {
+      cached = snapshot;
+      if (cached == null || System.nanoTime() - cached.computedAt() >= refreshNanos) {
+        cached = compute();
+        snapshot = cached;
+      }
+      return cached;
+    } finally {
+      refreshLock.unlock();
+    }
+  }
+
+  private Snapshot compute() {
+    List<Check> checks = new ArrayList<>();
+    checks.add(check("database-pool-wait-ms", poolWaitMillis(), maxPoolWaitMillis));
+    for (Bulkhead lane : List.of(bulkheads.search(), bulkheads.reads())) {
+      checks.add(check("bulkhead-" + lane.name(), lane.saturation(), maxQueueSaturation));
+    }
+    Map<String, Number> details = new LinkedHashMap<>();
+    if (concurrencyLimitFilter.isEnabled()) {
+      for (AdaptiveConcurrencyLimiter limiter : concurrencyLimitFilter.limiters()) {
+        String prefix = "concurrency-limit-" + limiter.getName();
+        details.put(prefix + "-in-flight", limiter.getInFlight());
+        details.put(prefix + "-limit", limiter.getLimit());
+      }
+    }
+    details.put("github-rate-limit-wait-ms", rateBudget.currentWait().toMillis());
+    boolean saturated = checks.stream().anyMatch(Check::saturated);
+    return new Snapshot(
+        List.copyOf(checks),
+        Collections.unmodifiableMap(details),
+        saturated,
+        System.nanoTime());
+  }
+
+  /** The longest connection acquisition of the pool's recent window; 0 before the pool exists. */
+  private double poolWaitMillis() {
+    return meterRegistry.find("hikaricp.connections.acquire").timers().stream()
+        .mapToDouble(timer -> timer.max(TimeUnit.MILLISECONDS))
+        .max()
+        .orElse(0);
+  }
+
+  private static Check check(String name, double value, double threshold) {
+    return new Check(name, value >= threshold, value, threshold);
+  }
+
+  private record Snapshot(
+      List<Check> checks, Map<String, Number> details, boolean saturated, long computedAt) {}
+}
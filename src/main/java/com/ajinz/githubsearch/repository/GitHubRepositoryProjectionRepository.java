@@ -0,0 +1,14 @@
+package com.ajinz.githubsearch.repository;
+
+import com.ajinz.githubsearch.dto.github.RepositoryFieldSet;
+import java.util.List;
+
+public interface GitHubRepositoryProjectionRepository {
+
+  /**
+   * Same filtering and ordering as {@link GitHubRepositoryRepository#findRepositoriesWithFilters},
+   * selecting only the columns in {@code fields}. Each row holds values in field set order.
+   */
+  List<Object[]> findProjectedRepositoriesWithFilters(
+      RepositoryFieldSet fields, String language, Integer minStars, String sortBy);
+}
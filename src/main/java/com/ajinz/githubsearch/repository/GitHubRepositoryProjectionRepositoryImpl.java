@@ -0,0 +1,46 @@
+package com.ajinz.githubsearch.repository;
+
+import com.ajinz.githubsearch.dto.github.RepositoryFieldSet;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import java.util.List;
+
+class GitHubRepositoryProjectionRepositoryImpl implements GitHubRepositoryProjectionRepository {
+
+  private static final String FILTER =
+      " FROM GitHubRepository r WHERE "
+          + "(:language IS NULL OR r.programmingLanguage = :language) AND "
+          + "(:minStars IS NULL OR r.starsCount >= :minStars) ";
+  private static final String ORDER_BY_SCORE = "ORDER BY r.score DESC, r.starsCount DESC";
+  private static final String ORDER_BY_SORT =
+      "ORDER BY "
+          + "CASE WHEN :sortBy = 'stars' THEN r.starsCount END DESC, "
+          + "CASE WHEN :sortBy = 'forks' THEN r.forksCount END DESC, "
+          + "CASE WHEN :sortBy = 'updated' THEN r.gitRepoLastUpdatedDate END DESC, "
+          + "CASE WHEN :sortBy = 'name' THEN r.repoName END ASC, "
+          + "r.starsCount DESC";
+
+  @PersistenceContext private EntityManager entityManager;
+
+  @Override
+  public List<Object[]> findProjectedRepositoriesWithFilters(
+      RepositoryFieldSet fields, String language, Integer minStars, String sortBy) {
+    // Score has its own index, which a CASE expression in the ORDER BY would not use
+    boolean byScore = "score".equals(sortBy);
+    String orderBy = byScore ? ORDER_BY_SCORE : ORDER_BY_SORT;
+    Query query =
+        entityManager
+            .createQuery("SELECT " + fields.selectClause() + FILTER + orderBy)
+            .setParameter("language", language)
+            .setParameter("minStars", minStars);
+    if (!byScore) {
+      query.setParameter("sortBy", sortBy);
+    }
+    List<?> rows = query.getResultList();
+    // A single selected column comes back as a bare value rather than an array
+    return rows.stream()
+        .map(row -> row instanceof Object[] values ? values : new Object[] {row})
+        .toList();
+  }
+}
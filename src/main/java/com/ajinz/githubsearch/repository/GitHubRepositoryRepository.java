@@ -1,17 +1,29 @@
 package com.ajinz.githubsearch.repository;
 
 import com.ajinz.githubsearch.dto.github.GitHubRepository;
+import jakarta.persistence.QueryHint;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
-public interface GitHubRepositoryRepository extends JpaRepository<GitHubRepository, Long> {
+public interface GitHubRepositoryRepository
+    extends JpaRepository<GitHubRepository, Long>, GitHubRepositoryProjectionRepository {
   Optional<GitHubRepository> findByGithubRepoId(Long gitHubRepoId);
 
+  List<GitHubRepository> findByGithubRepoIdIn(Collection<Long> gitHubRepoIds);
+
+  List<GitHubRepository> findByOwnerNameOrderByStarsCountDescIdAsc(
+      String ownerName, Pageable pageable);
+
   @Query(
       "SELECT r FROM GitHubRepository r WHERE "
           + "(:language IS NULL OR r.programmingLanguage = :language) AND "
@@ -26,4 +38,18 @@ public interface GitHubRepositoryRepository extends JpaRepository<GitHubReposito
       @Param("language") String language,
       @Param("minStars") Integer minStars,
       @Param("sortBy") String sortBy);
+
+  /** The {@code sort=score} listing, in the order of the score index. */
+  @Query(
+      "SELECT r FROM GitHubRepository r WHERE "
+          + "(:language IS NULL OR r.programmingLanguage = :language) AND "
+          + "(:minStars IS NULL OR r.starsCount >= :minStars) "
+          + "ORDER BY r.score DESC, r.starsCount DESC")
+  List<GitHubRepository> findRepositoriesByScore(
+      @Param("language") String language, @Param("minStars") Integer minStars);
+
+  /** Streams every row in id order for bulk loads; must run inside a transaction. */
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+  @Query("SELECT r FROM GitHubRepository r ORDER BY r.id")
+  Stream<GitHubRepository> streamAll();
 }
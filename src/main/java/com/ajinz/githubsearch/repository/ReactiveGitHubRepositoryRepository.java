@@ -0,0 +1,192 @@
+package com.ajinz.githubsearch.repository;
+
+import com.ajinz.githubsearch.config.ReactiveDatabase;
+import com.ajinz.githubsearch.dto.github.GitHubRepository;
+import io.r2dbc.spi.Readable;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.r2dbc.core.DatabaseClient.GenericExecuteSpec;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+/**
+ * Non-blocking counterpart of {@link GitHubRepositoryRepository} for the two hot paths: persisting
+ * search results and listing stored repositories. Reads are streamed with the subscriber's demand
+ * instead of being materialized as a list.
+ */
+@Repository
+public class ReactiveGitHubRepositoryRepository {
+
+  private static final int FETCH_SIZE = 1000;
+
+  private static final String SELECT_COLUMNS =
+      "SELECT id, github_repo_id, repo_name, description, owner_name, programming_language, "
+          + "stars_count, forks_count, git_repo_last_updated_date, created_at, updated_at, "
+          + "row_version, score FROM github_repository";
+  private static final String INSERT_COLUMNS =
+      "INSERT INTO github_repository (github_repo_id, repo_name, description, owner_name, "
+          + "programming_language, stars_count, forks_count, git_repo_last_updated_date, "
+          + "created_at, updated_at, row_version, score, minhash) VALUES ";
+  // No conflict target: H2 only accepts the bare form, and github_repo_id is the only unique
+  // column besides the generated id
+  private static final String ON_CONFLICT = " ON CONFLICT DO NOTHING";
+  // Rows per INSERT, keeping the bind parameters well under PostgreSQL's limit of 65535
+  private static final int INSERT_BATCH_SIZE = 500;
+
+  private final DatabaseClient databaseClient;
+  private final ReactiveDatabase reactiveDatabase;
+
+  public ReactiveGitHubRepositoryRepository(ReactiveDatabase reactiveDatabase) {
+    this.databaseClient = reactiveDatabase.client();
+    this.reactiveDatabase = reactiveDatabase;
+  }
+
+  /** Same filters and order as {@link GitHubRepositoryRepository#findRepositoriesWithFilters}. */
+  public Flux<GitHubRepository> findRepositoriesWithFilters(
+      String language, Integer minStars, String sortBy) {
+    StringBuilder sql = new StringBuilder(SELECT_COLUMNS);
+    if (language != null) {
+      sql.append(" WHERE programming_language = :language");
+    }
+    if (minStars != null) {
+      sql.append(language != null ? " AND" : " WHERE").append(" stars_count >= :minStars");
+    }
+    sql.append(" ORDER BY ").append(orderBy(sortBy));
+
+    GenericExecuteSpec spec =
+        databaseClient.sql(sql.toString()).filter(statement -> statement.fetchSize(FETCH_SIZE));
+    if (language != null) {
+      spec = spec.bind("language", language);
+    }
+    if (minStars != null) {
+      spec = spec.bind("minStars", minStars);
+    }
+    return spec.map(ReactiveGitHubRepositoryRepository::toRepository).all();
+  }
+
+  /**
+   * Inserts the repositories whose {@code github_repo_id} is not stored yet, in one transaction,
+   * and emits them with their database id and version assigned. Each batch of rows is one
+   * multi-row {@code INSERT ... ON CONFLICT DO NOTHING} against the unique index on {@code
+   * github_repo_id}, returning the ids of the rows it inserted. Stored rows are left untouched, a
+   * repeated id within the batch is inserted once, and rows without a GitHub id are skipped.
+   */
+  public Flux<GitHubRepository> insertMissing(List<GitHubRepository> repositories) {
+    Map<Long, GitHubRepository> byGithubRepoId = new LinkedHashMap<>();
+    for (GitHubRepository repository : repositories) {
+      if (repository.getGithubRepoId() != null) {
+        byGithubRepoId.putIfAbsent(repository.getGithubRepoId(), repository);
+      }
+    }
+    if (byGithubRepoId.isEmpty()) {
+      return Flux.empty();
+    }
+    List<GitHubRepository> rows = new ArrayList<>(byGithubRepoId.values());
+    List<List<GitHubRepository>> batches = new ArrayList<>();
+    for (int from = 0; from < rows.size(); from += INSERT_BATCH_SIZE) {
+      batches.add(rows.subList(from, Math.min(rows.size(), from + INSERT_BATCH_SIZE)));
+    }
+    LocalDateTime now = LocalDateTime.now();
+    return Flux.fromIterable(batches)
+        .concatMap(batch -> insertBatch(batch, byGithubRepoId, now))
+        .as(reactiveDatabase.transactionalOperator()::transactional);
+  }
+
+  private Flux<GitHubRepository> insertBatch(
+      List<GitHubRepository> batch, Map<Long, GitHubRepository> byGithubRepoId, LocalDateTime now) {
+    StringBuilder sql = new StringBuilder(INSERT_COLUMNS);
+    for (int i = 0; i < batch.size(); i++) {
+      sql.append(i == 0 ? "" : ", ")
+          .append("(:githubRepoId")
+          .append(i)
+          .append(", :repoName")
+          .append(i)
+          .append(", :description")
+          .append(i)
+          .append(", :ownerName")
+          .append(i)
+          .append(", :language")
+          .append(i)
+          .append(", :stars")
+          .append(i)
+          .append(", :forks")
+          .append(i)
+          .append(", :lastUpdated")
+          .append(i)
+          .append(", :now, :now, 0, :score")
+          .append(i)
+          .append(", :minhash")
+          .append(i)
+          .append(")");
+    }
+    sql.append(ON_CONFLICT);
+
+    // Rendered as RETURNING by the PostgreSQL driver; only inserted rows come back
+    GenericExecuteSpec spec =
+        databaseClient
+            .sql(sql.toString())
+            .filter(statement -> statement.returnGeneratedValues("id", "github_repo_id"));
+    for (int i = 0; i < batch.size(); i++) {
+      GitHubRepository repository = batch.get(i);
+      spec = bind(spec, "githubRepoId" + i, repository.getGithubRepoId(), Long.class);
+      spec = bind(spec, "repoName" + i, repository.getRepoName(), String.class);
+      spec = bind(spec, "description" + i, repository.getDescription(), String.class);
+      spec = bind(spec, "ownerName" + i, repository.getOwnerName(), String.class);
+      spec = bind(spec, "language" + i, repository.getProgrammingLanguage(), String.class);
+      spec = bind(spec, "stars" + i, repository.getStarsCount(), Integer.class);
+      spec = bind(spec, "forks" + i, repository.getForksCount(), Integer.class);
+      spec =
+          bind(
+              spec,
+              "lastUpdated" + i,
+              repository.getGitRepoLastUpdatedDate(),
+              LocalDateTime.class);
+      spec = bind(spec, "score" + i, repository.getScore(), Double.class);
+      spec = bind(spec, "minhash" + i, repository.getMinhash(), byte[].class);
+    }
+    return spec.bind("now", now)
+        .map(
+            row ->
+                byGithubRepoId
+                    .get(row.get("github_repo_id", Long.class))
+                    .withStoredState(row.get("id", Long.class), 0L, now, now))
+        .all();
+  }
+
+  private static GenericExecuteSpec bind(
+      GenericExecuteSpec spec, String name, Object value, Class<?> type) {
+    return value != null ? spec.bind(name, value) : spec.bindNull(name, type);
+  }
+
+  private static String orderBy(String sortBy) {
+    return switch (sortBy == null ? "stars" : sortBy) {
+      case "forks" -> "forks_count DESC, stars_count DESC";
+      case "updated" -> "git_repo_last_updated_date DESC, stars_count DESC";
+      case "name" -> "repo_name ASC, stars_count DESC";
+      case "score" -> "score DESC, stars_count DESC";
+      default -> "stars_count DESC";
+    };
+  }
+
+  private static GitHubRepository toRepository(Readable row) {
+    return new GitHubRepository(
+            row.get("github_repo_id", Long.class),
+            row.get("repo_name", String.class),
+            row.get("owner_name", String.class),
+            row.get("description", String.class),
+            row.get("programming_language", String.class),
+            row.get("stars_count", Integer.class),
+            row.get("forks_count", Integer.class),
+            row.get("git_repo_last_updated_date", LocalDateTime.class))
+        .withStoredState(
+            row.get("id", Long.class),
+            row.get("row_version", Long.class),
+            row.get("created_at", LocalDateTime.class),
+            row.get("updated_at", LocalDateTime.class))
+        .withScore(row.get("score", Double.class));
+  }
+}
@@ -0,0 +1,121 @@
+package com.ajinz.githubsearch.service;
+
+import com.ajinz.githubsearch.concurrency.Bulkheads;
+import com.ajinz.githubsearch.dto.github.BatchSearchResult;
+import com.ajinz.githubsearch.dto.github.GitHubRepository;
+import com.ajinz.githubsearch.dto.github.GitHubSearchQuery;
+import com.ajinz.githubsearch.dto.github.GitHubSearchResponse;
+import com.ajinz.githubsearch.dto.github.GithubSearchRequest;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Runs a batch of searches: requests with the same {@link GitHubSearchQuery#cacheKey} are sent
+ * once, up to {@code batch-search.concurrency} are in flight at a time (each still waiting for the
+ * shared {@link GitHubRateBudget} and holding a slot of the search {@link Bulkheads lane}, whose
+ * being full fails only that query), and every result is emitted as soon as its search completes.
+ * The repositories of all complete results are stored in a single write once the last search is
+ * done.
+ *
+ * <p>The searches of a batch queue for tokens until one deadline, {@link
+ * GitHubRateBudget#batchWait} after the batch starts, so a batch larger than the budget runs at the
+ * budget's pace instead of failing every query after the first few. {@link #timeout} is the
+ * matching async request timeout.
+ */
+@Service
+public class BatchSearchService {
+
+  private static final Logger logger = LoggerFactory.getLogger(BatchSearchService.class);
+
+  private final GitHubSearchService gitHubSearchService;
+  private final GitHubRepositoryService gitHubRepositoryService;
+  private final Bulkheads bulkheads;
+  private final GitHubRateBudget rateBudget;
+  private final int concurrency;
+  private final Duration asyncRequestTimeout;
+
+  public BatchSearchService(
+      GitHubSearchService gitHubSearchService,
+      GitHubRepositoryService gitHubRepositoryService,
+      Bulkheads bulkheads,
+      GitHubRateBudget rateBudget,
+      @Value("${batch-search.concurrency:4}") int concurrency,
+      @Value("${spring.mvc.async.request-timeout:30s}") Duration asyncRequestTimeout) {
+    this.gitHubSearchService = gitHubSearchService;
+    this.gitHubRepositoryService = gitHubRepositoryService;
+    this.bulkheads = bulkheads;
+    this.rateBudget = rateBudget;
+    this.concurrency = concurrency;
+    this.asyncRequestTimeout = asyncRequestTimeout;
+  }
+
+  /**
+   * How long a batch of this many queries may take: the wait for its tokens, then the regular
+   * async request timeout for the searches and the write that follow the last token.
+   */
+  public Duration timeout(int queries) {
+    return rateBudget.batchWait(queries).plus(asyncRequestTimeout);
+  }
+
+  public Flux<BatchSearchResult> search(List<GithubSearchRequest> requests) {
+    return Flux.defer(
+        () -> {
+          Map<String, GithubSearchRequest> byKey = new LinkedHashMap<>();
+          for (GithubSearchRequest request : requests) {
+            byKey.putIfAbsent(GitHubSearchQuery.cacheKey(request), request);
+          }
+          Collection<GithubSearchRequest> distinct = byKey.values();
+          logger.info("Running batch of {} distinct searches", distinct.size());
+          Map<Long, GitHubRepository> collected = new ConcurrentHashMap<>();
+          long budgetDeadline = System.nanoTime() + rateBudget.batchWait(distinct.size()).toNanos();
+
+          return Flux.fromIterable(distinct)
+              .flatMap(request -> searchOne(request, budgetDeadline, collected), concurrency)
+              .concatWith(
+                  Mono.defer(() -> persist(collected))
+                      .then(Mono.<BatchSearchResult>empty()));
+        });
+  }
+
+  private Mono<BatchSearchResult> searchOne(
+      GithubSearchRequest request, long budgetDeadline, Map<Long, GitHubRepository> collected) {
+    return Mono.defer(
+            () ->
+                bulkheads
+                    .search()
+                    .admit(gitHubSearchService.fetchRepositories(request, budgetDeadline)))
+        .map(
+            response -> {
+              collect(response, collected);
+              return BatchSearchResult.success(request, response);
+            })
+        .onErrorResume(ex -> Mono.just(BatchSearchResult.failure(request, ex)));
+  }
+
+  private static void collect(GitHubSearchResponse response, Map<Long, GitHubRepository> into) {
+    if (response.incompleteResults()) {
+      return;
+    }
+    for (GitHubRepository repository : response.items()) {
+      into.putIfAbsent(repository.getGithubRepoId(), repository);
+    }
+  }
+
+  private Mono<Void> persist(Map<Long, GitHubRepository> collected) {
+    if (collected.isEmpty()) {
+      return Mono.empty();
+    }
+    logger.info("Storing {} repositories found by the batch", collected.size());
+    return gitHubRepositoryService.persistGitHubRepositories(List.copyOf(collected.values()));
+  }
+}
@@ -0,0 +1,226 @@
+package com.ajinz.githubsearch.service;
+
+import com.ajinz.githubsearch.dto.github.GitHubRepository;
+import com.ajinz.githubsearch.repository.GitHubRepositoryRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Optional in-memory engine for the {@code /repositories} filter and sort queries, enabled with
+ * {@code repository.columnar.enabled}. It serves from a {@link ColumnarSnapshot} that is fully
+ * loaded at startup and on {@code repository.columnar.reload-cron}, and that absorbs rows stored
+ * through {@link GitHubRepositoryService} as they are committed.
+ *
+ * <p>Every new snapshot invalidates the {@link RepositoryReadCache} query results, which may have
+ * been computed from the previous one. Stored rows are appended right away unless a reload holds
+ * the snapshot; then the reload takes them, or failing that the refresh every {@code
+ * repository.columnar.refresh-interval-ms}. Scores rewritten by {@link RepositoryScoreService} are
+ * applied once its run completes, and rows deleted by {@link RepositoryRetentionService} once their
+ * batch commits.
+ *
+ * <p>Until the first load completes, and whenever the engine is disabled, {@link #isReady()} is
+ * false and callers use the database.
+ */
+@Service
+public class ColumnarRepositoryEngine {
+
+  private static final Logger logger = LoggerFactory.getLogger(ColumnarRepositoryEngine.class);
+
+  private static final int LOAD_CLEAR_INTERVAL = 10_000;
+
+  private final GitHubRepositoryRepository gitHubRepositoryRepository;
+  private final RepositoryReadCache repositoryReadCache;
+  private final TransactionTemplate readOnlyTransactionTemplate;
+  private final boolean enabled;
+  private final ConcurrentLinkedQueue<GitHubRepository> pending = new ConcurrentLinkedQueue<>();
+  private final ReentrantLock writeLock = new ReentrantLock();
+  private volatile ColumnarSnapshot snapshot;
+
+  @PersistenceContext private EntityManager entityManager;
+
+  public ColumnarRepositoryEngine(
+      GitHubRepositoryRepository gitHubRepositoryRepository,
+      RepositoryReadCache repositoryReadCache,
+      PlatformTransactionManager transactionManager,
+      MeterRegistry meterRegistry,
+      @Value("${repository.columnar.enabled:false}") boolean enabled) {
+    this.gitHubRepositoryRepository = gitHubRepositoryRepository;
+    this.repositoryReadCache = repositoryReadCache;
+    this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+    this.readOnlyTransactionTemplate.setReadOnly(true);
+    this.enabled = enabled;
+    Gauge.builder("github.columnar.rows", this, ColumnarRepositoryEngine::size)
+        .description("Repositories held by the columnar engine")
+        .register(meterRegistry);
+  }
+
+  public boolean isReady() {
+    return snapshot != null;
+  }
+
+  /**
+   * Same result as {@code findRepositoriesWithFilters}, truncated to {@code limit} rows.
+   *
+   * @throws IllegalStateException if the engine is not ready
+   */
+  public List<GitHubRepository> query(String language, Integer minStars, String sortBy, int limit) {
+    ColumnarSnapshot current = snapshot;
+    if (current == null) {
+      throw new IllegalStateException("Columnar engine is not loaded");
+    }
+    return current.query(language, minStars, ColumnarSnapshot.SortKey.of(sortBy), limit);
+  }
+
+  /** Makes committed rows visible, right away unless a reload is running. */
+  public void recordInserted(List<GitHubRepository> repositories) {
+    if (!enabled) {
+      return;
+    }
+    pending.addAll(repositories);
+    if (snapshot != null && writeLock.tryLock()) {
+      try {
+        appendPending();
+      } finally {
+        writeLock.unlock();
+      }
+    }
+  }
+
+  /** Applies committed score changes, keyed by database id, waiting for a running reload. */
+  public void recordScores(Map<Long, Double> scores) {
+    if (!enabled || scores.isEmpty()) {
+      return;
+    }
+    writeLock.lock();
+    try {
+      appendPending();
+      ColumnarSnapshot current = snapshot;
+      if (current != null) {
+        ColumnarSnapshot next = current.withScores(scores);
+        if (next != current) {
+          publish(next);
+        }
+      }
+    } finally {
+      writeLock.unlock();
+    }
+  }
+
+  /** Drops committed deletions, waiting for a running reload, which may still have read them. */
+  public void recordDeleted(List<GitHubRepository> repositories) {
+    if (!enabled || repositories.isEmpty()) {
+      return;
+    }
+    List<Long> databaseIds =
+        repositories.stream()
+            .map(GitHubRepository::getDatabaseId)
+            .filter(Objects::nonNull)
+            .toList();
+    writeLock.lock();
+    try {
+      appendPending();
+      ColumnarSnapshot current = snapshot;
+      if (current != null) {
+        ColumnarSnapshot next = current.without(databaseIds);
+        if (next != current) {
+          publish(next);
+        }
+      }
+    } finally {
+      writeLock.unlock();
+    }
+  }
+
+  @Scheduled(fixedDelayString = "${repository.columnar.refresh-interval-ms:1000}")
+  public void refresh() {
+    if (!enabled || pending.isEmpty()) {
+      return;
+    }
+    writeLock.lock();
+    try {
+      appendPending();
+    } finally {
+      writeLock.unlock();
+    }
+  }
+
+  @Scheduled(cron = "${repository.columnar.reload-cron:0 45 */6 * * *}")
+  public void reload() {
+    if (!enabled) {
+      return;
+    }
+    writeLock.lock();
+    try {
+      long start = System.nanoTime();
+      ColumnarSnapshot loaded = readOnlyTransactionTemplate.execute(status -> load());
+      // Rows queued during the load may or may not be in it; append skips those that are
+      publish(loaded.append(drainPending()));
+      logger.info(
+          "Loaded {} repositories into the columnar engine in {} ms",
+          snapshot.size(),
+          (System.nanoTime() - start) / 1_000_000);
+    } catch (DataAccessException ex) {
+      logger.warn("Columnar engine reload failed", ex);
+    } finally {
+      writeLock.unlock();
+    }
+  }
+
+  private void appendPending() {
+    ColumnarSnapshot current = snapshot;
+    if (current != null && !pending.isEmpty()) {
+      publish(current.append(drainPending()));
+    }
+  }
+
+  private void publish(ColumnarSnapshot next) {
+    snapshot = next;
+    repositoryReadCache.invalidateQueries();
+  }
+
+  private ColumnarSnapshot load() {
+    List<GitHubRepository> rows = new ArrayList<>();
+    try (Stream<GitHubRepository> stream = gitHubRepositoryRepository.streamAll()) {
+      stream.forEach(
+          repository -> {
+            rows.add(repository);
+            // Keep the persistence context small; loaded rows are used detached
+            if (rows.size() % LOAD_CLEAR_INTERVAL == 0) {
+              entityManager.clear();
+            }
+          });
+    }
+    return ColumnarSnapshot.of(rows);
+  }
+
+  private List<GitHubRepository> drainPending() {
+    List<GitHubRepository> drained = new ArrayList<>();
+    GitHubRepository repository;
+    while ((repository = pending.poll()) != null) {
+      drained.add(repository);
+    }
+    return drained;
+  }
+
+  int size() {
+    ColumnarSnapshot current = snapshot;
+    return current == null ? 0 : current.size();
+  }
+}
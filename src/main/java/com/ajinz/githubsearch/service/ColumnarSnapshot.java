@@ -0,0 +1,386 @@
+package com.ajinz.githubsearch.service;
+
+import com.ajinz.githubsearch.dto.github.GitHubRepository;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * Immutable columnar view of stored repositories. Filter and sort columns are primitive arrays,
+ * with the language dictionary-encoded, and every supported sort is a precomputed permutation of
+ * row positions, so a query is a filtered walk over one permutation.
+ *
+ * <p>{@link #append} shares the column arrays with the previous snapshot while they have spare
+ * capacity: the previous snapshot never reads past its own size. {@link #without} copies the rows
+ * that remain.
+ */
+final class ColumnarSnapshot {
+
+  enum SortKey {
+    STARS,
+    FORKS,
+    UPDATED,
+    NAME,
+    SCORE;
+
+    /** Same fallback as the JPQL query: anything unknown sorts by stars. */
+    static SortKey of(String sortBy) {
+      if (sortBy == null) {
+        return STARS;
+      }
+      return switch (sortBy) {
+        case "forks" -> FORKS;
+        case "updated" -> UPDATED;
+        case "name" -> NAME;
+        case "score" -> SCORE;
+        default -> STARS;
+      };
+    }
+  }
+
+  static final int CHUNK_SIZE = 1 << 16;
+
+  private static final int NO_LANGUAGE = -1;
+  private static final int ANY_LANGUAGE = Integer.MIN_VALUE;
+
+  private final int size;
+  // Rows [0, sortedPrefix) were loaded in database id order
+  private final int sortedPrefix;
+  private final GitHubRepository[] rows;
+  private final long[] databaseIds;
+  private final int[] languages;
+  private final int[] stars;
+  private final int[] forks;
+  private final long[] updated;
+  private final double[] scores;
+  private final Map<String, Integer> languageCodes;
+  private final int[][] orders;
+
+  private ColumnarSnapshot(
+      int size,
+      int sortedPrefix,
+      GitHubRepository[] rows,
+      long[] databaseIds,
+      int[] languages,
+      int[] stars,
+      int[] forks,
+      long[] updated,
+      double[] scores,
+      Map<String, Integer> languageCodes,
+      int[][] orders) {
+    this.size = size;
+    this.sortedPrefix = sortedPrefix;
+    this.rows = rows;
+    this.databaseIds = databaseIds;
+    this.languages = languages;
+    this.stars = stars;
+    this.forks = forks;
+    this.updated = updated;
+    this.scores = scores;
+    this.languageCodes = languageCodes;
+    this.orders = orders;
+  }
+
+  /** Builds a snapshot from rows in ascending database id order. */
+  static ColumnarSnapshot of(List<GitHubRepository> repositories) {
+    int size = repositories.size();
+    ColumnarSnapshot snapshot =
+        new ColumnarSnapshot(
+            size,
+            size,
+            new GitHubRepository[size],
+            new long[size],
+            new int[size],
+            new int[size],
+            new int[size],
+            new long[size],
+            new double[size],
+            new HashMap<>(),
+            new int[SortKey.values().length][]);
+    for (int row = 0; row < size; row++) {
+      snapshot.set(row, repositories.get(row), snapshot.languageCodes);
+    }
+    for (SortKey key : SortKey.values()) {
+      Integer[] order = new Integer[size];
+      Arrays.setAll(order, row -> row);
+      Arrays.parallelSort(order, (a, b) -> snapshot.compare(key, a, b));
+      snapshot.orders[key.ordinal()] = Arrays.stream(order).mapToInt(Integer::intValue).toArray();
+    }
+    return snapshot;
+  }
+
+  /**
+   * Returns a snapshot that also contains {@code added}. Rows already present, such as those stored
+   * while a full load was running, are skipped.
+   */
+  ColumnarSnapshot append(List<GitHubRepository> added) {
+    List<GitHubRepository> fresh =
+        added.stream()
+            .filter(repository -> repository.getDatabaseId() != null)
+            .filter(repository -> !contains(repository.getDatabaseId()))
+            .toList();
+    if (fresh.isEmpty()) {
+      return this;
+    }
+
+    int newSize = size + fresh.size();
+    boolean grow = rows.length < newSize;
+    int capacity = grow ? Math.max(newSize, rows.length * 3 / 2) : rows.length;
+    ColumnarSnapshot next =
+        new ColumnarSnapshot(
+            newSize,
+            sortedPrefix,
+            grow ? Arrays.copyOf(rows, capacity) : rows,
+            grow ? Arrays.copyOf(databaseIds, capacity) : databaseIds,
+            grow ? Arrays.copyOf(languages, capacity) : languages,
+            grow ? Arrays.copyOf(stars, capacity) : stars,
+            grow ? Arrays.copyOf(forks, capacity) : forks,
+            grow ? Arrays.copyOf(updated, capacity) : updated,
+            grow ? Arrays.copyOf(scores, capacity) : scores,
+            new HashMap<>(languageCodes),
+            new int[orders.length][]);
+    for (int i = 0; i < fresh.size(); i++) {
+      next.set(size + i, fresh.get(i), next.languageCodes);
+    }
+
+    for (SortKey key : SortKey.values()) {
+      Integer[] addedOrder = new Integer[fresh.size()];
+      Arrays.setAll(addedOrder, i -> size + i);
+      Arrays.sort(addedOrder, (a, b) -> next.compare(key, a, b));
+      next.orders[key.ordinal()] = merge(key, next, orders[key.ordinal()], addedOrder, newSize);
+    }
+    return next;
+  }
+
+  /**
+   * Returns a snapshot with the given scores, keyed by database id, and the score order rebuilt.
+   * Ids not in this snapshot are ignored. Only the score column and its order are new; every other
+   * column is shared.
+   */
+  ColumnarSnapshot withScores(Map<Long, Double> changed) {
+    double[] nextScores = Arrays.copyOf(scores, scores.length);
+    boolean any = false;
+    for (int row = 0; row < size; row++) {
+      Double score = changed.get(databaseIds[row]);
+      if (score != null) {
+        nextScores[row] = score;
+        any = true;
+      }
+    }
+    if (!any) {
+      return this;
+    }
+
+    ColumnarSnapshot next =
+        new ColumnarSnapshot(
+            size,
+            sortedPrefix,
+            rows,
+            databaseIds,
+            languages,
+            stars,
+            forks,
+            updated,
+            nextScores,
+            languageCodes,
+            orders.clone());
+    Integer[] order = new Integer[size];
+    Arrays.setAll(order, row -> row);
+    Arrays.parallelSort(order, (a, b) -> next.compare(SortKey.SCORE, a, b));
+    next.orders[SortKey.SCORE.ordinal()] =
+        Arrays.stream(order).mapToInt(Integer::intValue).toArray();
+    return next;
+  }
+
+  /**
+   * Returns a snapshot without the rows of the given database ids, or this one if it holds none of
+   * them. The remaining rows keep their relative positions, so every order only needs its removed
+   * positions dropped and the others renumbered.
+   */
+  ColumnarSnapshot without(Collection<Long> removedIds) {
+    long[] removed = removedIds.stream().mapToLong(Long::longValue).sorted().toArray();
+    int[] position = new int[size];
+    int kept = 0;
+    int keptPrefix = 0;
+    for (int row = 0; row < size; row++) {
+      if (Arrays.binarySearch(removed, databaseIds[row]) >= 0) {
+        position[row] = -1;
+      } else {
+        position[row] = kept++;
+        if (row < sortedPrefix) {
+          keptPrefix++;
+        }
+      }
+    }
+    if (kept == size) {
+      return this;
+    }
+
+    ColumnarSnapshot next =
+        new ColumnarSnapshot(
+            kept,
+            keptPrefix,
+            new GitHubRepository[kept],
+            new long[kept],
+            new int[kept],
+            new int[kept],
+            new int[kept],
+            new long[kept],
+            new double[kept],
+            languageCodes,
+            new int[orders.length][]);
+    for (int row = 0; row < size; row++) {
+      int to = position[row];
+      if (to >= 0) {
+        next.rows[to] = rows[row];
+        next.databaseIds[to] = databaseIds[row];
+        next.languages[to] = languages[row];
+        next.stars[to] = stars[row];
+        next.forks[to] = forks[row];
+        next.updated[to] = updated[row];
+        next.scores[to] = scores[row];
+      }
+    }
+    for (int key = 0; key < orders.length; key++) {
+      int[] order = new int[kept];
+      int k = 0;
+      for (int row : orders[key]) {
+        if (position[row] >= 0) {
+          order[k++] = position[row];
+        }
+      }
+      next.orders[key] = order;
+    }
+    return next;
+  }
+
+  /**
+   * Rows matching the filters in sort order, at most {@code limit} of them. The permutation is
+   * scanned in parallel chunks; each chunk stops once it has {@code limit} matches.
+   */
+  List<GitHubRepository> query(String language, Integer minStars, SortKey sortKey, int limit) {
+    int languageCode = ANY_LANGUAGE;
+    if (language != null) {
+      Integer code = languageCodes.get(language);
+      if (code == null) {
+        return List.of();
+      }
+      languageCode = code;
+    }
+    int min = minStars == null ? Integer.MIN_VALUE : minStars;
+    int[] order = orders[sortKey.ordinal()];
+    int chunks = (size + CHUNK_SIZE - 1) / CHUNK_SIZE;
+    int[][] matches = new int[chunks][];
+    int[] counts = new int[chunks];
+    int code = languageCode;
+
+    IntStream range = IntStream.range(0, chunks);
+    (chunks > 1 ? range.parallel() : range)
+        .forEach(
+            chunk -> {
+              int from = chunk * CHUNK_SIZE;
+              int to = Math.min(size, from + CHUNK_SIZE);
+              int[] buffer = new int[Math.min(limit, to - from)];
+              int count = 0;
+              for (int i = from; i < to && count < buffer.length; i++) {
+                int row = order[i];
+                if ((code == ANY_LANGUAGE || languages[row] == code) && stars[row] >= min) {
+                  buffer[count++] = row;
+                }
+              }
+              matches[chunk] = buffer;
+              counts[chunk] = count;
+            });
+
+    int total = 0;
+    for (int count : counts) {
+      total += count;
+    }
+    GitHubRepository[] result = new GitHubRepository[Math.min(total, limit)];
+    int written = 0;
+    for (int chunk = 0; chunk < chunks && written < result.length; chunk++) {
+      for (int i = 0; i < counts[chunk] && written < result.length; i++) {
+        result[written++] = rows[matches[chunk][i]];
+      }
+    }
+    return Arrays.asList(result);
+  }
+
+  int size() {
+    return size;
+  }
+
+  private boolean contains(long databaseId) {
+    if (Arrays.binarySearch(databaseIds, 0, sortedPrefix, databaseId) >= 0) {
+      return true;
+    }
+    for (int row = sortedPrefix; row < size; row++) {
+      if (databaseIds[row] == databaseId) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private void set(int row, GitHubRepository repository, Map<String, Integer> codes) {
+    rows[row] = repository;
+    databaseIds[row] = repository.getDatabaseId() == null ? 0 : repository.getDatabaseId();
+    String language = repository.getProgrammingLanguage();
+    languages[row] =
+        language == null ? NO_LANGUAGE : codes.computeIfAbsent(language, key -> codes.size());
+    stars[row] = repository.getStarsCount() == null ? 0 : repository.getStarsCount();
+    forks[row] = repository.getForksCount() == null ? 0 : repository.getForksCount();
+    LocalDateTime lastUpdated = repository.getGitRepoLastUpdatedDate();
+    // PostgreSQL sorts NULL first in DESC order
+    updated[row] =
+        lastUpdated == null ? Long.MAX_VALUE : lastUpdated.toEpochSecond(ZoneOffset.UTC);
+    scores[row] = repository.getScore() == null ? 0 : repository.getScore();
+  }
+
+  /** Mirrors the JPQL ORDER BY, then falls back to stars and row position for a total order. */
+  private int compare(SortKey key, int a, int b) {
+    int result =
+        switch (key) {
+          case STARS -> 0;
+          case FORKS -> Integer.compare(forks[b], forks[a]);
+          case UPDATED -> Long.compare(updated[b], updated[a]);
+          case NAME -> compareNames(rows[a].getRepoName(), rows[b].getRepoName());
+          case SCORE -> Double.compare(scores[b], scores[a]);
+        };
+    if (result == 0) {
+      result = Integer.compare(stars[b], stars[a]);
+    }
+    return result != 0 ? result : Integer.compare(a, b);
+  }
+
+  private static int compareNames(String a, String b) {
+    if (a == null || b == null) {
+      return a == null ? (b == null ? 0 : 1) : -1;
+    }
+    return a.compareTo(b);
+  }
+
+  private static int[] merge(
+      SortKey key, ColumnarSnapshot snapshot, int[] existing, Integer[] added, int size) {
+    int[] merged = new int[size];
+    int i = 0;
+    int j = 0;
+    int k = 0;
+    while (i < existing.length && j < added.length) {
+      merged[k++] =
+          snapshot.compare(key, existing[i], added[j]) <= 0 ? existing[i++] : added[j++];
+    }
+    while (i < existing.length) {
+      merged[k++] = existing[i++];
+    }
+    while (j < added.length) {
+      merged[k++] = added[j++];
+    }
+    return merged;
+  }
+}
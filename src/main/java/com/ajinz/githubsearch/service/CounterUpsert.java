@@ -0,0 +1,94 @@
+package com.ajinz.githubsearch.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds single-statement upserts of counter rows for the aggregate tables: {@code INSERT ... ON
+ * CONFLICT DO UPDATE} on PostgreSQL, and the equivalent standard {@code MERGE} elsewhere, since the
+ * H2 test database only supports {@code ON CONFLICT DO NOTHING}.
+ *
+ * <p>The source is a {@code VALUES} row or a {@code SELECT} yielding the key columns followed by
+ * the counter columns, with at most one row per key.
+ */
+final class CounterUpsert {
+
+  private CounterUpsert() {}
+
+  /** Adds the source counters to existing rows, inserting rows for new keys. */
+  static String add(
+      boolean postgres, String table, List<String> keys, List<String> counters, String source) {
+    List<String> assignments = new ArrayList<>();
+    for (String counter : counters) {
+      assignments.add(
+          counter + " = t." + counter + " + " + (postgres ? "EXCLUDED." : "s.") + counter);
+    }
+    return build(postgres, table, keys, counters, source, assignments, null);
+  }
+
+  /** Overwrites the counters of rows that differ from the source, inserting rows for new keys. */
+  static String replace(
+      boolean postgres, String table, List<String> keys, List<String> counters, String source) {
+    String prefix = postgres ? "EXCLUDED." : "s.";
+    List<String> assignments = new ArrayList<>();
+    List<String> differences = new ArrayList<>();
+    for (String counter : counters) {
+      assignments.add(counter + " = " + prefix + counter);
+      differences.add("t." + counter + " <> " + prefix + counter);
+    }
+    return build(
+        postgres, table, keys, counters, source, assignments, String.join(" OR ", differences));
+  }
+
+  private static String build(
+      boolean postgres,
+      String table,
+      List<String> keys,
+      List<String> counters,
+      String source,
+      List<String> assignments,
+      String onlyWhen) {
+    List<String> columns = new ArrayList<>(keys);
+    columns.addAll(counters);
+    String columnList = String.join(", ", columns);
+    if (postgres) {
+      return "INSERT INTO "
+          + table
+          + " AS t ("
+          + columnList
+          + ") "
+          + source
+          + " ON CONFLICT ("
+          + String.join(", ", keys)
+          + ") DO UPDATE SET "
+          + String.join(", ", assignments)
+          + (onlyWhen != null ? " WHERE " + onlyWhen : "");
+    }
+
+    List<String> match = new ArrayList<>();
+    List<String> values = new ArrayList<>();
+    for (String key : keys) {
+      match.add("t." + key + " = s." + key);
+    }
+    for (String column : columns) {
+      values.add("s." + column);
+    }
+    return "MERGE INTO "
+        + table
+        + " AS t USING ("
+        + source
+        + ") AS s ("
+        + columnList
+        + ") ON "
+        + String.join(" AND ", match)
+        + " WHEN MATCHED"
+        + (onlyWhen != null ? " AND (" + onlyWhen + ")" : "")
+        + " THEN UPDATE SET "
+        + String.join(", ", assignments)
+        + " WHEN NOT MATCHED THEN INSERT ("
+        + columnList
+        + ") VALUES ("
+        + String.join(", ", values)
+        + ")";
+  }
+}
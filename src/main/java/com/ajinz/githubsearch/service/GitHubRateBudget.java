@@ -0,0 +1,132 @@
+package com.ajinz.githubsearch.service;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * Client-side budget for GitHub search API calls, so that bursts queue up here instead of being
+ * answered 403 by GitHub.
+ *
+ * <p>A token bucket holding up to {@code github.api.requests-per-minute} tokens, refilled
+ * continuously. A call that finds it empty reserves the next token and waits for it on a timer,
+ * without holding a thread. Calls that would wait longer than {@code github.api.max-budget-wait}
+ * fail with {@link RateBudgetExhaustedException} instead. The wait is capped at half of {@code
+ * spring.mvc.async.request-timeout}, so a search that waits still has time to call GitHub and store
+ * the results before its request times out. The calls of a batch share a longer deadline instead,
+ * see {@link #batchWait}.
+ *
+ * <p>It also keeps the search limit GitHub itself last reported in its {@code X-RateLimit-*}
+ * response headers, which covers calls other instances made on the same token.
+ */
+@Component
+public class GitHubRateBudget {
+
+  private final double capacity;
+  private final double tokensPerNano;
+  private final long maxWaitNanos;
+  private double tokens;
+  private long refilledAt = System.nanoTime();
+  private volatile int upstreamRemaining = -1;
+  private volatile long upstreamResetEpochSecond;
+
+  public GitHubRateBudget(
+      @Value("${github.api.requests-per-minute:10}") int requestsPerMinute,
+      @Value("${github.api.max-budget-wait:15s}") Duration maxWait,
+      @Value("${spring.mvc.async.request-timeout:30s}") Duration asyncRequestTimeout) {
+    if (requestsPerMinute < 1) {
+      throw new IllegalArgumentException("github.api.requests-per-minute must be at least 1");
+    }
+    this.capacity = requestsPerMinute;
+    this.tokensPerNano = requestsPerMinute / (double) TimeUnit.MINUTES.toNanos(1);
+    this.maxWaitNanos = Math.min(maxWait.toNanos(), asyncRequestTimeout.toNanos() / 2);
+    this.tokens = capacity;
+  }
+
+  /** Completes once the caller may send one request. */
+  public Mono<Void> acquire() {
+    return Mono.defer(() -> delay(reserve()));
+  }
+
+  /**
+   * Completes once the caller may send one request, waiting for a token up to {@code deadlineNanos}
+   * (in {@link System#nanoTime} terms) instead of the regular maximum.
+   */
+  public Mono<Void> acquireBefore(long deadlineNanos) {
+    return Mono.defer(() -> delay(reserve(Math.max(0, deadlineNanos - System.nanoTime()))));
+  }
+
+  /**
+   * How long the calls of a batch may wait for their tokens: long enough to refill one token per
+   * call, after the regular maximum wait for the calls queued ahead of them.
+   */
+  public Duration batchWait(int requests) {
+    return Duration.ofNanos((long) Math.ceil(requests / tokensPerNano) + maxWaitNanos);
+  }
+
+  long reserve() {
+    return reserve(maxWaitNanos);
+  }
+
+  /** Takes a token and returns how long to wait for it; negative tokens are reservations. */
+  synchronized long reserve(long allowedWaitNanos) {
+    refill();
+    if (tokens >= 1) {
+      tokens -= 1;
+      return 0;
+    }
+    long waitNanos = (long) Math.ceil((1 - tokens) / tokensPerNano);
+    if (waitNanos > allowedWaitNanos) {
+      throw new RateBudgetExhaustedException(
+          Duration.ofSeconds(TimeUnit.NANOSECONDS.toSeconds(waitNanos - allowedWaitNanos) + 1));
+    }
+    tokens -= 1;
+    return waitNanos;
+  }
+
+  /**
+   * How long a search started now would wait: for a token of this budget, or for GitHub's reset
+   * if GitHub last reported no search requests left.
+   */
+  public Duration currentWait() {
+    long localNanos;
+    synchronized (this) {
+      refill();
+      localNanos = tokens >= 1 ? 0 : (long) Math.ceil((1 - tokens) / tokensPerNano);
+    }
+    long upstreamSeconds =
+        upstreamRemaining == 0
+            ? Math.max(0, upstreamResetEpochSecond - System.currentTimeMillis() / 1000)
+            : 0;
+    return Duration.ofNanos(Math.max(localNanos, TimeUnit.SECONDS.toNanos(upstreamSeconds)));
+  }
+
+  /** Records the search limit from the headers of a GitHub response; other limits are ignored. */
+  public void recordResponseHeaders(HttpHeaders headers) {
+    String resource = headers.getFirst("X-RateLimit-Resource");
+    String remaining = headers.getFirst("X-RateLimit-Remaining");
+    String reset = headers.getFirst("X-RateLimit-Reset");
+    if (!"search".equals(resource) || remaining == null || reset == null) {
+      return;
+    }
+    try {
+      upstreamResetEpochSecond = Long.parseLong(reset);
+      upstreamRemaining = Integer.parseInt(remaining);
+    } catch (NumberFormatException ex) {
+      // Not a limit we understand; keep the last one
+    }
+  }
+
+  private static Mono<Void> delay(long waitNanos) {
+    return waitNanos == 0 ? Mono.empty() : Mono.delay(Duration.ofNanos(waitNanos)).then();
+  }
+
+  private void refill() {
+    long now = System.nanoTime();
+    tokens = Math.min(capacity, tokens + (now - refilledAt) * tokensPerNano);
+    refilledAt = now;
+  }
+}
@@ -1,30 +1,121 @@
 package com.ajinz.githubsearch.service;
 
+import com.ajinz.githubsearch.concurrency.Bulkheads;
 import com.ajinz.githubsearch.dto.github.GitHubRepository;
+import com.ajinz.githubsearch.dto.github.RepositoryFieldSet;
+import com.ajinz.githubsearch.dto.github.RepositoryProjection;
 import com.ajinz.githubsearch.repository.GitHubRepositoryRepository;
-import jakarta.transaction.Transactional;
+import com.ajinz.githubsearch.repository.ReactiveGitHubRepositoryRepository;
 import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 @Service
 public class GitHubRepositoryService {
+  private static final Logger logger = LoggerFactory.getLogger(GitHubRepositoryService.class);
+
+  // Served from the score index rather than the CASE ordering of findRepositoriesWithFilters
+  private static final String SORT_BY_SCORE = "score";
+
   GitHubRepositoryRepository gitHubRepositoryRepository;
+  ReactiveGitHubRepositoryRepository reactiveGitHubRepositoryRepository;
+  StarHistoryService starHistoryService;
+  RepositoryAggregateService repositoryAggregateService;
+  OwnerAggregateService ownerAggregateService;
+  SuggestService suggestService;
+  ColumnarRepositoryEngine columnarRepositoryEngine;
+  RepositoryReadCache repositoryReadCache;
+  Bulkheads bulkheads;
+  RepositoryScore repositoryScore;
+  SimilarRepositoryService similarRepositoryService;
+  TransactionTemplate transactionTemplate;
 
-  public GitHubRepositoryService(GitHubRepositoryRepository gitHubRepositoryRepository) {
+  public GitHubRepositoryService(
+      GitHubRepositoryRepository gitHubRepositoryRepository,
+      ReactiveGitHubRepositoryRepository reactiveGitHubRepositoryRepository,
+      StarHistoryService starHistoryService,
+      RepositoryAggregateService repositoryAggregateService,
+      OwnerAggregateService ownerAggregateService,
+      SuggestService suggestService,
+      ColumnarRepositoryEngine columnarRepositoryEngine,
+      RepositoryReadCache repositoryReadCache,
+      Bulkheads bulkheads,
+      RepositoryScore repositoryScore,
+      SimilarRepositoryService similarRepositoryService,
+      PlatformTransactionManager transactionManager) {
     this.gitHubRepositoryRepository = gitHubRepositoryRepository;
+    this.reactiveGitHubRepositoryRepository = reactiveGitHubRepositoryRepository;
+    this.starHistoryService = starHistoryService;
+    this.repositoryAggregateService = repositoryAggregateService;
+    this.ownerAggregateService = ownerAggregateService;
+    this.suggestService = suggestService;
+    this.columnarRepositoryEngine = columnarRepositoryEngine;
+    this.repositoryReadCache = repositoryReadCache;
+    this.bulkheads = bulkheads;
+    this.repositoryScore = repositoryScore;
+    this.similarRepositoryService = similarRepositoryService;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+  }
+
+  /**
+   * Stores the repositories of a search result that are not stored yet. The insert runs over R2DBC
+   * in its own transaction, one statement per few hundred rows, and lets the unique index on
+   * {@code github_repo_id} skip stored rows; the in-memory indexes are updated once it commits. The
+   * language and owner aggregates are still maintained over JDBC, so their deltas run together in
+   * one transaction on the ingest bulkhead, after the insert commits. If that fails or the lane is
+   * full, the reconciles repair the totals; the search itself is not failed for it.
+   */
+  public Mono<Void> persistGitHubRepositories(List<GitHubRepository> gitHubRepositories) {
+    return Mono.defer(
+        () -> {
+          starHistoryService.record(gitHubRepositories);
+          repositoryScore.apply(gitHubRepositories);
+          MinHash.apply(gitHubRepositories);
+          return reactiveGitHubRepositoryRepository
+              .insertMissing(gitHubRepositories)
+              .collectList()
+              .flatMap(this::afterReactiveInsert);
+        });
   }
 
-  @Transactional
-  public void saveAllGitHubRepositories(List<GitHubRepository> gitHubRepositories) {
-    List<GitHubRepository> repositoriesToAdd =
-        gitHubRepositories.stream()
-            .filter(
-                gitHubRepository ->
-                    gitHubRepositoryRepository
-                        .findByGithubRepoId(gitHubRepository.getGithubRepoId())
-                        .isEmpty())
-            .toList();
-    gitHubRepositoryRepository.saveAll(repositoriesToAdd);
+  private Mono<Void> afterReactiveInsert(List<GitHubRepository> inserted) {
+    if (inserted.isEmpty()) {
+      return Mono.empty();
+    }
+    recordCommitted(inserted);
+    return Mono.fromCompletionStage(
+            () ->
+                bulkheads
+                    .ingest()
+                    .execute(
+                        () ->
+                            transactionTemplate.executeWithoutResult(
+                                status -> {
+                                  repositoryAggregateService.recordInserted(inserted);
+                                  ownerAggregateService.recordInserted(inserted);
+                                })))
+        .onErrorResume(
+            ex -> {
+              logger.warn("Aggregate update failed for {} inserted rows", inserted.size(), ex);
+              return Mono.empty();
+            })
+        .then();
+  }
+
+  /**
+   * Adds committed rows to the in-memory indexes. Runs only after the insert commits, so a rolled
+   * back insert never reaches them and no reader finds a row the database does not have yet.
+   */
+  private void recordCommitted(List<GitHubRepository> inserted) {
+    suggestService.recordInserted(inserted);
+    similarRepositoryService.recordInserted(inserted);
+    columnarRepositoryEngine.recordInserted(inserted);
+    repositoryReadCache.invalidateOnCommit(inserted);
   }
 
   public List<GitHubRepository> getAllSavedRepositories() {
@@ -33,10 +124,50 @@ public class GitHubRepositoryService {
 
   public List<GitHubRepository> getFilteredRepositories(
       String language, Integer minStars, String sortBy) {
-    if (sortBy == null || sortBy.isEmpty()) {
-      sortBy = "stars";
-    }
+    String sort = sortBy == null || sortBy.isEmpty() ? "stars" : sortBy;
+
+    return repositoryReadCache.query(
+        language, minStars, sort, null, () -> loadFilteredRepositories(language, minStars, sort));
+  }
+
+  public RepositoryProjection getFilteredRepositories(
+      String language, Integer minStars, String sortBy, RepositoryFieldSet fields) {
+    String sort = sortBy == null || sortBy.isEmpty() ? "stars" : sortBy;
 
+    return repositoryReadCache.query(
+        language, minStars, sort, fields, () -> loadProjection(language, minStars, sort, fields));
+  }
+
+  /**
+   * Streams the filtered listing straight from the database with the subscriber's demand. Not
+   * cached and not served by the columnar engine, since both materialize the whole result.
+   */
+  public Flux<GitHubRepository> streamFilteredRepositories(
+      String language, Integer minStars, String sortBy) {
+    String sort = sortBy == null || sortBy.isEmpty() ? "stars" : sortBy;
+    return reactiveGitHubRepositoryRepository.findRepositoriesWithFilters(language, minStars, sort);
+  }
+
+  private List<GitHubRepository> loadFilteredRepositories(
+      String language, Integer minStars, String sortBy) {
+    if (columnarRepositoryEngine.isReady()) {
+      return columnarRepositoryEngine.query(language, minStars, sortBy, Integer.MAX_VALUE);
+    }
+    if (SORT_BY_SCORE.equals(sortBy)) {
+      return gitHubRepositoryRepository.findRepositoriesByScore(language, minStars);
+    }
     return gitHubRepositoryRepository.findRepositoriesWithFilters(language, minStars, sortBy);
   }
+
+  private RepositoryProjection loadProjection(
+      String language, Integer minStars, String sortBy, RepositoryFieldSet fields) {
+    if (columnarRepositoryEngine.isReady()) {
+      return RepositoryProjection.of(
+          fields, columnarRepositoryEngine.query(language, minStars, sortBy, Integer.MAX_VALUE));
+    }
+    return new RepositoryProjection(
+        fields,
+        gitHubRepositoryRepository.findProjectedRepositoriesWithFilters(
+            fields, language, minStars, sortBy));
+  }
 }
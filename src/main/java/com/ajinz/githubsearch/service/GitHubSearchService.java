@@ -1,11 +1,14 @@
 package com.ajinz.githubsearch.service;
 
+import com.ajinz.githubsearch.dto.github.GitHubSearchQuery;
 import com.ajinz.githubsearch.dto.github.GitHubSearchResponse;
 import com.ajinz.githubsearch.dto.github.GithubSearchRequest;
+import com.ajinz.githubsearch.timing.ServerTiming;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
 import reactor.core.publisher.Mono;
@@ -17,51 +20,106 @@ public class GitHubSearchService {
   private static final Logger logger = LoggerFactory.getLogger(GitHubSearchService.class);
 
   private final WebClient webClient;
+  private final GitHubRateBudget rateBudget;
 
   public GitHubSearchService(
       WebClient.Builder webClientBuilder,
       @Value("${github.api.base-url:https://api.github.com}") String baseUrl,
       @Value("${github.api.version:2022-11-28}") String apiVersion,
-      GitHubRepositoryService gitHubRepositoryService) {
+      GitHubRepositoryService gitHubRepositoryService,
+      GitHubRateBudget rateBudget) {
     this.webClient =
         webClientBuilder
             .baseUrl(baseUrl)
             .defaultHeader("Accept", "application/vnd.github+json")
             .defaultHeader("X-GitHub-Api-Version", apiVersion)
+            .filter(
+                ExchangeFilterFunction.ofResponseProcessor(
+                    response -> {
+                      rateBudget.recordResponseHeaders(response.headers().asHttpHeaders());
+                      return Mono.just(response);
+                    }))
             .build();
     this.gitHubRepositoryService = gitHubRepositoryService;
+    this.rateBudget = rateBudget;
   }
 
   public Mono<GitHubSearchResponse> searchRepositories(GithubSearchRequest githubSearchRequest) {
     logger.info("Searching repositories with query: {}", githubSearchRequest.query());
-    String query = buildQuery(githubSearchRequest.query(), githubSearchRequest.language());
 
-    return webClient
-        .get()
-        .uri(
-            uriBuilder ->
-                uriBuilder
-                    .path("/search/repositories")
-                    .queryParam("q", query)
-                    .queryParam("sort", githubSearchRequest.sort())
-                    .queryParam("order", githubSearchRequest.order())
-                    .queryParam("per_page", githubSearchRequest.perPage())
-                    .queryParam("page", githubSearchRequest.page())
-                    .build())
-        .retrieve()
-        .bodyToMono(GitHubSearchResponse.class)
-        .doOnSuccess(
-            response -> {
-              logger.info(
-                  "Successfully retrieved {} repositories",
-                  response != null ? response.items().size() : 0);
+    return withErrorMapping(
+        Mono.deferContextual(
+            context -> {
+              ServerTiming timing = ServerTiming.from(context);
+              return fetch(githubSearchRequest, timing, rateBudget.acquire())
+                  .flatMap(
+                      response -> {
+                        if (response.incompleteResults() || response.items().isEmpty()) {
+                          return Mono.just(response);
+                        }
+                        return timing
+                            .time(
+                                "persist",
+                                gitHubRepositoryService.persistGitHubRepositories(
+                                    response.items()))
+                            .thenReturn(response);
+                      });
+            }));
+  }
 
-              if (response != null
-                  && !response.incompleteResults()
-                  && !response.items().isEmpty()) {
-                gitHubRepositoryService.saveAllGitHubRepositories(response.items());
-              }
-            })
+  /**
+   * Fetches one page of results without storing them, for callers that batch the write of several
+   * searches themselves. The call may wait for a token of the rate budget until {@code
+   * budgetDeadlineNanos}, a {@link System#nanoTime} value shared by the searches of the batch.
+   */
+  public Mono<GitHubSearchResponse> fetchRepositories(
+      GithubSearchRequest githubSearchRequest, long budgetDeadlineNanos) {
+    return withErrorMapping(
+        Mono.deferContextual(
+            context ->
+                fetch(
+                    githubSearchRequest,
+                    ServerTiming.from(context),
+                    rateBudget.acquireBefore(budgetDeadlineNanos))));
+  }
+
+  /**
+   * Opens a connection to the GitHub API with a request to {@code /rate_limit}, which GitHub does
+   * not count against the rate limit, so the first search does not pay for the TLS handshake.
+   */
+  public Mono<Void> warmUpConnection() {
+    return webClient.get().uri("/rate_limit").retrieve().toBodilessEntity().then();
+  }
+
+  private Mono<GitHubSearchResponse> fetch(
+      GithubSearchRequest githubSearchRequest, ServerTiming timing, Mono<Void> token) {
+    String query = GitHubSearchQuery.compile(githubSearchRequest);
+
+    return token
+        .then(
+            timing.time(
+                "github",
+                webClient
+                    .get()
+                    .uri(
+                        uriBuilder ->
+                            uriBuilder
+                                .path("/search/repositories")
+                                .queryParam("q", query)
+                                .queryParam("sort", githubSearchRequest.sort())
+                                .queryParam("order", githubSearchRequest.order())
+                                .queryParam("per_page", githubSearchRequest.perPage())
+                                .queryParam("page", githubSearchRequest.page())
+                                .build())
+                    .retrieve()
+                    .bodyToMono(GitHubSearchResponse.class)))
+        .doOnNext(
+            response ->
+                logger.info("Successfully retrieved {} repositories", response.items().size()));
+  }
+
+  private Mono<GitHubSearchResponse> withErrorMapping(Mono<GitHubSearchResponse> search) {
+    return search
         .onErrorMap(
             WebClientResponseException.class,
             ex -> {
@@ -70,18 +128,11 @@ public class GitHubSearchService {
               return new RuntimeException("Failed to search repositories: " + ex.getMessage());
             })
         .onErrorMap(
-            Exception.class,
+            ex -> ex instanceof Exception && !(ex instanceof RateBudgetExhaustedException),
             ex -> {
               logger.error("Unexpected error during repository search", ex);
               return new RuntimeException(
                   "An unexpected error occurred while searching repositories");
             });
   }
-
-  private String buildQuery(String query, String language) {
-    if (language != null && !language.trim().isEmpty()) {
-      return query + " language:" + language;
-    }
-    return query;
-  }
 }
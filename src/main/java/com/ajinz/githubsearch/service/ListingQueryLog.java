@@ -0,0 +1,141 @@
+package com.ajinz.githubsearch.service;
+
+import jakarta.annotation.PreDestroy;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Counts which filter combinations {@code GET /repositories} is asked for, so that a new instance
+ * can load the popular ones into the read cache before it takes traffic. Counts are kept in memory
+ * and added to {@code github_listing_query} every minute and at shutdown; they are approximate,
+ * since hits that race with a flush can be lost. At most {@link #MAX_TRACKED} distinct combinations
+ * are counted between two flushes.
+ */
+@Component
+public class ListingQueryLog {
+
+  static final int MAX_TRACKED = 1000;
+
+  private static final Logger logger = LoggerFactory.getLogger(ListingQueryLog.class);
+
+  private static final Set<String> SORTS = Set.of("stars", "forks", "updated", "name", "score");
+  // Width of the programming_language column
+  private static final int MAX_LANGUAGE_LENGTH = 100;
+  private static final Duration RETENTION = Duration.ofDays(30);
+  private static final String UPDATE =
+      "UPDATE github_listing_query SET hits = hits + ?, last_seen = ? "
+          + "WHERE programming_language = ? AND min_stars = ? AND sort_by = ?";
+  private static final String INSERT =
+      "INSERT INTO github_listing_query "
+          + "(hits, last_seen, programming_language, min_stars, sort_by) VALUES (?, ?, ?, ?, ?)";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final ConcurrentHashMap<Query, LongAdder> pending = new ConcurrentHashMap<>();
+
+  public ListingQueryLog(JdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  record Query(String language, Integer minStars, String sortBy) {}
+
+  /**
+   * Counts a listing that was served. Sort orders the listing does not know are not counted, and
+   * languages are cut to the column width.
+   */
+  public void record(String language, Integer minStars, String sortBy) {
+    String sort = sortBy == null || sortBy.isEmpty() ? "stars" : sortBy;
+    if (!SORTS.contains(sort)) {
+      return;
+    }
+    Query query =
+        new Query(
+            language != null && language.length() > MAX_LANGUAGE_LENGTH
+                ? language.substring(0, MAX_LANGUAGE_LENGTH)
+                : language,
+            minStars,
+            sort);
+    LongAdder hits = pending.get(query);
+    if (hits == null) {
+      if (pending.size() >= MAX_TRACKED) {
+        return;
+      }
+      hits = pending.computeIfAbsent(query, key -> new LongAdder());
+    }
+    hits.increment();
+  }
+
+  /** The most requested combinations seen within {@code window}, most requested first. */
+  List<Query> popular(int limit, Duration window) {
+    return jdbcTemplate.query(
+        "SELECT programming_language, min_stars, sort_by FROM github_listing_query "
+            + "WHERE last_seen >= ? ORDER BY hits DESC, last_seen DESC LIMIT ?",
+        (rs, rowNum) -> {
+          String language = rs.getString(1);
+          int minStars = rs.getInt(2);
+          return new Query(
+              language.isEmpty() ? null : language,
+              minStars < 0 ? null : minStars,
+              rs.getString(3));
+        },
+        Timestamp.valueOf(LocalDateTime.now().minus(window)),
+        limit);
+  }
+
+  @PreDestroy
+  @Scheduled(cron = "${warmup.query-log.flush-cron:30 * * * * *}")
+  public void flush() {
+    List<Object[]> rows = new ArrayList<>();
+    Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+    for (Map.Entry<Query, LongAdder> entry : pending.entrySet()) {
+      if (pending.remove(entry.getKey(), entry.getValue())) {
+        Query query = entry.getKey();
+        rows.add(
+            new Object[] {
+              entry.getValue().sum(),
+              now,
+              query.language() != null ? query.language() : "",
+              query.minStars() != null ? query.minStars() : -1,
+              query.sortBy()
+            });
+      }
+    }
+    try {
+      if (!rows.isEmpty()) {
+        int[] updated = jdbcTemplate.batchUpdate(UPDATE, rows);
+        for (int i = 0; i < updated.length; i++) {
+          if (updated[i] == 0) {
+            insert(rows.get(i));
+          }
+        }
+      }
+      jdbcTemplate.update(
+          "DELETE FROM github_listing_query WHERE last_seen < ?",
+          Timestamp.valueOf(LocalDateTime.now().minus(RETENTION)));
+    } catch (DataAccessException ex) {
+      logger.warn("Could not write {} listing query counts", rows.size(), ex);
+    }
+  }
+
+  private void insert(Object[] row) {
+    try {
+      jdbcTemplate.update(INSERT, row);
+    } catch (DuplicateKeyException ex) {
+      // Inserted concurrently by another instance
+      jdbcTemplate.update(UPDATE, row);
+    }
+  }
+}
@@ -0,0 +1,246 @@
+package com.ajinz.githubsearch.service;
+
+import com.ajinz.githubsearch.config.DatabaseVendor;
+import com.ajinz.githubsearch.dto.github.InvalidRequestException;
+import com.ajinz.githubsearch.dto.github.LocalSearchPage;
+import com.ajinz.githubsearch.dto.github.LocalSearchResult;
+import com.ajinz.githubsearch.dto.github.NameMatch;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+
+/**
+ * Full-text search over stored repository names, owners and descriptions.
+ *
+ * <p>On PostgreSQL the query runs against the generated, GIN-indexed {@code search_vector} column
+ * and is ranked with {@code ts_rank_cd}. Other databases fall back to case-insensitive substring
+ * matching ranked by where the text matched. Pages are keyset-paginated on {@code (rank, id)}, so
+ * deep pages cost the same as the first one.
+ *
+ * <p>Name matching is typo-tolerant and prefix-aware: on PostgreSQL it is served by {@code pg_trgm}
+ * indexes on the lower-cased repository and owner names. Elsewhere the same trigram similarity is
+ * computed in memory over every stored name, which is only meant for small test databases.
+ */
+@Service
+public class LocalSearchService {
+
+  static final int MAX_LIMIT = 100;
+  static final int MAX_MATCH_LIMIT = 50;
+
+  private static final String COLUMNS =
+      "r.id, r.github_repo_id, r.repo_name, r.owner_name, r.description, "
+          + "r.programming_language, r.stars_count, r.forks_count";
+  // Names and owners are indexed unstemmed and descriptions stemmed, so match either form
+  private static final String POSTGRES_MATCH =
+      "SELECT "
+          + COLUMNS
+          + ", ts_rank_cd(r.search_vector, q.query) AS rank "
+          + "FROM github_repository r, "
+          + "(SELECT websearch_to_tsquery('simple', ?) || websearch_to_tsquery('english', ?) "
+          + "AS query) q "
+          + "WHERE r.search_vector @@ q.query";
+  private static final String FALLBACK_MATCH =
+      "SELECT "
+          + COLUMNS
+          + ", CAST(CASE WHEN LOWER(r.repo_name) LIKE ? THEN 3 "
+          + "WHEN LOWER(r.owner_name) LIKE ? THEN 2 ELSE 1 END AS REAL) AS rank "
+          + "FROM github_repository r "
+          + "WHERE (LOWER(r.repo_name) LIKE ? OR LOWER(r.owner_name) LIKE ? "
+          + "OR LOWER(r.description) LIKE ?)";
+
+  // A prefix hit ranks like an exact match, so short as-you-type input still finds its target
+  private static final String POSTGRES_NAME_MATCH =
+      "SELECT github_repo_id, repo_name, owner_name, programming_language, stars_count, "
+          + "CASE WHEN LOWER(repo_name) LIKE ? OR LOWER(owner_name) LIKE ? THEN 1.0 "
+          + "ELSE GREATEST(similarity(LOWER(repo_name), ?), similarity(LOWER(owner_name), ?)) "
+          + "END AS score "
+          + "FROM github_repository "
+          + "WHERE LOWER(repo_name) LIKE ? OR LOWER(owner_name) LIKE ? "
+          + "OR LOWER(repo_name) % ? OR LOWER(owner_name) % ? "
+          + "ORDER BY score DESC, stars_count DESC, id DESC "
+          + "LIMIT ?";
+  private static final String FALLBACK_NAME_SCAN =
+      "SELECT id, github_repo_id, repo_name, owner_name, programming_language, stars_count "
+          + "FROM github_repository";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final DatabaseVendor databaseVendor;
+
+  public LocalSearchService(JdbcTemplate jdbcTemplate, DatabaseVendor databaseVendor) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.databaseVendor = databaseVendor;
+  }
+
+  public LocalSearchPage search(
+      String text, String language, Integer minStars, int limit, String cursor) {
+    if (text == null || text.isBlank()) {
+      throw new InvalidRequestException("q must not be blank");
+    }
+    if (limit < 1 || limit > MAX_LIMIT) {
+      throw new InvalidRequestException("limit must be between 1 and " + MAX_LIMIT);
+    }
+    Cursor after = cursor == null || cursor.isBlank() ? null : Cursor.decode(cursor);
+
+    List<Object> args = new ArrayList<>();
+    StringBuilder sql = new StringBuilder(512).append("SELECT * FROM (");
+    if (databaseVendor.isPostgres()) {
+      sql.append(POSTGRES_MATCH);
+      args.add(text);
+      args.add(text);
+    } else {
+      sql.append(FALLBACK_MATCH);
+      String pattern = "%" + escapeLike(text.trim().toLowerCase(Locale.ROOT)) + "%";
+      for (int i = 0; i < 5; i++) {
+        args.add(pattern);
+      }
+    }
+    if (language != null && !language.isEmpty()) {
+      sql.append(" AND r.programming_language = ?");
+      args.add(language);
+    }
+    if (minStars != null) {
+      sql.append(" AND r.stars_count >= ?");
+      args.add(minStars);
+    }
+    sql.append(") ranked");
+    if (after != null) {
+      sql.append(
+          " WHERE ranked.rank < CAST(? AS REAL)"
+              + " OR (ranked.rank = CAST(? AS REAL) AND ranked.id < ?)");
+      args.add(after.rank());
+      args.add(after.rank());
+      args.add(after.id());
+    }
+    // One extra row tells whether there is a next page
+    sql.append(" ORDER BY ranked.rank DESC, ranked.id DESC LIMIT ?");
+    args.add(limit + 1);
+
+    List<Cursor> keys = new ArrayList<>(limit + 1);
+    List<LocalSearchResult> items =
+        jdbcTemplate.query(
+            sql.toString(),
+            (rs, rowNum) -> {
+              float rank = rs.getFloat("rank");
+              keys.add(new Cursor(rank, rs.getLong("id")));
+              return new LocalSearchResult(
+                  rs.getLong("github_repo_id"),
+                  rs.getString("repo_name"),
+                  rs.getString("owner_name"),
+                  rs.getString("description"),
+                  rs.getString("programming_language"),
+                  rs.getInt("stars_count"),
+                  rs.getInt("forks_count"),
+                  rank);
+            },
+            args.toArray());
+
+    if (items.size() <= limit) {
+      return new LocalSearchPage(items, null);
+    }
+    return new LocalSearchPage(items.subList(0, limit), keys.get(limit - 1).encode());
+  }
+
+  public List<NameMatch> matchNames(String text, int limit) {
+    if (text == null || text.isBlank()) {
+      throw new InvalidRequestException("q must not be blank");
+    }
+    if (limit < 1 || limit > MAX_MATCH_LIMIT) {
+      throw new InvalidRequestException("limit must be between 1 and " + MAX_MATCH_LIMIT);
+    }
+    String lower = text.trim().toLowerCase(Locale.ROOT);
+    if (databaseVendor.isPostgres()) {
+      String prefix = escapeLike(lower) + "%";
+      return jdbcTemplate.query(
+          POSTGRES_NAME_MATCH,
+          (rs, rowNum) -> nameMatch(rs, rs.getDouble("score")),
+          prefix,
+          prefix,
+          lower,
+          lower,
+          prefix,
+          prefix,
+          lower,
+          lower,
+          limit);
+    }
+
+    Set<String> query = Trigrams.of(lower);
+    List<Candidate> candidates = new ArrayList<>();
+    jdbcTemplate.query(
+        FALLBACK_NAME_SCAN,
+        (RowCallbackHandler)
+            rs -> {
+              String name = rs.getString("repo_name");
+              String owner = rs.getString("owner_name");
+              double score =
+                  startsWith(name, lower) || startsWith(owner, lower)
+                      ? 1.0
+                      : Math.max(
+                          Trigrams.similarity(query, Trigrams.of(name)),
+                          Trigrams.similarity(query, Trigrams.of(owner)));
+              if (score >= Trigrams.DEFAULT_THRESHOLD) {
+                candidates.add(new Candidate(rs.getLong("id"), nameMatch(rs, score)));
+              }
+            });
+    return candidates.stream()
+        .sorted(
+            Comparator.comparingDouble((Candidate c) -> c.match().similarity())
+                .thenComparingInt(c -> c.match().starsCount())
+                .thenComparingLong(Candidate::id)
+                .reversed())
+        .limit(limit)
+        .map(Candidate::match)
+        .toList();
+  }
+
+  private record Candidate(long id, NameMatch match) {}
+
+  private static NameMatch nameMatch(ResultSet rs, double score) throws SQLException {
+    return new NameMatch(
+        rs.getLong("github_repo_id"),
+        rs.getString("repo_name"),
+        rs.getString("owner_name"),
+        rs.getString("programming_language"),
+        rs.getInt("stars_count"),
+        score);
+  }
+
+  private static boolean startsWith(String value, String lowerPrefix) {
+    return value != null && value.toLowerCase(Locale.ROOT).startsWith(lowerPrefix);
+  }
+
+  private static String escapeLike(String text) {
+    return text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+  }
+
+  /** Opaque keyset position: the rank and row id of the last item on a page. */
+  record Cursor(float rank, long id) {
+
+    String encode() {
+      return Base64.getUrlEncoder()
+          .withoutPadding()
+          .encodeToString((rank + ":" + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    static Cursor decode(String cursor) {
+      try {
+        String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        int separator = value.indexOf(':');
+        return new Cursor(
+            Float.parseFloat(value.substring(0, separator)),
+            Long.parseLong(value.substring(separator + 1)));
+      } catch (IllegalArgumentException | IndexOutOfBoundsException ex) {
+        throw new InvalidRequestException("Invalid cursor: " + cursor);
+      }
+    }
+  }
+}
@@ -0,0 +1,158 @@
+package com.ajinz.githubsearch.service;
+
+import com.ajinz.githubsearch.dto.github.GitHubRepository;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * MinHash signatures of a repository's name, description and language, for estimating the Jaccard
+ * similarity of their word sets without comparing the sets.
+ *
+ * <p>Words are lower-cased alphanumeric runs of at least two characters, minus a few stop words,
+ * and the language is one extra token. Each of the {@link #HASHES} hash functions keeps only the
+ * top 16 bits of its minimum (b-bit MinHash), so a signature is 128 bytes; two unrelated sets agree
+ * on a slot with probability 2^-16, which is negligible next to the estimate's own error.
+ */
+final class MinHash {
+
+  static final int HASHES = 64;
+  static final int BANDS = 16;
+  static final int ROWS_PER_BAND = HASHES / BANDS;
+  static final int SIGNATURE_BYTES = HASHES * 2;
+
+  private static final Set<String> STOP_WORDS =
+      Set.of(
+          "an", "and", "are", "as", "at", "be", "by", "for", "from", "in", "is", "it", "of", "on",
+          "or", "that", "the", "this", "to", "with", "your");
+  private static final long[] MULTIPLIERS = new long[HASHES];
+  private static final long[] OFFSETS = new long[HASHES];
+
+  static {
+    // Fixed seeds: stored signatures must stay comparable across restarts
+    long state = 0x9E3779B97F4A7C15L;
+    for (int i = 0; i < HASHES; i++) {
+      state = mix(state + 0x9E3779B97F4A7C15L);
+      MULTIPLIERS[i] = state | 1;
+      state = mix(state + 0x9E3779B97F4A7C15L);
+      OFFSETS[i] = state;
+    }
+  }
+
+  private MinHash() {}
+
+  /** Stores the signature on repositories about to be saved. */
+  static void apply(List<GitHubRepository> repositories) {
+    for (GitHubRepository repository : repositories) {
+      repository.withMinhash(
+          signature(
+              repository.getRepoName(),
+              repository.getDescription(),
+              repository.getProgrammingLanguage()));
+    }
+  }
+
+  /** Returns the signature, or null if the repository has no words to compare. */
+  static byte[] signature(String repoName, String description, String language) {
+    Set<String> tokens = tokens(repoName, description, language);
+    if (tokens.isEmpty()) {
+      return null;
+    }
+    long[] minimums = new long[HASHES];
+    Arrays.fill(minimums, -1L);
+    for (String token : tokens) {
+      long base = hash(token);
+      for (int i = 0; i < HASHES; i++) {
+        long value = MULTIPLIERS[i] * base + OFFSETS[i];
+        if (Long.compareUnsigned(value, minimums[i]) < 0) {
+          minimums[i] = value;
+        }
+      }
+    }
+    byte[] signature = new byte[SIGNATURE_BYTES];
+    for (int i = 0; i < HASHES; i++) {
+      signature[2 * i] = (byte) (minimums[i] >>> 56);
+      signature[2 * i + 1] = (byte) (minimums[i] >>> 48);
+    }
+    return signature;
+  }
+
+  static Set<String> tokens(String repoName, String description, String language) {
+    Set<String> tokens = new HashSet<>();
+    addWords(repoName, tokens);
+    addWords(description, tokens);
+    if (language != null && !language.isBlank()) {
+      tokens.add("language:" + language.trim().toLowerCase(Locale.ROOT));
+    }
+    return tokens;
+  }
+
+  /** Estimated Jaccard similarity: the fraction of slots on which the signatures agree. */
+  static double similarity(byte[] a, byte[] b) {
+    int equal = 0;
+    for (int i = 0; i < SIGNATURE_BYTES; i += 2) {
+      if (a[i] == b[i] && a[i + 1] == b[i + 1]) {
+        equal++;
+      }
+    }
+    return (double) equal / HASHES;
+  }
+
+  /** Hash of one band, the unit of the LSH index: similar signatures share at least one. */
+  static int bandHash(byte[] signature, int band) {
+    int hash = band;
+    int from = band * ROWS_PER_BAND * 2;
+    for (int i = from; i < from + ROWS_PER_BAND * 2; i++) {
+      hash = 31 * hash + signature[i];
+    }
+    return (int) mix(hash);
+  }
+
+  static boolean bandEquals(byte[] a, byte[] b, int band) {
+    int from = band * ROWS_PER_BAND * 2;
+    for (int i = from; i < from + ROWS_PER_BAND * 2; i++) {
+      if (a[i] != b[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static void addWords(String text, Set<String> tokens) {
+    if (text == null) {
+      return;
+    }
+    String lower = text.toLowerCase(Locale.ROOT);
+    int wordStart = -1;
+    for (int i = 0; i <= lower.length(); i++) {
+      boolean wordChar = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+      if (wordChar && wordStart < 0) {
+        wordStart = i;
+      } else if (!wordChar && wordStart >= 0) {
+        String word = lower.substring(wordStart, i);
+        if (word.length() > 1 && !STOP_WORDS.contains(word)) {
+          tokens.add(word);
+        }
+        wordStart = -1;
+      }
+    }
+  }
+
+  /** FNV-1a over the UTF-16 code units, finished with {@link #mix}. */
+  private static long hash(String token) {
+    long hash = 0xCBF29CE484222325L;
+    for (int i = 0; i < token.length(); i++) {
+      hash = (hash ^ token.charAt(i)) * 0x100000001B3L;
+    }
+    return mix(hash);
+  }
+
+  /** The 64-bit finalizer of MurmurHash3. */
+  private static long mix(long value) {
+    value = (value ^ (value >>> 33)) * 0xFF51AFD7ED558CCDL;
+    value = (value ^ (value >>> 33)) * 0xC4CEB93FE53A0CE5L;
+    return value ^ (value >>> 33);
+  }
+}
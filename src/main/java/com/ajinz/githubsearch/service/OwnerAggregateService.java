@@ -0,0 +1,393 @@
+package com.ajinz.githubsearch.service;
+
+import com.ajinz.githubsearch.config.DatabaseVendor;
+import com.ajinz.githubsearch.dto.github.GitHubRepository;
+import com.ajinz.githubsearch.dto.github.InvalidRequestException;
+import com.ajinz.githubsearch.dto.github.OwnerSummary;
+import com.ajinz.githubsearch.repository.GitHubRepositoryRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Owners of stored repositories in their own table, with repository count, star/fork totals and
+ * per-language counts updated inside the ingest transaction, so listing owners by those totals is
+ * an index scan instead of a group-by over {@code github_repository}. Deltas are upserts, so a new
+ * owner or language needs no separate transaction to create its rows.
+ *
+ * <p>A reconciliation job recounts the owners of repositories stored since its previous runs and
+ * corrects those that drifted, for instance because their ingest delta failed. It walks a
+ * repository id watermark instead of the whole table: a run covers the ids that already existed
+ * when the run before it started, so the deltas of ingests still in flight have landed. It locks
+ * the owner rows first, which ingest upserts before the language rows, and then recounts, so a
+ * delta committed before the lock is in the recount and one committed after it is added on top.
+ */
+@Service
+public class OwnerAggregateService {
+
+  static final int MAX_PAGE_SIZE = 100;
+  static final int TOP_LANGUAGES = 3;
+
+  private static final Logger logger = LoggerFactory.getLogger(OwnerAggregateService.class);
+
+  private static final int RECONCILE_BATCH_SIZE = 500;
+  private static final String OWNER_TABLE = "github_owner";
+  private static final String LANGUAGE_TABLE = "github_owner_language";
+  private static final List<String> OWNER_KEYS = List.of("owner_name");
+  private static final List<String> OWNER_COUNTERS =
+      List.of("repo_count", "total_stars", "total_forks");
+  private static final List<String> LANGUAGE_KEYS = List.of("owner_id", "programming_language");
+  private static final List<String> LANGUAGE_COUNTERS = List.of("repo_count", "total_stars");
+  private static final String OWNER_DELTA =
+      "VALUES (CAST(? AS VARCHAR(255)), CAST(? AS BIGINT), CAST(? AS BIGINT), CAST(? AS BIGINT))";
+  // The owner row exists: ingest upserts it first in the same transaction
+  private static final String LANGUAGE_DELTA =
+      "SELECT id, CAST(? AS VARCHAR(100)), CAST(? AS BIGINT), CAST(? AS BIGINT) "
+          + "FROM github_owner WHERE owner_name = ?";
+  private static final String UPDATE_OWNER =
+      "UPDATE github_owner SET repo_count = repo_count + ?, total_stars = total_stars + ?, "
+          + "total_forks = total_forks + ? WHERE owner_name = ?";
+  private static final String UPDATE_LANGUAGE =
+      "UPDATE github_owner_language SET repo_count = repo_count + ?, "
+          + "total_stars = total_stars + ? "
+          + "WHERE owner_id = (SELECT id FROM github_owner WHERE owner_name = ?) "
+          + "AND programming_language = ?";
+  private static final String READ_PROGRESS =
+      "SELECT last_id, max_id FROM github_owner_reconcile_progress";
+  private static final String WRITE_PROGRESS =
+      "UPDATE github_owner_reconcile_progress SET last_id = ?, max_id = ?, updated_at = ?";
+  private static final String OWNERS_IN_RANGE =
+      "SELECT DISTINCT owner_name FROM github_repository "
+          + "WHERE id > ? AND id <= ? AND owner_name IS NOT NULL ORDER BY owner_name";
+
+  private static final ParameterizedPreparedStatementSetter<Map.Entry<String, Totals>>
+      OWNER_DELTA_ROW =
+          (ps, entry) -> {
+            ps.setString(1, entry.getKey());
+            ps.setLong(2, entry.getValue().count);
+            ps.setLong(3, entry.getValue().stars);
+            ps.setLong(4, entry.getValue().forks);
+          };
+  private static final ParameterizedPreparedStatementSetter<Map.Entry<List<String>, Totals>>
+      LANGUAGE_DELTA_ROW =
+          (ps, entry) -> {
+            ps.setString(1, entry.getKey().get(1));
+            ps.setLong(2, entry.getValue().count);
+            ps.setLong(3, entry.getValue().stars);
+            ps.setString(4, entry.getKey().get(0));
+          };
+  private static final ParameterizedPreparedStatementSetter<Map.Entry<String, Totals>>
+      OWNER_DECREMENT =
+          (ps, entry) -> {
+            ps.setLong(1, entry.getValue().count);
+            ps.setLong(2, entry.getValue().stars);
+            ps.setLong(3, entry.getValue().forks);
+            ps.setString(4, entry.getKey());
+          };
+  private static final ParameterizedPreparedStatementSetter<Map.Entry<List<String>, Totals>>
+      LANGUAGE_DECREMENT =
+          (ps, entry) -> {
+            ps.setLong(1, entry.getValue().count);
+            ps.setLong(2, entry.getValue().stars);
+            ps.setString(3, entry.getKey().get(0));
+            ps.setString(4, entry.getKey().get(1));
+          };
+
+  private final JdbcTemplate jdbcTemplate;
+  private final GitHubRepositoryRepository gitHubRepositoryRepository;
+  private final DatabaseVendor databaseVendor;
+  private final TransactionTemplate transactionTemplate;
+  private final AtomicInteger lastDrift = new AtomicInteger();
+
+  public OwnerAggregateService(
+      JdbcTemplate jdbcTemplate,
+      GitHubRepositoryRepository gitHubRepositoryRepository,
+      DatabaseVendor databaseVendor,
+      PlatformTransactionManager transactionManager,
+      MeterRegistry meterRegistry) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.gitHubRepositoryRepository = gitHubRepositoryRepository;
+    this.databaseVendor = databaseVendor;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    Gauge.builder("github.owners.drift", lastDrift, AtomicInteger::get)
+        .description("Owners whose aggregates drifted at the last reconciliation")
+        .register(meterRegistry);
+  }
+
+  /** Adds newly inserted repositories to their owners' totals, in the caller's transaction. */
+  public void recordInserted(List<GitHubRepository> repositories) {
+    Deltas deltas = deltas(repositories, 1);
+    if (deltas.owners().isEmpty()) {
+      return;
+    }
+    boolean postgres = databaseVendor.isPostgres();
+    List<Map.Entry<String, Totals>> owners = new ArrayList<>(deltas.owners().entrySet());
+    List<Map.Entry<List<String>, Totals>> languages =
+        new ArrayList<>(deltas.languages().entrySet());
+    jdbcTemplate.batchUpdate(
+        CounterUpsert.add(postgres, OWNER_TABLE, OWNER_KEYS, OWNER_COUNTERS, OWNER_DELTA),
+        owners,
+        owners.size(),
+        OWNER_DELTA_ROW);
+    jdbcTemplate.batchUpdate(
+        CounterUpsert.add(
+            postgres, LANGUAGE_TABLE, LANGUAGE_KEYS, LANGUAGE_COUNTERS, LANGUAGE_DELTA),
+        languages,
+        languages.size(),
+        LANGUAGE_DELTA_ROW);
+  }
+
+  /**
+   * Subtracts deleted repositories from their owners' totals, in the caller's transaction. An
+   * owner without a row has nothing to subtract from and is left to the reconciliation.
+   */
+  public void recordDeleted(List<GitHubRepository> repositories) {
+    Deltas deltas = deltas(repositories, -1);
+    if (deltas.owners().isEmpty()) {
+      return;
+    }
+    List<Map.Entry<String, Totals>> owners = new ArrayList<>(deltas.owners().entrySet());
+    List<Map.Entry<List<String>, Totals>> languages =
+        new ArrayList<>(deltas.languages().entrySet());
+    jdbcTemplate.batchUpdate(UPDATE_OWNER, owners, owners.size(), OWNER_DECREMENT);
+    jdbcTemplate.batchUpdate(UPDATE_LANGUAGE, languages, languages.size(), LANGUAGE_DECREMENT);
+  }
+
+  /** Owners with at least one stored repository, ordered by total stars or repository count. */
+  public List<OwnerSummary> getOwners(String sort, int page, int size) {
+    validatePage(page, size);
+    String orderBy =
+        switch (sort) {
+          case "stars" -> "total_stars DESC, id";
+          case "repos" -> "repo_count DESC, id";
+          default -> throw new InvalidRequestException("sort must be one of: stars, repos");
+        };
+
+    List<Long> ids = new ArrayList<>();
+    List<OwnerSummary> owners = new ArrayList<>();
+    Map<Long, List<String>> topLanguages = new HashMap<>();
+    jdbcTemplate.query(
+        "SELECT id, owner_name, repo_count, total_stars, total_forks FROM github_owner "
+            + "WHERE repo_count > 0 ORDER BY "
+            + orderBy
+            + " LIMIT ? OFFSET ?",
+        rs -> {
+          long id = rs.getLong(1);
+          List<String> languages = new ArrayList<>(TOP_LANGUAGES);
+          ids.add(id);
+          topLanguages.put(id, languages);
+          owners.add(
+              new OwnerSummary(
+                  rs.getString(2),
+                  rs.getLong(3),
+                  rs.getLong(4),
+                  rs.getLong(5),
+                  Collections.unmodifiableList(languages)));
+        },
+        size,
+        (long) page * size);
+    if (ids.isEmpty()) {
+      return owners;
+    }
+
+    jdbcTemplate.query(
+        "SELECT owner_id, programming_language FROM github_owner_language WHERE owner_id IN ("
+            + String.join(",", Collections.nCopies(ids.size(), "?"))
+            + ") AND programming_language <> '' AND repo_count > 0 "
+            + "ORDER BY owner_id, repo_count DESC, total_stars DESC, programming_language",
+        rs -> {
+          List<String> languages = topLanguages.get(rs.getLong(1));
+          if (languages.size() < TOP_LANGUAGES) {
+            languages.add(rs.getString(2));
+          }
+        },
+        ids.toArray());
+    return owners;
+  }
+
+  /** An owner's stored repositories, most starred first, or empty if the owner is unknown. */
+  public Optional<List<GitHubRepository>> getOwnerRepositories(String owner, int page, int size) {
+    validatePage(page, size);
+    Integer known =
+        jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM github_owner WHERE owner_name = ? AND repo_count > 0",
+            Integer.class,
+            owner);
+    if (known == null || known == 0) {
+      return Optional.empty();
+    }
+    return Optional.of(
+        gitHubRepositoryRepository.findByOwnerNameOrderByStarsCountDescIdAsc(
+            owner, PageRequest.of(page, size)));
+  }
+
+  /**
+   * Recounts the owners of repositories stored since the previous runs and corrects the totals and
+   * languages that drifted, one transaction per batch of owners. The watermark
+   * moves only once every batch has committed, so a failed run is repeated in full.
+   *
+   * @return number of owners that had drifted, or -1 if the reconciliation failed
+   */
+  @Scheduled(cron = "${owners.reconcile-cron:0 20 * * * *}")
+  public int reconcile() {
+    try {
+      long[] progress =
+          jdbcTemplate.queryForObject(
+              READ_PROGRESS, (rs, row) -> new long[] {rs.getLong(1), rs.getLong(2)});
+      Long maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM github_repository", Long.class);
+      List<String> owners =
+          jdbcTemplate.queryForList(OWNERS_IN_RANGE, String.class, progress[0], progress[1]);
+
+      int drifted = 0;
+      boolean postgres = databaseVendor.isPostgres();
+      for (int from = 0; from < owners.size(); from += RECONCILE_BATCH_SIZE) {
+        List<String> batch =
+            owners.subList(from, Math.min(owners.size(), from + RECONCILE_BATCH_SIZE));
+        Integer corrected = transactionTemplate.execute(status -> recount(batch, postgres));
+        drifted += corrected != null ? corrected : 0;
+      }
+      jdbcTemplate.update(
+          WRITE_PROGRESS,
+          progress[1],
+          Math.max(progress[1], maxId != null ? maxId : 0),
+          LocalDateTime.now());
+
+      lastDrift.set(drifted);
+      if (drifted > 0) {
+        logger.warn("Corrected aggregate drift for {} of {} owners", drifted, owners.size());
+      }
+      return drifted;
+    } catch (DataAccessException ex) {
+      logger.warn("Owner reconciliation failed", ex);
+      return -1;
+    }
+  }
+
+  /** Locks, recounts and overwrites the owners' rows that differ; returns the owners corrected. */
+  private int recount(List<String> owners, boolean postgres) {
+    String in = String.join(",", Collections.nCopies(owners.size(), "?"));
+    Object[] names = owners.toArray();
+    Object[] twice = new Object[names.length * 2];
+    System.arraycopy(names, 0, twice, 0, names.length);
+    System.arraycopy(names, 0, twice, names.length, names.length);
+
+    jdbcTemplate.query(
+        "SELECT id FROM github_owner WHERE owner_name IN (" + in + ") ORDER BY owner_name "
+            + "FOR UPDATE",
+        rs -> {},
+        names);
+    // Owners whose repositories are all gone come out with zero totals
+    int corrected =
+        jdbcTemplate.update(
+            CounterUpsert.replace(
+                postgres,
+                OWNER_TABLE,
+                OWNER_KEYS,
+                OWNER_COUNTERS,
+                "SELECT owner_name, SUM(repo_count), SUM(total_stars), SUM(total_forks) FROM ("
+                    + "SELECT owner_name, 1 AS repo_count, "
+                    + "COALESCE(stars_count, 0) AS total_stars, "
+                    + "COALESCE(forks_count, 0) AS total_forks FROM github_repository "
+                    + "WHERE owner_name IN ("
+                    + in
+                    + ") UNION ALL SELECT owner_name, 0, 0, 0 FROM github_owner "
+                    + "WHERE owner_name IN ("
+                    + in
+                    + ")) a GROUP BY owner_name"),
+            twice);
+    jdbcTemplate.update(
+        CounterUpsert.replace(
+            postgres,
+            LANGUAGE_TABLE,
+            LANGUAGE_KEYS,
+            LANGUAGE_COUNTERS,
+            "SELECT owner_id, programming_language, SUM(repo_count), SUM(total_stars) FROM ("
+                + "SELECT o.id AS owner_id, "
+                + "COALESCE(r.programming_language, '') AS programming_language, "
+                + "1 AS repo_count, COALESCE(r.stars_count, 0) AS total_stars "
+                + "FROM github_repository r JOIN github_owner o ON o.owner_name = r.owner_name "
+                + "WHERE r.owner_name IN ("
+                + in
+                + ") UNION ALL SELECT l.owner_id, l.programming_language, 0, 0 "
+                + "FROM github_owner_language l JOIN github_owner o ON o.id = l.owner_id "
+                + "WHERE o.owner_name IN ("
+                + in
+                + ")) a GROUP BY owner_id, programming_language"),
+        twice);
+    return corrected;
+  }
+
+  private static void validatePage(int page, int size) {
+    if (page < 0) {
+      throw new InvalidRequestException("page must not be negative");
+    }
+    if (size < 1 || size > MAX_PAGE_SIZE) {
+      throw new InvalidRequestException("size must be between 1 and " + MAX_PAGE_SIZE);
+    }
+  }
+
+  /** Sums the deltas per owner and language, in key order so concurrent ingests lock rows alike. */
+  private static Deltas deltas(List<GitHubRepository> repositories, int sign) {
+    Map<String, Totals> owners = new TreeMap<>();
+    Map<List<String>, Totals> languages =
+        new TreeMap<>(
+            Comparator.<List<String>, String>comparing(key -> key.get(0))
+                .thenComparing(key -> key.get(1)));
+    for (GitHubRepository repository : repositories) {
+      String owner = repository.getOwnerName();
+      if (owner == null) {
+        continue;
+      }
+      int stars = valueOf(repository.getStarsCount());
+      int forks = valueOf(repository.getForksCount());
+      owners.computeIfAbsent(owner, key -> new Totals()).add(sign, stars, forks);
+      languages
+          .computeIfAbsent(
+              List.of(owner, languageKey(repository.getProgrammingLanguage())),
+              key -> new Totals())
+          .add(sign, stars, forks);
+    }
+    return new Deltas(owners, languages);
+  }
+
+  private static String languageKey(String language) {
+    return language != null ? language : "";
+  }
+
+  private static int valueOf(Integer count) {
+    return count != null ? count : 0;
+  }
+
+  private static final class Totals {
+    private long count;
+    private long stars;
+    private long forks;
+
+    private void add(int sign, int starCount, int forkCount) {
+      count += sign;
+      stars += (long) sign * starCount;
+      forks += (long) sign * forkCount;
+    }
+  }
+
+  private record Deltas(Map<String, Totals> owners, Map<List<String>, Totals> languages) {}
+}
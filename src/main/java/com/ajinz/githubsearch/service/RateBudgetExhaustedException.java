@@ -0,0 +1,18 @@
+package com.ajinz.githubsearch.service;
+
+import java.time.Duration;
+
+/** Thrown when a GitHub search would wait longer for the {@link GitHubRateBudget} than allowed. */
+public class RateBudgetExhaustedException extends RuntimeException {
+
+  private final Duration retryAfter;
+
+  public RateBudgetExhaustedException(Duration retryAfter) {
+    super("GitHub API rate budget exhausted, retry in " + retryAfter.toSeconds() + "s");
+    this.retryAfter = retryAfter;
+  }
+
+  public Duration getRetryAfter() {
+    return retryAfter;
+  }
+}
@@ -0,0 +1,436 @@
+package com.ajinz.githubsearch.service;
+
+import com.ajinz.githubsearch.config.DatabaseVendor;
+import com.ajinz.githubsearch.dto.github.GitHubRepository;
+import com.ajinz.githubsearch.dto.github.RepositoryAggregates;
+import com.ajinz.githubsearch.dto.github.RepositoryAggregates.Distribution;
+import com.ajinz.githubsearch.dto.github.RepositoryAggregates.HistogramBucket;
+import com.ajinz.githubsearch.dto.github.RepositoryAggregates.LanguageAggregate;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Per-language repository counts, star/fork totals and log2 histograms, kept in rollup tables that
+ * are updated inside the ingest transaction. Reads are proportional to the number of languages.
+ * A reconciliation job recounts languages from {@code github_repository}, reports drift and
+ * corrects it.
+ *
+ * <p>Deltas are upserts, so a new language needs no separate transaction to create its rows. The
+ * reconciliation recounts the languages of repositories stored since its previous runs, for
+ * instance those whose ingest delta failed, walking a repository id watermark like {@link
+ * OwnerAggregateService}: a run covers the ids that already existed when the run before it
+ * started, so the deltas of ingests still in flight have landed and are not counted twice. Each
+ * language is recounted in its own transaction, which locks its stats row first, as ingest updates
+ * it before the histograms: a delta committed before the lock is in the recount, and one committed
+ * after it is added on top.
+ */
+@Service
+public class RepositoryAggregateService {
+
+  static final int BUCKETS = 32;
+
+  private static final Logger logger = LoggerFactory.getLogger(RepositoryAggregateService.class);
+
+  private static final String STARS = "stars";
+  private static final String FORKS = "forks";
+  private static final String STATS_TABLE = "github_language_stats";
+  private static final String HISTOGRAM_TABLE = "github_language_histogram";
+  private static final List<String> STATS_KEYS = List.of("programming_language");
+  private static final List<String> STATS_COUNTERS =
+      List.of("repo_count", "total_stars", "total_forks");
+  private static final List<String> HISTOGRAM_KEYS =
+      List.of("programming_language", "metric", "bucket");
+  private static final List<String> HISTOGRAM_COUNTERS = List.of("repo_count");
+  private static final String STATS_DELTA =
+      "VALUES (CAST(? AS VARCHAR(100)), CAST(? AS BIGINT), CAST(? AS BIGINT), CAST(? AS BIGINT))";
+  private static final String HISTOGRAM_DELTA =
+      "VALUES (CAST(? AS VARCHAR(100)), CAST(? AS VARCHAR(10)), CAST(? AS INTEGER), "
+          + "CAST(? AS BIGINT))";
+  private static final String READ_PROGRESS =
+      "SELECT last_id, max_id FROM github_aggregate_reconcile_progress";
+  private static final String WRITE_PROGRESS =
+      "UPDATE github_aggregate_reconcile_progress SET last_id = ?, max_id = ?, updated_at = ?";
+  private static final String LANGUAGES_IN_RANGE =
+      "SELECT DISTINCT COALESCE(programming_language, '') FROM github_repository "
+          + "WHERE id > ? AND id <= ? ORDER BY 1";
+  private static final String UPDATE_STATS =
+      "UPDATE github_language_stats SET repo_count = repo_count + ?, "
+          + "total_stars = total_stars + ?, total_forks = total_forks + ? "
+          + "WHERE programming_language = ?";
+  private static final String UPDATE_HISTOGRAM =
+      "UPDATE github_language_histogram SET repo_count = repo_count + ? "
+          + "WHERE programming_language = ? AND metric = ? AND bucket = ?";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final DatabaseVendor databaseVendor;
+  private final TransactionTemplate transactionTemplate;
+  private final AtomicInteger lastDrift = new AtomicInteger();
+
+  public RepositoryAggregateService(
+      JdbcTemplate jdbcTemplate,
+      DatabaseVendor databaseVendor,
+      PlatformTransactionManager transactionManager,
+      MeterRegistry meterRegistry) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.databaseVendor = databaseVendor;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    Gauge.builder("github.aggregates.drift", lastDrift, AtomicInteger::get)
+        .description("Aggregate rows corrected at the last reconciliation")
+        .register(meterRegistry);
+  }
+
+  /** Adds newly inserted repositories to the aggregates, in the caller's transaction. */
+  public void recordInserted(List<GitHubRepository> repositories) {
+    if (repositories.isEmpty()) {
+      return;
+    }
+    List<Map.Entry<String, LanguageTotals>> entries = deltas(repositories, 1);
+    boolean postgres = databaseVendor.isPostgres();
+    updateStats(
+        CounterUpsert.add(postgres, STATS_TABLE, STATS_KEYS, STATS_COUNTERS, STATS_DELTA),
+        entries,
+        true);
+    updateHistograms(
+        CounterUpsert.add(
+            postgres, HISTOGRAM_TABLE, HISTOGRAM_KEYS, HISTOGRAM_COUNTERS, HISTOGRAM_DELTA),
+        entries,
+        true);
+  }
+
+  /**
+   * Subtracts deleted repositories from the aggregates, in the caller's transaction. A language
+   * without rows has nothing to subtract from and is left to the reconciliation.
+   */
+  public void recordDeleted(List<GitHubRepository> repositories) {
+    if (repositories.isEmpty()) {
+      return;
+    }
+    List<Map.Entry<String, LanguageTotals>> entries = deltas(repositories, -1);
+    updateStats(UPDATE_STATS, entries, false);
+    updateHistograms(UPDATE_HISTOGRAM, entries, false);
+  }
+
+  public RepositoryAggregates getAggregates() {
+    Map<String, LanguageTotals> stored = readStored();
+    LanguageTotals overall = new LanguageTotals();
+    List<LanguageAggregate> languages = new ArrayList<>();
+    for (Map.Entry<String, LanguageTotals> entry : stored.entrySet()) {
+      LanguageTotals totals = entry.getValue();
+      if (totals.count == 0) {
+        continue;
+      }
+      overall.merge(totals);
+      languages.add(
+          new LanguageAggregate(
+              entry.getKey().isEmpty() ? null : entry.getKey(),
+              totals.count,
+              totals.stars,
+              totals.forks,
+              distribution(totals.starHistogram, totals.count),
+              distribution(totals.forkHistogram, totals.count)));
+    }
+    languages.sort(Comparator.comparingLong(LanguageAggregate::count).reversed());
+    return new RepositoryAggregates(
+        overall.count,
+        distribution(overall.starHistogram, overall.count),
+        distribution(overall.forkHistogram, overall.count),
+        languages);
+  }
+
+  /**
+   * Recounts the languages of repositories stored since the previous runs and overwrites the rows
+   * that drifted, one transaction per language. The watermark moves only once every language has
+   * committed, so a failed run is repeated in full.
+   *
+   * @return number of stats and histogram rows that had drifted, or -1 if the reconciliation failed
+   */
+  @Scheduled(cron = "${aggregates.reconcile-cron:0 0 * * * *}")
+  public int reconcile() {
+    try {
+      long[] progress =
+          jdbcTemplate.queryForObject(
+              READ_PROGRESS, (rs, row) -> new long[] {rs.getLong(1), rs.getLong(2)});
+      Long maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM github_repository", Long.class);
+      List<String> languages =
+          jdbcTemplate.queryForList(LANGUAGES_IN_RANGE, String.class, progress[0], progress[1]);
+
+      int drifted = 0;
+      boolean postgres = databaseVendor.isPostgres();
+      for (String language : languages) {
+        Integer corrected = transactionTemplate.execute(status -> recount(language, postgres));
+        drifted += corrected != null ? corrected : 0;
+      }
+      jdbcTemplate.update(
+          WRITE_PROGRESS,
+          progress[1],
+          Math.max(progress[1], maxId != null ? maxId : 0),
+          LocalDateTime.now());
+
+      lastDrift.set(drifted);
+      if (drifted > 0) {
+        logger.warn(
+            "Corrected {} drifted aggregate rows across {} languages", drifted, languages.size());
+      }
+      return drifted;
+    } catch (DataAccessException ex) {
+      logger.warn("Aggregate reconciliation failed", ex);
+      return -1;
+    }
+  }
+
+  /** Locks, recounts and overwrites the language's rows that differ; returns the rows corrected. */
+  private int recount(String language, boolean postgres) {
+    // Repositories without a language are stored as NULL; match them without defeating the index
+    boolean none = language.isEmpty();
+    String repositories =
+        "FROM github_repository WHERE "
+            + (none
+                ? "(programming_language IS NULL OR programming_language = '')"
+                : "programming_language = ?");
+    Object[] args = none ? new Object[] {language} : new Object[] {language, language};
+    Object[] histogramArgs =
+        none ? new Object[] {language} : new Object[] {language, language, language};
+
+    jdbcTemplate.query(
+        "SELECT programming_language FROM github_language_stats WHERE programming_language = ? "
+            + "FOR UPDATE",
+        rs -> {},
+        language);
+    // Buckets still in the table but without repositories come out with zero counts
+    return jdbcTemplate.update(
+            CounterUpsert.replace(
+                postgres,
+                STATS_TABLE,
+                STATS_KEYS,
+                STATS_COUNTERS,
+                "SELECT programming_language, SUM(repo_count), SUM(total_stars), "
+                    + "SUM(total_forks) FROM ("
+                    + "SELECT COALESCE(programming_language, '') AS programming_language, "
+                    + "1 AS repo_count, COALESCE(stars_count, 0) AS total_stars, "
+                    + "COALESCE(forks_count, 0) AS total_forks "
+                    + repositories
+                    + " UNION ALL SELECT programming_language, 0, 0, 0 FROM github_language_stats "
+                    + "WHERE programming_language = ?) a GROUP BY programming_language"),
+            args)
+        + jdbcTemplate.update(
+            CounterUpsert.replace(
+                postgres,
+                HISTOGRAM_TABLE,
+                HISTOGRAM_KEYS,
+                HISTOGRAM_COUNTERS,
+                "SELECT programming_language, metric, bucket, SUM(repo_count) FROM ("
+                    + "SELECT COALESCE(programming_language, '') AS programming_language, '"
+                    + STARS
+                    + "' AS metric, "
+                    + bucketExpression("stars_count")
+                    + " AS bucket, 1 AS repo_count "
+                    + repositories
+                    + " UNION ALL SELECT COALESCE(programming_language, ''), '"
+                    + FORKS
+                    + "', "
+                    + bucketExpression("forks_count")
+                    + ", 1 "
+                    + repositories
+                    + " UNION ALL SELECT programming_language, metric, bucket, 0 "
+                    + "FROM github_language_histogram WHERE programming_language = ?) a "
+                    + "GROUP BY programming_language, metric, bucket"),
+            histogramArgs);
+  }
+
+  static int bucketOf(long value) {
+    return value <= 0 ? 0 : Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(value));
+  }
+
+  static long lowerBound(int bucket) {
+    return bucket == 0 ? 0 : 1L << (bucket - 1);
+  }
+
+  static long upperBound(int bucket) {
+    return bucket == 0 ? 0 : (1L << bucket) - 1;
+  }
+
+  /** Estimates a percentile by interpolating linearly inside the bucket that holds the rank. */
+  static long percentile(long[] histogram, long total, double percentile) {
+    if (total == 0) {
+      return 0;
+    }
+    double rank = percentile * total;
+    long seen = 0;
+    int last = 0;
+    for (int bucket = 0; bucket < histogram.length; bucket++) {
+      long count = histogram[bucket];
+      if (count == 0) {
+        continue;
+      }
+      if (seen + count >= rank) {
+        double fraction = (rank - seen) / count;
+        return lowerBound(bucket)
+            + Math.round((upperBound(bucket) - lowerBound(bucket)) * fraction);
+      }
+      seen += count;
+      last = bucket;
+    }
+    return upperBound(last);
+  }
+
+  private static Distribution distribution(long[] histogram, long total) {
+    List<HistogramBucket> buckets = new ArrayList<>();
+    for (int bucket = 0; bucket < histogram.length; bucket++) {
+      if (histogram[bucket] > 0) {
+        buckets.add(
+            new HistogramBucket(lowerBound(bucket), upperBound(bucket), histogram[bucket]));
+      }
+    }
+    return new Distribution(
+        percentile(histogram, total, 0.5),
+        percentile(histogram, total, 0.9),
+        percentile(histogram, total, 0.99),
+        buckets);
+  }
+
+  private static String languageKey(String language) {
+    return language != null ? language : "";
+  }
+
+  private static int valueOf(Integer count) {
+    return count != null ? count : 0;
+  }
+
+  /** A SQL expression for {@link #bucketOf} of an integer column; NULL counts as zero. */
+  static String bucketExpression(String column) {
+    StringBuilder sql =
+        new StringBuilder("CASE WHEN COALESCE(").append(column).append(", 0) <= 0 THEN 0");
+    for (int bucket = 1; bucket < BUCKETS - 1; bucket++) {
+      sql.append(" WHEN ")
+          .append(column)
+          .append(" <= ")
+          .append(upperBound(bucket))
+          .append(" THEN ")
+          .append(bucket);
+    }
+    return sql.append(" ELSE ").append(BUCKETS - 1).append(" END").toString();
+  }
+
+  /** Sums the deltas per language, in key order so concurrent ingests lock rows alike. */
+  private static List<Map.Entry<String, LanguageTotals>> deltas(
+      List<GitHubRepository> repositories, int sign) {
+    Map<String, LanguageTotals> deltas = new TreeMap<>();
+    for (GitHubRepository repository : repositories) {
+      deltas
+          .computeIfAbsent(
+              languageKey(repository.getProgrammingLanguage()), key -> new LanguageTotals())
+          .add(sign, valueOf(repository.getStarsCount()), valueOf(repository.getForksCount()));
+    }
+    return new ArrayList<>(deltas.entrySet());
+  }
+
+  private void updateStats(
+      String sql, List<Map.Entry<String, LanguageTotals>> entries, boolean upsert) {
+    jdbcTemplate.batchUpdate(
+        sql,
+        entries,
+        entries.size(),
+        (ps, entry) -> {
+          int first = upsert ? 2 : 1;
+          ps.setString(upsert ? 1 : 4, entry.getKey());
+          ps.setLong(first, entry.getValue().count);
+          ps.setLong(first + 1, entry.getValue().stars);
+          ps.setLong(first + 2, entry.getValue().forks);
+        });
+  }
+
+  /** Writes only the buckets the delta changes. */
+  private void updateHistograms(
+      String sql, List<Map.Entry<String, LanguageTotals>> entries, boolean upsert) {
+    List<Object[]> rows = new ArrayList<>();
+    for (Map.Entry<String, LanguageTotals> entry : entries) {
+      for (int bucket = 0; bucket < BUCKETS; bucket++) {
+        long stars = entry.getValue().starHistogram[bucket];
+        long forks = entry.getValue().forkHistogram[bucket];
+        if (stars != 0) {
+          rows.add(histogramRow(entry.getKey(), STARS, bucket, stars, upsert));
+        }
+        if (forks != 0) {
+          rows.add(histogramRow(entry.getKey(), FORKS, bucket, forks, upsert));
+        }
+      }
+    }
+    if (!rows.isEmpty()) {
+      jdbcTemplate.batchUpdate(sql, rows);
+    }
+  }
+
+  private static Object[] histogramRow(
+      String language, String metric, int bucket, long count, boolean upsert) {
+    return upsert
+        ? new Object[] {language, metric, bucket, count}
+        : new Object[] {count, language, metric, bucket};
+  }
+
+  private Map<String, LanguageTotals> readStored() {
+    Map<String, LanguageTotals> stored = new HashMap<>();
+    jdbcTemplate.query(
+        "SELECT programming_language, repo_count, total_stars, total_forks "
+            + "FROM github_language_stats",
+        rs -> {
+          LanguageTotals totals =
+              stored.computeIfAbsent(rs.getString(1), key -> new LanguageTotals());
+          totals.count = rs.getLong(2);
+          totals.stars = rs.getLong(3);
+          totals.forks = rs.getLong(4);
+        });
+    jdbcTemplate.query(
+        "SELECT programming_language, metric, bucket, repo_count FROM github_language_histogram "
+            + "WHERE repo_count <> 0",
+        rs -> {
+          LanguageTotals totals =
+              stored.computeIfAbsent(rs.getString(1), key -> new LanguageTotals());
+          long[] histogram =
+              STARS.equals(rs.getString(2)) ? totals.starHistogram : totals.forkHistogram;
+          histogram[rs.getInt(3)] = rs.getLong(4);
+        });
+    return stored;
+  }
+
+  private static final class LanguageTotals {
+    private long count;
+    private long stars;
+    private long forks;
+    private final long[] starHistogram = new long[BUCKETS];
+    private final long[] forkHistogram = new long[BUCKETS];
+
+    private void add(int sign, int starCount, int forkCount) {
+      count += sign;
+      stars += (long) sign * starCount;
+      forks += (long) sign * forkCount;
+      starHistogram[bucketOf(starCount)] += sign;
+      forkHistogram[bucketOf(forkCount)] += sign;
+    }
+
+    private void merge(LanguageTotals other) {
+      count += other.count;
+      stars += other.stars;
+      forks += other.forks;
+      for (int bucket = 0; bucket < BUCKETS; bucket++) {
+        starHistogram[bucket] += other.starHistogram[bucket];
+        forkHistogram[bucket] += other.forkHistogram[bucket];
+      }
+    }
+  }
+}
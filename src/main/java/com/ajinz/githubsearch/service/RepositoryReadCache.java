@@ -0,0 +1,166 @@
+package com.ajinz.githubsearch.service;
+
+import com.ajinz.githubsearch.dto.github.GitHubRepository;
+import com.ajinz.githubsearch.dto.github.RepositoryFieldSet;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Read caches for {@code github_repository}: filtered query results keyed on language, minStars,
+ * sort and field selection, and stored rows keyed on {@code github_repo_id}, which back only the
+ * stored repository lookup of {@link SimilarRepositoryService}.
+ *
+ * <p>Code that inserts rows calls {@link #invalidateOnCommit}: query results are dropped when, and
+ * only when, a transaction that inserted rows commits. A result loaded concurrently with that
+ * commit is not cached, because every load checks the invalidation generation it started under
+ * before and after storing. Once the insert returns, no reader sees results older than its write.
+ * Results can also come from the {@link ColumnarRepositoryEngine}, which calls {@link
+ * #invalidateQueries} whenever it publishes a new snapshot, so a result computed from an older
+ * snapshot is never kept. Code that changes or deletes rows must call {@link #invalidateAll}.
+ */
+@Component
+public class RepositoryReadCache {
+
+  private final boolean enabled;
+  private final int maxEntries;
+  private final ConcurrentHashMap<QueryKey, Object> queries = new ConcurrentHashMap<>();
+  private final ConcurrentHashMap<Long, GitHubRepository> stored = new ConcurrentHashMap<>();
+  private final AtomicLong generation = new AtomicLong();
+  private final Counter queryHits;
+  private final Counter queryMisses;
+  private final Counter entityHits;
+  private final Counter entityMisses;
+
+  public RepositoryReadCache(
+      MeterRegistry meterRegistry,
+      @Value("${repository.read-cache.enabled:true}") boolean enabled,
+      @Value("${repository.read-cache.max-entries:10000}") int maxEntries) {
+    this.enabled = enabled;
+    this.maxEntries = maxEntries;
+    this.queryHits = requests(meterRegistry, "query", "hit");
+    this.queryMisses = requests(meterRegistry, "query", "miss");
+    this.entityHits = requests(meterRegistry, "entity", "hit");
+    this.entityMisses = requests(meterRegistry, "entity", "miss");
+  }
+
+  private static Counter requests(MeterRegistry meterRegistry, String cache, String result) {
+    return Counter.builder("github.read_cache.requests")
+        .description("Repository read cache lookups")
+        .tag("cache", cache)
+        .tag("result", result)
+        .register(meterRegistry);
+  }
+
+  /** Cached result of a filtered listing; {@code fields} is null for full entities. */
+  @SuppressWarnings("unchecked")
+  public <T> T query(
+      String language,
+      Integer minStars,
+      String sortBy,
+      RepositoryFieldSet fields,
+      Supplier<T> load) {
+    if (!enabled) {
+      return load.get();
+    }
+    QueryKey key = new QueryKey(language, minStars, sortBy, fields);
+    Object cached = queries.get(key);
+    if (cached != null) {
+      queryHits.increment();
+      return (T) cached;
+    }
+    queryMisses.increment();
+    long startGeneration = generation.get();
+    T result = load.get();
+    if (result != null && generation.get() == startGeneration) {
+      putBounded(queries, key, result);
+      // An invalidation may have run between the check and the put
+      if (generation.get() != startGeneration) {
+        queries.remove(key, result);
+      }
+    }
+    return result;
+  }
+
+  /** Stored row with this GitHub id; only rows that exist are cached. */
+  public Optional<GitHubRepository> findStored(
+      Long githubRepoId, Function<Long, Optional<GitHubRepository>> load) {
+    if (!enabled || githubRepoId == null) {
+      return load.apply(githubRepoId);
+    }
+    GitHubRepository cached = stored.get(githubRepoId);
+    if (cached != null) {
+      entityHits.increment();
+      return Optional.of(cached);
+    }
+    entityMisses.increment();
+    long startGeneration = generation.get();
+    Optional<GitHubRepository> result = load.apply(githubRepoId);
+    if (result.isPresent() && generation.get() == startGeneration) {
+      putBounded(stored, githubRepoId, result.get());
+    }
+    return result;
+  }
+
+  /**
+   * Drops cached query results once the current transaction commits, or right away outside a
+   * transaction, and records the inserted rows as stored. Nothing happens on rollback.
+   */
+  public void invalidateOnCommit(List<GitHubRepository> inserted) {
+    if (!enabled || inserted.isEmpty()) {
+      return;
+    }
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      invalidate(inserted);
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(
+        new TransactionSynchronization() {
+          @Override
+          public void afterCommit() {
+            invalidate(inserted);
+          }
+        });
+  }
+
+  /** Drops cached query results but keeps the stored rows, which have not changed. */
+  public void invalidateQueries() {
+    generation.incrementAndGet();
+    queries.clear();
+  }
+
+  public void invalidateAll() {
+    generation.incrementAndGet();
+    queries.clear();
+    stored.clear();
+  }
+
+  private void invalidate(List<GitHubRepository> inserted) {
+    generation.incrementAndGet();
+    queries.clear();
+    for (GitHubRepository repository : inserted) {
+      if (repository.getGithubRepoId() != null) {
+        putBounded(stored, repository.getGithubRepoId(), repository);
+      }
+    }
+  }
+
+  private <K, V> void putBounded(ConcurrentHashMap<K, V> cache, K key, V value) {
+    if (cache.size() >= maxEntries) {
+      cache.clear();
+    }
+    cache.put(key, value);
+  }
+
+  private record QueryKey(
+      String language, Integer minStars, String sortBy, RepositoryFieldSet fields) {}
+}
@@ -0,0 +1,340 @@
+package com.ajinz.githubsearch.service;
+
+import com.ajinz.githubsearch.config.RepositoryJsonCache;
+import com.ajinz.githubsearch.dto.github.GitHubRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Removes repositories that fall outside the retention policy from {@code github_repository}, or
+ * moves them to {@code github_repository_archive} with {@code retention.mode=archive}. A repository
+ * expires when it has not been seen in search results for {@code retention.max-unseen-days}, or
+ * has fewer than {@code retention.min-stars} stars; either criterion is off at 0.
+ *
+ * <p>A pass walks the table in id order, {@code retention.batch-size} ids at a time, up to the
+ * largest id stored when it started; newer rows are left to the next pass. Each batch locks,
+ * archives and deletes its expired rows, subtracts them from the language and owner aggregates and
+ * stores the cursor in one short transaction, then pauses for {@code retention.batch-pause}, so
+ * the job never holds locks for long or writes in bursts. A run stops
+ * after {@code retention.max-run-duration}, and a pass stopped by that, a shutdown or a failure
+ * continues from the stored cursor at the next run, with the cutoff of the day the pass started.
+ * Once a batch commits, its rows are removed from the columnar engine and the suggest and similar
+ * indexes, and then from the read caches.
+ */
+@Service
+public class RepositoryRetentionService {
+
+  private static final Logger logger = LoggerFactory.getLogger(RepositoryRetentionService.class);
+
+  static final String TABLE = "github_repository";
+
+  private static final String READ_PROGRESS =
+      "SELECT last_id, max_id, pass_started_at FROM github_retention_progress "
+          + "WHERE table_name = ?";
+  private static final String START_PASS =
+      "UPDATE github_retention_progress SET last_id = 0, max_id = ?, removed_count = 0, "
+          + "pass_started_at = ?, updated_at = ? WHERE table_name = ?";
+  private static final String ADVANCE =
+      "UPDATE github_retention_progress SET last_id = ?, removed_count = removed_count + ?, "
+          + "updated_at = ? WHERE table_name = ?";
+  private static final String END_PASS =
+      "UPDATE github_retention_progress SET pass_started_at = NULL, updated_at = ? "
+          + "WHERE table_name = ?";
+  // Last id of the next batch within the pass: an index-only scan of at most batch-size ids
+  private static final String BATCH_END =
+      "SELECT MAX(id) FROM (SELECT id FROM github_repository WHERE id > ? AND id <= ? "
+          + "ORDER BY id LIMIT ?) b";
+  private static final String SELECT_EXPIRED =
+      "SELECT id, github_repo_id, repo_name, owner_name, programming_language, stars_count, "
+          + "forks_count FROM github_repository WHERE id > ? AND id <= ? AND (%s) "
+          + "ORDER BY id FOR UPDATE";
+  private static final String ARCHIVE =
+      "INSERT INTO github_repository_archive (id, github_repo_id, repo_name, description, "
+          + "owner_name, programming_language, stars_count, forks_count, "
+          + "git_repo_last_updated_date, created_at, updated_at, last_seen_at, archived_at) "
+          + "SELECT id, github_repo_id, repo_name, description, owner_name, programming_language, "
+          + "stars_count, forks_count, git_repo_last_updated_date, created_at, updated_at, "
+          + "last_seen_at, CAST(? AS TIMESTAMP) FROM github_repository WHERE id = ?";
+  private static final String DELETE = "DELETE FROM github_repository WHERE id = ?";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate transactionTemplate;
+  private final RepositoryAggregateService repositoryAggregateService;
+  private final OwnerAggregateService ownerAggregateService;
+  private final RepositoryReadCache repositoryReadCache;
+  private final RepositoryJsonCache repositoryJsonCache;
+  private final SuggestService suggestService;
+  private final SimilarRepositoryService similarRepositoryService;
+  private final ColumnarRepositoryEngine columnarRepositoryEngine;
+  private final boolean enabled;
+  private final boolean archive;
+  private final int maxUnseenDays;
+  private final int minStars;
+  private final int batchSize;
+  private final Duration batchPause;
+  private final Duration maxRunDuration;
+  private final String selectExpired;
+  private final AtomicBoolean running = new AtomicBoolean();
+  private final AtomicLong cursor = new AtomicLong();
+  private final AtomicLong passEnd = new AtomicLong();
+  private final Counter removed;
+  private final Counter batches;
+  private volatile boolean stopping;
+
+  public RepositoryRetentionService(
+      JdbcTemplate jdbcTemplate,
+      PlatformTransactionManager transactionManager,
+      RepositoryAggregateService repositoryAggregateService,
+      OwnerAggregateService ownerAggregateService,
+      RepositoryReadCache repositoryReadCache,
+      RepositoryJsonCache repositoryJsonCache,
+      SuggestService suggestService,
+      SimilarRepositoryService similarRepositoryService,
+      ColumnarRepositoryEngine columnarRepositoryEngine,
+      MeterRegistry meterRegistry,
+      @Value("${retention.enabled:false}") boolean enabled,
+      @Value("${retention.mode:delete}") String mode,
+      @Value("${retention.max-unseen-days:0}") int maxUnseenDays,
+      @Value("${retention.min-stars:0}") int minStars,
+      @Value("${retention.batch-size:500}") int batchSize,
+      @Value("${retention.batch-pause:200ms}") Duration batchPause,
+      @Value("${retention.max-run-duration:15m}") Duration maxRunDuration) {
+    if (!"delete".equals(mode) && !"archive".equals(mode)) {
+      throw new IllegalArgumentException("retention.mode must be one of: delete, archive");
+    }
+    if (maxUnseenDays < 0 || minStars < 0 || batchSize < 1) {
+      throw new IllegalArgumentException(
+          "retention.max-unseen-days and retention.min-stars must not be negative, "
+              + "retention.batch-size must be at least 1");
+    }
+    this.jdbcTemplate = jdbcTemplate;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.repositoryAggregateService = repositoryAggregateService;
+    this.ownerAggregateService = ownerAggregateService;
+    this.repositoryReadCache = repositoryReadCache;
+    this.repositoryJsonCache = repositoryJsonCache;
+    this.suggestService = suggestService;
+    this.similarRepositoryService = similarRepositoryService;
+    this.columnarRepositoryEngine = columnarRepositoryEngine;
+    this.enabled = enabled;
+    this.archive = "archive".equals(mode);
+    this.maxUnseenDays = maxUnseenDays;
+    this.minStars = minStars;
+    this.batchSize = batchSize;
+    this.batchPause = batchPause;
+    this.maxRunDuration = maxRunDuration;
+
+    List<String> criteria = new ArrayList<>();
+    if (maxUnseenDays > 0) {
+      criteria.add("COALESCE(last_seen_at, updated_at, created_at) < ?");
+    }
+    if (minStars > 0) {
+      criteria.add("stars_count < ?");
+    }
+    this.selectExpired =
+        criteria.isEmpty() ? null : SELECT_EXPIRED.formatted(String.join(" OR ", criteria));
+
+    this.removed =
+        Counter.builder("github.retention.removed")
+            .description("Repositories removed by the retention job")
+            .tag("mode", mode)
+            .register(meterRegistry);
+    this.batches =
+        Counter.builder("github.retention.batches")
+            .description("Batches processed by the retention job")
+            .register(meterRegistry);
+    Gauge.builder("github.retention.cursor", cursor, AtomicLong::get)
+        .description("Last repository id examined by the current retention pass")
+        .register(meterRegistry);
+    Gauge.builder("github.retention.progress", this, RepositoryRetentionService::progress)
+        .description("Share of the current retention pass done, 0 between passes")
+        .register(meterRegistry);
+  }
+
+  /**
+   * Continues the current pass, or starts a new one, until it ends or the run's time is up.
+   *
+   * @return number of repositories removed in this run, or -1 if the run failed
+   */
+  @Scheduled(cron = "${retention.cron:0 50 * * * *}")
+  public int run() {
+    if (!enabled || selectExpired == null || !running.compareAndSet(false, true)) {
+      return 0;
+    }
+    long deadline = System.nanoTime() + maxRunDuration.toNanos();
+    int removedInRun = 0;
+    try {
+      Progress progress = readProgress();
+      if (progress.passStartedAt() == null) {
+        progress = startPass();
+      }
+      Object[] criteria = criteriaArgs(progress.passStartedAt());
+      cursor.set(progress.lastId());
+      passEnd.set(progress.maxId());
+
+      long lastId = progress.lastId();
+      while (!stopping && System.nanoTime() < deadline) {
+        // Rows stored after the pass started are left to the next pass
+        Long batchEnd =
+            lastId >= progress.maxId()
+                ? null
+                : jdbcTemplate.queryForObject(
+                    BATCH_END, Long.class, lastId, progress.maxId(), batchSize);
+        if (batchEnd == null) {
+          jdbcTemplate.update(END_PASS, LocalDateTime.now(), TABLE);
+          cursor.set(0);
+          passEnd.set(0);
+          logger.info("Retention pass started {} finished", progress.passStartedAt());
+          break;
+        }
+        long from = lastId;
+        List<GitHubRepository> expired =
+            transactionTemplate.execute(status -> removeBatch(from, batchEnd, criteria));
+        lastId = batchEnd;
+        cursor.set(lastId);
+        batches.increment();
+        if (!expired.isEmpty()) {
+          removedInRun += expired.size();
+          removed.increment(expired.size());
+          // Indexes first, so that no read refills the cache from rows already deleted
+          columnarRepositoryEngine.recordDeleted(expired);
+          suggestService.recordDeleted(expired);
+          similarRepositoryService.recordDeleted(expired);
+          repositoryReadCache.invalidateAll();
+          repositoryJsonCache.invalidate(expired);
+        }
+        if (!pause()) {
+          break;
+        }
+      }
+      logger.info("Retention run removed {} repositories, cursor at {}", removedInRun, lastId);
+    } catch (DataAccessException ex) {
+      logger.warn("Retention run failed after removing {} repositories", removedInRun, ex);
+      removedInRun = -1;
+    } finally {
+      running.set(false);
+    }
+    return removedInRun;
+  }
+
+  /** Stops a running pass after its current batch; the next run resumes it. */
+  @PreDestroy
+  public void stop() {
+    stopping = true;
+  }
+
+  private List<GitHubRepository> removeBatch(long fromId, long toId, Object[] criteria) {
+    Object[] args = new Object[criteria.length + 2];
+    args[0] = fromId;
+    args[1] = toId;
+    System.arraycopy(criteria, 0, args, 2, criteria.length);
+    List<GitHubRepository> expired =
+        jdbcTemplate.query(
+            selectExpired,
+            (rs, rowNum) ->
+                new GitHubRepository(
+                        rs.getObject("github_repo_id", Long.class),
+                        rs.getString("repo_name"),
+                        rs.getString("owner_name"),
+                        null,
+                        rs.getString("programming_language"),
+                        rs.getInt("stars_count"),
+                        rs.getInt("forks_count"),
+                        null)
+                    .withStoredState(rs.getLong("id"), null, null, null),
+            args);
+
+    LocalDateTime now = LocalDateTime.now();
+    if (!expired.isEmpty()) {
+      List<Object[]> ids =
+          expired.stream().map(row -> new Object[] {row.getDatabaseId()}).toList();
+      if (archive) {
+        jdbcTemplate.batchUpdate(
+            ARCHIVE,
+            expired.stream().map(row -> new Object[] {now, row.getDatabaseId()}).toList());
+      }
+      jdbcTemplate.batchUpdate(DELETE, ids);
+      repositoryAggregateService.recordDeleted(expired);
+      ownerAggregateService.recordDeleted(expired);
+    }
+    jdbcTemplate.update(ADVANCE, toId, expired.size(), now, TABLE);
+    return expired;
+  }
+
+  private Progress readProgress() {
+    List<Progress> rows =
+        jdbcTemplate.query(
+            READ_PROGRESS,
+            (rs, rowNum) -> {
+              Timestamp started = rs.getTimestamp("pass_started_at");
+              return new Progress(
+                  rs.getLong("last_id"),
+                  rs.getLong("max_id"),
+                  started == null ? null : started.toLocalDateTime());
+            },
+            TABLE);
+    if (rows.isEmpty()) {
+      jdbcTemplate.update("INSERT INTO github_retention_progress (table_name) VALUES (?)", TABLE);
+      return new Progress(0, 0, null);
+    }
+    return rows.get(0);
+  }
+
+  private Progress startPass() {
+    Long maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM github_repository", Long.class);
+    LocalDateTime now = LocalDateTime.now();
+    Progress progress = new Progress(0, maxId == null ? 0 : maxId, now);
+    jdbcTemplate.update(START_PASS, progress.maxId(), now, now, TABLE);
+    logger.info("Retention pass started over repository ids up to {}", progress.maxId());
+    return progress;
+  }
+
+  private Object[] criteriaArgs(LocalDateTime passStartedAt) {
+    List<Object> args = new ArrayList<>(2);
+    if (maxUnseenDays > 0) {
+      args.add(passStartedAt.toLocalDate().minusDays(maxUnseenDays).atStartOfDay());
+    }
+    if (minStars > 0) {
+      args.add(minStars);
+    }
+    return args.toArray();
+  }
+
+  private boolean pause() {
+    if (batchPause.isZero()) {
+      return true;
+    }
+    try {
+      Thread.sleep(batchPause.toMillis());
+      return true;
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      return false;
+    }
+  }
+
+  private double progress() {
+    long end = passEnd.get();
+    return end == 0 ? 0 : Math.min(1.0, (double) cursor.get() / end);
+  }
+
+  private record Progress(long lastId, long maxId, LocalDateTime passStartedAt) {}
+}
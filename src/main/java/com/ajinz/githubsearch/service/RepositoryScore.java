@@ -0,0 +1,67 @@
+package com.ajinz.githubsearch.service;
+
+import com.ajinz.githubsearch.dto.github.GitHubRepository;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * The ranking score behind {@code sort=score}:
+ *
+ * <pre>
+ * stars-weight * log10(1 + stars) + forks-weight * log10(1 + forks)
+ *     + recency-weight * 2^(-age / recency-half-life)
+ * </pre>
+ *
+ * where age is the time since the repository was last updated on GitHub. Logarithms keep a few
+ * huge repositories from drowning everything else; the recency part halves every half-life, which
+ * is why stored scores are refreshed by {@link RepositoryScoreService}.
+ */
+@Component
+public class RepositoryScore {
+
+  private final double starsWeight;
+  private final double forksWeight;
+  private final double recencyWeight;
+  private final double halfLifeSeconds;
+
+  public RepositoryScore(
+      @Value("${repository.score.stars-weight:1.0}") double starsWeight,
+      @Value("${repository.score.forks-weight:0.5}") double forksWeight,
+      @Value("${repository.score.recency-weight:1.0}") double recencyWeight,
+      @Value("${repository.score.recency-half-life:90d}") Duration recencyHalfLife) {
+    if (recencyHalfLife.isZero() || recencyHalfLife.isNegative()) {
+      throw new IllegalArgumentException("repository.score.recency-half-life must be positive");
+    }
+    this.starsWeight = starsWeight;
+    this.forksWeight = forksWeight;
+    this.recencyWeight = recencyWeight;
+    this.halfLifeSeconds = recencyHalfLife.toSeconds();
+  }
+
+  public double of(Integer stars, Integer forks, LocalDateTime lastUpdated, LocalDateTime now) {
+    double score =
+        starsWeight * Math.log10(1 + Math.max(0, stars == null ? 0 : stars))
+            + forksWeight * Math.log10(1 + Math.max(0, forks == null ? 0 : forks));
+    if (lastUpdated != null) {
+      double ageSeconds = Math.max(0, Duration.between(lastUpdated, now).toSeconds());
+      score += recencyWeight * Math.pow(2, -ageSeconds / halfLifeSeconds);
+    }
+    return score;
+  }
+
+  /** Sets the score of repositories about to be stored. */
+  public void apply(List<GitHubRepository> repositories) {
+    LocalDateTime now = LocalDateTime.now();
+    for (GitHubRepository repository : repositories) {
+      repository.withScore(
+          of(
+              repository.getStarsCount(),
+              repository.getForksCount(),
+              repository.getGitRepoLastUpdatedDate(),
+              now));
+    }
+  }
+}
@@ -0,0 +1,128 @@
+package com.ajinz.githubsearch.service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Keeps the stored {@code score} column current as its recency part decays. Ingest stores the score
+ * of new rows; this job walks the table in id order, {@code repository.score.refresh-batch-size}
+ * rows per query, and rewrites the scores that moved by at least {@code
+ * repository.score.min-change}. Each batch commits on its own, so a refresh never holds locks on
+ * more than one batch.
+ *
+ * <p>Once the run completes, the rewritten scores are applied to the {@link
+ * ColumnarRepositoryEngine} before the read cache is cleared, so no cached listing is rebuilt from
+ * the old score order.
+ */
+@Service
+public class RepositoryScoreService {
+
+  private static final Logger logger = LoggerFactory.getLogger(RepositoryScoreService.class);
+
+  private static final String SELECT_BATCH =
+      "SELECT id, stars_count, forks_count, git_repo_last_updated_date, score "
+          + "FROM github_repository WHERE id > ? ORDER BY id LIMIT ?";
+  // Derived data, so row_version is left alone
+  private static final String UPDATE_SCORE = "UPDATE github_repository SET score = ? WHERE id = ?";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final RepositoryScore repositoryScore;
+  private final RepositoryReadCache repositoryReadCache;
+  private final ColumnarRepositoryEngine columnarRepositoryEngine;
+  private final int batchSize;
+  private final double minChange;
+
+  public RepositoryScoreService(
+      JdbcTemplate jdbcTemplate,
+      RepositoryScore repositoryScore,
+      RepositoryReadCache repositoryReadCache,
+      ColumnarRepositoryEngine columnarRepositoryEngine,
+      @Value("${repository.score.refresh-batch-size:1000}") int batchSize,
+      @Value("${repository.score.min-change:0.01}") double minChange) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.repositoryScore = repositoryScore;
+    this.repositoryReadCache = repositoryReadCache;
+    this.columnarRepositoryEngine = columnarRepositoryEngine;
+    this.batchSize = batchSize;
+    this.minChange = minChange;
+  }
+
+  /**
+   * Recomputes every stored score.
+   *
+   * @return number of rows whose score was rewritten, or -1 if the refresh failed
+   */
+  @Scheduled(cron = "${repository.score.refresh-cron:0 5 * * * *}")
+  public int refresh() {
+    Map<Long, Double> rewritten = new HashMap<>();
+    try {
+      long start = System.nanoTime();
+      LocalDateTime now = LocalDateTime.now();
+      long lastId = 0;
+      while (true) {
+        List<Object[]> changed = new ArrayList<>();
+        long[] batchEnd = {lastId};
+        int[] read = {0};
+        jdbcTemplate.query(
+            SELECT_BATCH,
+            rs -> {
+              long id = rs.getLong("id");
+              Timestamp lastUpdated = rs.getTimestamp("git_repo_last_updated_date");
+              double score =
+                  repositoryScore.of(
+                      rs.getInt("stars_count"),
+                      rs.getInt("forks_count"),
+                      lastUpdated == null ? null : lastUpdated.toLocalDateTime(),
+                      now);
+              if (Math.abs(score - rs.getDouble("score")) >= minChange) {
+                changed.add(new Object[] {score, id});
+              }
+              batchEnd[0] = id;
+              read[0]++;
+            },
+            lastId,
+            batchSize);
+        if (!changed.isEmpty()) {
+          jdbcTemplate.batchUpdate(UPDATE_SCORE, changed);
+          for (Object[] row : changed) {
+            rewritten.put((Long) row[1], (Double) row[0]);
+          }
+        }
+        if (read[0] < batchSize) {
+          break;
+        }
+        lastId = batchEnd[0];
+      }
+
+      publish(rewritten);
+      logger.info(
+          "Refreshed {} repository scores in {} ms",
+          rewritten.size(),
+          (System.nanoTime() - start) / 1_000_000);
+      return rewritten.size();
+    } catch (DataAccessException ex) {
+      // Batches that committed before the failure still have to reach the readers
+      publish(rewritten);
+      logger.warn("Repository score refresh failed", ex);
+      return -1;
+    }
+  }
+
+  private void publish(Map<Long, Double> rewritten) {
+    if (!rewritten.isEmpty()) {
+      columnarRepositoryEngine.recordScores(rewritten);
+      repositoryReadCache.invalidateAll();
+    }
+  }
+}
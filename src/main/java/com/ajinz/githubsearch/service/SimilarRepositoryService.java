@@ -0,0 +1,295 @@
+package com.ajinz.githubsearch.service;
+
+import com.ajinz.githubsearch.dto.github.GitHubRepository;
+import com.ajinz.githubsearch.dto.github.InvalidRequestException;
+import com.ajinz.githubsearch.dto.github.SimilarRepository;
+import com.ajinz.githubsearch.repository.GitHubRepositoryRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * "Repositories like this one" from an in-process {@link SimilarityIndex} over the MinHash
+ * signatures stored with each repository.
+ *
+ * <p>Like the suggest index, it holds at most {@code similar.max-entries} repositories: it is
+ * built from the most starred stored repositories at startup and on {@code similar.rebuild-cron},
+ * and patched with every repository stored in between until it is full, and every one deleted.
+ * Any stored repository can be looked up, but only indexed ones are returned as matches, so once
+ * the table outgrows the cap the less starred repositories are never suggested. Each entry takes
+ * about 400 bytes of heap; raise the cap (and the heap) to cover the whole table. Rows stored
+ * before signatures existed get theirs computed and written back during the build.
+ */
+@Service
+public class SimilarRepositoryService {
+
+  private static final Logger logger = LoggerFactory.getLogger(SimilarRepositoryService.class);
+
+  static final int MAX_LIMIT = 50;
+
+  private static final int BACKFILL_BATCH_SIZE = 1000;
+  private static final String LOAD =
+      "SELECT id, github_repo_id, repo_name, description, programming_language, minhash "
+          + "FROM github_repository ORDER BY stars_count DESC, id LIMIT ?";
+  private static final String BACKFILL = "UPDATE github_repository SET minhash = ? WHERE id = ?";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final GitHubRepositoryRepository gitHubRepositoryRepository;
+  private final RepositoryReadCache repositoryReadCache;
+  private final int maxEntries;
+  private final double minSimilarity;
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+  private final Object rebuildMonitor = new Object();
+  private final AtomicLong dropped = new AtomicLong();
+  private SimilarityIndex index;
+  // Changes made while a rebuild is loading, replayed on the new index before the swap
+  private List<Consumer<SimilarityIndex>> rebuildBacklog;
+
+  public SimilarRepositoryService(
+      JdbcTemplate jdbcTemplate,
+      GitHubRepositoryRepository gitHubRepositoryRepository,
+      RepositoryReadCache repositoryReadCache,
+      MeterRegistry meterRegistry,
+      @Value("${similar.max-entries:200000}") int maxEntries,
+      @Value("${similar.min-similarity:0.2}") double minSimilarity) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.gitHubRepositoryRepository = gitHubRepositoryRepository;
+    this.repositoryReadCache = repositoryReadCache;
+    this.maxEntries = maxEntries;
+    this.minSimilarity = minSimilarity;
+    this.index = new SimilarityIndex(maxEntries);
+    Gauge.builder("github.similar.entries", this, SimilarRepositoryService::size)
+        .description("Repositories in the similarity index")
+        .register(meterRegistry);
+    Gauge.builder("github.similar.dropped", dropped, AtomicLong::get)
+        .description("Stored repositories not indexed because the similarity index was full")
+        .register(meterRegistry);
+  }
+
+  /**
+   * Indexed repositories most similar to the stored repository {@code githubRepoId}, or empty if
+   * that repository is not stored.
+   */
+  public Optional<List<SimilarRepository>> findSimilar(long githubRepoId, int limit) {
+    if (limit < 1 || limit > MAX_LIMIT) {
+      throw new InvalidRequestException("limit must be between 1 and " + MAX_LIMIT);
+    }
+    Optional<GitHubRepository> source = findStored(githubRepoId);
+    if (source.isEmpty()) {
+      return Optional.empty();
+    }
+    byte[] signature = signatureOf(source.get());
+    if (signature == null) {
+      return Optional.of(List.of());
+    }
+
+    List<SimilarityIndex.Match> matches;
+    lock.readLock().lock();
+    try {
+      matches = index.query(signature, githubRepoId, minSimilarity, limit);
+    } finally {
+      lock.readLock().unlock();
+    }
+    if (matches.isEmpty()) {
+      return Optional.of(List.of());
+    }
+
+    Map<Long, GitHubRepository> rows =
+        gitHubRepositoryRepository
+            .findByGithubRepoIdIn(
+                matches.stream().map(SimilarityIndex.Match::githubRepoId).toList())
+            .stream()
+            .collect(
+                Collectors.toMap(
+                    GitHubRepository::getGithubRepoId, Function.identity(), (a, b) -> a));
+    List<SimilarRepository> similar = new ArrayList<>(matches.size());
+    for (SimilarityIndex.Match match : matches) {
+      GitHubRepository row = rows.get(match.githubRepoId());
+      if (row != null) {
+        similar.add(
+            new SimilarRepository(
+                row.getGithubRepoId(),
+                row.getRepoName(),
+                row.getOwnerName(),
+                row.getDescription(),
+                row.getProgrammingLanguage(),
+                row.getStarsCount(),
+                match.similarity()));
+      }
+    }
+    return Optional.of(similar);
+  }
+
+  /** The stored row, with repeated lookups served from the read cache. */
+  private Optional<GitHubRepository> findStored(long githubRepoId) {
+    return repositoryReadCache.findStored(
+        githubRepoId, gitHubRepositoryRepository::findByGithubRepoId);
+  }
+
+  public void recordInserted(List<GitHubRepository> repositories) {
+    if (repositories.isEmpty()) {
+      return;
+    }
+    lock.writeLock().lock();
+    try {
+      for (GitHubRepository repository : repositories) {
+        byte[] signature = signatureOf(repository);
+        if (signature == null) {
+          continue;
+        }
+        Long githubRepoId = repository.getGithubRepoId();
+        if (rebuildBacklog != null) {
+          rebuildBacklog.add(fresh -> fresh.add(githubRepoId, signature));
+        }
+        if (!index.add(githubRepoId, signature) && !index.contains(githubRepoId)) {
+          dropped.incrementAndGet();
+        }
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /** Stops returning deleted repositories; their slots are only reused by the next rebuild. */
+  public void recordDeleted(List<GitHubRepository> repositories) {
+    if (repositories.isEmpty()) {
+      return;
+    }
+    lock.writeLock().lock();
+    try {
+      for (GitHubRepository repository : repositories) {
+        Long githubRepoId = repository.getGithubRepoId();
+        if (githubRepoId == null) {
+          continue;
+        }
+        if (rebuildBacklog != null) {
+          rebuildBacklog.add(fresh -> fresh.remove(githubRepoId));
+        }
+        index.remove(githubRepoId);
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  @Scheduled(cron = "${similar.rebuild-cron:0 40 */6 * * *}")
+  public void rebuild() {
+    synchronized (rebuildMonitor) {
+      setRebuildBacklog(new ArrayList<>());
+      try {
+        long start = System.nanoTime();
+        SimilarityIndex fresh = new SimilarityIndex(maxEntries);
+        List<Object[]> backfill = new ArrayList<>();
+        long[] backfilled = {0};
+        boolean[] truncated = {false};
+        jdbcTemplate.query(
+            LOAD,
+            (RowCallbackHandler)
+                rs -> {
+                  if (fresh.size() == maxEntries) {
+                    truncated[0] = true;
+                    return;
+                  }
+                  byte[] signature = rs.getBytes("minhash");
+                  if (signature == null) {
+                    signature =
+                        MinHash.signature(
+                            rs.getString("repo_name"),
+                            rs.getString("description"),
+                            rs.getString("programming_language"));
+                    if (signature == null) {
+                      return;
+                    }
+                    backfill.add(new Object[] {signature, rs.getLong("id")});
+                    if (backfill.size() == BACKFILL_BATCH_SIZE) {
+                      backfilled[0] += writeBackfill(backfill);
+                    }
+                  }
+                  fresh.add(rs.getLong("github_repo_id"), signature);
+                },
+            // One row more than fits tells whether the cap cut the table off
+            maxEntries + 1);
+        backfilled[0] += writeBackfill(backfill);
+
+        lock.writeLock().lock();
+        try {
+          rebuildBacklog.forEach(change -> change.accept(fresh));
+          index = fresh;
+          dropped.set(0);
+        } finally {
+          lock.writeLock().unlock();
+        }
+        logger.info(
+            "Rebuilt similarity index with {} repositories ({} signatures backfilled) in {} ms",
+            fresh.size(),
+            backfilled[0],
+            (System.nanoTime() - start) / 1_000_000);
+        if (truncated[0]) {
+          logger.warn(
+              "Similarity index is full: only the {} most starred repositories can be returned as"
+                  + " similar, raise similar.max-entries to cover the rest",
+              maxEntries);
+        }
+      } catch (DataAccessException ex) {
+        logger.warn("Similarity index rebuild failed", ex);
+      } finally {
+        setRebuildBacklog(null);
+      }
+    }
+  }
+
+  int size() {
+    lock.readLock().lock();
+    try {
+      return index.size();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  private int writeBackfill(List<Object[]> backfill) {
+    if (backfill.isEmpty()) {
+      return 0;
+    }
+    int written = backfill.size();
+    jdbcTemplate.batchUpdate(BACKFILL, backfill);
+    backfill.clear();
+    return written;
+  }
+
+  private void setRebuildBacklog(List<Consumer<SimilarityIndex>> backlog) {
+    lock.writeLock().lock();
+    try {
+      rebuildBacklog = backlog;
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  private static byte[] signatureOf(GitHubRepository repository) {
+    byte[] stored = repository.getMinhash();
+    return stored != null
+        ? stored
+        : MinHash.signature(
+            repository.getRepoName(),
+            repository.getDescription(),
+            repository.getProgrammingLanguage());
+  }
+}
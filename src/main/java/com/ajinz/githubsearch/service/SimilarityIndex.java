@@ -0,0 +1,115 @@
+package com.ajinz.githubsearch.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Locality-sensitive hashing index over {@link MinHash} signatures. Each signature is split into
+ * {@link MinHash#BANDS} bands; repositories sharing any band are candidates, and candidates are
+ * ranked by their estimated similarity. With 16 bands of 4 slots, a pair with Jaccard similarity
+ * 0.5 shares a band with probability 0.64, at 0.7 with probability 0.99, at 0.3 with 0.12.
+ *
+ * <p>Storage is flat arrays sized for {@code capacity} repositories up front: per band a bucket
+ * head table and a chain of next pointers, plus the signatures themselves, about 350 bytes per
+ * repository. A lookup touches one bucket per band, independent of the number of repositories
+ * unless they share bands. Removal drops the signature but keeps the slot until the next build.
+ * Not thread-safe.
+ */
+final class SimilarityIndex {
+
+  private static final int NONE = -1;
+
+  record Match(long githubRepoId, double similarity) {}
+
+  private final int capacity;
+  private final int mask;
+  private final long[] githubRepoIds;
+  private final byte[][] signatures;
+  private final int[][] heads;
+  private final int[][] next;
+  private final Map<Long, Integer> rowOf = new HashMap<>();
+  private int used;
+
+  SimilarityIndex(int capacity) {
+    this.capacity = capacity;
+    int tableSize = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+    this.mask = tableSize - 1;
+    this.githubRepoIds = new long[capacity];
+    this.signatures = new byte[capacity][];
+    this.heads = new int[MinHash.BANDS][tableSize];
+    this.next = new int[MinHash.BANDS][capacity];
+    for (int[] table : heads) {
+      Arrays.fill(table, NONE);
+    }
+  }
+
+  /** Adds a repository; returns false if the index is full or already holds it. */
+  boolean add(long githubRepoId, byte[] signature) {
+    if (used == capacity || rowOf.containsKey(githubRepoId)) {
+      return false;
+    }
+    int row = used++;
+    rowOf.put(githubRepoId, row);
+    githubRepoIds[row] = githubRepoId;
+    signatures[row] = signature;
+    for (int band = 0; band < MinHash.BANDS; band++) {
+      int bucket = MinHash.bandHash(signature, band) & mask;
+      next[band][row] = heads[band][bucket];
+      heads[band][bucket] = row;
+    }
+    return true;
+  }
+
+  /** Returns false when the repository is not indexed. */
+  boolean remove(long githubRepoId) {
+    Integer row = rowOf.remove(githubRepoId);
+    if (row == null) {
+      return false;
+    }
+    signatures[row] = null;
+    return true;
+  }
+
+  boolean contains(long githubRepoId) {
+    return rowOf.containsKey(githubRepoId);
+  }
+
+  /**
+   * Repositories sharing a band with {@code signature}, other than {@code excludedId}, with an
+   * estimated similarity of at least {@code minSimilarity}, most similar first.
+   */
+  List<Match> query(byte[] signature, long excludedId, double minSimilarity, int limit) {
+    Set<Integer> seen = new HashSet<>();
+    List<Match> matches = new ArrayList<>();
+    for (int band = 0; band < MinHash.BANDS; band++) {
+      int bucket = MinHash.bandHash(signature, band) & mask;
+      for (int row = heads[band][bucket]; row != NONE; row = next[band][row]) {
+        if (githubRepoIds[row] == excludedId
+            || signatures[row] == null
+            || !MinHash.bandEquals(signature, signatures[row], band)
+            || !seen.add(row)) {
+          continue;
+        }
+        double similarity = MinHash.similarity(signature, signatures[row]);
+        if (similarity >= minSimilarity) {
+          matches.add(new Match(githubRepoIds[row], similarity));
+        }
+      }
+    }
+    matches.sort(
+        (a, b) ->
+            a.similarity() != b.similarity()
+                ? Double.compare(b.similarity(), a.similarity())
+                : Long.compare(a.githubRepoId(), b.githubRepoId()));
+    return matches.size() > limit ? matches.subList(0, limit) : matches;
+  }
+
+  int size() {
+    return rowOf.size();
+  }
+}
@@ -0,0 +1,278 @@
+package com.ajinz.githubsearch.service;
+
+import com.ajinz.githubsearch.config.DatabaseVendor;
+import com.ajinz.githubsearch.dto.github.GitHubRepository;
+import com.ajinz.githubsearch.dto.github.InvalidRequestException;
+import com.ajinz.githubsearch.dto.github.TrendingRepository;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Records star/fork snapshots of repositories seen in search results and answers trending queries.
+ *
+ * <p>Snapshots are queued on the request path and written in batches by a scheduled flush, which
+ * also folds them into the daily {@code github_repository_star_rollup}. Trending queries only read
+ * the rollup, so their cost depends on repositories times days in the window, not on snapshots.
+ * Creating a repository's rollup row for a day also sets its {@code last_seen_at}, which the
+ * retention job reads.
+ */
+@Service
+public class StarHistoryService {
+
+  private static final Logger logger = LoggerFactory.getLogger(StarHistoryService.class);
+
+  private static final String INSERT_SNAPSHOT =
+      "INSERT INTO github_repository_snapshot "
+          + "(github_repo_id, stars_count, forks_count, captured_at) VALUES (?, ?, ?, ?)";
+  private static final String UPDATE_ROLLUP =
+      "UPDATE github_repository_star_rollup "
+          + "SET last_stars = ?, last_forks = ?, samples = samples + ? "
+          + "WHERE github_repo_id = ? AND bucket_date = ?";
+  private static final String INSERT_ROLLUP =
+      "INSERT INTO github_repository_star_rollup "
+          + "(github_repo_id, bucket_date, first_stars, last_stars, last_forks, samples) "
+          + "VALUES (?, ?, ?, ?, ?, ?)";
+  // Derived data, so row_version is left alone
+  private static final String TOUCH_LAST_SEEN =
+      "UPDATE github_repository SET last_seen_at = ? "
+          + "WHERE github_repo_id = ? AND (last_seen_at IS NULL OR last_seen_at < ?)";
+  private static final String TRENDING =
+      "SELECT g.github_repo_id, g.repo_name, g.owner_name, g.programming_language, "
+          + "MAX(r.last_stars) AS current_stars, "
+          + "MAX(r.last_stars) - MIN(r.first_stars) AS stars_gained "
+          + "FROM github_repository_star_rollup r "
+          + "JOIN github_repository g ON g.github_repo_id = r.github_repo_id "
+          + "WHERE r.bucket_date >= ? "
+          + "GROUP BY g.github_repo_id, g.repo_name, g.owner_name, g.programming_language "
+          + "ORDER BY stars_gained DESC, current_stars DESC "
+          + "LIMIT ?";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final DatabaseVendor databaseVendor;
+  private final TransactionTemplate transactionTemplate;
+  private final BlockingQueue<Snapshot> pending;
+  private final int batchSize;
+  private final int retentionDays;
+  private final AtomicLong dropped = new AtomicLong();
+
+  public StarHistoryService(
+      JdbcTemplate jdbcTemplate,
+      DatabaseVendor databaseVendor,
+      PlatformTransactionManager transactionManager,
+      @Value("${star-history.queue-capacity:10000}") int queueCapacity,
+      @Value("${star-history.batch-size:500}") int batchSize,
+      @Value("${star-history.retention-days:90}") int retentionDays) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.databaseVendor = databaseVendor;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.pending = new ArrayBlockingQueue<>(queueCapacity);
+    this.batchSize = batchSize;
+    this.retentionDays = retentionDays;
+  }
+
+  /** Queues a snapshot of each repository. Never blocks; drops snapshots when the queue is full. */
+  public void record(List<GitHubRepository> repositories) {
+    record(repositories, LocalDateTime.now());
+  }
+
+  void record(List<GitHubRepository> repositories, LocalDateTime capturedAt) {
+    for (GitHubRepository repository : repositories) {
+      if (repository.getGithubRepoId() == null) {
+        continue;
+      }
+      Snapshot snapshot =
+          new Snapshot(
+              repository.getGithubRepoId(),
+              repository.getStarsCount() != null ? repository.getStarsCount() : 0,
+              repository.getForksCount() != null ? repository.getForksCount() : 0,
+              capturedAt);
+      if (!pending.offer(snapshot)) {
+        dropped.incrementAndGet();
+      }
+    }
+  }
+
+  @Scheduled(fixedDelayString = "${star-history.flush-interval-ms:1000}")
+  public synchronized void flush() {
+    List<Snapshot> batch = new ArrayList<>(batchSize);
+    while (pending.drainTo(batch, batchSize) > 0) {
+      try {
+        transactionTemplate.executeWithoutResult(
+            status -> {
+              insertSnapshots(batch);
+              updateRollups(batch);
+            });
+      } catch (DataAccessException ex) {
+        dropped.addAndGet(batch.size());
+        logger.warn("Dropping {} star snapshots after write failure", batch.size(), ex);
+      }
+      batch.clear();
+    }
+  }
+
+  public List<TrendingRepository> getTrendingRepositories(int windowDays, int limit) {
+    if (windowDays < 1 || windowDays > retentionDays) {
+      throw new InvalidRequestException(
+          "windowDays must be between 1 and " + retentionDays + " days");
+    }
+    if (limit < 1 || limit > 100) {
+      throw new InvalidRequestException("limit must be between 1 and 100");
+    }
+
+    // Bucket of the first day in the window: a 7 day window covers today and the 6 days before
+    LocalDate from = LocalDate.now().minusDays(windowDays - 1L);
+    return jdbcTemplate.query(
+        TRENDING,
+        (rs, rowNum) -> {
+          int gained = rs.getInt("stars_gained");
+          return new TrendingRepository(
+              rs.getLong("github_repo_id"),
+              rs.getString("repo_name"),
+              rs.getString("owner_name"),
+              rs.getString("programming_language"),
+              rs.getInt("current_stars"),
+              gained,
+              (double) gained / windowDays);
+        },
+        from,
+        limit);
+  }
+
+  /** Creates upcoming partitions and drops snapshots and rollups past the retention period. */
+  @Scheduled(cron = "${star-history.maintenance-cron:0 15 3 * * *}")
+  public void applyRetention() {
+    try {
+      if (databaseVendor.isPostgres()) {
+        jdbcTemplate.query(
+            "SELECT github_repository_snapshot_maintain(?)", rs -> {}, retentionDays);
+        return;
+      }
+      LocalDate cutoff = LocalDate.now().minusDays(retentionDays);
+      jdbcTemplate.update(
+          "DELETE FROM github_repository_snapshot WHERE captured_at < ?", cutoff.atStartOfDay());
+      jdbcTemplate.update("DELETE FROM github_repository_star_rollup WHERE bucket_date < ?", cutoff);
+    } catch (DataAccessException ex) {
+      logger.warn("Star history retention failed", ex);
+    }
+  }
+
+  public long getDroppedSnapshots() {
+    return dropped.get();
+  }
+
+  public int getPendingSnapshots() {
+    return pending.size();
+  }
+
+  private void insertSnapshots(List<Snapshot> batch) {
+    jdbcTemplate.batchUpdate(
+        INSERT_SNAPSHOT,
+        batch,
+        batch.size(),
+        (ps, snapshot) -> {
+          ps.setLong(1, snapshot.githubRepoId());
+          ps.setInt(2, snapshot.stars());
+          ps.setInt(3, snapshot.forks());
+          ps.setObject(4, snapshot.capturedAt());
+        });
+  }
+
+  private void updateRollups(List<Snapshot> batch) {
+    Map<RollupKey, RollupDelta> deltas = new LinkedHashMap<>();
+    for (Snapshot snapshot : batch) {
+      deltas
+          .computeIfAbsent(
+              new RollupKey(snapshot.githubRepoId(), snapshot.capturedAt().toLocalDate()),
+              key -> new RollupDelta(snapshot.stars()))
+          .add(snapshot);
+    }
+
+    List<Map.Entry<RollupKey, RollupDelta>> entries = new ArrayList<>(deltas.entrySet());
+    int[][] updated =
+        jdbcTemplate.batchUpdate(
+            UPDATE_ROLLUP,
+            entries,
+            entries.size(),
+            (ps, entry) -> {
+              ps.setInt(1, entry.getValue().lastStars);
+              ps.setInt(2, entry.getValue().lastForks);
+              ps.setInt(3, entry.getValue().samples);
+              ps.setLong(4, entry.getKey().githubRepoId());
+              ps.setObject(5, entry.getKey().bucketDate());
+            });
+
+    List<Map.Entry<RollupKey, RollupDelta>> missing = new ArrayList<>();
+    int index = 0;
+    for (int[] chunk : updated) {
+      for (int count : chunk) {
+        if (count == 0) {
+          missing.add(entries.get(index));
+        }
+        index++;
+      }
+    }
+    if (missing.isEmpty()) {
+      return;
+    }
+    jdbcTemplate.batchUpdate(
+        INSERT_ROLLUP,
+        missing,
+        missing.size(),
+        (ps, entry) -> {
+          ps.setLong(1, entry.getKey().githubRepoId());
+          ps.setObject(2, entry.getKey().bucketDate());
+          ps.setInt(3, entry.getValue().firstStars);
+          ps.setInt(4, entry.getValue().lastStars);
+          ps.setInt(5, entry.getValue().lastForks);
+          ps.setInt(6, entry.getValue().samples);
+        });
+    // A new rollup row is the first sighting of the repository that day
+    jdbcTemplate.batchUpdate(
+        TOUCH_LAST_SEEN,
+        missing,
+        missing.size(),
+        (ps, entry) -> {
+          LocalDateTime day = entry.getKey().bucketDate().atStartOfDay();
+          ps.setObject(1, day);
+          ps.setLong(2, entry.getKey().githubRepoId());
+          ps.setObject(3, day);
+        });
+  }
+
+  private record Snapshot(long githubRepoId, int stars, int forks, LocalDateTime capturedAt) {}
+
+  private record RollupKey(long githubRepoId, LocalDate bucketDate) {}
+
+  private static final class RollupDelta {
+    private final int firstStars;
+    private int lastStars;
+    private int lastForks;
+    private int samples;
+
+    private RollupDelta(int firstStars) {
+      this.firstStars = firstStars;
+    }
+
+    private void add(Snapshot snapshot) {
+      lastStars = snapshot.stars();
+      lastForks = snapshot.forks();
+      samples++;
+    }
+  }
+}
@@ -0,0 +1,94 @@
+package com.ajinz.githubsearch.service;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs the full-table jobs once after startup: loading the columnar engine and the suggest and
+ * similarity indexes, refreshing scores, reconciling the aggregates and applying the star history
+ * retention. Each of them also runs on its own schedule.
+ *
+ * <p>They start on a background thread once the instance accepts traffic, after {@link
+ * StartupWarmup}, so neither the readiness switch nor the warm-up waits for scans that grow with
+ * the table. Until then each index serves what it serves during a failed load: the columnar engine
+ * defers to the database, and suggestions and similar repositories come only from repositories
+ * stored since startup. Jobs run one after the other, and a failing one does not stop the rest.
+ */
+@Component
+public class StartupJobs {
+
+  private static final Logger logger = LoggerFactory.getLogger(StartupJobs.class);
+
+  private final List<Job> jobs;
+  private final boolean enabled;
+  private final AtomicBoolean started = new AtomicBoolean();
+
+  public StartupJobs(
+      ColumnarRepositoryEngine columnarRepositoryEngine,
+      SuggestService suggestService,
+      SimilarRepositoryService similarRepositoryService,
+      RepositoryScoreService repositoryScoreService,
+      RepositoryAggregateService repositoryAggregateService,
+      OwnerAggregateService ownerAggregateService,
+      StarHistoryService starHistoryService,
+      @Value("${startup-jobs.enabled:true}") boolean enabled) {
+    // Indexes that serve reads first, then the maintenance of derived tables
+    this.jobs =
+        List.of(
+            new Job("columnar", columnarRepositoryEngine::reload),
+            new Job("suggest", suggestService::rebuild),
+            new Job("similar", similarRepositoryService::rebuild),
+            new Job("scores", repositoryScoreService::refresh),
+            new Job("aggregates", repositoryAggregateService::reconcile),
+            new Job("owners", ownerAggregateService::reconcile),
+            new Job("star-history", starHistoryService::applyRetention));
+    this.enabled = enabled;
+  }
+
+  @EventListener
+  public void onReadinessChange(AvailabilityChangeEvent<ReadinessState> event) {
+    if (!enabled
+        || event.getState() != ReadinessState.ACCEPTING_TRAFFIC
+        || !started.compareAndSet(false, true)) {
+      return;
+    }
+    ExecutorService executor =
+        Executors.newSingleThreadExecutor(
+            runnable -> {
+              Thread thread = new Thread(runnable, "startup-jobs");
+              thread.setDaemon(true);
+              return thread;
+            });
+    executor.execute(this::runAll);
+    executor.shutdown();
+  }
+
+  void runAll() {
+    long start = System.nanoTime();
+    for (Job job : jobs) {
+      long jobStart = System.nanoTime();
+      try {
+        job.task().run();
+        logger.info("Startup job {} finished in {} ms", job.name(), millisSince(jobStart));
+      } catch (RuntimeException ex) {
+        logger.warn("Startup job {} failed", job.name(), ex);
+      }
+    }
+    logger.info("Startup jobs finished in {} ms", millisSince(start));
+  }
+
+  private static long millisSince(long start) {
+    return (System.nanoTime() - start) / 1_000_000;
+  }
+
+  private record Job(String name, Runnable task) {}
+}
@@ -0,0 +1,250 @@
+package com.ajinz.githubsearch.service;
+
+import com.ajinz.githubsearch.dto.github.GitHubRepository;
+import com.ajinz.githubsearch.dto.github.RepositoryFieldSet;
+import com.ajinz.githubsearch.dto.github.RepositoryProjection;
+import com.ajinz.githubsearch.dto.github.WarmupReport;
+import com.ajinz.githubsearch.dto.github.WarmupReport.Status;
+import com.ajinz.githubsearch.dto.github.WarmupReport.Step;
+import com.ajinz.githubsearch.repository.GitHubRepositoryRepository;
+import com.ajinz.githubsearch.repository.ReactiveGitHubRepositoryRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+/**
+ * Warms a fresh instance before it takes traffic: the listing queries and their statement and
+ * query plan caches, the JDBC and R2DBC pools, the JSON serializers, the connection to GitHub, and
+ * the read cache with the listings most requested recently according to {@link ListingQueryLog}.
+ *
+ * <p>It runs in the {@link ApplicationReadyEvent}, which Spring Boot only follows with the switch
+ * of the readiness state to accepting traffic once every listener has returned, so the readiness
+ * probe and {@code /api/github/health} report the instance ready after the warm-up. Steps run one
+ * after the other within {@code warmup.timeout} overall; a step that runs out of time is abandoned
+ * and the remaining ones are skipped. The report is logged and served at {@code
+ * /api/github/warmup}.
+ */
+@Component
+public class StartupWarmup {
+
+  private static final Logger logger = LoggerFactory.getLogger(StartupWarmup.class);
+
+  private static final List<String> SORTS = List.of("stars", "forks", "updated", "name");
+  // Above any star count, so the warm-up queries go through planning and execution but return
+  // nothing however large the table is
+  private static final int NO_ROWS = Integer.MAX_VALUE;
+  private static final int SAMPLE_SIZE = 100;
+  private static final RepositoryFieldSet SAMPLE_FIELDS =
+      RepositoryFieldSet.parse("id,name,owner,stargazers_count");
+
+  private final GitHubRepositoryRepository gitHubRepositoryRepository;
+  private final ReactiveGitHubRepositoryRepository reactiveGitHubRepositoryRepository;
+  private final GitHubRepositoryService gitHubRepositoryService;
+  private final GitHubSearchService gitHubSearchService;
+  private final ListingQueryLog listingQueryLog;
+  private final ObjectMapper objectMapper;
+  private final boolean enabled;
+  private final boolean upstream;
+  private final Duration timeout;
+  private final int iterations;
+  private final int popularQueries;
+  private final Duration popularWindow;
+  private volatile WarmupReport report;
+
+  public StartupWarmup(
+      GitHubRepositoryRepository gitHubRepositoryRepository,
+      ReactiveGitHubRepositoryRepository reactiveGitHubRepositoryRepository,
+      GitHubRepositoryService gitHubRepositoryService,
+      GitHubSearchService gitHubSearchService,
+      ListingQueryLog listingQueryLog,
+      ObjectMapper objectMapper,
+      @Value("${warmup.enabled:true}") boolean enabled,
+      @Value("${warmup.upstream:true}") boolean upstream,
+      @Value("${warmup.timeout:30s}") Duration timeout,
+      @Value("${warmup.iterations:20}") int iterations,
+      @Value("${warmup.popular-queries:20}") int popularQueries,
+      @Value("${warmup.popular-window:7d}") Duration popularWindow) {
+    this.gitHubRepositoryRepository = gitHubRepositoryRepository;
+    this.reactiveGitHubRepositoryRepository = reactiveGitHubRepositoryRepository;
+    this.gitHubRepositoryService = gitHubRepositoryService;
+    this.gitHubSearchService = gitHubSearchService;
+    this.listingQueryLog = listingQueryLog;
+    this.objectMapper = objectMapper;
+    this.enabled = enabled;
+    this.upstream = upstream;
+    this.timeout = timeout;
+    this.iterations = iterations;
+    this.popularQueries = popularQueries;
+    this.popularWindow = popularWindow;
+  }
+
+  /** The report of the last warm-up, or empty if it is disabled or has not finished. */
+  public Optional<WarmupReport> getReport() {
+    return Optional.ofNullable(report);
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void warmUp() {
+    if (!enabled) {
+      return;
+    }
+    LocalDateTime startedAt = LocalDateTime.now();
+    long start = System.nanoTime();
+    long deadline = start + timeout.toNanos();
+    ExecutorService executor =
+        Executors.newSingleThreadExecutor(
+            runnable -> {
+              Thread thread = new Thread(runnable, "warmup");
+              thread.setDaemon(true);
+              return thread;
+            });
+    List<Step> steps = new ArrayList<>();
+    try {
+      steps.add(run(executor, deadline, "database", this::warmDatabase));
+      steps.add(run(executor, deadline, "serializer", this::warmSerializer));
+      if (upstream) {
+        steps.add(run(executor, deadline, "upstream", this::warmUpstream));
+      } else {
+        steps.add(new Step("upstream", Status.SKIPPED, 0, 0, "disabled"));
+      }
+      steps.add(run(executor, deadline, "caches", this::warmCaches));
+    } finally {
+      executor.shutdownNow();
+    }
+
+    report = new WarmupReport(startedAt, millisSince(start), List.copyOf(steps));
+    for (Step step : report.steps()) {
+      logger.info(
+          "Warm-up step {} {} in {} ms: {} operations{}",
+          step.name(),
+          step.status(),
+          step.durationMillis(),
+          step.operations(),
+          step.detail() != null ? " (" + step.detail() + ")" : "");
+    }
+    logger.info("Warm-up finished in {} ms", report.durationMillis());
+  }
+
+  /** Runs the listing queries in every variant on both pools. */
+  private void warmDatabase(AtomicInteger operations, long deadline) {
+    for (int i = 0; i < iterations && System.nanoTime() < deadline; i++) {
+      for (String sort : SORTS) {
+        gitHubRepositoryRepository.findRepositoriesWithFilters(null, NO_ROWS, sort);
+        gitHubRepositoryRepository.findRepositoriesWithFilters("Java", NO_ROWS, sort);
+        gitHubRepositoryRepository.findProjectedRepositoriesWithFilters(
+            SAMPLE_FIELDS, null, NO_ROWS, sort);
+        operations.addAndGet(3);
+      }
+      gitHubRepositoryRepository.findRepositoriesByScore(null, NO_ROWS);
+      reactiveGitHubRepositoryRepository
+          .findRepositoriesWithFilters(null, NO_ROWS, "stars")
+          .collectList()
+          .block(remaining(deadline));
+      operations.addAndGet(2);
+    }
+  }
+
+  /** Serializes the most starred stored repositories, or placeholders on an empty database. */
+  private void warmSerializer(AtomicInteger operations, long deadline) throws Exception {
+    List<GitHubRepository> sample =
+        gitHubRepositoryRepository
+            .findAll(PageRequest.of(0, SAMPLE_SIZE, Sort.by(Sort.Direction.DESC, "starsCount")))
+            .getContent();
+    if (sample.isEmpty()) {
+      sample = new ArrayList<>();
+      for (long id = 1; id <= SAMPLE_SIZE; id++) {
+        sample.add(
+            new GitHubRepository(
+                id, "repo-" + id, "owner", "description", "Java", 1, 1, LocalDateTime.now()));
+      }
+    }
+    RepositoryProjection projection = RepositoryProjection.of(SAMPLE_FIELDS, sample);
+    for (int i = 0; i < iterations && System.nanoTime() < deadline; i++) {
+      objectMapper.writeValueAsBytes(sample);
+      objectMapper.writeValueAsBytes(projection);
+      operations.addAndGet(2);
+    }
+  }
+
+  private void warmUpstream(AtomicInteger operations, long deadline) {
+    gitHubSearchService.warmUpConnection().block(remaining(deadline));
+    operations.incrementAndGet();
+  }
+
+  /** Loads the recently most requested listings into the read cache and the JSON cache. */
+  private void warmCaches(AtomicInteger operations, long deadline) throws Exception {
+    for (ListingQueryLog.Query query : listingQueryLog.popular(popularQueries, popularWindow)) {
+      if (System.nanoTime() >= deadline) {
+        return;
+      }
+      objectMapper.writeValueAsBytes(
+          gitHubRepositoryService.getFilteredRepositories(
+              query.language(), query.minStars(), query.sortBy()));
+      operations.incrementAndGet();
+    }
+  }
+
+  private Step run(ExecutorService executor, long deadline, String name, Task task) {
+    if (System.nanoTime() >= deadline) {
+      return new Step(name, Status.SKIPPED, 0, 0, "warm-up timeout reached");
+    }
+    AtomicInteger operations = new AtomicInteger();
+    long start = System.nanoTime();
+    Future<?> future =
+        executor.submit(
+            () -> {
+              task.run(operations, deadline);
+              return null;
+            });
+    try {
+      future.get(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+      return new Step(name, Status.COMPLETED, millisSince(start), operations.get(), null);
+    } catch (TimeoutException ex) {
+      future.cancel(true);
+      return new Step(name, Status.TIMED_OUT, millisSince(start), operations.get(), null);
+    } catch (ExecutionException ex) {
+      logger.warn("Warm-up step {} failed", name, ex.getCause());
+      return new Step(
+          name,
+          Status.FAILED,
+          millisSince(start),
+          operations.get(),
+          String.valueOf(ex.getCause().getMessage()));
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      future.cancel(true);
+      return new Step(name, Status.TIMED_OUT, millisSince(start), operations.get(), null);
+    }
+  }
+
+  private static Duration remaining(long deadline) {
+    return Duration.ofNanos(Math.max(1, deadline - System.nanoTime()));
+  }
+
+  private static long millisSince(long startNanos) {
+    return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+  }
+
+  @FunctionalInterface
+  private interface Task {
+    void run(AtomicInteger operations, long deadline) throws Exception;
+  }
+}
@@ -0,0 +1,241 @@
+package com.ajinz.githubsearch.service;
+
+import com.ajinz.githubsearch.dto.github.Suggestion;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Radix tree over lower-cased repository names, owner names and {@code owner/name} keys. Every node
+ * keeps the ids of the {@code topK} most starred suggestions below it, so a lookup is a walk down
+ * the prefix followed by reading one small array, independent of how many keys share the prefix.
+ *
+ * <p>Removal only hides an entry: it keeps its slot, and its place in the top lists of its nodes
+ * until an insertion through that node drops it. A prefix can then return fewer than {@code topK}
+ * suggestions until the next rebuild, since the tree does not keep what fell out of a full list.
+ * Not thread-safe; {@link SuggestService} guards access.
+ */
+final class SuggestIndex {
+
+  private final int topK;
+  private final int maxEntries;
+  private final List<Suggestion> entries = new ArrayList<>();
+  private final Map<Long, Integer> entryOf = new HashMap<>();
+  private final BitSet removed = new BitSet();
+  private final Node root;
+  private int nodeCount = 1;
+
+  SuggestIndex(int topK, int maxEntries) {
+    this.topK = topK;
+    this.maxEntries = maxEntries;
+    this.root = new Node("", topK);
+  }
+
+  /** Returns false when the repository is already indexed or the index is full. */
+  boolean add(Suggestion suggestion) {
+    if (entries.size() >= maxEntries || entryOf.containsKey(suggestion.githubRepoId())) {
+      return false;
+    }
+    int entry = entries.size();
+    entries.add(suggestion);
+    entryOf.put(suggestion.githubRepoId(), entry);
+    Set<String> keys = new HashSet<>(3);
+    if (suggestion.name() != null) {
+      keys.add(suggestion.name().toLowerCase(Locale.ROOT));
+    }
+    if (suggestion.owner() != null) {
+      keys.add(suggestion.owner().toLowerCase(Locale.ROOT));
+      if (suggestion.name() != null) {
+        keys.add((suggestion.owner() + "/" + suggestion.name()).toLowerCase(Locale.ROOT));
+      }
+    }
+    for (String key : keys) {
+      insert(key, entry);
+    }
+    return true;
+  }
+
+  List<Suggestion> suggest(String prefix, int limit) {
+    String key = prefix.toLowerCase(Locale.ROOT);
+    Node node = root;
+    int i = 0;
+    while (i < key.length()) {
+      Node child = node.child(key.charAt(i));
+      if (child == null) {
+        return List.of();
+      }
+      int common = commonPrefixLength(child.label, key, i);
+      if (i + common == key.length()) {
+        node = child;
+        break;
+      }
+      if (common < child.label.length()) {
+        return List.of();
+      }
+      node = child;
+      i += common;
+    }
+    List<Suggestion> result = new ArrayList<>(Math.min(limit, node.topSize));
+    for (int j = 0; j < node.topSize && result.size() < limit; j++) {
+      if (!removed.get(node.top[j])) {
+        result.add(entries.get(node.top[j]));
+      }
+    }
+    return result;
+  }
+
+  /** Returns false when the repository is not indexed. */
+  boolean remove(long githubRepoId) {
+    Integer entry = entryOf.remove(githubRepoId);
+    if (entry == null) {
+      return false;
+    }
+    removed.set(entry);
+    return true;
+  }
+
+  boolean contains(long githubRepoId) {
+    return entryOf.containsKey(githubRepoId);
+  }
+
+  int size() {
+    return entryOf.size();
+  }
+
+  int nodeCount() {
+    return nodeCount;
+  }
+
+  private void insert(String key, int entry) {
+    Node node = root;
+    int i = 0;
+    while (true) {
+      offer(node, entry);
+      if (i == key.length()) {
+        return;
+      }
+      Node child = node.child(key.charAt(i));
+      if (child == null) {
+        Node leaf = new Node(key.substring(i), topK);
+        offer(leaf, entry);
+        node.addChild(leaf);
+        nodeCount++;
+        return;
+      }
+      int common = commonPrefixLength(child.label, key, i);
+      if (common < child.label.length()) {
+        // Split the edge; the new inner node covers exactly the old child's subtree
+        Node inner = new Node(child.label.substring(0, common), topK);
+        inner.top = Arrays.copyOf(child.top, topK);
+        inner.topSize = child.topSize;
+        node.replaceChild(inner);
+        child.label = child.label.substring(common);
+        inner.addChild(child);
+        nodeCount++;
+        child = inner;
+      }
+      node = child;
+      i += common;
+    }
+  }
+
+  /** Keeps {@code node.top} ordered by stars descending, ties broken by insertion order. */
+  private void offer(Node node, int entry) {
+    if (!removed.isEmpty()) {
+      int kept = 0;
+      for (int j = 0; j < node.topSize; j++) {
+        if (!removed.get(node.top[j])) {
+          node.top[kept++] = node.top[j];
+        }
+      }
+      node.topSize = kept;
+    }
+    int stars = stars(entry);
+    int position = node.topSize;
+    for (int j = 0; j < node.topSize; j++) {
+      if (node.top[j] == entry) {
+        return;
+      }
+      if (position == node.topSize && stars > stars(node.top[j])) {
+        position = j;
+      }
+    }
+    if (position >= topK) {
+      return;
+    }
+    int moved = Math.min(node.topSize, topK - 1) - position;
+    System.arraycopy(node.top, position, node.top, position + 1, moved);
+    node.top[position] = entry;
+    node.topSize = Math.min(node.topSize + 1, topK);
+  }
+
+  private int stars(int entry) {
+    Integer stars = entries.get(entry).starsCount();
+    return stars == null ? 0 : stars;
+  }
+
+  private static int commonPrefixLength(String label, String key, int offset) {
+    int max = Math.min(label.length(), key.length() - offset);
+    int i = 0;
+    while (i < max && label.charAt(i) == key.charAt(offset + i)) {
+      i++;
+    }
+    return i;
+  }
+
+  private static final class Node {
+    private static final Node[] NO_CHILDREN = new Node[0];
+
+    String label;
+    int[] top;
+    int topSize;
+    // Sorted by the first character of the label, which is unique among siblings
+    Node[] children = NO_CHILDREN;
+
+    Node(String label, int topK) {
+      this.label = label;
+      this.top = new int[topK];
+    }
+
+    Node child(char first) {
+      int index = indexOf(first);
+      return index >= 0 ? children[index] : null;
+    }
+
+    void addChild(Node child) {
+      int insertion = -indexOf(child.label.charAt(0)) - 1;
+      Node[] grown = new Node[children.length + 1];
+      System.arraycopy(children, 0, grown, 0, insertion);
+      grown[insertion] = child;
+      System.arraycopy(children, insertion, grown, insertion + 1, children.length - insertion);
+      children = grown;
+    }
+
+    void replaceChild(Node child) {
+      children[indexOf(child.label.charAt(0))] = child;
+    }
+
+    private int indexOf(char first) {
+      int low = 0;
+      int high = children.length - 1;
+      while (low <= high) {
+        int mid = (low + high) >>> 1;
+        char midFirst = children[mid].label.charAt(0);
+        if (midFirst < first) {
+          low = mid + 1;
+        } else if (midFirst > first) {
+          high = mid - 1;
+        } else {
+          return mid;
+        }
+      }
+      return -(low + 1);
+    }
+  }
+}
@@ -0,0 +1,206 @@
+package com.ajinz.githubsearch.service;
+
+import com.ajinz.githubsearch.dto.github.GitHubRepository;
+import com.ajinz.githubsearch.dto.github.InvalidRequestException;
+import com.ajinz.githubsearch.dto.github.Suggestion;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Serves search-as-you-type suggestions from an in-process {@link SuggestIndex}.
+ *
+ * <p>The index holds at most {@code suggest.max-entries} repositories. It is built from the most
+ * starred stored repositories at startup and on {@code suggest.rebuild-cron}, and patched with
+ * every repository stored in between until it is full. Repositories that did not fit are counted
+ * and picked up by the next rebuild if they rank high enough. Repositories deleted in between are
+ * no longer suggested.
+ */
+@Service
+public class SuggestService {
+
+  private static final Logger logger = LoggerFactory.getLogger(SuggestService.class);
+
+  static final int MAX_LIMIT = 20;
+
+  private static final String LOAD =
+      "SELECT github_repo_id, repo_name, owner_name, programming_language, stars_count "
+          + "FROM github_repository ORDER BY stars_count DESC, id LIMIT ?";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final int topK;
+  private final int maxEntries;
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+  private final Object rebuildMonitor = new Object();
+  private final AtomicLong dropped = new AtomicLong();
+  private SuggestIndex index;
+  // Changes made while a rebuild is loading, replayed on the new index before the swap
+  private List<Consumer<SuggestIndex>> rebuildBacklog;
+
+  public SuggestService(
+      JdbcTemplate jdbcTemplate,
+      MeterRegistry meterRegistry,
+      @Value("${suggest.top-k:10}") int topK,
+      @Value("${suggest.max-entries:200000}") int maxEntries) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.topK = Math.min(topK, MAX_LIMIT);
+    this.maxEntries = maxEntries;
+    this.index = new SuggestIndex(this.topK, maxEntries);
+    Gauge.builder("github.suggest.entries", this, SuggestService::size)
+        .description("Repositories in the suggest index")
+        .register(meterRegistry);
+    Gauge.builder("github.suggest.nodes", this, SuggestService::nodeCount)
+        .description("Radix tree nodes in the suggest index")
+        .register(meterRegistry);
+    Gauge.builder("github.suggest.dropped", dropped, AtomicLong::get)
+        .description("Stored repositories not indexed because the suggest index was full")
+        .register(meterRegistry);
+  }
+
+  public List<Suggestion> suggest(String prefix, int limit) {
+    if (prefix == null || prefix.isBlank()) {
+      throw new InvalidRequestException("q must not be blank");
+    }
+    if (limit < 1 || limit > topK) {
+      throw new InvalidRequestException("limit must be between 1 and " + topK);
+    }
+    lock.readLock().lock();
+    try {
+      return index.suggest(prefix.strip(), limit);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  public void recordInserted(List<GitHubRepository> repositories) {
+    if (repositories.isEmpty()) {
+      return;
+    }
+    lock.writeLock().lock();
+    try {
+      for (GitHubRepository repository : repositories) {
+        Suggestion suggestion = toSuggestion(repository);
+        if (rebuildBacklog != null) {
+          rebuildBacklog.add(fresh -> fresh.add(suggestion));
+        }
+        if (!index.add(suggestion) && !index.contains(suggestion.githubRepoId())) {
+          dropped.incrementAndGet();
+        }
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /** Stops suggesting deleted repositories; their slots are only reused by the next rebuild. */
+  public void recordDeleted(List<GitHubRepository> repositories) {
+    if (repositories.isEmpty()) {
+      return;
+    }
+    lock.writeLock().lock();
+    try {
+      for (GitHubRepository repository : repositories) {
+        Long githubRepoId = repository.getGithubRepoId();
+        if (githubRepoId == null) {
+          continue;
+        }
+        if (rebuildBacklog != null) {
+          rebuildBacklog.add(fresh -> fresh.remove(githubRepoId));
+        }
+        index.remove(githubRepoId);
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  @Scheduled(cron = "${suggest.rebuild-cron:0 30 */6 * * *}")
+  public void rebuild() {
+    synchronized (rebuildMonitor) {
+      setRebuildBacklog(new ArrayList<>());
+      try {
+        long start = System.nanoTime();
+        SuggestIndex fresh = new SuggestIndex(topK, maxEntries);
+        jdbcTemplate.query(
+            LOAD,
+            (RowCallbackHandler)
+                rs ->
+                    fresh.add(
+                        new Suggestion(
+                            rs.getLong("github_repo_id"),
+                            rs.getString("repo_name"),
+                            rs.getString("owner_name"),
+                            rs.getString("programming_language"),
+                            rs.getInt("stars_count"))),
+            maxEntries);
+
+        lock.writeLock().lock();
+        try {
+          rebuildBacklog.forEach(change -> change.accept(fresh));
+          index = fresh;
+          dropped.set(0);
+        } finally {
+          lock.writeLock().unlock();
+        }
+        logger.info(
+            "Rebuilt suggest index with {} repositories and {} nodes in {} ms",
+            fresh.size(),
+            fresh.nodeCount(),
+            (System.nanoTime() - start) / 1_000_000);
+      } catch (DataAccessException ex) {
+        logger.warn("Suggest index rebuild failed", ex);
+      } finally {
+        setRebuildBacklog(null);
+      }
+    }
+  }
+
+  int size() {
+    lock.readLock().lock();
+    try {
+      return index.size();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  int nodeCount() {
+    lock.readLock().lock();
+    try {
+      return index.nodeCount();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  private void setRebuildBacklog(List<Consumer<SuggestIndex>> backlog) {
+    lock.writeLock().lock();
+    try {
+      rebuildBacklog = backlog;
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  private static Suggestion toSuggestion(GitHubRepository repository) {
+    return new Suggestion(
+        repository.getGithubRepoId(),
+        repository.getRepoName(),
+        repository.getOwnerName(),
+        repository.getProgrammingLanguage(),
+        repository.getStarsCount());
+  }
+}
@@ -0,0 +1,53 @@
+package com.ajinz.githubsearch.service;
+
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Trigram similarity with the same semantics as PostgreSQL's {@code pg_trgm}: text is lower-cased
+ * and split into alphanumeric words, each word is padded with two leading blanks and one trailing
+ * blank, and similarity is the number of shared trigrams over the number of distinct trigrams.
+ */
+final class Trigrams {
+
+  /** Default of {@code pg_trgm.similarity_threshold}, used by the {@code %} operator. */
+  static final double DEFAULT_THRESHOLD = 0.3;
+
+  private Trigrams() {}
+
+  static Set<String> of(String text) {
+    Set<String> trigrams = new HashSet<>();
+    if (text == null) {
+      return trigrams;
+    }
+    String lower = text.toLowerCase(Locale.ROOT);
+    int wordStart = -1;
+    for (int i = 0; i <= lower.length(); i++) {
+      boolean wordChar = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+      if (wordChar && wordStart < 0) {
+        wordStart = i;
+      } else if (!wordChar && wordStart >= 0) {
+        String padded = "  " + lower.substring(wordStart, i) + " ";
+        for (int j = 0; j + 3 <= padded.length(); j++) {
+          trigrams.add(padded.substring(j, j + 3));
+        }
+        wordStart = -1;
+      }
+    }
+    return trigrams;
+  }
+
+  static double similarity(Set<String> a, Set<String> b) {
+    if (a.isEmpty() || b.isEmpty()) {
+      return 0;
+    }
+    int shared = 0;
+    for (String trigram : a.size() <= b.size() ? a : b) {
+      if ((a.size() <= b.size() ? b : a).contains(trigram)) {
+        shared++;
+      }
+    }
+    return (double) shared / (a.size() + b.size() - shared);
+  }
+}
@@ -0,0 +1,162 @@
+package com.ajinz.githubsearch.timing;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import java.util.function.Supplier;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+/**
+ * Per-request stage timings. Every stage is recorded as a {@code Server-Timing} entry and as a
+ * child observation (span) of the current HTTP server observation.
+ *
+ * <p>An instance is bound to the servlet request by {@link ServerTimingFilter} and handed to
+ * reactive code through the Reactor context. Code running outside a request gets a no-op instance,
+ * so callers never need to null-check.
+ */
+public final class ServerTiming {
+
+  public static final String HEADER = "Server-Timing";
+
+  static final String ATTRIBUTE = ServerTiming.class.getName();
+
+  private static final ServerTiming NOOP = new ServerTiming(ObservationRegistry.NOOP, null);
+
+  private final ObservationRegistry observationRegistry;
+  private final Observation parent;
+  private final long startNanos = System.nanoTime();
+  private final StringBuilder entries = new StringBuilder(128);
+
+  ServerTiming(ObservationRegistry observationRegistry, Observation parent) {
+    this.observationRegistry = observationRegistry;
+    this.parent = parent;
+  }
+
+  public static ServerTiming from(HttpServletRequest request) {
+    Object timing = request.getAttribute(ATTRIBUTE);
+    return timing instanceof ServerTiming serverTiming ? serverTiming : NOOP;
+  }
+
+  public static ServerTiming from(ContextView context) {
+    return context.getOrDefault(ServerTiming.class, NOOP);
+  }
+
+  /** Times the upstream exchange up to response headers, i.e. before the body is decoded. */
+  public static ExchangeFilterFunction exchangeFilter(String stage) {
+    return (request, next) ->
+        Mono.deferContextual(context -> from(context).time(stage, next.exchange(request)));
+  }
+
+  public Context writeTo(Context context) {
+    return isActive() ? context.put(ServerTiming.class, this) : context;
+  }
+
+  public boolean isActive() {
+    return this != NOOP;
+  }
+
+  public Stage start(String name) {
+    Observation observation =
+        isActive()
+            ? Observation.createNotStarted(name, observationRegistry)
+                .parentObservation(parent)
+                .start()
+            : Observation.NOOP;
+    return new Stage(name, observation);
+  }
+
+  public <T> T time(String name, Supplier<T> supplier) {
+    Stage stage = start(name);
+    try {
+      T result = supplier.get();
+      stage.stop();
+      return result;
+    } catch (RuntimeException ex) {
+      stage.fail(ex);
+      throw ex;
+    }
+  }
+
+  public void run(String name, Runnable runnable) {
+    time(
+        name,
+        () -> {
+          runnable.run();
+          return null;
+        });
+  }
+
+  public <T> Mono<T> time(String name, Mono<T> mono) {
+    return Mono.defer(
+        () -> {
+          Stage stage = start(name);
+          return mono.doOnSuccess(ignored -> stage.stop())
+              .doOnError(stage::fail)
+              .doOnCancel(stage::stop);
+        });
+  }
+
+  public void record(String name, long nanos) {
+    if (!isActive()) {
+      return;
+    }
+    synchronized (entries) {
+      if (!entries.isEmpty()) {
+        entries.append(", ");
+      }
+      appendEntry(entries, name, nanos);
+    }
+  }
+
+  public String headerValue() {
+    StringBuilder value;
+    synchronized (entries) {
+      value = new StringBuilder(entries.length() + 24).append(entries);
+    }
+    if (!value.isEmpty()) {
+      value.append(", ");
+    }
+    return appendEntry(value, "total", System.nanoTime() - startNanos).toString();
+  }
+
+  private static StringBuilder appendEntry(StringBuilder target, String name, long nanos) {
+    long micros = nanos / 1_000;
+    long fraction = micros % 1_000;
+    target.append(name).append(";dur=").append(micros / 1_000).append('.');
+    if (fraction < 100) {
+      target.append(fraction < 10 ? "00" : "0");
+    }
+    return target.append(fraction);
+  }
+
+  public final class Stage {
+    private final String name;
+    private final Observation observation;
+    private final long startNanos = System.nanoTime();
+    private boolean stopped;
+
+    private Stage(String name, Observation observation) {
+      this.name = name;
+      this.observation = observation;
+    }
+
+    public void stop() {
+      synchronized (this) {
+        if (stopped) {
+          return;
+        }
+        stopped = true;
+      }
+      observation.stop();
+      record(name, System.nanoTime() - startNanos);
+    }
+
+    public void fail(Throwable error) {
+      observation.error(error);
+      stop();
+    }
+  }
+}
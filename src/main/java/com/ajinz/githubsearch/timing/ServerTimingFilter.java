@@ -0,0 +1,113 @@
+package com.ajinz.githubsearch.timing;
+
+import io.micrometer.observation.ObservationRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import java.io.IOException;
+import java.io.PrintWriter;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Binds a {@link ServerTiming} to each request, after the HTTP server observation is opened, and
+ * writes the {@code Server-Timing} header just before the response commits: when the body is first
+ * written, on an error or redirect, or when the request leaves the filter chain without a body.
+ * That covers responses written by later filters, such as load shedding and rate limiting, as well
+ * as those of controllers. Async dispatches pass through again so async handlers are covered too.
+ */
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+@Component
+public class ServerTimingFilter extends OncePerRequestFilter {
+
+  private final ObservationRegistry observationRegistry;
+
+  public ServerTimingFilter(ObjectProvider<ObservationRegistry> observationRegistry) {
+    this.observationRegistry = observationRegistry.getIfAvailable(() -> ObservationRegistry.NOOP);
+  }
+
+  @Override
+  protected boolean shouldNotFilterAsyncDispatch() {
+    return false;
+  }
+
+  @Override
+  protected void doFilterInternal(
+      HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+      throws ServletException, IOException {
+    // An async dispatch keeps the timing bound when the request first came in
+    ServerTiming timing = ServerTiming.from(request);
+    if (!timing.isActive()) {
+      timing = new ServerTiming(observationRegistry, observationRegistry.getCurrentObservation());
+      request.setAttribute(ServerTiming.ATTRIBUTE, timing);
+    }
+    TimingResponse timed =
+        response instanceof TimingResponse wrapped ? wrapped : new TimingResponse(response, timing);
+    try {
+      chain.doFilter(request, timed);
+    } finally {
+      if (!request.isAsyncStarted()) {
+        timed.writeHeader();
+      }
+    }
+  }
+
+  private static final class TimingResponse extends HttpServletResponseWrapper {
+    private final ServerTiming timing;
+    private boolean written;
+
+    private TimingResponse(HttpServletResponse response, ServerTiming timing) {
+      super(response);
+      this.timing = timing;
+    }
+
+    private void writeHeader() {
+      if (!written && !isCommitted()) {
+        written = true;
+        setHeader(ServerTiming.HEADER, timing.headerValue());
+      }
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+      writeHeader();
+      return super.getOutputStream();
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+      writeHeader();
+      return super.getWriter();
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+      writeHeader();
+      super.flushBuffer();
+    }
+
+    @Override
+    public void sendError(int sc, String msg) throws IOException {
+      writeHeader();
+      super.sendError(sc, msg);
+    }
+
+    @Override
+    public void sendError(int sc) throws IOException {
+      writeHeader();
+      super.sendError(sc);
+    }
+
+    @Override
+    public void sendRedirect(String location) throws IOException {
+      writeHeader();
+      super.sendRedirect(location);
+    }
+  }
+}
@@ -0,0 +1,10 @@
+-- Hit counts of GET /api/github/repositories filter combinations, replayed by the startup warm-up.
+-- programming_language is '' and min_stars -1 when the filter was not given.
+CREATE TABLE github_listing_query (
+    programming_language VARCHAR(100) NOT NULL,
+    min_stars INTEGER NOT NULL,
+    sort_by VARCHAR(20) NOT NULL,
+    hits BIGINT NOT NULL DEFAULT 0,
+    last_seen TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    PRIMARY KEY (programming_language, min_stars, sort_by)
+);
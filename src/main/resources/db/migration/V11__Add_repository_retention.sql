@@ -0,0 +1,33 @@
+-- Day a repository last appeared in search results, set by the star history flush. NULL until it
+-- is seen again after being stored; retention then falls back to updated_at.
+ALTER TABLE github_repository ADD COLUMN last_seen_at TIMESTAMP WITHOUT TIME ZONE;
+
+-- Rows removed by the retention job in archive mode
+CREATE TABLE github_repository_archive (
+    id BIGINT PRIMARY KEY,
+    github_repo_id BIGINT,
+    repo_name VARCHAR(255),
+    description TEXT,
+    owner_name VARCHAR(255),
+    programming_language VARCHAR(100),
+    stars_count INTEGER,
+    forks_count INTEGER,
+    git_repo_last_updated_date TIMESTAMP WITHOUT TIME ZONE,
+    created_at TIMESTAMP WITHOUT TIME ZONE,
+    updated_at TIMESTAMP WITHOUT TIME ZONE,
+    last_seen_at TIMESTAMP WITHOUT TIME ZONE,
+    archived_at TIMESTAMP WITHOUT TIME ZONE NOT NULL
+);
+
+-- Cursor of the retention pass in progress, so a pass interrupted by a restart or its time limit
+-- continues where it stopped. pass_started_at is NULL between passes.
+CREATE TABLE github_retention_progress (
+    table_name VARCHAR(100) PRIMARY KEY,
+    last_id BIGINT NOT NULL DEFAULT 0,
+    max_id BIGINT NOT NULL DEFAULT 0,
+    removed_count BIGINT NOT NULL DEFAULT 0,
+    pass_started_at TIMESTAMP WITHOUT TIME ZONE,
+    updated_at TIMESTAMP WITHOUT TIME ZONE
+);
+
+INSERT INTO github_retention_progress (table_name) VALUES ('github_repository');
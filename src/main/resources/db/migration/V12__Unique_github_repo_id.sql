@@ -0,0 +1,52 @@
+-- Ingest inserts with ON CONFLICT DO NOTHING, which needs github_repo_id to be unique. Concurrent
+-- ingests could store a repository twice before; keep its oldest row and take the removed copies
+-- out of the owner totals here. The language totals are repaired by their hourly reconcile.
+UPDATE github_owner
+SET repo_count = repo_count - (
+        SELECT COUNT(*) FROM github_repository r
+        WHERE r.owner_name = github_owner.owner_name
+          AND EXISTS (SELECT 1 FROM github_repository k
+                      WHERE k.github_repo_id = r.github_repo_id AND k.id < r.id)),
+    total_stars = total_stars - (
+        SELECT COALESCE(SUM(r.stars_count), 0) FROM github_repository r
+        WHERE r.owner_name = github_owner.owner_name
+          AND EXISTS (SELECT 1 FROM github_repository k
+                      WHERE k.github_repo_id = r.github_repo_id AND k.id < r.id)),
+    total_forks = total_forks - (
+        SELECT COALESCE(SUM(r.forks_count), 0) FROM github_repository r
+        WHERE r.owner_name = github_owner.owner_name
+          AND EXISTS (SELECT 1 FROM github_repository k
+                      WHERE k.github_repo_id = r.github_repo_id AND k.id < r.id))
+WHERE owner_name IN (
+    SELECT r.owner_name FROM github_repository r
+    WHERE EXISTS (SELECT 1 FROM github_repository k
+                  WHERE k.github_repo_id = r.github_repo_id AND k.id < r.id));
+
+UPDATE github_owner_language
+SET repo_count = repo_count - (
+        SELECT COUNT(*) FROM github_repository r
+        JOIN github_owner o ON o.owner_name = r.owner_name
+        WHERE o.id = github_owner_language.owner_id
+          AND COALESCE(r.programming_language, '') = github_owner_language.programming_language
+          AND EXISTS (SELECT 1 FROM github_repository k
+                      WHERE k.github_repo_id = r.github_repo_id AND k.id < r.id)),
+    total_stars = total_stars - (
+        SELECT COALESCE(SUM(r.stars_count), 0) FROM github_repository r
+        JOIN github_owner o ON o.owner_name = r.owner_name
+        WHERE o.id = github_owner_language.owner_id
+          AND COALESCE(r.programming_language, '') = github_owner_language.programming_language
+          AND EXISTS (SELECT 1 FROM github_repository k
+                      WHERE k.github_repo_id = r.github_repo_id AND k.id < r.id))
+WHERE owner_id IN (
+    SELECT o.id FROM github_repository r
+    JOIN github_owner o ON o.owner_name = r.owner_name
+    WHERE EXISTS (SELECT 1 FROM github_repository k
+                  WHERE k.github_repo_id = r.github_repo_id AND k.id < r.id));
+
+DELETE FROM github_repository
+WHERE EXISTS (SELECT 1 FROM github_repository k
+              WHERE k.github_repo_id = github_repository.github_repo_id
+                AND k.id < github_repository.id);
+
+DROP INDEX IF EXISTS idx_github_repository_github_repo_id;
+CREATE UNIQUE INDEX idx_github_repository_github_repo_id ON github_repository (github_repo_id);
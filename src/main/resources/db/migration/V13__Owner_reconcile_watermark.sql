@@ -0,0 +1,13 @@
+-- Repository id watermark of the owner reconciliation. A run recounts the owners of repositories
+-- with last_id < id <= max_id, then sets last_id to max_id and max_id to the largest id at its
+-- start, so a row is only recounted once the ingest that stored it has had a whole run interval to
+-- apply its delta. Rows stored so far start out settled: V9 counted them and V12 took out the
+-- duplicates.
+CREATE TABLE github_owner_reconcile_progress (
+    last_id BIGINT NOT NULL,
+    max_id BIGINT NOT NULL,
+    updated_at TIMESTAMP WITHOUT TIME ZONE
+);
+
+INSERT INTO github_owner_reconcile_progress (last_id, max_id)
+SELECT COALESCE(MAX(id), 0), COALESCE(MAX(id), 0) FROM github_repository;
@@ -0,0 +1,12 @@
+-- Repository id watermark of the language aggregate reconciliation, kept like the owner one in V13:
+-- a run recounts the languages of repositories with last_id < id <= max_id, then sets last_id to
+-- max_id and max_id to the largest id at its start. Rows stored so far start out settled: the full
+-- recount this replaces has run over them.
+CREATE TABLE github_aggregate_reconcile_progress (
+    last_id BIGINT NOT NULL,
+    max_id BIGINT NOT NULL,
+    updated_at TIMESTAMP WITHOUT TIME ZONE
+);
+
+INSERT INTO github_aggregate_reconcile_progress (last_id, max_id)
+SELECT COALESCE(MAX(id), 0), COALESCE(MAX(id), 0) FROM github_repository;
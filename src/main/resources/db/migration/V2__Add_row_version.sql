@@ -0,0 +1,2 @@
+-- Optimistic-locking version, bumped on every update of a row
+ALTER TABLE github_repository ADD COLUMN row_version BIGINT NOT NULL DEFAULT 0;
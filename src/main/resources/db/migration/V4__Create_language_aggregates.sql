@@ -0,0 +1,17 @@
+-- Per-language totals and log2 star/fork histograms, maintained incrementally on ingest.
+-- programming_language is '' for repositories without a language.
+CREATE TABLE github_language_stats (
+    programming_language VARCHAR(100) PRIMARY KEY,
+    repo_count BIGINT NOT NULL DEFAULT 0,
+    total_stars BIGINT NOT NULL DEFAULT 0,
+    total_forks BIGINT NOT NULL DEFAULT 0
+);
+
+-- Bucket 0 holds zero; bucket b > 0 holds values in [2^(b-1), 2^b - 1]
+CREATE TABLE github_language_histogram (
+    programming_language VARCHAR(100) NOT NULL,
+    metric VARCHAR(10) NOT NULL,
+    bucket INTEGER NOT NULL,
+    repo_count BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (programming_language, metric, bucket)
+);
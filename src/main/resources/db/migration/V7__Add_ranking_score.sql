@@ -0,0 +1,5 @@
+-- Composite ranking score (stars, forks, recency of the last update), computed by the application
+-- on ingest and refreshed periodically as the recency part decays. Backs GET /repositories?sort=score.
+ALTER TABLE github_repository ADD COLUMN score DOUBLE PRECISION NOT NULL DEFAULT 0;
+
+CREATE INDEX idx_github_repository_score ON github_repository(score DESC, stars_count DESC);
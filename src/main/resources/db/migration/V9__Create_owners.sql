@@ -0,0 +1,36 @@
+-- Repository owners with totals maintained incrementally on ingest.
+-- github_repository.owner_name refers to github_owner.owner_name.
+CREATE TABLE github_owner (
+    id BIGSERIAL PRIMARY KEY,
+    owner_name VARCHAR(255) NOT NULL UNIQUE,
+    repo_count BIGINT NOT NULL DEFAULT 0,
+    total_stars BIGINT NOT NULL DEFAULT 0,
+    total_forks BIGINT NOT NULL DEFAULT 0
+);
+
+-- Per-owner language counts for the owner's top languages; programming_language is '' for
+-- repositories without a language
+CREATE TABLE github_owner_language (
+    owner_id BIGINT NOT NULL REFERENCES github_owner (id),
+    programming_language VARCHAR(100) NOT NULL,
+    repo_count BIGINT NOT NULL DEFAULT 0,
+    total_stars BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (owner_id, programming_language)
+);
+
+CREATE INDEX idx_github_owner_total_stars ON github_owner (total_stars DESC, id);
+CREATE INDEX idx_github_owner_repo_count ON github_owner (repo_count DESC, id);
+CREATE INDEX idx_github_repository_owner_stars
+    ON github_repository (owner_name, stars_count DESC, id);
+
+INSERT INTO github_owner (owner_name, repo_count, total_stars, total_forks)
+SELECT owner_name, COUNT(*), COALESCE(SUM(stars_count), 0), COALESCE(SUM(forks_count), 0)
+FROM github_repository
+WHERE owner_name IS NOT NULL
+GROUP BY owner_name;
+
+INSERT INTO github_owner_language (owner_id, programming_language, repo_count, total_stars)
+SELECT o.id, COALESCE(r.programming_language, ''), COUNT(*), COALESCE(SUM(r.stars_count), 0)
+FROM github_repository r
+JOIN github_owner o ON o.owner_name = r.owner_name
+GROUP BY o.id, COALESCE(r.programming_language, '');
@@ -0,0 +1,118 @@
+package com.ajinz.githubsearch.concurrency;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class AdaptiveConcurrencyLimiterTest {
+
+  private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+  private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(100);
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  @Test
+  void tryAcquire_AtLimit_ShouldRejectAndCountRejection() {
+    AdaptiveConcurrencyLimiter limiter = limiter(2, 1, 10);
+
+    assertTrue(limiter.tryAcquire());
+    assertTrue(limiter.tryAcquire());
+    assertFalse(limiter.tryAcquire());
+
+    assertEquals(2, limiter.getInFlight());
+    assertEquals(
+        1.0,
+        meterRegistry.get("github.concurrency.rejected").tag("endpoint", "test").counter().count());
+  }
+
+  @Test
+  void release_WithSteadyLatencyUnderLoad_ShouldRaiseLimit() {
+    AdaptiveConcurrencyLimiter limiter = limiter(10, 1, 50);
+
+    for (int round = 0; round < 20; round++) {
+      runRound(limiter, FAST);
+    }
+
+    assertTrue(limiter.getLimit() > 10, "limit was " + limiter.getLimit());
+    assertTrue(limiter.getLimit() <= 50);
+    assertEquals(
+        limiter.getLimit(),
+        meterRegistry.get("github.concurrency.limit").tag("endpoint", "test").gauge().value());
+  }
+
+  @Test
+  void release_WithRisingLatency_ShouldLowerLimit() {
+    AdaptiveConcurrencyLimiter limiter = limiter(10, 1, 50);
+    for (int round = 0; round < 20; round++) {
+      runRound(limiter, FAST);
+    }
+    int learned = limiter.getLimit();
+
+    for (int round = 0; round < 5; round++) {
+      runRound(limiter, SLOW);
+    }
+
+    assertTrue(limiter.getLimit() < learned, learned + " -> " + limiter.getLimit());
+  }
+
+  @Test
+  void release_WithDroppedRequest_ShouldBackOffButNotBelowMinimum() {
+    AdaptiveConcurrencyLimiter limiter = limiter(20, 15, 50);
+
+    limiter.tryAcquire();
+    limiter.release(FAST, true);
+    assertEquals(18, limiter.getLimit());
+
+    for (int i = 0; i < 10; i++) {
+      limiter.tryAcquire();
+      limiter.release(FAST, true);
+    }
+    assertEquals(15, limiter.getLimit());
+  }
+
+  @Test
+  void release_WhenMostlyIdle_ShouldNotRaiseLimit() {
+    AdaptiveConcurrencyLimiter limiter = limiter(10, 1, 50);
+
+    for (int i = 0; i < 100; i++) {
+      assertTrue(limiter.tryAcquire());
+      limiter.release(FAST, false);
+    }
+
+    assertEquals(10, limiter.getLimit());
+    assertEquals(0, limiter.getInFlight());
+  }
+
+  @Test
+  void retryAfterSeconds_ShouldFollowBaselineLatency() {
+    AdaptiveConcurrencyLimiter limiter = limiter(10, 1, 50);
+    assertEquals(1, limiter.retryAfterSeconds());
+
+    limiter.tryAcquire();
+    limiter.release(TimeUnit.MILLISECONDS.toNanos(2500), false);
+
+    assertEquals(3, limiter.retryAfterSeconds());
+  }
+
+  @Test
+  void constructor_WithInitialOutsideBounds_ShouldThrow() {
+    assertThrows(IllegalArgumentException.class, () -> limiter(100, 1, 50));
+  }
+
+  private AdaptiveConcurrencyLimiter limiter(int initial, int min, int max) {
+    return new AdaptiveConcurrencyLimiter("test", initial, min, max, 1.5, meterRegistry);
+  }
+
+  /** Fills the limiter up to its limit, then completes every request with the given latency. */
+  private static void runRound(AdaptiveConcurrencyLimiter limiter, long rttNanos) {
+    int permits = limiter.getLimit();
+    for (int i = 0; i < permits; i++) {
+      assertTrue(limiter.tryAcquire());
+    }
+    for (int i = 0; i < permits; i++) {
+      limiter.release(rttNanos, false);
+    }
+  }
+}
@@ -0,0 +1,126 @@
+package com.ajinz.githubsearch.concurrency;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class BulkheadsTest {
+
+  private SimpleMeterRegistry meterRegistry;
+  private Bulkheads bulkheads;
+  private final CountDownLatch release = new CountDownLatch(1);
+
+  @BeforeEach
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    // search: 2 threads + 2 queued, ingest: 1 + 1, reads: 2 + 2
+    bulkheads = new Bulkheads(meterRegistry, 2, 2, 1, 1, 2, 2);
+  }
+
+  @AfterEach
+  void tearDown() {
+    release.countDown();
+    bulkheads.destroy();
+  }
+
+  @Test
+  void saturatedSearchLane_ShouldRejectSearchesButStillRunReadsAndIngest() throws Exception {
+    // Arrange: occupy every search thread and queue slot
+    CountDownLatch started = new CountDownLatch(2);
+    for (int i = 0; i < 4; i++) {
+      bulkheads.search().execute(() -> blockUntilReleased(started));
+    }
+    assertTrue(started.await(5, TimeUnit.SECONDS));
+
+    // Act & Assert
+    assertThrows(BulkheadFullException.class, () -> bulkheads.search().execute(() -> {}));
+    assertEquals("reads", bulkheads.reads().call(() -> "reads"));
+    assertNull(bulkheads.ingest().execute(() -> {}).get(5, TimeUnit.SECONDS));
+    assertEquals(1.0, bulkheads.search().saturation());
+    assertEquals(1, bulkheads.search().rejectedCount());
+    assertEquals(0, bulkheads.reads().rejectedCount());
+  }
+
+  @Test
+  void saturatedIngestLane_ShouldNotDelaySearches() throws Exception {
+    // Arrange
+    CountDownLatch started = new CountDownLatch(1);
+    bulkheads.ingest().execute(() -> blockUntilReleased(started));
+    bulkheads.ingest().execute(() -> blockUntilReleased(started));
+    assertTrue(started.await(5, TimeUnit.SECONDS));
+    assertThrows(BulkheadFullException.class, () -> bulkheads.ingest().execute(() -> {}));
+
+    // Act
+    CompletableFuture<String> search = bulkheads.search().submit(() -> "results");
+
+    // Assert
+    assertEquals("results", search.get(5, TimeUnit.SECONDS));
+  }
+
+  @Test
+  void lane_WhenReleased_ShouldAcceptWorkAgain() throws Exception {
+    // Arrange
+    CountDownLatch started = new CountDownLatch(2);
+    CompletableFuture<?>[] running = new CompletableFuture<?>[4];
+    for (int i = 0; i < running.length; i++) {
+      running[i] = bulkheads.reads().execute(() -> blockUntilReleased(started));
+    }
+    assertThrows(BulkheadFullException.class, () -> bulkheads.reads().call(() -> "rejected"));
+
+    // Act
+    release.countDown();
+    CompletableFuture.allOf(running).get(5, TimeUnit.SECONDS);
+
+    // Assert
+    assertEquals("accepted", bulkheads.reads().call(() -> "accepted"));
+  }
+
+  @Test
+  void call_WhenTaskFails_ShouldRethrowTheTaskException() {
+    IllegalArgumentException failure = new IllegalArgumentException("bad filter");
+
+    IllegalArgumentException thrown =
+        assertThrows(
+            IllegalArgumentException.class,
+            () ->
+                bulkheads
+                    .reads()
+                    .call(
+                        () -> {
+                          throw failure;
+                        }));
+
+    assertSame(failure, thrown);
+  }
+
+  @Test
+  void bulkhead_ShouldExportSaturationMetricsPerLane() throws Exception {
+    // Arrange
+    CountDownLatch started = new CountDownLatch(1);
+    bulkheads.ingest().execute(() -> blockUntilReleased(started));
+    assertTrue(started.await(5, TimeUnit.SECONDS));
+
+    // Act & Assert
+    assertEquals(
+        1.0, meterRegistry.get("github.bulkhead.active").tag("lane", "ingest").gauge().value());
+    assertEquals(
+        0.5, meterRegistry.get("github.bulkhead.saturation").tag("lane", "ingest").gauge().value());
+    assertEquals(
+        0.0, meterRegistry.get("github.bulkhead.rejected").tag("lane", "ingest").counter().count());
+  }
+
+  private void blockUntilReleased(CountDownLatch started) {
+    started.countDown();
+    try {
+      release.await();
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
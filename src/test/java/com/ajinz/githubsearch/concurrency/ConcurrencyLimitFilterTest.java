@@ -0,0 +1,141 @@
+package com.ajinz.githubsearch.concurrency;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+class ConcurrencyLimitFilterTest {
+
+  // Search limit pinned to a single permit
+  private final ConcurrencyLimitFilter filter =
+      new ConcurrencyLimitFilter(
+          new SimpleMeterRegistry(),
+          new ObjectMapper().findAndRegisterModules(),
+          true,
+          1.5,
+          1,
+          1,
+          1,
+          32,
+          4,
+          72);
+
+  @Test
+  void doFilter_WhenSearchLimitReached_ShouldShedWith503UntilThePermitIsReleased()
+      throws Exception {
+    // Arrange: an async search holds the only permit
+    MockHttpServletRequest slowSearch = searchRequest();
+    filter.doFilter(slowSearch, new MockHttpServletResponse(), startAsync());
+
+    // Act
+    MockHttpServletResponse shed = new MockHttpServletResponse();
+    filter.doFilter(searchRequest(), shed, new MockFilterChain());
+
+    // Assert
+    assertEquals(503, shed.getStatus());
+    assertEquals("1", shed.getHeader("Retry-After"));
+    assertTrue(shed.getContentAsString().contains("SERVICE_OVERLOADED"));
+
+    slowSearch.getAsyncContext().complete();
+    MockHttpServletResponse accepted = new MockHttpServletResponse();
+    filter.doFilter(searchRequest(), accepted, new MockFilterChain());
+    assertEquals(200, accepted.getStatus());
+  }
+
+  @Test
+  void doFilter_WhenSearchLimitReached_ShouldStillAdmitRepositoryReads() throws Exception {
+    // Arrange
+    filter.doFilter(searchRequest(), new MockHttpServletResponse(), startAsync());
+
+    // Act
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    filter.doFilter(
+        new MockHttpServletRequest("GET", ConcurrencyLimitFilter.REPOSITORIES_PATH),
+        response,
+        new MockFilterChain());
+
+    // Assert
+    assertEquals(200, response.getStatus());
+  }
+
+  @Test
+  void doFilter_WhenSearchLimitReached_ShouldShedBatchSearchesToo() throws Exception {
+    // Arrange
+    filter.doFilter(searchRequest(), new MockHttpServletResponse(), startAsync());
+
+    // Act
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    filter.doFilter(
+        new MockHttpServletRequest("POST", ConcurrencyLimitFilter.BATCH_SEARCH_PATH),
+        response,
+        new MockFilterChain());
+
+    // Assert
+    assertEquals(503, response.getStatus());
+    assertEquals("1", response.getHeader("Retry-After"));
+  }
+
+  @Test
+  void doFilter_ForOtherEndpoints_ShouldNotTakePermits() throws Exception {
+    filter.doFilter(searchRequest(), new MockHttpServletResponse(), startAsync());
+
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    filter.doFilter(
+        new MockHttpServletRequest("GET", "/api/github/repositories/suggest"),
+        response,
+        new MockFilterChain());
+
+    assertEquals(200, response.getStatus());
+  }
+
+  @Test
+  void doFilter_WhenResponseIsServerError_ShouldCountItAsDrop() throws Exception {
+    // Arrange
+    AdaptiveConcurrencyLimiter reads = filter.limiters().get(1);
+    int limitBefore = reads.getLimit();
+
+    // Act
+    filter.doFilter(
+        new MockHttpServletRequest("GET", ConcurrencyLimitFilter.REPOSITORIES_PATH),
+        new MockHttpServletResponse(),
+        (request, response) -> ((MockHttpServletResponse) response).setStatus(500));
+
+    // Assert
+    assertTrue(reads.getLimit() < limitBefore);
+    assertEquals(0, reads.getInFlight());
+  }
+
+  @Test
+  void doFilter_WhenResponseIsClientError_ShouldLeaveTheLimitUnchanged() throws Exception {
+    // Arrange
+    AdaptiveConcurrencyLimiter reads = filter.limiters().get(1);
+    int limitBefore = reads.getLimit();
+
+    // Act
+    filter.doFilter(
+        new MockHttpServletRequest("GET", ConcurrencyLimitFilter.REPOSITORIES_PATH),
+        new MockHttpServletResponse(),
+        (request, response) -> ((MockHttpServletResponse) response).setStatus(404));
+
+    // Assert
+    assertEquals(limitBefore, reads.getLimit());
+    assertEquals(0, reads.getInFlight());
+  }
+
+  private static MockHttpServletRequest searchRequest() {
+    MockHttpServletRequest request =
+        new MockHttpServletRequest("POST", ConcurrencyLimitFilter.SEARCH_PATH);
+    request.setAsyncSupported(true);
+    return request;
+  }
+
+  private static FilterChain startAsync() {
+    return (request, response) -> request.startAsync();
+  }
+}
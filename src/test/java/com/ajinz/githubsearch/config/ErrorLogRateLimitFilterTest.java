@@ -0,0 +1,79 @@
+package com.ajinz.githubsearch.config;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ErrorLogRateLimitFilterTest {
+
+  private final Logger logger = new LoggerContext().getLogger("com.ajinz.githubsearch.Test");
+
+  private ErrorLogRateLimitFilter filter;
+
+  @BeforeEach
+  void setUp() {
+    filter = new ErrorLogRateLimitFilter();
+    filter.setMaxPerWindow(3);
+    filter.setWindowMillis(60_000);
+  }
+
+  @Test
+  void decide_ShouldDenyRepeatedErrorsBeyondLimit() {
+    for (int i = 0; i < 3; i++) {
+      assertEquals(FilterReply.NEUTRAL, decide(Level.ERROR, "GitHub API error: {}"));
+    }
+
+    assertEquals(FilterReply.DENY, decide(Level.ERROR, "GitHub API error: {}"));
+  }
+
+  @Test
+  void decide_ShouldCountDistinctMessagesSeparately() {
+    for (int i = 0; i < 3; i++) {
+      decide(Level.ERROR, "first");
+    }
+
+    assertEquals(FilterReply.DENY, decide(Level.ERROR, "first"));
+    assertEquals(FilterReply.NEUTRAL, decide(Level.WARN, "second"));
+  }
+
+  @Test
+  void decide_ShouldNeverLimitInfoMessages() {
+    for (int i = 0; i < 10; i++) {
+      assertEquals(FilterReply.NEUTRAL, decide(Level.INFO, "Searching repositories"));
+    }
+  }
+
+  @Test
+  void decide_WhenKeyTableIsFullOfLiveKeys_ShouldKeepExistingCounts() {
+    filter.setCacheSize(2);
+    for (int i = 0; i < 3; i++) {
+      decide(Level.ERROR, "first");
+    }
+    decide(Level.ERROR, "second");
+
+    assertEquals(FilterReply.NEUTRAL, decide(Level.ERROR, "third"));
+    assertEquals(FilterReply.DENY, decide(Level.ERROR, "first"));
+  }
+
+  @Test
+  void decide_WhenKeyTableIsFull_ShouldEvictKeysFromPastWindows() throws InterruptedException {
+    filter.setCacheSize(1);
+    filter.setWindowMillis(20);
+    decide(Level.ERROR, "first");
+    Thread.sleep(50);
+
+    for (int i = 0; i < 3; i++) {
+      assertEquals(FilterReply.NEUTRAL, decide(Level.ERROR, "second"));
+    }
+    assertEquals(FilterReply.DENY, decide(Level.ERROR, "second"));
+  }
+
+  private FilterReply decide(Level level, String format) {
+    return filter.decide(null, logger, level, format, null, null);
+  }
+}
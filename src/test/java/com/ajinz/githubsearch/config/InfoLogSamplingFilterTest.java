@@ -0,0 +1,73 @@
+package com.ajinz.githubsearch.config;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+
+class InfoLogSamplingFilterTest {
+
+  private final LoggerContext loggerContext = new LoggerContext();
+  private final Logger appLogger = loggerContext.getLogger("com.ajinz.githubsearch.Test");
+
+  @AfterEach
+  void tearDown() {
+    MDC.remove(InfoLogSamplingFilter.MDC_KEY);
+  }
+
+  @Test
+  void decide_WithZeroRate_ShouldDropApplicationInfoButKeepWarnings() {
+    InfoLogSamplingFilter filter = new InfoLogSamplingFilter();
+    filter.setRate(0.0);
+
+    assertEquals(FilterReply.DENY, filter.decide(null, appLogger, Level.INFO, "msg", null, null));
+    assertEquals(
+        FilterReply.NEUTRAL, filter.decide(null, appLogger, Level.WARN, "msg", null, null));
+  }
+
+  @Test
+  void decide_WithZeroRate_ShouldIgnoreOtherLoggers() {
+    InfoLogSamplingFilter filter = new InfoLogSamplingFilter();
+    filter.setRate(0.0);
+    Logger frameworkLogger = loggerContext.getLogger("org.springframework.Test");
+
+    assertEquals(
+        FilterReply.NEUTRAL, filter.decide(null, frameworkLogger, Level.INFO, "msg", null, null));
+  }
+
+  @Test
+  void decide_WithFullRate_ShouldKeepEveryEvent() {
+    InfoLogSamplingFilter filter = new InfoLogSamplingFilter();
+    filter.setRate(1.0);
+
+    for (int i = 0; i < 100; i++) {
+      assertEquals(
+          FilterReply.NEUTRAL, filter.decide(null, appLogger, Level.INFO, "msg", null, null));
+    }
+  }
+
+  @Test
+  void decide_WithRequestDecisionInMdc_ShouldFollowItForEveryEvent() {
+    InfoLogSamplingFilter filter = new InfoLogSamplingFilter();
+    filter.setRate(0.5);
+
+    MDC.put(InfoLogSamplingFilter.MDC_KEY, "true");
+    for (int i = 0; i < 100; i++) {
+      assertEquals(
+          FilterReply.NEUTRAL, filter.decide(null, appLogger, Level.INFO, "msg", null, null));
+    }
+
+    MDC.put(InfoLogSamplingFilter.MDC_KEY, "false");
+    for (int i = 0; i < 100; i++) {
+      assertEquals(
+          FilterReply.DENY, filter.decide(null, appLogger, Level.INFO, "msg", null, null));
+    }
+    assertEquals(
+        FilterReply.NEUTRAL, filter.decide(null, appLogger, Level.WARN, "msg", null, null));
+  }
+}
@@ -0,0 +1,115 @@
+package com.ajinz.githubsearch.config;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.ajinz.githubsearch.dto.github.GitHubRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class RepositoryJsonCacheTest {
+
+  private RepositoryJsonCache cache;
+  private ObjectMapper cachingMapper;
+  private ObjectMapper plainMapper;
+
+  @BeforeEach
+  void setUp() {
+    cache = new RepositoryJsonCache(100);
+    cachingMapper = mapper().addModule(cache).build();
+    plainMapper = mapper().build();
+  }
+
+  @Test
+  void serialize_StoredRepository_ShouldCacheFragmentAndMatchPlainOutput() throws Exception {
+    GitHubRepository repository = storedRepository(1L, 0L, "spring-boot");
+
+    String first = cachingMapper.writeValueAsString(List.of(repository));
+    String second = cachingMapper.writeValueAsString(List.of(repository));
+
+    assertEquals(plainMapper.writeValueAsString(List.of(repository)), first);
+    assertEquals(first, second);
+    assertEquals(1, cache.size());
+  }
+
+  @Test
+  void serialize_WithNewRowVersion_ShouldRenderAgain() throws Exception {
+    GitHubRepository repository = storedRepository(1L, 0L, "old-name");
+    cachingMapper.writeValueAsString(repository);
+
+    ReflectionTestUtils.setField(repository, "repoName", "new-name");
+    ReflectionTestUtils.setField(repository, "rowVersion", 1L);
+
+    assertTrue(cachingMapper.writeValueAsString(repository).contains("\"name\":\"new-name\""));
+  }
+
+  @Test
+  void serialize_UnsavedRepository_ShouldBypassCache() throws Exception {
+    GitHubRepository repository = new GitHubRepository(1L, "from-github", "owner");
+
+    assertEquals(
+        plainMapper.writeValueAsString(repository), cachingMapper.writeValueAsString(repository));
+    assertEquals(0, cache.size());
+  }
+
+  @Test
+  void serialize_WithBinaryFormat_ShouldBypassCache() throws Exception {
+    CBORMapper cborMapper =
+        CBORMapper.builder().addModule(new JavaTimeModule()).addModule(cache).build();
+
+    cborMapper.writeValueAsBytes(storedRepository(1L, 0L, "spring-boot"));
+
+    assertEquals(0, cache.size());
+  }
+
+  @Test
+  void invalidate_ShouldDropCachedRows() throws Exception {
+    GitHubRepository repository = storedRepository(1L, 0L, "spring-boot");
+    cachingMapper.writeValueAsString(repository);
+
+    cache.invalidate(List.of(repository));
+
+    assertEquals(0, cache.size());
+  }
+
+  @Test
+  void serialize_WhenFull_ShouldKeepFrequentlyServedRows() throws Exception {
+    cache = new RepositoryJsonCache(10);
+    cachingMapper = mapper().addModule(cache).build();
+    GitHubRepository popular = storedRepository(1L, 0L, "popular");
+    for (int i = 0; i < 5; i++) {
+      cachingMapper.writeValueAsString(popular);
+    }
+
+    for (long id = 2; id <= 50; id++) {
+      cachingMapper.writeValueAsString(storedRepository(id, 0L, "repo-" + id));
+    }
+    // Same row version, so a cached fragment is served as it was rendered
+    ReflectionTestUtils.setField(popular, "repoName", "renamed");
+
+    assertEquals(10, cache.size());
+    assertTrue(cachingMapper.writeValueAsString(popular).contains("\"name\":\"popular\""));
+  }
+
+  private static JsonMapper.Builder mapper() {
+    return JsonMapper.builder()
+        .addModule(new JavaTimeModule())
+        .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+  }
+
+  private static GitHubRepository storedRepository(Long id, Long version, String name) {
+    GitHubRepository repository =
+        new GitHubRepository(
+            id * 100, name, "owner", "description", "Java", 10, 2, LocalDateTime.of(2024, 1, 1, 0, 0));
+    ReflectionTestUtils.setField(repository, "id", id);
+    ReflectionTestUtils.setField(repository, "rowVersion", version);
+    return repository;
+  }
+}
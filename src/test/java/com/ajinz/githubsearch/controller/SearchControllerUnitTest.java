@@ -1,25 +1,44 @@
 package com.ajinz.githubsearch.controller;
 
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
+import com.ajinz.githubsearch.concurrency.Bulkheads;
 import com.ajinz.githubsearch.dto.github.GitHubRepository;
+import com.ajinz.githubsearch.dto.github.GitHubSearchResponse;
+import com.ajinz.githubsearch.dto.github.GithubSearchRequest;
+import com.ajinz.githubsearch.dto.github.Order;
+import com.ajinz.githubsearch.dto.github.RepositoryFieldSet;
+import com.ajinz.githubsearch.dto.github.RepositoryProjection;
+import com.ajinz.githubsearch.dto.github.Sort;
 import com.ajinz.githubsearch.service.GitHubRepositoryService;
 import com.ajinz.githubsearch.service.GitHubSearchService;
+import com.ajinz.githubsearch.service.ListingQueryLog;
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import reactor.core.publisher.Mono;
 
 @WebMvcTest(SearchController.class)
 @ActiveProfiles("test")
@@ -33,8 +52,19 @@ class SearchControllerUnitTest {
 
   @MockitoBean private GitHubSearchService gitHubSearchService;
 
+  @MockitoBean private ListingQueryLog listingQueryLog;
+
   private List<GitHubRepository> testRepositories;
 
+  @TestConfiguration
+  static class SmallBulkheads {
+    // A single search thread without queue, so the second concurrent search is rejected
+    @Bean
+    Bulkheads bulkheads() {
+      return new Bulkheads(new SimpleMeterRegistry(), 1, 0, 1, 1, 2, 4);
+    }
+  }
+
   @BeforeEach
   void setUp() {
     // Create test repositories with different languages and star counts
@@ -64,6 +94,7 @@ class SearchControllerUnitTest {
         .andExpect(jsonPath("$[0].stargazers_count").value(45000));
 
     verify(gitHubRepositoryService).getFilteredRepositories(null, null, "stars");
+    verify(listingQueryLog).record(null, null, "stars");
   }
 
   @Test
@@ -170,16 +201,129 @@ class SearchControllerUnitTest {
   }
 
   @Test
-  void getFilteredRepositories_WithInvalidMinStars_ShouldReturnInternalServerError()
+  void getFilteredRepositories_ShouldReturnServerTimingHeader() throws Exception {
+    // Arrange
+    when(gitHubRepositoryService.getFilteredRepositories(null, null, "stars"))
+        .thenReturn(testRepositories);
+
+    // Act & Assert
+    mockMvc
+        .perform(get("/api/github/repositories"))
+        .andExpect(status().isOk())
+        .andExpect(header().string("Server-Timing", containsString("db;dur=")))
+        .andExpect(header().string("Server-Timing", containsString("total;dur=")));
+  }
+
+  @Test
+  void getFilteredRepositories_WithFields_ShouldReturnOnlyRequestedFields() throws Exception {
+    // Arrange
+    RepositoryFieldSet fields = RepositoryFieldSet.parse("name,stargazers_count");
+    when(gitHubRepositoryService.getFilteredRepositories(null, null, "stars", fields))
+        .thenReturn(RepositoryProjection.of(fields, testRepositories));
+
+    // Act & Assert
+    mockMvc
+        .perform(get("/api/github/repositories").param("fields", "name,stargazers_count"))
+        .andExpect(status().isOk())
+        .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+        .andExpect(jsonPath("$.length()").value(5))
+        .andExpect(jsonPath("$[0].name").value("spring-boot"))
+        .andExpect(jsonPath("$[0].stargazers_count").value(45000))
+        .andExpect(jsonPath("$[0].language").doesNotExist())
+        .andExpect(jsonPath("$[0].full_url").doesNotExist());
+
+    verify(gitHubRepositoryService, never()).getFilteredRepositories(any(), any(), any());
+  }
+
+  @Test
+  void getFilteredRepositories_WithUnknownField_ShouldReturnBadRequest() throws Exception {
+    // Act & Assert
+    mockMvc
+        .perform(get("/api/github/repositories").param("fields", "name,password"))
+        .andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.error").value("INVALID_REQUEST"));
+
+    verifyNoInteractions(gitHubRepositoryService, listingQueryLog);
+  }
+
+  @Test
+  void getFilteredRepositories_WithCborAccept_ShouldReturnDecodableCbor() throws Exception {
+    // Arrange
+    when(gitHubRepositoryService.getFilteredRepositories(null, null, "stars"))
+        .thenReturn(testRepositories);
+
+    // Act
+    byte[] body =
+        mockMvc
+            .perform(get("/api/github/repositories").accept(MediaType.APPLICATION_CBOR))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+            .andReturn()
+            .getResponse()
+            .getContentAsByteArray();
+
+    // Assert: a client decodes the same repositories it would get as JSON
+    List<Map<String, Object>> decoded = new CBORMapper().readValue(body, new TypeReference<>() {});
+    assertEquals(5, decoded.size());
+    assertEquals("spring-boot", decoded.get(0).get("name"));
+    assertEquals(45000, decoded.get(0).get("stargazers_count"));
+    assertEquals("https://github.com/testowner/spring-boot", decoded.get(0).get("full_url"));
+  }
+
+  @Test
+  void getFilteredRepositories_WithCborAcceptAndFields_ShouldReturnDecodableProjection()
       throws Exception {
+    // Arrange
+    RepositoryFieldSet fields = RepositoryFieldSet.parse("name,owner");
+    when(gitHubRepositoryService.getFilteredRepositories(null, null, "stars", fields))
+        .thenReturn(RepositoryProjection.of(fields, testRepositories));
+
+    // Act
+    byte[] body =
+        mockMvc
+            .perform(
+                get("/api/github/repositories")
+                    .param("fields", "name,owner")
+                    .accept(MediaType.APPLICATION_CBOR))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+            .andReturn()
+            .getResponse()
+            .getContentAsByteArray();
+
+    // Assert
+    List<Map<String, Object>> decoded = new CBORMapper().readValue(body, new TypeReference<>() {});
+    assertEquals(5, decoded.size());
+    assertEquals(Map.of("name", "react", "owner", "testowner"), decoded.get(4));
+  }
+
+  @Test
+  void getFilteredRepositories_WithInvalidMinStars_ShouldReturnBadRequest() throws Exception {
     // Act & Assert
     mockMvc
         .perform(get("/api/github/repositories").param("minStars", "invalid"))
-        .andExpect(status().isInternalServerError());
+        .andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.error").value("INVALID_REQUEST"))
+        .andExpect(jsonPath("$.message").value("Invalid value for parameter 'minStars'"));
 
     verify(gitHubRepositoryService, never()).getFilteredRepositories(any(), any(), any());
   }
 
+  @Test
+  void searchRepositories_WithMalformedBody_ShouldReturnBadRequest() throws Exception {
+    // Act & Assert
+    mockMvc
+        .perform(
+            post("/api/github/search/repositories")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"query\": \"spring\", \"page\": "))
+        .andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.error").value("INVALID_REQUEST"))
+        .andExpect(jsonPath("$.message").value("Malformed request body"));
+
+    verifyNoInteractions(gitHubSearchService);
+  }
+
   @Test
   void getFilteredRepositories_WithNegativeMinStars_ShouldProcessNormally() throws Exception {
     // Arrange
@@ -238,6 +382,7 @@ class SearchControllerUnitTest {
     mockMvc.perform(get("/api/github/repositories")).andExpect(status().isInternalServerError());
 
     verify(gitHubRepositoryService).getFilteredRepositories(null, null, "stars");
+    verifyNoInteractions(listingQueryLog);
   }
 
   @Test
@@ -274,6 +419,50 @@ class SearchControllerUnitTest {
     verify(gitHubRepositoryService).getFilteredRepositories(null, Integer.MAX_VALUE, "stars");
   }
 
+  @Test
+  void searchRepositories_WhenSearchLaneIsFull_ShouldShedSearchesButStillServeReads()
+      throws Exception {
+    // Arrange: the first search holds the only search slot until its response arrives
+    CompletableFuture<GitHubSearchResponse> pending = new CompletableFuture<>();
+    GitHubSearchResponse response = new GitHubSearchResponse(false, testRepositories);
+    when(gitHubSearchService.searchRepositories(any())).thenReturn(Mono.fromFuture(pending));
+    when(gitHubRepositoryService.getFilteredRepositories(null, null, "stars"))
+        .thenReturn(testRepositories);
+    String body =
+        objectMapper.writeValueAsString(
+            new GithubSearchRequest("spring", null, Sort.STARS, Order.DESC, 1, 10));
+
+    try {
+      MvcResult slowSearch =
+          mockMvc
+              .perform(
+                  post("/api/github/search/repositories")
+                      .contentType(MediaType.APPLICATION_JSON)
+                      .content(body))
+              .andExpect(request().asyncStarted())
+              .andReturn();
+
+      // Act & Assert: searches are shed, reads run on their own lane
+      mockMvc
+          .perform(
+              post("/api/github/search/repositories")
+                  .contentType(MediaType.APPLICATION_JSON)
+                  .content(body))
+          .andExpect(status().isServiceUnavailable())
+          .andExpect(header().string("Retry-After", "1"))
+          .andExpect(jsonPath("$.error").value("SERVICE_OVERLOADED"));
+      mockMvc
+          .perform(get("/api/github/repositories"))
+          .andExpect(status().isOk())
+          .andExpect(jsonPath("$.length()").value(5));
+
+      pending.complete(response);
+      mockMvc.perform(asyncDispatch(slowSearch)).andExpect(status().isOk());
+    } finally {
+      pending.complete(response);
+    }
+  }
+
   private GitHubRepository createTestRepository(
       Long id, String name, String language, int stars, int forks) {
     return new GitHubRepository(
@@ -0,0 +1,102 @@
+package com.ajinz.githubsearch.dto.github;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class GitHubSearchQueryTest {
+
+  @Test
+  void compile_WithOnlyLanguage_ShouldAppendLanguageQualifier() {
+    GithubSearchRequest request = new GithubSearchRequest("spring boot", "Java", null, null, 1, 10);
+
+    assertEquals("spring boot language:java", GitHubSearchQuery.compile(request));
+  }
+
+  @Test
+  void compile_WithTypedQualifiers_ShouldEmitThemInCanonicalOrder() {
+    GithubSearchRequest request =
+        request(
+            "spring  boot", "java", 1000, LocalDate.of(2024, 1, 1), List.of("Web", "api"), false);
+
+    assertEquals(
+        "spring boot archived:false language:java pushed:>2024-01-01 stars:>=1000 topic:api"
+            + " topic:web",
+        GitHubSearchQuery.compile(request));
+  }
+
+  @Test
+  void compile_WithQualifiersInText_ShouldNormalizeLikeTypedOnes() {
+    GithubSearchRequest typed = request("spring", "Java", null, null, List.of("web"), null);
+    GithubSearchRequest written =
+        request(" topic:WEB spring LANGUAGE:java ", null, null, null, null, null);
+
+    assertEquals(GitHubSearchQuery.compile(typed), GitHubSearchQuery.compile(written));
+    assertEquals(GitHubSearchQuery.cacheKey(typed), GitHubSearchQuery.cacheKey(written));
+  }
+
+  @Test
+  void compile_ShouldKeepQuotedPhrasesAndQuoteLanguagesWithSpaces() {
+    GithubSearchRequest request =
+        request("\"machine  learning\" notebook", "Jupyter Notebook", null, null, null, null);
+
+    assertEquals(
+        "\"machine  learning\" notebook language:\"jupyter notebook\"",
+        GitHubSearchQuery.compile(request));
+  }
+
+  @Test
+  void compile_WithUnknownNamesBeforeColons_ShouldKeepThemAsTermsInPlace() {
+    GithubSearchRequest request =
+        request("see https://github.com/spring note:todo boot", "Java", null, null, null, null);
+
+    assertEquals(
+        "see https://github.com/spring note:todo boot language:java",
+        GitHubSearchQuery.compile(request));
+  }
+
+  @Test
+  void compile_WithBooleanOperators_ShouldKeepWrittenQualifiersInTheirOperands() {
+    GithubSearchRequest request =
+        request("spring OR NOT  language:kotlin stars:>10", "Java", null, null, null, null);
+
+    assertEquals(
+        "spring OR NOT language:kotlin stars:>10 language:java",
+        GitHubSearchQuery.compile(request));
+  }
+
+  @Test
+  void compile_WithQuotesInTypedValues_ShouldEscapeThem() {
+    GithubSearchRequest request = request("spring", "say \"hi\"", null, null, null, null);
+
+    assertEquals("spring language:\"say \\\"hi\\\"\"", GitHubSearchQuery.compile(request));
+  }
+
+  @Test
+  void compile_WithEscapedQuoteInPhrase_ShouldKeepThePhraseOneTerm() {
+    GithubSearchRequest request = request("\"say \\\" hi\" boot", null, null, null, null, null);
+
+    assertEquals("\"say \\\" hi\" boot", GitHubSearchQuery.compile(request));
+  }
+
+  @Test
+  void cacheKey_ShouldDifferByPage() {
+    GithubSearchRequest first = new GithubSearchRequest("spring", null, null, null, 1, 10);
+    GithubSearchRequest second = new GithubSearchRequest("spring", null, null, null, 2, 10);
+
+    assertNotEquals(GitHubSearchQuery.cacheKey(first), GitHubSearchQuery.cacheKey(second));
+  }
+
+  private static GithubSearchRequest request(
+      String query,
+      String language,
+      Integer minStars,
+      LocalDate pushedAfter,
+      List<String> topics,
+      Boolean archived) {
+    return new GithubSearchRequest(
+        query, language, null, null, null, null, minStars, pushedAfter, topics, archived);
+  }
+}
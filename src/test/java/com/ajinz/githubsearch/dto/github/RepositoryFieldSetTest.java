@@ -0,0 +1,53 @@
+package com.ajinz.githubsearch.dto.github;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class RepositoryFieldSetTest {
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+
+  @Test
+  void parse_ShouldReturnSameInstanceRegardlessOfOrderAndWhitespace() {
+    RepositoryFieldSet first = RepositoryFieldSet.parse("name,owner,stargazers_count");
+    RepositoryFieldSet second = RepositoryFieldSet.parse(" stargazers_count , name,owner");
+
+    assertSame(first, second);
+    assertArrayEquals(
+        new RepositoryField[] {RepositoryField.NAME, RepositoryField.OWNER, RepositoryField.STARS},
+        first.fields());
+    assertEquals("r.repoName, r.ownerName, r.starsCount", first.selectClause());
+  }
+
+  @Test
+  void parse_WithUnknownField_ShouldThrow() {
+    InvalidRequestException ex =
+        assertThrows(
+            InvalidRequestException.class, () -> RepositoryFieldSet.parse("name,secret"));
+    assertTrue(ex.getMessage().contains("secret"));
+  }
+
+  @Test
+  void parse_WithNoFields_ShouldThrow() {
+    assertThrows(InvalidRequestException.class, () -> RepositoryFieldSet.parse(" , "));
+  }
+
+  @Test
+  void projection_ShouldSerializeOnlyRequestedFields() throws Exception {
+    RepositoryFieldSet fields = RepositoryFieldSet.parse("name,owner,stargazers_count,full_url");
+    GitHubRepository repository =
+        new GitHubRepository(
+            1L, "spring-boot", "spring-projects", "desc", "Java", 45000, 100, null);
+
+    String json =
+        objectMapper.writeValueAsString(RepositoryProjection.of(fields, List.of(repository)));
+
+    assertEquals(
+        "[{\"name\":\"spring-boot\",\"owner\":\"spring-projects\",\"stargazers_count\":45000,"
+            + "\"full_url\":\"https://github.com/spring-projects/spring-boot\"}]",
+        json);
+  }
+}
@@ -0,0 +1,191 @@
+package com.ajinz.githubsearch.health;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.ajinz.githubsearch.concurrency.AdaptiveConcurrencyLimiter;
+import com.ajinz.githubsearch.concurrency.Bulkheads;
+import com.ajinz.githubsearch.concurrency.ConcurrencyLimitFilter;
+import com.ajinz.githubsearch.dto.github.ReadinessReport.Check;
+import com.ajinz.githubsearch.service.GitHubRateBudget;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.http.HttpHeaders;
+
+class SaturationHealthIndicatorTest {
+
+  private final CountDownLatch release = new CountDownLatch(1);
+  private SimpleMeterRegistry meterRegistry;
+  private Bulkheads bulkheads;
+  private ConcurrencyLimitFilter concurrencyLimitFilter;
+  private GitHubRateBudget rateBudget;
+
+  @BeforeEach
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    // search: 1 thread + 1 queued, ingest: 1 + 1, reads: 1 + 1
+    bulkheads = new Bulkheads(meterRegistry, 1, 1, 1, 1, 1, 1);
+    // Search limit pinned to a single permit
+    concurrencyLimitFilter =
+        new ConcurrencyLimitFilter(
+            meterRegistry,
+            new ObjectMapper(),
+            true,
+            1.5,
+            1,
+            1,
+            1,
+            32,
+            4,
+            72);
+    rateBudget = new GitHubRateBudget(10, Duration.ofSeconds(60), Duration.ofMinutes(2));
+  }
+
+  @AfterEach
+  void tearDown() {
+    release.countDown();
+    bulkheads.destroy();
+  }
+
+  @Test
+  void health_WhenIdle_ShouldBeUpWithEveryCheckAndDetail() {
+    // Act
+    SaturationHealthIndicator indicator = indicator(Duration.ZERO);
+    Health health = indicator.health();
+
+    // Assert
+    assertEquals(Status.UP, health.getStatus());
+    assertEquals(
+        Set.of("database-pool-wait-ms", "bulkhead-search", "bulkhead-reads"),
+        checks(indicator).keySet());
+    assertEquals(
+        Set.of(
+            "database-pool-wait-ms",
+            "bulkhead-search",
+            "bulkhead-reads",
+            "concurrency-limit-search-in-flight",
+            "concurrency-limit-search-limit",
+            "concurrency-limit-repositories-in-flight",
+            "concurrency-limit-repositories-limit",
+            "github-rate-limit-wait-ms"),
+        health.getDetails().keySet());
+  }
+
+  @Test
+  void health_WhenSearchLaneIsFull_ShouldBeOutOfService() throws Exception {
+    // Arrange: occupy the search thread and its queue slot
+    CountDownLatch started = new CountDownLatch(1);
+    bulkheads.search().execute(() -> blockUntilReleased(started));
+    bulkheads.search().execute(() -> blockUntilReleased(started));
+    assertTrue(started.await(5, TimeUnit.SECONDS));
+
+    // Act
+    SaturationHealthIndicator indicator = indicator(Duration.ZERO);
+
+    // Assert
+    assertEquals(Status.OUT_OF_SERVICE, indicator.health().getStatus());
+    assertTrue(checks(indicator).get("bulkhead-search").saturated());
+    assertFalse(checks(indicator).get("bulkhead-reads").saturated());
+  }
+
+  @Test
+  void health_WhenConcurrencyLimitIsReached_ShouldReportItButStayUp() {
+    // Arrange
+    AdaptiveConcurrencyLimiter search = concurrencyLimitFilter.limiters().get(0);
+    assertTrue(search.tryAcquire());
+
+    // Act
+    SaturationHealthIndicator indicator = indicator(Duration.ZERO);
+
+    // Assert
+    assertEquals(Status.UP, indicator.health().getStatus());
+    assertEquals(1, indicator.details().get("concurrency-limit-search-in-flight"));
+    assertEquals(1, indicator.details().get("concurrency-limit-search-limit"));
+  }
+
+  @Test
+  void health_WhenPoolWaitIsTooLong_ShouldBeOutOfService() {
+    // Arrange
+    Timer.builder("hikaricp.connections.acquire")
+        .tag("pool", "test")
+        .register(meterRegistry)
+        .record(2, TimeUnit.SECONDS);
+
+    // Act
+    Check check = checks(indicator(Duration.ZERO)).get("database-pool-wait-ms");
+
+    // Assert
+    assertTrue(check.saturated());
+    assertEquals(2000.0, check.value());
+  }
+
+  @Test
+  void health_WhenGitHubReportsSearchLimitSpent_ShouldReportTheWaitButStayUp() {
+    // Arrange
+    HttpHeaders headers = new HttpHeaders();
+    headers.add("X-RateLimit-Resource", "search");
+    headers.add("X-RateLimit-Remaining", "0");
+    headers.add("X-RateLimit-Reset", String.valueOf(System.currentTimeMillis() / 1000 + 60));
+    rateBudget.recordResponseHeaders(headers);
+
+    // Act
+    SaturationHealthIndicator indicator = indicator(Duration.ZERO);
+
+    // Assert
+    assertEquals(Status.UP, indicator.health().getStatus());
+    assertTrue(indicator.details().get("github-rate-limit-wait-ms").longValue() > 30_000);
+  }
+
+  @Test
+  void health_WithinRefreshInterval_ShouldAnswerFromTheCachedChecks() {
+    // Arrange
+    SaturationHealthIndicator indicator = indicator(Duration.ofHours(1));
+    assertEquals(Status.UP, indicator.health().getStatus());
+
+    // Act: saturate after the first probe
+    Timer.builder("hikaricp.connections.acquire")
+        .tag("pool", "test")
+        .register(meterRegistry)
+        .record(2, TimeUnit.SECONDS);
+
+    // Assert
+    assertEquals(Status.UP, indicator.health().getStatus());
+    assertEquals(Status.OUT_OF_SERVICE, indicator(Duration.ZERO).health().getStatus());
+  }
+
+  private SaturationHealthIndicator indicator(Duration refreshInterval) {
+    return new SaturationHealthIndicator(
+        bulkheads,
+        concurrencyLimitFilter,
+        rateBudget,
+        meterRegistry,
+        0.9,
+        Duration.ofMillis(500),
+        refreshInterval);
+  }
+
+  private static Map<String, Check> checks(SaturationHealthIndicator indicator) {
+    return indicator.checks().stream().collect(Collectors.toMap(Check::name, Function.identity()));
+  }
+
+  private void blockUntilReleased(CountDownLatch started) {
+    started.countDown();
+    try {
+      release.await();
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -0,0 +1,239 @@
+package com.ajinz.githubsearch.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import com.ajinz.githubsearch.concurrency.Bulkheads;
+import com.ajinz.githubsearch.dto.github.BatchSearchRequest;
+import com.ajinz.githubsearch.dto.github.BatchSearchResult;
+import com.ajinz.githubsearch.dto.github.GitHubRepository;
+import com.ajinz.githubsearch.dto.github.GitHubSearchResponse;
+import com.ajinz.githubsearch.dto.github.GithubSearchRequest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+@ExtendWith(MockitoExtension.class)
+class BatchSearchServiceTest {
+
+  @Mock private GitHubSearchService gitHubSearchService;
+  @Mock private GitHubRepositoryService gitHubRepositoryService;
+
+  // The default budget: 10 searches a minute, single searches wait up to 15 seconds
+  private final GitHubRateBudget rateBudget =
+      new GitHubRateBudget(10, Duration.ofSeconds(15), Duration.ofSeconds(30));
+
+  private BatchSearchService batchSearchService;
+
+  @BeforeEach
+  void setUp() {
+    batchSearchService =
+        new BatchSearchService(
+            gitHubSearchService,
+            gitHubRepositoryService,
+            new Bulkheads(new SimpleMeterRegistry(), 16, 64, 2, 256, 8, 64),
+            rateBudget,
+            4,
+            Duration.ofSeconds(30));
+  }
+
+  @Test
+  void search_WhenSearchLaneIsFull_ShouldFailOnlyTheQueriesOverIt() {
+    // Arrange: a lane with a single slot, held by the first search until it completes
+    BatchSearchService oneSlot =
+        new BatchSearchService(
+            gitHubSearchService,
+            gitHubRepositoryService,
+            new Bulkheads(new SimpleMeterRegistry(), 1, 0, 1, 1, 1, 1),
+            rateBudget,
+            4,
+            Duration.ofSeconds(30));
+    GithubSearchRequest slow = request("slow");
+    GithubSearchRequest shed = request("shed");
+    CompletableFuture<GitHubSearchResponse> pending = new CompletableFuture<>();
+    when(gitHubSearchService.fetchRepositories(eq(slow), anyLong()))
+        .thenReturn(Mono.fromFuture(pending));
+    when(gitHubSearchService.fetchRepositories(eq(shed), anyLong()))
+        .thenReturn(Mono.just(response()));
+
+    // Act & Assert
+    StepVerifier.create(oneSlot.search(List.of(slow, shed)))
+        .assertNext(
+            result -> {
+              assertEquals(shed, result.request());
+              assertEquals("Bulkhead search is full", result.error());
+            })
+        .then(() -> pending.complete(response()))
+        .assertNext(result -> assertEquals(slow, result.request()))
+        .verifyComplete();
+  }
+
+  @Test
+  void search_WithDuplicateQueries_ShouldRunEachDistinctQueryOnce() {
+    // Arrange
+    GithubSearchRequest spring = request("spring");
+    GithubSearchRequest quarkus = request("quarkus");
+    when(gitHubSearchService.fetchRepositories(eq(spring), anyLong()))
+        .thenReturn(Mono.just(response(repository(1L))));
+    when(gitHubSearchService.fetchRepositories(eq(quarkus), anyLong()))
+        .thenReturn(Mono.just(response(repository(2L))));
+    when(gitHubRepositoryService.persistGitHubRepositories(any())).thenReturn(Mono.empty());
+
+    // Act & Assert
+    StepVerifier.create(batchSearchService.search(List.of(spring, quarkus, request("spring"))))
+        .expectNextCount(2)
+        .verifyComplete();
+
+    verify(gitHubSearchService, times(1)).fetchRepositories(eq(spring), anyLong());
+    verify(gitHubSearchService, times(1)).fetchRepositories(eq(quarkus), anyLong());
+  }
+
+  @Test
+  void search_WithEquivalentQualifiers_ShouldSendOneQuery() {
+    // Arrange
+    GithubSearchRequest typed =
+        new GithubSearchRequest(
+            "spring", "Java", null, null, null, null, 100, null, List.of("web"), null);
+    GithubSearchRequest written =
+        new GithubSearchRequest("topic:web stars:>=100 spring", "java", null, null, null, null);
+    when(gitHubSearchService.fetchRepositories(eq(typed), anyLong()))
+        .thenReturn(Mono.just(response()));
+
+    // Act & Assert
+    StepVerifier.create(batchSearchService.search(List.of(typed, written)))
+        .expectNextCount(1)
+        .verifyComplete();
+
+    verify(gitHubSearchService, never()).fetchRepositories(eq(written), anyLong());
+  }
+
+  @Test
+  void search_ShouldStoreAllFoundRepositoriesInOneWrite() {
+    // Arrange
+    GithubSearchRequest spring = request("spring");
+    GithubSearchRequest boot = request("boot");
+    when(gitHubSearchService.fetchRepositories(eq(spring), anyLong()))
+        .thenReturn(Mono.just(response(repository(1L), repository(2L))));
+    when(gitHubSearchService.fetchRepositories(eq(boot), anyLong()))
+        .thenReturn(Mono.just(response(repository(2L), repository(3L))));
+    when(gitHubRepositoryService.persistGitHubRepositories(any())).thenReturn(Mono.empty());
+
+    // Act
+    StepVerifier.create(batchSearchService.search(List.of(spring, boot)))
+        .expectNextCount(2)
+        .verifyComplete();
+
+    // Assert
+    @SuppressWarnings("unchecked")
+    ArgumentCaptor<List<GitHubRepository>> stored = ArgumentCaptor.forClass(List.class);
+    verify(gitHubRepositoryService, times(1)).persistGitHubRepositories(stored.capture());
+    assertEquals(
+        List.of(1L, 2L, 3L),
+        stored.getValue().stream().map(GitHubRepository::getGithubRepoId).sorted().toList());
+  }
+
+  @Test
+  void search_WhenOneQueryFails_ShouldReportItAndStillStoreTheOthers() {
+    // Arrange
+    GithubSearchRequest failing = request("failing");
+    GithubSearchRequest working = request("working");
+    when(gitHubSearchService.fetchRepositories(eq(failing), anyLong()))
+        .thenReturn(Mono.error(new RuntimeException("Failed to search repositories: 422")));
+    when(gitHubSearchService.fetchRepositories(eq(working), anyLong()))
+        .thenReturn(Mono.just(response(repository(7L))));
+    when(gitHubRepositoryService.persistGitHubRepositories(any())).thenReturn(Mono.empty());
+
+    // Act
+    List<BatchSearchResult> results =
+        batchSearchService.search(List.of(failing, working)).collectList().block();
+
+    // Assert
+    assertNotNull(results);
+    BatchSearchResult failed =
+        results.stream().filter(r -> r.request().equals(failing)).findFirst().orElseThrow();
+    assertNull(failed.response());
+    assertEquals("Failed to search repositories: 422", failed.error());
+    verify(gitHubRepositoryService)
+        .persistGitHubRepositories(
+            argThat(stored -> stored.size() == 1 && stored.get(0).getGithubRepoId() == 7L));
+  }
+
+  @Test
+  void search_WithIncompleteOrEmptyResults_ShouldNotWriteAnything() {
+    // Arrange
+    GithubSearchRequest incomplete = request("incomplete");
+    when(gitHubSearchService.fetchRepositories(eq(incomplete), anyLong()))
+        .thenReturn(Mono.just(new GitHubSearchResponse(true, List.of(repository(1L)))));
+
+    // Act & Assert
+    StepVerifier.create(batchSearchService.search(List.of(incomplete)))
+        .expectNextMatches(result -> result.response().incompleteResults())
+        .verifyComplete();
+
+    verify(gitHubRepositoryService, never()).persistGitHubRepositories(any());
+  }
+
+  @Test
+  void search_WithMoreQueriesThanTheBudgetHolds_ShouldQueueEveryQueryForAToken() {
+    // Arrange: searches take their token from the real budget, which holds 10 of the 50 queries.
+    // All of them run at once, so every reservation is made before virtual time moves.
+    BatchSearchService wide =
+        new BatchSearchService(
+            gitHubSearchService,
+            gitHubRepositoryService,
+            new Bulkheads(new SimpleMeterRegistry(), 16, 64, 2, 256, 8, 64),
+            rateBudget,
+            BatchSearchRequest.MAX_QUERIES,
+            Duration.ofSeconds(30));
+    when(gitHubSearchService.fetchRepositories(any(), anyLong()))
+        .thenAnswer(
+            invocation ->
+                rateBudget
+                    .acquireBefore(invocation.getArgument(1, Long.class))
+                    .thenReturn(response()));
+    List<GithubSearchRequest> queries =
+        IntStream.range(0, BatchSearchRequest.MAX_QUERIES)
+            .mapToObj(i -> request("query-" + i))
+            .toList();
+
+    // Act & Assert: the other 40 wait for refills 6 seconds apart, up to 4 minutes, not failing
+    StepVerifier.withVirtualTime(() -> wide.search(queries))
+        .recordWith(ArrayList::new)
+        .thenAwait(Duration.ofMinutes(5))
+        .expectNextCount(BatchSearchRequest.MAX_QUERIES)
+        .consumeRecordedWith(
+            results -> assertTrue(results.stream().allMatch(result -> result.error() == null)))
+        .verifyComplete();
+    assertTrue(
+        wide.timeout(BatchSearchRequest.MAX_QUERIES)
+                .compareTo(Duration.ofMinutes(4).plusSeconds(30))
+            > 0);
+  }
+
+  private static GithubSearchRequest request(String query) {
+    return new GithubSearchRequest(query, null, null, null, null, null);
+  }
+
+  private static GitHubSearchResponse response(GitHubRepository... repositories) {
+    return new GitHubSearchResponse(false, List.of(repositories));
+  }
+
+  private static GitHubRepository repository(Long githubRepoId) {
+    return new GitHubRepository(githubRepoId, "repo-" + githubRepoId, "owner");
+  }
+}
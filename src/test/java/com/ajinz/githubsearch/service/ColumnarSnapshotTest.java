@@ -0,0 +1,186 @@
+package com.ajinz.githubsearch.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.ajinz.githubsearch.dto.github.GitHubRepository;
+import com.ajinz.githubsearch.service.ColumnarSnapshot.SortKey;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class ColumnarSnapshotTest {
+
+  private static final LocalDateTime NOW = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+  @Test
+  void query_ShouldFilterAndSortLikeTheDatabaseQuery() {
+    // Arrange
+    ColumnarSnapshot snapshot =
+        ColumnarSnapshot.of(
+            List.of(
+                repository(1L, "spring-boot", "Java", 70000, 40000, NOW.minusDays(3)),
+                repository(2L, "django", "Python", 80000, 30000, NOW.minusDays(1)),
+                repository(3L, "hibernate", "Java", 6000, 50000, NOW.minusDays(2)),
+                repository(4L, "flask", "Python", 65000, 16000, null)));
+
+    // Act & Assert
+    assertEquals(List.of(2L, 1L, 4L, 3L), ids(snapshot.query(null, null, SortKey.STARS, 10)));
+    assertEquals(List.of(1L, 3L), ids(snapshot.query("Java", null, SortKey.STARS, 10)));
+    assertEquals(List.of(2L, 4L), ids(snapshot.query("Python", 10000, SortKey.STARS, 10)));
+    assertEquals(List.of(3L, 1L, 2L, 4L), ids(snapshot.query(null, null, SortKey.FORKS, 10)));
+    // Missing update time sorts first, as NULL does in a PostgreSQL DESC order
+    assertEquals(List.of(4L, 2L, 3L, 1L), ids(snapshot.query(null, null, SortKey.UPDATED, 10)));
+    assertEquals(List.of(2L, 4L, 3L, 1L), ids(snapshot.query(null, null, SortKey.NAME, 10)));
+    assertEquals(List.of(2L, 1L), ids(snapshot.query(null, null, SortKey.STARS, 2)));
+    assertEquals(List.of(), snapshot.query("Rust", null, SortKey.STARS, 10));
+    assertEquals(List.of(), snapshot.query(null, 100000, SortKey.STARS, 10));
+  }
+
+  @Test
+  void query_ByScore_ShouldOrderByStoredScoreThenStars() {
+    // Arrange
+    ColumnarSnapshot snapshot =
+        ColumnarSnapshot.of(
+            List.of(
+                repository(1L, "a", "Java", 10, 1, NOW).withScore(2.5),
+                repository(2L, "b", "Java", 30, 1, NOW).withScore(4.0),
+                repository(3L, "c", "Go", 20, 1, NOW).withScore(2.5)));
+
+    // Act & Assert
+    assertEquals(List.of(2L, 3L, 1L), ids(snapshot.query(null, null, SortKey.SCORE, 10)));
+    assertEquals(SortKey.SCORE, SortKey.of("score"));
+  }
+
+  @Test
+  void withScores_ShouldReorderByTheNewScoresAndLeaveThePreviousSnapshotAlone() {
+    // Arrange
+    ColumnarSnapshot snapshot =
+        ColumnarSnapshot.of(
+            List.of(
+                repository(1L, "a", "Java", 10, 1, NOW).withScore(1.0),
+                repository(2L, "b", "Java", 30, 1, NOW).withScore(3.0),
+                repository(3L, "c", "Go", 20, 1, NOW).withScore(2.0)));
+
+    // Act
+    ColumnarSnapshot rescored = snapshot.withScores(Map.of(1L, 4.0, 99L, 9.0));
+
+    // Assert
+    assertEquals(List.of(1L, 2L, 3L), ids(rescored.query(null, null, SortKey.SCORE, 10)));
+    assertEquals(List.of(2L, 3L, 1L), ids(rescored.query(null, null, SortKey.STARS, 10)));
+    assertEquals(List.of(2L, 3L, 1L), ids(snapshot.query(null, null, SortKey.SCORE, 10)));
+    assertSame(snapshot, snapshot.withScores(Map.of(99L, 9.0)));
+  }
+
+  @Test
+  void append_ShouldMergeNewRowsIntoEveryOrder() {
+    // Arrange
+    ColumnarSnapshot original =
+        ColumnarSnapshot.of(
+            List.of(
+                repository(1L, "b", "Java", 10, 1, NOW),
+                repository(2L, "d", "Java", 30, 3, NOW)));
+
+    // Act: one duplicate of a loaded row and one repository in a new language
+    ColumnarSnapshot appended =
+        original.append(
+            List.of(
+                repository(2L, "d", "Java", 30, 3, NOW),
+                repository(3L, "a", "Rust", 20, 5, NOW),
+                repository(4L, "c", "Java", 40, 2, NOW)));
+
+    // Assert
+    assertEquals(4, appended.size());
+    assertEquals(List.of(4L, 2L, 3L, 1L), ids(appended.query(null, null, SortKey.STARS, 10)));
+    assertEquals(List.of(3L, 2L, 4L, 1L), ids(appended.query(null, null, SortKey.FORKS, 10)));
+    assertEquals(List.of(3L, 1L, 4L, 2L), ids(appended.query(null, null, SortKey.NAME, 10)));
+    assertEquals(List.of(3L), ids(appended.query("Rust", null, SortKey.STARS, 10)));
+    // The previous snapshot is unchanged
+    assertEquals(List.of(2L, 1L), ids(original.query(null, null, SortKey.STARS, 10)));
+  }
+
+  @Test
+  void without_ShouldDropTheRowsFromEveryOrderAndKeepAppending() {
+    // Arrange: loaded rows plus an appended one
+    ColumnarSnapshot original =
+        ColumnarSnapshot.of(
+                List.of(
+                    repository(1L, "b", "Java", 10, 4, NOW).withScore(1.0),
+                    repository(2L, "d", "Java", 30, 3, NOW).withScore(2.0),
+                    repository(3L, "a", "Rust", 20, 2, NOW).withScore(3.0)))
+            .append(List.of(repository(4L, "c", "Go", 40, 1, NOW)));
+
+    // Act
+    ColumnarSnapshot remaining = original.without(List.of(2L, 4L, 99L));
+
+    // Assert
+    assertEquals(2, remaining.size());
+    assertEquals(List.of(3L, 1L), ids(remaining.query(null, null, SortKey.STARS, 10)));
+    assertEquals(List.of(1L, 3L), ids(remaining.query(null, null, SortKey.FORKS, 10)));
+    assertEquals(List.of(3L, 1L), ids(remaining.query(null, null, SortKey.NAME, 10)));
+    assertEquals(List.of(3L, 1L), ids(remaining.query(null, null, SortKey.SCORE, 10)));
+    assertEquals(List.of(), ids(remaining.query("Go", null, SortKey.STARS, 10)));
+    assertEquals(4, original.size());
+    assertSame(remaining, remaining.without(List.of(99L)));
+    // Removed ids are no longer seen as present, and later rows still merge in
+    ColumnarSnapshot appended =
+        remaining.append(
+            List.of(
+                repository(1L, "b", "Java", 10, 4, NOW),
+                repository(2L, "d", "Java", 30, 3, NOW),
+                repository(5L, "e", "Go", 15, 9, NOW)));
+    assertEquals(List.of(2L, 3L, 5L, 1L), ids(appended.query(null, null, SortKey.STARS, 10)));
+  }
+
+  @Test
+  void query_ShouldMatchSequentialResultAcrossParallelChunks() {
+    // Arrange: enough rows for several chunks, with many equal star counts
+    Random random = new Random(42);
+    List<GitHubRepository> repositories = new ArrayList<>();
+    for (long id = 1; id <= ColumnarSnapshot.CHUNK_SIZE * 3L + 17; id++) {
+      repositories.add(
+          repository(
+              id,
+              "repo-" + random.nextInt(5000),
+              random.nextBoolean() ? "Java" : "Go",
+              random.nextInt(1000),
+              random.nextInt(1000),
+              NOW.minusHours(random.nextInt(10000))));
+    }
+    ColumnarSnapshot snapshot = ColumnarSnapshot.of(repositories);
+
+    // Act
+    List<GitHubRepository> result = snapshot.query("Java", 500, SortKey.FORKS, Integer.MAX_VALUE);
+    List<GitHubRepository> top = snapshot.query("Java", 500, SortKey.FORKS, 100);
+
+    // Assert
+    List<GitHubRepository> expected =
+        repositories.stream()
+            .filter(r -> r.getProgrammingLanguage().equals("Java") && r.getStarsCount() >= 500)
+            .sorted(
+                Comparator.comparing(GitHubRepository::getForksCount)
+                    .thenComparing(GitHubRepository::getStarsCount)
+                    .reversed()
+                    .thenComparing(GitHubRepository::getDatabaseId))
+            .toList();
+    assertEquals(ids(expected), ids(result));
+    assertEquals(ids(expected.subList(0, 100)), ids(top));
+  }
+
+  private static List<Long> ids(List<GitHubRepository> repositories) {
+    return repositories.stream().map(GitHubRepository::getDatabaseId).toList();
+  }
+
+  private static GitHubRepository repository(
+      Long id, String name, String language, int stars, int forks, LocalDateTime updated) {
+    GitHubRepository repository =
+        new GitHubRepository(id, name, "owner", "description", language, stars, forks, updated);
+    // Stored rows carry their database id, which the snapshot uses for de-duplication
+    ReflectionTestUtils.setField(repository, "id", id);
+    return repository;
+  }
+}
@@ -0,0 +1,28 @@
+package com.ajinz.githubsearch.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class CounterUpsertTest {
+
+  private static final String SOURCE = "VALUES (?, ?)";
+
+  @Test
+  void add_OnPostgres_ShouldIncrementOnConflict() {
+    assertEquals(
+        "INSERT INTO stats AS t (name, total) VALUES (?, ?) ON CONFLICT (name) "
+            + "DO UPDATE SET total = t.total + EXCLUDED.total",
+        CounterUpsert.add(true, "stats", List.of("name"), List.of("total"), SOURCE));
+  }
+
+  @Test
+  void replace_OnOtherDatabases_ShouldMergeOnlyChangedRows() {
+    assertEquals(
+        "MERGE INTO stats AS t USING (VALUES (?, ?)) AS s (name, total) ON t.name = s.name "
+            + "WHEN MATCHED AND (t.total <> s.total) THEN UPDATE SET total = s.total "
+            + "WHEN NOT MATCHED THEN INSERT (name, total) VALUES (s.name, s.total)",
+        CounterUpsert.replace(false, "stats", List.of("name"), List.of("total"), SOURCE));
+  }
+}
@@ -0,0 +1,130 @@
+package com.ajinz.githubsearch.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+
+class GitHubRateBudgetTest {
+
+  @Test
+  void reserve_WithinBudget_ShouldNotWait() {
+    GitHubRateBudget budget =
+        new GitHubRateBudget(3, Duration.ofSeconds(60), Duration.ofMinutes(2));
+
+    assertEquals(0, budget.reserve());
+    assertEquals(0, budget.reserve());
+    assertEquals(0, budget.reserve());
+  }
+
+  @Test
+  void reserve_WhenBudgetIsSpent_ShouldQueueCallsOneRefillApart() {
+    // Arrange: one token every 20 seconds
+    GitHubRateBudget budget =
+        new GitHubRateBudget(3, Duration.ofSeconds(60), Duration.ofMinutes(2));
+    for (int i = 0; i < 3; i++) {
+      budget.reserve();
+    }
+
+    // Act
+    long first = budget.reserve();
+    long second = budget.reserve();
+
+    // Assert
+    assertTrue(first > TimeUnit.SECONDS.toNanos(19), "waited " + first);
+    assertTrue(first <= TimeUnit.SECONDS.toNanos(20), "waited " + first);
+    assertTrue(second - first > TimeUnit.SECONDS.toNanos(19), "waited " + second);
+  }
+
+  @Test
+  void reserve_WhenWaitWouldExceedMaximum_ShouldFailWithoutTakingAToken() {
+    GitHubRateBudget budget =
+        new GitHubRateBudget(1, Duration.ofSeconds(30), Duration.ofMinutes(2));
+    budget.reserve();
+
+    RateBudgetExhaustedException ex =
+        assertThrows(RateBudgetExhaustedException.class, budget::reserve);
+    assertThrows(RateBudgetExhaustedException.class, budget::reserve);
+    // The next token is a minute away, so a retry in 30 seconds may wait for it
+    assertEquals(Duration.ofSeconds(30), ex.getRetryAfter());
+  }
+
+  @Test
+  void reserve_ShouldCapTheWaitAtHalfTheAsyncRequestTimeout() {
+    // Arrange: one token every 20 seconds, and a request times out after 30
+    GitHubRateBudget budget =
+        new GitHubRateBudget(3, Duration.ofSeconds(60), Duration.ofSeconds(30));
+    for (int i = 0; i < 3; i++) {
+      budget.reserve();
+    }
+
+    // Act & Assert: the next token is 20 seconds away, over the 15 seconds cap
+    assertThrows(RateBudgetExhaustedException.class, budget::reserve);
+  }
+
+  @Test
+  void reserve_WithinTheBatchWait_ShouldQueueABatchLargerThanTheBucket() {
+    // Arrange: the default budget, 10 tokens and one more every 6 seconds
+    GitHubRateBudget budget =
+        new GitHubRateBudget(10, Duration.ofSeconds(15), Duration.ofSeconds(30));
+    long batchWait = budget.batchWait(50).toNanos();
+
+    // Act
+    long lastWait = 0;
+    for (int i = 0; i < 50; i++) {
+      lastWait = budget.reserve(batchWait);
+    }
+
+    // Assert: the last of 40 queued calls waits about 4 minutes, and single calls are still capped
+    assertTrue(lastWait > TimeUnit.SECONDS.toNanos(239), "waited " + lastWait);
+    assertTrue(lastWait <= batchWait, "waited " + lastWait);
+    assertThrows(RateBudgetExhaustedException.class, budget::reserve);
+  }
+
+  @Test
+  void constructor_WithoutBudget_ShouldThrow() {
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> new GitHubRateBudget(0, Duration.ZERO, Duration.ZERO));
+  }
+
+  @Test
+  void currentWait_ShouldFollowLocalBudget() {
+    GitHubRateBudget budget =
+        new GitHubRateBudget(3, Duration.ofSeconds(60), Duration.ofMinutes(2));
+    assertEquals(Duration.ZERO, budget.currentWait());
+
+    for (int i = 0; i < 4; i++) {
+      budget.reserve();
+    }
+
+    // One reservation outstanding: the next call waits for two refills of 20 seconds
+    assertTrue(budget.currentWait().compareTo(Duration.ofSeconds(39)) > 0);
+  }
+
+  @Test
+  void currentWait_WhenGitHubReportsSearchLimitSpent_ShouldWaitForReset() {
+    GitHubRateBudget budget =
+        new GitHubRateBudget(3, Duration.ofSeconds(60), Duration.ofMinutes(2));
+    long reset = System.currentTimeMillis() / 1000 + 45;
+
+    budget.recordResponseHeaders(limitHeaders("core", 0, reset));
+    assertEquals(Duration.ZERO, budget.currentWait());
+
+    budget.recordResponseHeaders(limitHeaders("search", 0, reset));
+    assertTrue(budget.currentWait().compareTo(Duration.ofSeconds(40)) > 0);
+
+    budget.recordResponseHeaders(limitHeaders("search", 5, reset));
+    assertEquals(Duration.ZERO, budget.currentWait());
+  }
+
+  private static HttpHeaders limitHeaders(String resource, int remaining, long reset) {
+    HttpHeaders headers = new HttpHeaders();
+    headers.add("X-RateLimit-Resource", resource);
+    headers.add("X-RateLimit-Remaining", String.valueOf(remaining));
+    headers.add("X-RateLimit-Reset", String.valueOf(reset));
+    return headers;
+  }
+}
@@ -2,28 +2,62 @@ package com.ajinz.githubsearch.service;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 
+import com.ajinz.githubsearch.concurrency.Bulkheads;
 import com.ajinz.githubsearch.dto.github.GitHubRepository;
 import com.ajinz.githubsearch.repository.GitHubRepositoryRepository;
+import com.ajinz.githubsearch.repository.ReactiveGitHubRepositoryRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
-import java.util.Optional;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
 
 @ExtendWith(MockitoExtension.class)
 class GitHubRepositoryServiceTest {
 
   @Mock private GitHubRepositoryRepository gitHubRepositoryRepository;
 
+  @Mock private ReactiveGitHubRepositoryRepository reactiveGitHubRepositoryRepository;
+
+  @Mock private StarHistoryService starHistoryService;
+
+  @Mock private RepositoryAggregateService repositoryAggregateService;
+
+  @Mock private OwnerAggregateService ownerAggregateService;
+
+  @Mock private SuggestService suggestService;
+
+  @Mock private ColumnarRepositoryEngine columnarRepositoryEngine;
+
+  @Mock private SimilarRepositoryService similarRepositoryService;
+
+  @Mock private PlatformTransactionManager transactionManager;
+
+  @Spy
+  private RepositoryReadCache repositoryReadCache =
+      new RepositoryReadCache(new SimpleMeterRegistry(), true, 100);
+
+  @Spy
+  private Bulkheads bulkheads = new Bulkheads(new SimpleMeterRegistry(), 1, 1, 1, 1, 1, 1);
+
+  @Spy
+  private RepositoryScore repositoryScore = new RepositoryScore(1.0, 0.5, 1.0, Duration.ofDays(90));
+
   @InjectMocks private GitHubRepositoryService gitHubRepositoryService;
 
   private List<GitHubRepository> testRepositories;
@@ -41,149 +75,95 @@ class GitHubRepositoryServiceTest {
   }
 
   @Test
-  void shouldSaveAllRepositoriesWhenNoneExist() {
+  void shouldNotTouchIndexesOrAggregatesWhenAllExist() {
     // Given
     GitHubRepository repo1 = createGitHubRepository(1L, "repo1", "owner1");
     GitHubRepository repo2 = createGitHubRepository(2L, "repo2", "owner2");
     List<GitHubRepository> repositories = Arrays.asList(repo1, repo2);
-
-    when(gitHubRepositoryRepository.findByGithubRepoId(1L)).thenReturn(Optional.empty());
-    when(gitHubRepositoryRepository.findByGithubRepoId(2L)).thenReturn(Optional.empty());
+    when(reactiveGitHubRepositoryRepository.insertMissing(repositories)).thenReturn(Flux.empty());
 
     // When
-    gitHubRepositoryService.saveAllGitHubRepositories(repositories);
+    StepVerifier.create(gitHubRepositoryService.persistGitHubRepositories(repositories))
+        .verifyComplete();
 
     // Then
-    verify(gitHubRepositoryRepository).findByGithubRepoId(1L);
-    verify(gitHubRepositoryRepository).findByGithubRepoId(2L);
-    verify(gitHubRepositoryRepository).saveAll(repositories);
-  }
-
-  @Test
-  void shouldNotSaveRepositoriesWhenAllExist() {
-    // Given
-    GitHubRepository repo1 = createGitHubRepository(1L, "repo1", "owner1");
-    GitHubRepository repo2 = createGitHubRepository(2L, "repo2", "owner2");
-    List<GitHubRepository> repositories = Arrays.asList(repo1, repo2);
-
-    when(gitHubRepositoryRepository.findByGithubRepoId(1L)).thenReturn(Optional.of(repo1));
-    when(gitHubRepositoryRepository.findByGithubRepoId(2L)).thenReturn(Optional.of(repo2));
-
-    // When
-    gitHubRepositoryService.saveAllGitHubRepositories(repositories);
-
-    // Then
-    verify(gitHubRepositoryRepository).findByGithubRepoId(1L);
-    verify(gitHubRepositoryRepository).findByGithubRepoId(2L);
-    verify(gitHubRepositoryRepository).saveAll(Collections.emptyList());
-  }
-
-  @Test
-  void shouldSaveOnlyNewRepositoriesWhenSomeExist() {
-    // Given
-    GitHubRepository existingRepo = createGitHubRepository(1L, "existing-repo", "owner1");
-    GitHubRepository newRepo = createGitHubRepository(2L, "new-repo", "owner2");
-    List<GitHubRepository> repositories = Arrays.asList(existingRepo, newRepo);
-
-    when(gitHubRepositoryRepository.findByGithubRepoId(1L)).thenReturn(Optional.of(existingRepo));
-    when(gitHubRepositoryRepository.findByGithubRepoId(2L)).thenReturn(Optional.empty());
-
-    // When
-    gitHubRepositoryService.saveAllGitHubRepositories(repositories);
-
-    // Then
-    verify(gitHubRepositoryRepository).findByGithubRepoId(1L);
-    verify(gitHubRepositoryRepository).findByGithubRepoId(2L);
-    verify(gitHubRepositoryRepository).saveAll(Collections.singletonList(newRepo));
+    verify(starHistoryService).record(repositories);
+    verifyNoInteractions(
+        suggestService,
+        similarRepositoryService,
+        columnarRepositoryEngine,
+        repositoryAggregateService,
+        ownerAggregateService,
+        transactionManager);
   }
 
   @Test
   void shouldHandleEmptyRepositoryList() {
     // Given
     List<GitHubRepository> emptyList = Collections.emptyList();
+    when(reactiveGitHubRepositoryRepository.insertMissing(emptyList)).thenReturn(Flux.empty());
 
     // When
-    gitHubRepositoryService.saveAllGitHubRepositories(emptyList);
+    StepVerifier.create(gitHubRepositoryService.persistGitHubRepositories(emptyList))
+        .verifyComplete();
 
     // Then
-    verify(gitHubRepositoryRepository, never()).findByGithubRepoId(anyLong());
-    verify(gitHubRepositoryRepository).saveAll(emptyList);
+    verifyNoInteractions(gitHubRepositoryRepository, repositoryAggregateService);
   }
 
   @Test
-  void shouldHandleNullRepositoryId() {
+  void shouldDoNothingUntilSubscribed() {
     // Given
-    GitHubRepository repoWithNullId = createGitHubRepository(null, "repo", "owner");
-    List<GitHubRepository> repositories = Collections.singletonList(repoWithNullId);
-
-    when(gitHubRepositoryRepository.findByGithubRepoId(null)).thenReturn(Optional.empty());
+    GitHubRepository repo = createGitHubRepository(1L, "repo", "owner");
 
     // When
-    gitHubRepositoryService.saveAllGitHubRepositories(repositories);
+    gitHubRepositoryService.persistGitHubRepositories(List.of(repo));
 
     // Then
-    verify(gitHubRepositoryRepository).findByGithubRepoId(null);
-    verify(gitHubRepositoryRepository).saveAll(repositories);
-  }
-
-  @Test
-  void shouldHandleRepositoryRepositoryException() {
-    // Given
-    GitHubRepository repo = createGitHubRepository(1L, "repo", "owner");
-    List<GitHubRepository> repositories = Collections.singletonList(repo);
-
-    when(gitHubRepositoryRepository.findByGithubRepoId(1L))
-        .thenThrow(new RuntimeException("Database error"));
-
-    // When & Then
-    assertThrows(
-        RuntimeException.class,
-        () -> gitHubRepositoryService.saveAllGitHubRepositories(repositories));
-
-    verify(gitHubRepositoryRepository).findByGithubRepoId(1L);
-    verify(gitHubRepositoryRepository, never()).saveAll(any());
+    verifyNoInteractions(starHistoryService, reactiveGitHubRepositoryRepository);
   }
 
   @Test
-  void shouldHandleSaveAllException() {
+  void shouldPropagateInsertFailureWithoutUpdatingIndexes() {
     // Given
     GitHubRepository repo = createGitHubRepository(1L, "repo", "owner");
     List<GitHubRepository> repositories = Collections.singletonList(repo);
-
-    when(gitHubRepositoryRepository.findByGithubRepoId(1L)).thenReturn(Optional.empty());
-    when(gitHubRepositoryRepository.saveAll(any())).thenThrow(new RuntimeException("Save error"));
+    when(reactiveGitHubRepositoryRepository.insertMissing(repositories))
+        .thenReturn(Flux.error(new RuntimeException("Database error")));
 
     // When & Then
-    assertThrows(
-        RuntimeException.class,
-        () -> gitHubRepositoryService.saveAllGitHubRepositories(repositories));
-
-    verify(gitHubRepositoryRepository).findByGithubRepoId(1L);
-    verify(gitHubRepositoryRepository).saveAll(repositories);
+    StepVerifier.create(gitHubRepositoryService.persistGitHubRepositories(repositories))
+        .verifyErrorMessage("Database error");
+
+    verifyNoInteractions(
+        suggestService,
+        similarRepositoryService,
+        columnarRepositoryEngine,
+        repositoryAggregateService,
+        ownerAggregateService);
   }
 
   @Test
-  void shouldFilterCorrectlyWithLargeDataset() {
+  void shouldUpdateBothAggregatesInOneTransaction() {
     // Given
-    GitHubRepository existingRepo1 = createGitHubRepository(1L, "repo1", "owner1");
-    GitHubRepository existingRepo2 = createGitHubRepository(3L, "repo3", "owner3");
-    GitHubRepository newRepo1 = createGitHubRepository(2L, "repo2", "owner2");
-    GitHubRepository newRepo2 = createGitHubRepository(4L, "repo4", "owner4");
-
-    List<GitHubRepository> repositories =
-        Arrays.asList(existingRepo1, newRepo1, existingRepo2, newRepo2);
-    List<GitHubRepository> expectedNewRepos = Arrays.asList(newRepo1, newRepo2);
-
-    when(gitHubRepositoryRepository.findByGithubRepoId(1L)).thenReturn(Optional.of(existingRepo1));
-    when(gitHubRepositoryRepository.findByGithubRepoId(2L)).thenReturn(Optional.empty());
-    when(gitHubRepositoryRepository.findByGithubRepoId(3L)).thenReturn(Optional.of(existingRepo2));
-    when(gitHubRepositoryRepository.findByGithubRepoId(4L)).thenReturn(Optional.empty());
+    GitHubRepository newRepo = createGitHubRepository(1L, "repo1", "owner1");
+    List<GitHubRepository> inserted = Collections.singletonList(newRepo);
+    when(reactiveGitHubRepositoryRepository.insertMissing(inserted))
+        .thenReturn(Flux.just(newRepo));
+    TransactionStatus status = mock(TransactionStatus.class);
+    when(transactionManager.getTransaction(any())).thenReturn(status);
 
     // When
-    gitHubRepositoryService.saveAllGitHubRepositories(repositories);
+    StepVerifier.create(gitHubRepositoryService.persistGitHubRepositories(inserted))
+        .verifyComplete();
 
     // Then
-    verify(gitHubRepositoryRepository).saveAll(expectedNewRepos);
+    InOrder inOrder =
+        inOrder(transactionManager, repositoryAggregateService, ownerAggregateService);
+    inOrder.verify(transactionManager).getTransaction(any());
+    inOrder.verify(repositoryAggregateService).recordInserted(inserted);
+    inOrder.verify(ownerAggregateService).recordInserted(inserted);
+    inOrder.verify(transactionManager).commit(status);
   }
 
   @Test
@@ -345,6 +325,21 @@ class GitHubRepositoryServiceTest {
     verify(gitHubRepositoryRepository).findRepositoriesWithFilters(null, null, "forks");
   }
 
+  @Test
+  void getFilteredRepositories_SortedByScore_ShouldUseTheScoreOrderedQuery() {
+    // Arrange
+    when(gitHubRepositoryRepository.findRepositoriesByScore("Java", 100))
+        .thenReturn(testRepositories);
+
+    // Act
+    List<GitHubRepository> result =
+        gitHubRepositoryService.getFilteredRepositories("Java", 100, "score");
+
+    // Assert
+    assertEquals(5, result.size());
+    verify(gitHubRepositoryRepository, never()).findRepositoriesWithFilters(any(), any(), any());
+  }
+
   @Test
   void getFilteredRepositories_WithNullSortBy_ShouldDefaultToStars() {
     // Arrange
@@ -390,6 +385,66 @@ class GitHubRepositoryServiceTest {
     verify(gitHubRepositoryRepository).findRepositoriesWithFilters("Java", 30000, "name");
   }
 
+  @Test
+  void getFilteredRepositories_RepeatedCall_ShouldBeServedFromCacheUntilWrite() {
+    // Arrange
+    when(gitHubRepositoryRepository.findRepositoriesWithFilters("Java", null, "stars"))
+        .thenReturn(testRepositories);
+    GitHubRepository newRepo = createGitHubRepository(6L, "repo6", "owner6");
+    when(reactiveGitHubRepositoryRepository.insertMissing(List.of(newRepo)))
+        .thenReturn(Flux.just(newRepo));
+
+    // Act
+    gitHubRepositoryService.getFilteredRepositories("Java", null, "stars");
+    gitHubRepositoryService.getFilteredRepositories("Java", null, "");
+    gitHubRepositoryService.persistGitHubRepositories(List.of(newRepo)).block();
+    gitHubRepositoryService.getFilteredRepositories("Java", null, "stars");
+
+    // Assert
+    verify(gitHubRepositoryRepository, times(2)).findRepositoriesWithFilters("Java", null, "stars");
+  }
+
+  @Test
+  void persistGitHubRepositories_ShouldInsertReactivelyAndUpdateIndexesForInsertedRows() {
+    // Arrange
+    GitHubRepository storedRepo = createGitHubRepository(1L, "repo1", "owner1");
+    GitHubRepository newRepo = createGitHubRepository(2L, "repo2", "owner2");
+    List<GitHubRepository> repositories = List.of(storedRepo, newRepo);
+    when(reactiveGitHubRepositoryRepository.insertMissing(repositories))
+        .thenReturn(Flux.just(newRepo));
+
+    // Act
+    StepVerifier.create(gitHubRepositoryService.persistGitHubRepositories(repositories))
+        .verifyComplete();
+
+    // Assert
+    List<GitHubRepository> inserted = List.of(newRepo);
+    verify(starHistoryService).record(repositories);
+    verify(suggestService).recordInserted(inserted);
+    verify(similarRepositoryService).recordInserted(inserted);
+    verify(columnarRepositoryEngine).recordInserted(inserted);
+    verify(repositoryAggregateService).recordInserted(inserted);
+    verify(ownerAggregateService).recordInserted(inserted);
+    verifyNoInteractions(gitHubRepositoryRepository);
+    assertTrue(newRepo.getScore() > 0);
+  }
+
+  @Test
+  void persistGitHubRepositories_WhenAggregateUpdateFails_ShouldStillComplete() {
+    // Arrange
+    GitHubRepository newRepo = createGitHubRepository(2L, "repo2", "owner2");
+    when(reactiveGitHubRepositoryRepository.insertMissing(List.of(newRepo)))
+        .thenReturn(Flux.just(newRepo));
+    doThrow(new RuntimeException("Database error"))
+        .when(repositoryAggregateService)
+        .recordInserted(List.of(newRepo));
+
+    // Act & Assert
+    StepVerifier.create(gitHubRepositoryService.persistGitHubRepositories(List.of(newRepo)))
+        .verifyComplete();
+    verify(suggestService).recordInserted(List.of(newRepo));
+  }
+
   private GitHubRepository createGitHubRepository(
       Long githubRepoId, String repoName, String ownerName) {
     return new GitHubRepository(githubRepoId, repoName, ownerName);
@@ -9,6 +9,7 @@ import com.ajinz.githubsearch.dto.github.GitHubSearchResponse;
 import com.ajinz.githubsearch.dto.github.GithubSearchRequest;
 import com.ajinz.githubsearch.dto.github.Order;
 import com.ajinz.githubsearch.dto.github.Sort;
+import java.time.Duration;
 import java.util.List;
 import java.util.function.Function;
 import org.junit.jupiter.api.BeforeEach;
@@ -40,10 +41,16 @@ class GitHubSearchServiceTest {
   void setUp() {
     when(webClientBuilder.baseUrl(anyString())).thenReturn(webClientBuilder);
     when(webClientBuilder.defaultHeader(anyString(), anyString())).thenReturn(webClientBuilder);
+    when(webClientBuilder.filter(any())).thenReturn(webClientBuilder);
     when(webClientBuilder.build()).thenReturn(webClient);
 
     gitHubSearchService =
-        new GitHubSearchService(webClientBuilder, baseUrl, apiVersion, gitHubRepositoryService);
+        new GitHubSearchService(
+            webClientBuilder,
+            baseUrl,
+            apiVersion,
+            gitHubRepositoryService,
+            new GitHubRateBudget(6000, Duration.ofSeconds(1), Duration.ofSeconds(30)));
   }
 
   @Test
@@ -52,6 +59,7 @@ class GitHubSearchServiceTest {
     verify(webClientBuilder).baseUrl(baseUrl);
     verify(webClientBuilder).defaultHeader("Accept", "application/vnd.github+json");
     verify(webClientBuilder).defaultHeader("X-GitHub-Api-Version", apiVersion);
+    verify(webClientBuilder).filter(any());
     verify(webClientBuilder).build();
   }
 
@@ -67,6 +75,8 @@ class GitHubSearchServiceTest {
     setupMockWebClientChain();
     when(responseSpec.bodyToMono(GitHubSearchResponse.class))
         .thenReturn(Mono.just(expectedResponse));
+    when(gitHubRepositoryService.persistGitHubRepositories(expectedResponse.items()))
+        .thenReturn(Mono.empty());
 
     // Act & Assert
     StepVerifier.create(gitHubSearchService.searchRepositories(request))
@@ -74,7 +84,7 @@ class GitHubSearchServiceTest {
         .verifyComplete();
 
     verify(webClient).get();
-    verify(gitHubRepositoryService).saveAllGitHubRepositories(expectedResponse.items());
+    verify(gitHubRepositoryService).persistGitHubRepositories(expectedResponse.items());
   }
 
   @Test
@@ -96,7 +106,7 @@ class GitHubSearchServiceTest {
 
     // Verify
     verify(requestHeadersUriSpec).uri(any(Function.class));
-    verify(gitHubRepositoryService, never()).saveAllGitHubRepositories(any());
+    verify(gitHubRepositoryService, never()).persistGitHubRepositories(any());
   }
 
   @Test
@@ -118,7 +128,7 @@ class GitHubSearchServiceTest {
         .verifyComplete();
 
     verify(requestHeadersUriSpec).uri(any(Function.class));
-    verify(gitHubRepositoryService, never()).saveAllGitHubRepositories(any());
+    verify(gitHubRepositoryService, never()).persistGitHubRepositories(any());
   }
 
   @Test
@@ -144,7 +154,7 @@ class GitHubSearchServiceTest {
                         .getMessage()
                         .contains("An unexpected error occurred while searching repositories"))
         .verify();
-    verify(gitHubRepositoryService, never()).saveAllGitHubRepositories(any());
+    verify(gitHubRepositoryService, never()).persistGitHubRepositories(any());
   }
 
   @Test
@@ -168,7 +178,27 @@ class GitHubSearchServiceTest {
                         .getMessage()
                         .contains("An unexpected error occurred while searching repositories"))
         .verify();
-    verify(gitHubRepositoryService, never()).saveAllGitHubRepositories(any());
+    verify(gitHubRepositoryService, never()).persistGitHubRepositories(any());
+  }
+
+  @Test
+  void searchRepositories_WhenRateBudgetIsExhausted_ShouldFailWithoutMappingTheError() {
+    // Arrange: one call per minute, already spent
+    GitHubRateBudget budget = new GitHubRateBudget(1, Duration.ZERO, Duration.ofSeconds(30));
+    budget.reserve();
+    GitHubSearchService limited =
+        new GitHubSearchService(
+            webClientBuilder, baseUrl, apiVersion, gitHubRepositoryService, budget);
+    GithubSearchRequest request =
+        new GithubSearchRequest("spring boot", null, Sort.STARS, Order.DESC, 1, 10);
+    setupMockWebClientChain();
+    when(responseSpec.bodyToMono(GitHubSearchResponse.class)).thenReturn(Mono.empty());
+
+    // Act & Assert
+    StepVerifier.create(limited.searchRepositories(request))
+        .expectError(RateBudgetExhaustedException.class)
+        .verify();
+    verify(gitHubRepositoryService, never()).persistGitHubRepositories(any());
   }
 
   @Test
@@ -186,7 +216,7 @@ class GitHubSearchServiceTest {
     StepVerifier.create(gitHubSearchService.searchRepositories(request))
         .expectNext(emptyResponse)
         .verifyComplete();
-    verify(gitHubRepositoryService, never()).saveAllGitHubRepositories(any());
+    verify(gitHubRepositoryService, never()).persistGitHubRepositories(any());
   }
 
   @Test
@@ -208,7 +238,7 @@ class GitHubSearchServiceTest {
 
     // Verify
     verify(requestHeadersUriSpec).uri(any(Function.class));
-    verify(gitHubRepositoryService, never()).saveAllGitHubRepositories(any());
+    verify(gitHubRepositoryService, never()).persistGitHubRepositories(any());
   }
 
   @Test
@@ -229,7 +259,50 @@ class GitHubSearchServiceTest {
         .expectNext(incompleteResponse)
         .verifyComplete();
 
-    verify(gitHubRepositoryService, never()).saveAllGitHubRepositories(any());
+    verify(gitHubRepositoryService, never()).persistGitHubRepositories(any());
+  }
+
+  @Test
+  void searchRepositories_WhenPersistFails_ShouldPropagateError() {
+    // Arrange
+    GithubSearchRequest request =
+        new GithubSearchRequest("spring boot", null, Sort.STARS, Order.DESC, 1, 10);
+    GitHubRepository repository = new GitHubRepository(1L, "test-repo", "test-owner");
+    GitHubSearchResponse response = new GitHubSearchResponse(false, List.of(repository));
+
+    setupMockWebClientChain();
+    when(responseSpec.bodyToMono(GitHubSearchResponse.class)).thenReturn(Mono.just(response));
+    when(gitHubRepositoryService.persistGitHubRepositories(response.items()))
+        .thenReturn(Mono.error(new IllegalStateException("connection refused")));
+
+    // Act & Assert
+    StepVerifier.create(gitHubSearchService.searchRepositories(request))
+        .expectErrorMatches(
+            error ->
+                error instanceof RuntimeException
+                    && error
+                        .getMessage()
+                        .equals("An unexpected error occurred while searching repositories"))
+        .verify();
+  }
+
+  @Test
+  void fetchRepositories_ShouldReturnResultsWithoutSavingThem() {
+    // Arrange
+    GithubSearchRequest request =
+        new GithubSearchRequest("spring boot", null, Sort.STARS, Order.DESC, 1, 10);
+    GitHubRepository repository = new GitHubRepository(1L, "test-repo", "test-owner");
+    GitHubSearchResponse response = new GitHubSearchResponse(false, List.of(repository));
+
+    setupMockWebClientChain();
+    when(responseSpec.bodyToMono(GitHubSearchResponse.class)).thenReturn(Mono.just(response));
+
+    // Act & Assert
+    StepVerifier.create(gitHubSearchService.fetchRepositories(request, System.nanoTime()))
+        .expectNext(response)
+        .verifyComplete();
+
+    verify(gitHubRepositoryService, never()).persistGitHubRepositories(any());
   }
 
   @SuppressWarnings({"unchecked"})
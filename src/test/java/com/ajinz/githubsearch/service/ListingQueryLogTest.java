@@ -0,0 +1,63 @@
+package com.ajinz.githubsearch.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+@ExtendWith(MockitoExtension.class)
+class ListingQueryLogTest {
+
+  @Mock private JdbcTemplate jdbcTemplate;
+
+  private ListingQueryLog listingQueryLog;
+
+  @BeforeEach
+  void setUp() {
+    listingQueryLog = new ListingQueryLog(jdbcTemplate);
+  }
+
+  @Test
+  void record_WithUnknownSort_ShouldNotCountIt() {
+    // Act
+    listingQueryLog.record("Java", null, "'; DROP TABLE github_repository; --");
+    listingQueryLog.flush();
+
+    // Assert
+    verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+  }
+
+  @Test
+  void record_WithLongLanguage_ShouldCutItToTheColumnWidth() {
+    // Arrange
+    when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenReturn(new int[] {1, 1});
+
+    // Act
+    listingQueryLog.record("x".repeat(5000), 10, "forks");
+    listingQueryLog.record(null, null, null);
+    listingQueryLog.flush();
+
+    // Assert
+    @SuppressWarnings("unchecked")
+    ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+    verify(jdbcTemplate).batchUpdate(anyString(), rows.capture());
+    assertEquals(2, rows.getValue().size());
+    for (Object[] row : rows.getValue()) {
+      if ((Integer) row[3] == 10) {
+        assertEquals("x".repeat(100), row[2]);
+        assertEquals("forks", row[4]);
+      } else {
+        assertEquals("", row[2]);
+        assertEquals("stars", row[4]);
+      }
+    }
+  }
+}
@@ -0,0 +1,57 @@
+package com.ajinz.githubsearch.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.ajinz.githubsearch.dto.github.GitHubRepository;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+class MinHashTest {
+
+  @Test
+  void tokens_ShouldLowerCaseSplitAndDropStopWords() {
+    assertEquals(
+        Set.of("spring", "boot", "starter", "kit", "language:java"),
+        MinHash.tokens("spring-boot", "A starter kit for the Spring Boot", " Java "));
+    assertEquals(Set.of(), MinHash.tokens(null, "a of", null));
+  }
+
+  @Test
+  void signature_ShouldBeDeterministicAndIgnoreWordOrder() {
+    byte[] first = MinHash.signature("http-client", "Fast async HTTP client", "Go");
+    byte[] second = MinHash.signature("client-http", "async fast client HTTP", "go");
+
+    assertEquals(MinHash.SIGNATURE_BYTES, first.length);
+    assertArrayEquals(first, second);
+    assertEquals(1.0, MinHash.similarity(first, second));
+    assertNull(MinHash.signature("", null, null));
+  }
+
+  @Test
+  void similarity_ShouldEstimateJaccardSimilarity() {
+    // Arrange: 20 shared of 30 distinct words, Jaccard 2/3
+    StringBuilder shared = new StringBuilder();
+    for (int i = 0; i < 20; i++) {
+      shared.append(" shared").append(i);
+    }
+    byte[] a = MinHash.signature(null, shared + " left0 left1 left2 left3 left4", null);
+    byte[] b = MinHash.signature(null, shared + " right0 right1 right2 right3 right4", null);
+    byte[] unrelated = MinHash.signature("zz", "entirely different words here", null);
+
+    // Act & Assert: the estimate's standard deviation is about 0.06 with 64 hashes
+    assertEquals(2.0 / 3.0, MinHash.similarity(a, b), 0.2);
+    assertEquals(0.0, MinHash.similarity(a, unrelated), 0.1);
+  }
+
+  @Test
+  void apply_ShouldStoreSignatureOnRepositories() {
+    GitHubRepository repository =
+        new GitHubRepository(1L, "ktor", "jetbrains", "Web framework", "Kotlin", 1, 1, null);
+
+    MinHash.apply(List.of(repository));
+
+    assertArrayEquals(
+        MinHash.signature("ktor", "Web framework", "Kotlin"), repository.getMinhash());
+  }
+}
@@ -0,0 +1,49 @@
+package com.ajinz.githubsearch.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class RepositoryAggregateServiceTest {
+
+  @Test
+  void bucketOf_ShouldUsePowerOfTwoRanges() {
+    assertEquals(0, RepositoryAggregateService.bucketOf(0));
+    assertEquals(1, RepositoryAggregateService.bucketOf(1));
+    assertEquals(2, RepositoryAggregateService.bucketOf(3));
+    assertEquals(3, RepositoryAggregateService.bucketOf(4));
+    assertEquals(11, RepositoryAggregateService.bucketOf(1500));
+    assertEquals(31, RepositoryAggregateService.bucketOf(Integer.MAX_VALUE));
+  }
+
+  @Test
+  void bounds_ShouldCoverEachBucket() {
+    for (int value : new int[] {1, 7, 1023, 1024, 65_000}) {
+      int bucket = RepositoryAggregateService.bucketOf(value);
+      assertTrue(RepositoryAggregateService.lowerBound(bucket) <= value);
+      assertTrue(RepositoryAggregateService.upperBound(bucket) >= value);
+    }
+  }
+
+  @Test
+  void percentile_ShouldInterpolateInsideBucket() {
+    long[] histogram = new long[RepositoryAggregateService.BUCKETS];
+    histogram[RepositoryAggregateService.bucketOf(10)] = 50; // [8, 15]
+    histogram[RepositoryAggregateService.bucketOf(1000)] = 50; // [512, 1023]
+
+    assertEquals(15, RepositoryAggregateService.percentile(histogram, 100, 0.5));
+    assertEquals(921, RepositoryAggregateService.percentile(histogram, 100, 0.9));
+    assertEquals(0, RepositoryAggregateService.percentile(new long[32], 0, 0.5));
+  }
+
+  @Test
+  void bucketExpression_ShouldMatchBucketOfAtBoundaries() {
+    String sql = RepositoryAggregateService.bucketExpression("stars_count");
+
+    assertTrue(sql.startsWith("CASE WHEN COALESCE(stars_count, 0) <= 0 THEN 0"));
+    assertTrue(sql.contains(" WHEN stars_count <= 1 THEN 1 WHEN stars_count <= 3 THEN 2 "));
+    assertTrue(sql.contains(" WHEN stars_count <= 1073741823 THEN 30 ELSE 31 END"));
+    assertEquals(30, RepositoryAggregateService.bucketOf(1073741823));
+    assertEquals(31, RepositoryAggregateService.bucketOf(1073741824));
+  }
+}
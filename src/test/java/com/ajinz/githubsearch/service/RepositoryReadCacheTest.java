@@ -0,0 +1,103 @@
+package com.ajinz.githubsearch.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.ajinz.githubsearch.dto.github.GitHubRepository;
+import com.ajinz.githubsearch.dto.github.RepositoryFieldSet;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class RepositoryReadCacheTest {
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private final RepositoryReadCache cache = new RepositoryReadCache(meterRegistry, true, 100);
+
+  @Test
+  void query_ShouldKeySeparatelyOnEveryParameter() {
+    AtomicInteger loads = new AtomicInteger();
+
+    cache.query("Java", 10, "stars", null, loads::incrementAndGet);
+    cache.query("Java", 10, "stars", null, loads::incrementAndGet);
+    cache.query("Java", 10, "forks", null, loads::incrementAndGet);
+    cache.query("Java", 20, "stars", null, loads::incrementAndGet);
+    cache.query("Go", 10, "stars", null, loads::incrementAndGet);
+    cache.query("Java", 10, "stars", RepositoryFieldSet.parse("name"), loads::incrementAndGet);
+
+    assertEquals(5, loads.get());
+    assertEquals(1.0, count("query", "hit"));
+    assertEquals(5.0, count("query", "miss"));
+  }
+
+  @Test
+  void query_ShouldNotCacheResultLoadedAcrossAnInvalidation() {
+    // Arrange: a write commits while the query is running
+    GitHubRepository inserted = new GitHubRepository(1L, "repo", "owner");
+
+    // Act
+    cache.query(
+        null,
+        null,
+        "stars",
+        null,
+        () -> {
+          cache.invalidateOnCommit(List.of(inserted));
+          return "stale";
+        });
+    String next = cache.query(null, null, "stars", null, () -> "fresh");
+
+    // Assert
+    assertEquals("fresh", next);
+  }
+
+  @Test
+  void invalidateOnCommit_ShouldDropQueriesAndRememberInsertedRows() {
+    cache.query(null, null, "stars", null, () -> "before");
+    GitHubRepository inserted = new GitHubRepository(7L, "repo", "owner");
+
+    cache.invalidateOnCommit(List.of(inserted));
+
+    assertEquals("after", cache.query(null, null, "stars", null, () -> "after"));
+    assertSame(inserted, cache.findStored(7L, id -> Optional.empty()).orElseThrow());
+    assertEquals(1.0, count("entity", "hit"));
+  }
+
+  @Test
+  void invalidateOnCommit_WithoutInsertedRows_ShouldKeepCachedQueries() {
+    cache.query(null, null, "stars", null, () -> "cached");
+
+    cache.invalidateOnCommit(List.of());
+
+    assertEquals("cached", cache.query(null, null, "stars", null, () -> "reloaded"));
+  }
+
+  @Test
+  void findStored_ShouldNotCacheMissingRows() {
+    AtomicInteger loads = new AtomicInteger();
+
+    cache.findStored(
+        3L,
+        id -> {
+          loads.incrementAndGet();
+          return Optional.empty();
+        });
+    cache.findStored(
+        3L,
+        id -> {
+          loads.incrementAndGet();
+          return Optional.empty();
+        });
+
+    assertEquals(2, loads.get());
+  }
+
+  private double count(String cacheName, String result) {
+    return meterRegistry
+        .get("github.read_cache.requests")
+        .tags("cache", cacheName, "result", result)
+        .counter()
+        .count();
+  }
+}
@@ -0,0 +1,54 @@
+package com.ajinz.githubsearch.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.ajinz.githubsearch.dto.github.GitHubRepository;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class RepositoryScoreTest {
+
+  private static final LocalDateTime NOW = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+  private final RepositoryScore score = new RepositoryScore(1.0, 0.5, 1.0, Duration.ofDays(90));
+
+  @Test
+  void of_ShouldCombineLogarithmicPopularityAndDecayingRecency() {
+    assertEquals(3.0 + 0.5 * 2.0 + 1.0, score.of(999, 99, NOW, NOW), 1e-9);
+    assertEquals(3.0 + 0.5 * 2.0 + 0.5, score.of(999, 99, NOW.minusDays(90), NOW), 1e-9);
+    assertEquals(3.0 + 0.5 * 2.0 + 0.25, score.of(999, 99, NOW.minusDays(180), NOW), 1e-9);
+  }
+
+  @Test
+  void of_WithMissingValues_ShouldTreatThemAsZero() {
+    assertEquals(0.0, score.of(null, null, null, NOW));
+    // Update times in the future count as updated now
+    assertEquals(1.0, score.of(0, 0, NOW.plusDays(1), NOW), 1e-9);
+  }
+
+  @Test
+  void of_ShouldLetRecentActivityOutrankSlightlyMoreStars() {
+    double active = score.of(1000, 100, NOW.minusDays(1), NOW);
+    double abandoned = score.of(1200, 100, NOW.minusYears(3), NOW);
+
+    assertTrue(active > abandoned, active + " <= " + abandoned);
+  }
+
+  @Test
+  void apply_ShouldSetTheScoreOfEachRepository() {
+    GitHubRepository repository =
+        new GitHubRepository(1L, "repo", "owner", "description", "Java", 99, 0, null);
+
+    score.apply(List.of(repository));
+
+    assertEquals(2.0, repository.getScore(), 1e-9);
+  }
+
+  @Test
+  void constructor_WithoutHalfLife_ShouldThrow() {
+    assertThrows(
+        IllegalArgumentException.class, () -> new RepositoryScore(1.0, 1.0, 1.0, Duration.ZERO));
+  }
+}
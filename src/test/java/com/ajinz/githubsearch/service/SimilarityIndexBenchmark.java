@@ -0,0 +1,97 @@
+package com.ajinz.githubsearch.service;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * In-process counterpart of {@code scripts/similar-benchmark.sh}: measures the similarity index
+ * alone, without the database, the row fetch or HTTP. Every row gets ten random words out of 50000
+ * as its description; the first {@value #CLUSTERS} of them get a sibling with two words dropped
+ * and two added. Reports build time, heap, lookup percentiles and the recall of planted siblings.
+ *
+ * <p>Run with {@code ./gradlew similarBenchmark --args="<rows> [queries]"}; the rows in the README
+ * table were measured with {@code -Xmx4500m} on one core.
+ */
+public final class SimilarityIndexBenchmark {
+
+  private static final int CLUSTERS = 10_000;
+  private static final int WORDS = 50_000;
+  private static final long BASE_ID = 9_000_000_000_000_000L;
+  private static final double MIN_SIMILARITY = 0.2;
+  private static final String[] LANGUAGES = {
+    "Java", "JavaScript", "Go", "Rust", "Python", "Ruby", "C", "Kotlin"
+  };
+
+  private SimilarityIndexBenchmark() {}
+
+  public static void main(String[] args) {
+    int rows = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+    int queries = args.length > 1 ? Integer.parseInt(args[1]) : 2_000;
+    Random random = new Random(42);
+    Runtime runtime = Runtime.getRuntime();
+    System.gc();
+    long heapBefore = runtime.totalMemory() - runtime.freeMemory();
+
+    SimilarityIndex index = new SimilarityIndex(rows + CLUSTERS);
+    String[] headNames = new String[CLUSTERS + 1];
+    String[] headDescriptions = new String[CLUSTERS + 1];
+    byte[][] headSignatures = new byte[CLUSTERS + 1][];
+    long start = System.nanoTime();
+    for (int g = 1; g <= rows; g++) {
+      StringBuilder description = new StringBuilder();
+      for (int w = 0; w < 10; w++) {
+        description.append(w == 0 ? "" : " ").append('w').append(random.nextInt(WORDS));
+      }
+      String name = "repo-" + Integer.toHexString(g * 31);
+      byte[] signature = MinHash.signature(name, description.toString(), language(g));
+      index.add(BASE_ID + g, signature);
+      if (g <= CLUSTERS) {
+        headNames[g] = name;
+        headDescriptions[g] = description.toString();
+        headSignatures[g] = signature;
+      }
+    }
+    for (int g = 1; g <= CLUSTERS; g++) {
+      String description =
+          headDescriptions[g].replaceFirst("^\\S+ \\S+ ", "") + " forked variant";
+      index.add(BASE_ID + rows + g, MinHash.signature(headNames[g], description, language(g)));
+    }
+    long buildMillis = (System.nanoTime() - start) / 1_000_000;
+    System.gc();
+    long heap = runtime.totalMemory() - runtime.freeMemory() - heapBefore;
+
+    long[] nanos = new long[queries];
+    int hits = 0;
+    for (int q = 0; q < queries; q++) {
+      int g = 1 + random.nextInt(CLUSTERS);
+      long queryStart = System.nanoTime();
+      List<SimilarityIndex.Match> matches =
+          index.query(headSignatures[g], BASE_ID + g, MIN_SIMILARITY, 10);
+      nanos[q] = System.nanoTime() - queryStart;
+      long sibling = BASE_ID + rows + g;
+      if (matches.stream().anyMatch(match -> match.githubRepoId() == sibling)) {
+        hits++;
+      }
+    }
+    Arrays.sort(nanos);
+
+    int entries = rows + CLUSTERS;
+    System.out.printf(
+        "rows=%d build=%d ms heap=%d MB (%d B/row) p50=%.1f us p95=%.1f us p99=%.1f us"
+            + " recall=%d/%d%n",
+        entries,
+        buildMillis,
+        heap >> 20,
+        heap / entries,
+        nanos[queries / 2] / 1e3,
+        nanos[(int) (queries * 0.95)] / 1e3,
+        nanos[(int) (queries * 0.99)] / 1e3,
+        hits,
+        queries);
+  }
+
+  private static String language(int row) {
+    return LANGUAGES[row % LANGUAGES.length];
+  }
+}
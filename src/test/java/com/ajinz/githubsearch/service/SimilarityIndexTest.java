@@ -0,0 +1,105 @@
+package com.ajinz.githubsearch.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class SimilarityIndexTest {
+
+  @Test
+  void query_ShouldReturnNearDuplicatesMostSimilarFirst() {
+    // Arrange
+    SimilarityIndex index = new SimilarityIndex(10);
+    String description = "fast json parser for java with streaming";
+    index.add(1L, MinHash.signature("fast-json", description, null));
+    index.add(2L, MinHash.signature("json-fast", description, null));
+    index.add(3L, MinHash.signature("fast-json", "fast json parser for java", null));
+    index.add(4L, MinHash.signature("kube-ctl", "kubernetes cluster management cli", null));
+
+    // Act
+    List<SimilarityIndex.Match> matches =
+        index.query(MinHash.signature("fast-json", description, null), 1L, 0.3, 10);
+
+    // Assert
+    assertEquals(
+        List.of(2L, 3L), matches.stream().map(SimilarityIndex.Match::githubRepoId).toList());
+    assertEquals(1.0, matches.get(0).similarity());
+    assertTrue(matches.get(1).similarity() < 1.0);
+  }
+
+  @Test
+  void add_WhenFullOrDuplicate_ShouldReject() {
+    SimilarityIndex index = new SimilarityIndex(2);
+    byte[] signature = MinHash.signature("repo", "some words", null);
+
+    assertTrue(index.add(1L, signature));
+    assertFalse(index.add(1L, signature));
+    assertTrue(index.add(2L, signature));
+    assertFalse(index.add(3L, signature));
+
+    assertEquals(2, index.size());
+    assertTrue(index.contains(2L));
+    assertFalse(index.contains(3L));
+  }
+
+  @Test
+  void remove_ShouldStopMatchingAndKeepTheSlot() {
+    // Arrange
+    SimilarityIndex index = new SimilarityIndex(2);
+    byte[] signature = MinHash.signature("repo", "some words", null);
+    index.add(1L, signature);
+    index.add(2L, signature);
+
+    // Act
+    boolean removed = index.remove(2L);
+
+    // Assert
+    assertTrue(removed);
+    assertFalse(index.remove(2L));
+    assertFalse(index.contains(2L));
+    assertEquals(1, index.size());
+    assertEquals(List.of(), index.query(signature, 1L, 0.1, 10));
+    assertFalse(index.add(3L, signature));
+  }
+
+  @Test
+  void query_OnSyntheticCorpus_ShouldFindMostPlantedNearDuplicates() {
+    // Arrange: 2000 random descriptions, 200 of them with a sibling that has one word changed
+    Random random = new Random(42);
+    int repositories = 2000;
+    SimilarityIndex index = new SimilarityIndex(repositories + 200);
+    String[] descriptions = new String[repositories];
+    for (int i = 0; i < repositories; i++) {
+      descriptions[i] = randomWords(random, 10);
+      index.add(i, MinHash.signature("repo" + i, descriptions[i], null));
+    }
+    for (int i = 0; i < 200; i++) {
+      String sibling = descriptions[i].substring(descriptions[i].indexOf(' ') + 1) + " changed";
+      index.add(100_000 + i, MinHash.signature("repo" + i, sibling, null));
+    }
+
+    // Act
+    int found = 0;
+    for (int i = 0; i < 200; i++) {
+      long siblingId = 100_000 + i;
+      byte[] signature = MinHash.signature("repo" + i, descriptions[i], null);
+      List<SimilarityIndex.Match> matches = index.query(signature, i, 0.3, 10);
+      if (matches.stream().anyMatch(match -> match.githubRepoId() == siblingId)) {
+        found++;
+      }
+    }
+
+    // Assert: the siblings share 10 of 12 words, which LSH finds with probability above 0.99
+    assertTrue(found >= 195, "recall " + found + "/200");
+  }
+
+  private static String randomWords(Random random, int count) {
+    StringBuilder words = new StringBuilder();
+    for (int i = 0; i < count; i++) {
+      words.append(i == 0 ? "" : " ").append("w").append(random.nextInt(50_000));
+    }
+    return words.toString();
+  }
+}
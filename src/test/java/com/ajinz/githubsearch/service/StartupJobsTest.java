@@ -0,0 +1,99 @@
+package com.ajinz.githubsearch.service;
+
+import static org.mockito.Mockito.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+@ExtendWith(MockitoExtension.class)
+class StartupJobsTest {
+
+  @Mock private ColumnarRepositoryEngine columnarRepositoryEngine;
+  @Mock private SuggestService suggestService;
+  @Mock private SimilarRepositoryService similarRepositoryService;
+  @Mock private RepositoryScoreService repositoryScoreService;
+  @Mock private RepositoryAggregateService repositoryAggregateService;
+  @Mock private OwnerAggregateService ownerAggregateService;
+  @Mock private StarHistoryService starHistoryService;
+
+  private StartupJobs startupJobs;
+
+  @BeforeEach
+  void setUp() {
+    startupJobs = startupJobs(true);
+  }
+
+  @Test
+  void onReadinessChange_WhenAcceptingTraffic_ShouldRunEveryJobOnceInTheBackground() {
+    // Act
+    startupJobs.onReadinessChange(event(ReadinessState.ACCEPTING_TRAFFIC));
+    startupJobs.onReadinessChange(event(ReadinessState.REFUSING_TRAFFIC));
+    startupJobs.onReadinessChange(event(ReadinessState.ACCEPTING_TRAFFIC));
+
+    // Assert
+    verify(starHistoryService, timeout(5000)).applyRetention();
+    InOrder order =
+        inOrder(
+            columnarRepositoryEngine,
+            suggestService,
+            similarRepositoryService,
+            repositoryScoreService,
+            repositoryAggregateService,
+            ownerAggregateService,
+            starHistoryService);
+    order.verify(columnarRepositoryEngine).reload();
+    order.verify(suggestService).rebuild();
+    order.verify(similarRepositoryService).rebuild();
+    order.verify(repositoryScoreService).refresh();
+    order.verify(repositoryAggregateService).reconcile();
+    order.verify(ownerAggregateService).reconcile();
+    order.verify(starHistoryService).applyRetention();
+    verifyNoMoreInteractions(columnarRepositoryEngine, starHistoryService);
+  }
+
+  @Test
+  void runAll_WhenAJobFails_ShouldRunTheRemainingOnes() {
+    // Arrange
+    doThrow(new DataAccessResourceFailureException("down")).when(suggestService).rebuild();
+
+    // Act
+    startupJobs.runAll();
+
+    // Assert
+    verify(similarRepositoryService).rebuild();
+    verify(starHistoryService).applyRetention();
+  }
+
+  @Test
+  void onReadinessChange_WhenDisabled_ShouldRunNothing() {
+    // Act
+    startupJobs(false).onReadinessChange(event(ReadinessState.ACCEPTING_TRAFFIC));
+
+    // Assert
+    verify(starHistoryService, after(200).never()).applyRetention();
+    verifyNoInteractions(columnarRepositoryEngine, suggestService);
+  }
+
+  private StartupJobs startupJobs(boolean enabled) {
+    return new StartupJobs(
+        columnarRepositoryEngine,
+        suggestService,
+        similarRepositoryService,
+        repositoryScoreService,
+        repositoryAggregateService,
+        ownerAggregateService,
+        starHistoryService,
+        enabled);
+  }
+
+  private AvailabilityChangeEvent<ReadinessState> event(ReadinessState state) {
+    return new AvailabilityChangeEvent<>(this, state);
+  }
+}
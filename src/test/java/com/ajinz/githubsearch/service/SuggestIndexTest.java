@@ -0,0 +1,99 @@
+package com.ajinz.githubsearch.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.ajinz.githubsearch.dto.github.Suggestion;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class SuggestIndexTest {
+
+  @Test
+  void suggest_ShouldReturnTopStarredForPrefix() {
+    // Arrange
+    SuggestIndex index = new SuggestIndex(2, 100);
+    index.add(suggestion(1L, "spring-boot", "spring-projects", 70000));
+    index.add(suggestion(2L, "springfox", "springfox", 6000));
+    index.add(suggestion(3L, "spring-petclinic", "spring-projects", 8000));
+    index.add(suggestion(4L, "react", "facebook", 220000));
+
+    // Act & Assert
+    assertEquals(List.of(1L, 3L), ids(index.suggest("spr", 10)));
+    assertEquals(List.of(1L, 3L), ids(index.suggest("Spring", 2)));
+    assertEquals(List.of(2L), ids(index.suggest("springf", 10)));
+    assertEquals(List.of(1L, 3L), ids(index.suggest("spring-p", 10)));
+    assertEquals(List.of(3L), ids(index.suggest("spring-pe", 10)));
+    assertEquals(List.of(4L, 1L), ids(index.suggest("", 10)));
+    assertEquals(List.of(), index.suggest("sprung", 10));
+  }
+
+  @Test
+  void suggest_ShouldMatchOwnerAndOwnerSlashName() {
+    SuggestIndex index = new SuggestIndex(5, 100);
+    index.add(suggestion(4L, "react", "facebook", 220000));
+    index.add(suggestion(5L, "folly", "facebook", 28000));
+
+    assertEquals(List.of(4L, 5L), ids(index.suggest("face", 5)));
+    assertEquals(List.of(5L), ids(index.suggest("facebook/f", 5)));
+  }
+
+  @Test
+  void suggest_ShouldKeepTopKWhenEdgesSplit() {
+    // Arrange: inserted in an order that splits "abc" twice and arrives below and above the top
+    SuggestIndex index = new SuggestIndex(2, 100);
+    index.add(suggestion(1L, "abcdef", null, 10));
+    index.add(suggestion(2L, "abcxyz", null, 30));
+    index.add(suggestion(3L, "ab", null, 20));
+    index.add(suggestion(4L, "abcdeg", null, 5));
+
+    // Act & Assert
+    assertEquals(List.of(2L, 3L), ids(index.suggest("a", 5)));
+    assertEquals(List.of(2L, 1L), ids(index.suggest("abc", 5)));
+    assertEquals(List.of(1L, 4L), ids(index.suggest("abcde", 5)));
+    assertEquals(4, index.size());
+  }
+
+  @Test
+  void add_ShouldIgnoreDuplicatesAndRespectMaxEntries() {
+    SuggestIndex index = new SuggestIndex(3, 2);
+
+    assertTrue(index.add(suggestion(1L, "one", "owner", 1)));
+    assertFalse(index.add(suggestion(1L, "one", "owner", 1)));
+    assertTrue(index.add(suggestion(2L, "two", "owner", 2)));
+    assertFalse(index.add(suggestion(3L, "three", "owner", 3)));
+
+    assertEquals(List.of(2L, 1L), ids(index.suggest("owner", 3)));
+    assertTrue(index.contains(1L));
+    assertFalse(index.contains(3L));
+  }
+
+  @Test
+  void remove_ShouldHideTheRepositoryAndFreeItsPlaceForLaterInsertions() {
+    // Arrange
+    SuggestIndex index = new SuggestIndex(2, 100);
+    index.add(suggestion(1L, "spring-boot", "spring-projects", 70000));
+    index.add(suggestion(2L, "spring-petclinic", "spring-projects", 8000));
+    index.add(suggestion(3L, "springfox", "springfox", 6000));
+
+    // Act
+    boolean removed = index.remove(1L);
+
+    // Assert: the lists it was in come up short until something is inserted through them
+    assertTrue(removed);
+    assertFalse(index.remove(1L));
+    assertFalse(index.contains(1L));
+    assertEquals(2, index.size());
+    assertEquals(List.of(2L), ids(index.suggest("spring", 10)));
+    assertEquals(List.of(), index.suggest("spring-b", 10));
+    index.add(suggestion(4L, "spring-data", "spring-projects", 500));
+    assertEquals(List.of(2L, 4L), ids(index.suggest("spring", 10)));
+  }
+
+  private static List<Long> ids(List<Suggestion> suggestions) {
+    return suggestions.stream().map(Suggestion::githubRepoId).toList();
+  }
+
+  private static Suggestion suggestion(Long id, String name, String owner, int stars) {
+    return new Suggestion(id, name, owner, "Java", stars);
+  }
+}
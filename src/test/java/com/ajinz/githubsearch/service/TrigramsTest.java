@@ -0,0 +1,35 @@
+package com.ajinz.githubsearch.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+class TrigramsTest {
+
+  @Test
+  void of_ShouldPadEachWordLikePgTrgm() {
+    assertEquals(Set.of("  c", " ca", "cat", "at "), Trigrams.of("Cat"));
+    assertEquals(Trigrams.of("spring boot"), Trigrams.of("spring-boot"));
+    assertTrue(Trigrams.of(null).isEmpty());
+    assertTrue(Trigrams.of("--").isEmpty());
+  }
+
+  @Test
+  void similarity_ShouldMatchPgTrgmResults() {
+    // SELECT similarity('word', 'two words') = 0.36363637
+    assertEquals(
+        4.0 / 11, Trigrams.similarity(Trigrams.of("word"), Trigrams.of("two words")), 1e-9);
+    assertEquals(1.0, Trigrams.similarity(Trigrams.of("react"), Trigrams.of("React")));
+    assertEquals(0.0, Trigrams.similarity(Trigrams.of("react"), Trigrams.of("")));
+  }
+
+  @Test
+  void similarity_ShouldTolerateTypos() {
+    double typo = Trigrams.similarity(Trigrams.of("sprnig-boot"), Trigrams.of("spring-boot"));
+    double unrelated = Trigrams.similarity(Trigrams.of("kubernetes"), Trigrams.of("spring-boot"));
+
+    assertTrue(typo >= Trigrams.DEFAULT_THRESHOLD);
+    assertTrue(unrelated < Trigrams.DEFAULT_THRESHOLD);
+  }
+}
@@ -0,0 +1,71 @@
+package com.ajinz.githubsearch.timing;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import io.micrometer.observation.ObservationRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+class ServerTimingFilterTest {
+
+  private final ServerTimingFilter filter =
+      new ServerTimingFilter(
+          new StaticListableBeanFactory().getBeanProvider(ObservationRegistry.class));
+
+  @Test
+  void doFilter_WhenLaterFilterWritesTheResponse_ShouldSetHeaderBeforeTheBody() throws Exception {
+    // Arrange: a shedding filter that records a stage and writes its own response
+    FilterChain rejecting =
+        (request, response) -> {
+          ServerTiming.from((HttpServletRequest) request).record("limit", 1_000_000L);
+          HttpServletResponse http = (HttpServletResponse) response;
+          http.setStatus(503);
+          http.getWriter().write("{\"error\":\"SERVICE_OVERLOADED\"}");
+          http.flushBuffer();
+        };
+    MockHttpServletResponse response = new MockHttpServletResponse();
+
+    // Act
+    filter.doFilter(new MockHttpServletRequest("POST", "/api/github/search"), response, rejecting);
+
+    // Assert
+    assertEquals(503, response.getStatus());
+    assertTrue(response.isCommitted());
+    assertTrue(response.getHeader(ServerTiming.HEADER).startsWith("limit;dur=1.000, total;dur="));
+  }
+
+  @Test
+  void doFilter_WithBodylessResponse_ShouldSetHeader() throws Exception {
+    // Arrange
+    FilterChain noContent = (request, response) -> ((HttpServletResponse) response).setStatus(204);
+    MockHttpServletResponse response = new MockHttpServletResponse();
+
+    // Act
+    filter.doFilter(
+        new MockHttpServletRequest("GET", "/api/github/repositories"), response, noContent);
+
+    // Assert
+    assertEquals(204, response.getStatus());
+    assertTrue(response.getHeader(ServerTiming.HEADER).startsWith("total;dur="));
+  }
+
+  @Test
+  void doFilter_WithSendError_ShouldSetHeader() throws Exception {
+    // Arrange
+    FilterChain failing = (request, response) -> ((HttpServletResponse) response).sendError(429);
+    MockHttpServletResponse response = new MockHttpServletResponse();
+
+    // Act
+    filter.doFilter(
+        new MockHttpServletRequest("GET", "/api/github/repositories"), response, failing);
+
+    // Assert
+    assertEquals(429, response.getStatus());
+    assertNotNull(response.getHeader(ServerTiming.HEADER));
+  }
+}
@@ -0,0 +1,72 @@
+package com.ajinz.githubsearch.timing;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+class ServerTimingTest {
+
+  @Test
+  void headerValue_ShouldListRecordedStagesFollowedByTotal() {
+    ServerTiming timing = new ServerTiming(ObservationRegistry.NOOP, null);
+
+    timing.record("ratelimit", 1_234_567L);
+    timing.record("db", 5_000L);
+
+    String header = timing.headerValue();
+    assertTrue(header.startsWith("ratelimit;dur=1.234, db;dur=0.005, total;dur="), header);
+  }
+
+  @Test
+  void time_ShouldRecordStageForSupplierAndMono() {
+    ServerTiming timing = new ServerTiming(ObservationRegistry.NOOP, null);
+
+    assertEquals("value", timing.time("sync", () -> "value"));
+    StepVerifier.create(timing.time("async", Mono.just(1))).expectNext(1).verifyComplete();
+
+    String header = timing.headerValue();
+    assertTrue(header.contains("sync;dur="), header);
+    assertTrue(header.contains("async;dur="), header);
+  }
+
+  @Test
+  void time_ShouldRecordStageWhenSupplierThrows() {
+    ServerTiming timing = new ServerTiming(ObservationRegistry.NOOP, null);
+
+    assertThrows(
+        IllegalStateException.class,
+        () ->
+            timing.time(
+                "failing",
+                () -> {
+                  throw new IllegalStateException("boom");
+                }));
+
+    assertTrue(timing.headerValue().contains("failing;dur="));
+  }
+
+  @Test
+  void stop_ShouldRecordStageOnlyOnce() {
+    ServerTiming timing = new ServerTiming(ObservationRegistry.NOOP, null);
+
+    ServerTiming.Stage stage = timing.start("queue");
+    stage.stop();
+    stage.stop();
+
+    assertEquals(1, timing.headerValue().split("queue;").length - 1);
+  }
+
+  @Test
+  void from_WithoutBoundTiming_ShouldReturnInactiveInstance() {
+    ServerTiming timing = ServerTiming.from(new MockHttpServletRequest());
+
+    timing.record("ignored", 1_000L);
+
+    assertFalse(timing.isActive());
+    assertFalse(timing.headerValue().contains("ignored"));
+  }
+}